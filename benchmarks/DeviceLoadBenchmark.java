@@ -0,0 +1,326 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Closed-loop load generator for the device endpoints. Every client is a virtual thread that
+ * sends its next request as soon as the previous one completes, so the client count is the number of
+ * requests in flight. Latencies of the measured window are kept in full and sorted for the percentiles.
+ * <p>
+ * While measuring, the server footprint is sampled once a second: live threads and heap/non-heap use from
+ * the actuator metrics endpoint, and the resident set size from /proc when {@code --pid} names the server
+ * process on this host. The report keeps the maximum of each; unavailable values stay empty.
+ * <p>
+ * Runs as a single source file, without a build: {@code java benchmarks/DeviceLoadBenchmark.java --clients 1000}
+ */
+public class DeviceLoadBenchmark {
+
+    private static final Pattern ID = Pattern.compile("\"id\"\\s*:\\s*\"([0-9a-fA-F-]{36})\"");
+    private static final String[] BRANDS = {"SAMSUNG", "APPLE", "GOOGLE", "XIAOMI"};
+    private static final String[] PATCH_STATES = {"AVAILABLE", "INACTIVE"};
+    private static final Pattern MEASUREMENT = Pattern.compile("\\{\\s*\"statistic\"\\s*:\\s*\"VALUE\"\\s*,\\s*\"value\"\\s*:\\s*([-0-9.Ee+]+)");
+    private static final Pattern VM_RSS = Pattern.compile("VmRSS:\\s+(\\d+) kB");
+    private static final String HEADER = "label,clients,requests,errors,throughput_rps,p50_ms,p99_ms,p999_ms,max_ms,threads_max,heap_mb_max,nonheap_mb_max,rss_mb_max";
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parse(args);
+        String baseUrl = options.getOrDefault("base-url", "http://localhost:8080");
+        int clients = Integer.parseInt(options.getOrDefault("clients", "100"));
+        Duration warmup = Duration.ofSeconds(Long.parseLong(options.getOrDefault("warmup", "10")));
+        Duration duration = Duration.ofSeconds(Long.parseLong(options.getOrDefault("duration", "30")));
+        int seed = Integer.parseInt(options.getOrDefault("seed", "1000"));
+        String label = options.getOrDefault("label", "run");
+        int[] mix = parseMix(options.getOrDefault("mix", "get=70,paged=20,patch=10"));
+        String csv = options.get("csv");
+        Long pid = options.containsKey("pid") ? Long.parseLong(options.get("pid")) : null;
+
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+
+        List<String> ids = seed(client, baseUrl, seed);
+        System.out.printf(Locale.ROOT, "%s: %d clients against %s, %d devices, %ds warmup + %ds measured%n",
+                label, clients, baseUrl, ids.size(), warmup.toSeconds(), duration.toSeconds());
+
+        long start = System.nanoTime();
+        long measureFrom = start + warmup.toNanos();
+        long measureUntil = measureFrom + duration.toNanos();
+
+        Recorder[] recorders = new Recorder[clients];
+        Footprint footprint = new Footprint();
+        AtomicBoolean sampling = new AtomicBoolean(true);
+        CountDownLatch done = new CountDownLatch(clients);
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Thread sampler = Thread.ofVirtual().start(() -> sample(client, baseUrl, pid, footprint, sampling, measureFrom, measureUntil));
+            for (int c = 0; c < clients; c++) {
+                Recorder recorder = recorders[c] = new Recorder();
+                executor.submit(() -> {
+                    try {
+                        runClient(client, baseUrl, ids, mix, recorder, measureFrom, measureUntil);
+                    } finally {
+                        done.countDown();
+                    }
+                });
+            }
+            done.await();
+            sampling.set(false);
+            sampler.join();
+        }
+
+        report(label, clients, duration, recorders, footprint, csv);
+    }
+
+    private static void runClient(HttpClient client, String baseUrl, List<String> ids, int[] mix,
+                                  Recorder recorder, long measureFrom, long measureUntil) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (true) {
+            long sent = System.nanoTime();
+            if (sent >= measureUntil) {
+                return;
+            }
+            HttpRequest request = nextRequest(baseUrl, ids, mix, random);
+            boolean ok;
+            try {
+                int status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                ok = status < 400;
+            } catch (IOException e) {
+                ok = false;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            long received = System.nanoTime();
+            if (sent >= measureFrom) {
+                recorder.record(received - sent, ok);
+            }
+        }
+    }
+
+    private static HttpRequest nextRequest(String baseUrl, List<String> ids, int[] mix, ThreadLocalRandom random) {
+        int roll = random.nextInt(mix[0] + mix[1] + mix[2]);
+        String id = ids.get(random.nextInt(ids.size()));
+        if (roll < mix[0]) {
+            return HttpRequest.newBuilder(URI.create(baseUrl + "/api/devices/" + id)).GET().build();
+        }
+        if (roll < mix[0] + mix[1]) {
+            String brand = BRANDS[random.nextInt(BRANDS.length)].toLowerCase(Locale.ROOT);
+            return HttpRequest.newBuilder(URI.create(baseUrl + "/api/devices/brand/" + brand + "/paged?size=20")).GET().build();
+        }
+        String body = "{\"state\":\"" + PATCH_STATES[random.nextInt(PATCH_STATES.length)] + "\"}";
+        return HttpRequest.newBuilder(URI.create(baseUrl + "/api/devices/" + id))
+                .header("Content-Type", "application/json")
+                .method("PATCH", HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private static void sample(HttpClient client, String baseUrl, Long pid, Footprint footprint,
+                               AtomicBoolean sampling, long measureFrom, long measureUntil) {
+        try {
+            Thread.sleep(Duration.ofNanos(Math.max(0, measureFrom - System.nanoTime())));
+            while (sampling.get() && System.nanoTime() < measureUntil) {
+                footprint.threads = max(footprint.threads, metric(client, baseUrl, "jvm.threads.live", null));
+                footprint.heap = max(footprint.heap, metric(client, baseUrl, "jvm.memory.used", "area:heap"));
+                footprint.nonHeap = max(footprint.nonHeap, metric(client, baseUrl, "jvm.memory.used", "area:nonheap"));
+                footprint.rss = max(footprint.rss, residentSetSize(pid));
+                Thread.sleep(1000);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Null when the metrics endpoint is not exposed or does not answer in time
+    private static Double metric(HttpClient client, String baseUrl, String name, String tag) throws InterruptedException {
+        String uri = baseUrl + "/actuator/metrics/" + name + (tag == null ? "" : "?tag=" + tag);
+        try {
+            HttpResponse<String> response = client.send(HttpRequest.newBuilder(URI.create(uri)).timeout(Duration.ofSeconds(5)).GET().build(),
+                    HttpResponse.BodyHandlers.ofString());
+            Matcher matcher = MEASUREMENT.matcher(response.body());
+            return response.statusCode() == 200 && matcher.find() ? Double.parseDouble(matcher.group(1)) : null;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    // Thread stacks live outside the heap, so the resident set is what shows the cost of a thread per connection
+    private static Double residentSetSize(Long pid) {
+        if (pid == null) {
+            return null;
+        }
+        try {
+            Matcher matcher = VM_RSS.matcher(Files.readString(Path.of("/proc", pid.toString(), "status")));
+            return matcher.find() ? Double.parseDouble(matcher.group(1)) * 1024 : null;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private static Double max(Double current, Double sample) {
+        if (sample == null) {
+            return current;
+        }
+        return current == null ? sample : Math.max(current, sample);
+    }
+
+    // Reuses the devices already stored and tops them up to the requested count
+    private static List<String> seed(HttpClient client, String baseUrl, int count) throws Exception {
+        List<String> ids = new ArrayList<>();
+        String page = send(client, HttpRequest.newBuilder(URI.create(baseUrl + "/api/devices/state/available/paged?size=500")).GET().build());
+        Matcher matcher = ID.matcher(page);
+        while (matcher.find() && ids.size() < count) {
+            ids.add(matcher.group(1));
+        }
+        while (ids.size() < count) {
+            String body = "{\"name\":\"bench-" + UUID.randomUUID() + "\",\"brand\":\"" + BRANDS[ids.size() % BRANDS.length]
+                    + "\",\"state\":\"AVAILABLE\"}";
+            String created = send(client, HttpRequest.newBuilder(URI.create(baseUrl + "/api/devices"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(body))
+                    .build());
+            Matcher createdId = ID.matcher(created);
+            if (!createdId.find()) {
+                throw new IllegalStateException("Could not seed devices: " + created);
+            }
+            ids.add(createdId.group(1));
+        }
+        return ids;
+    }
+
+    private static String send(HttpClient client, HttpRequest request) throws Exception {
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() >= 400) {
+            throw new IllegalStateException(request.uri() + " answered " + response.statusCode() + ": " + response.body());
+        }
+        return response.body();
+    }
+
+    private static void report(String label, int clients, Duration duration, Recorder[] recorders, Footprint footprint, String csv) {
+        long errors = 0;
+        int total = 0;
+        for (Recorder recorder : recorders) {
+            errors += recorder.errors;
+            total += recorder.size;
+        }
+        long[] latencies = new long[total];
+        int offset = 0;
+        for (Recorder recorder : recorders) {
+            System.arraycopy(recorder.latencies, 0, latencies, offset, recorder.size);
+            offset += recorder.size;
+        }
+        Arrays.sort(latencies);
+
+        double throughput = total / (double) duration.toSeconds();
+        String line = String.format(Locale.ROOT, "%s,%d,%d,%d,%.1f,%.2f,%.2f,%.2f,%.2f,%s,%s,%s,%s",
+                label, clients, total, errors, throughput,
+                millis(percentile(latencies, 0.50)), millis(percentile(latencies, 0.99)),
+                millis(percentile(latencies, 0.999)), millis(total == 0 ? 0 : latencies[total - 1]),
+                format(footprint.threads, 1), format(footprint.heap, 1 << 20),
+                format(footprint.nonHeap, 1 << 20), format(footprint.rss, 1 << 20));
+
+        System.out.println(HEADER);
+        System.out.println(line);
+        if (csv != null) {
+            append(Path.of(csv), line);
+        }
+    }
+
+    private static void append(Path csv, String line) {
+        try {
+            if (Files.notExists(csv)) {
+                Files.writeString(csv, HEADER + "\n");
+            }
+            Files.writeString(csv, line + "\n", StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String format(Double value, double unit) {
+        return value == null ? "" : String.format(Locale.ROOT, "%.0f", value / unit);
+    }
+
+    private static long percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        return sorted[Math.min(sorted.length - 1, (int) Math.ceil(quantile * sorted.length) - 1)];
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    private static int[] parseMix(String mix) {
+        Map<String, Integer> weights = new LinkedHashMap<>(Map.of("get", 0, "paged", 0, "patch", 0));
+        for (String part : mix.split(",")) {
+            String[] pair = part.split("=");
+            if (!weights.containsKey(pair[0].trim())) {
+                throw new IllegalArgumentException("Unknown request type in --mix: " + pair[0]);
+            }
+            weights.put(pair[0].trim(), Integer.parseInt(pair[1].trim()));
+        }
+        int[] result = {weights.get("get"), weights.get("paged"), weights.get("patch")};
+        if (result[0] + result[1] + result[2] <= 0) {
+            throw new IllegalArgumentException("--mix needs at least one positive weight");
+        }
+        return result;
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new LinkedHashMap<>();
+        for (int i = 0; i < args.length; i++) {
+            if (!args[i].startsWith("--") || i + 1 >= args.length) {
+                throw new IllegalArgumentException("Expected --name value pairs, got: " + String.join(" ", args));
+            }
+            options.put(args[i].substring(2), args[++i]);
+        }
+        return options;
+    }
+
+    // Written by the sampler thread only and read after it has been joined
+    private static final class Footprint {
+        Double threads;
+        Double heap;
+        Double nonHeap;
+        Double rss;
+    }
+
+    // One per client, so recording needs no synchronization
+    private static final class Recorder {
+        long[] latencies = new long[1024];
+        int size;
+        long errors;
+
+        void record(long nanos, boolean ok) {
+            if (!ok) {
+                errors++;
+            }
+            if (size == latencies.length) {
+                latencies = Arrays.copyOf(latencies, size * 2);
+            }
+            latencies[size++] = nanos;
+        }
+    }
+}
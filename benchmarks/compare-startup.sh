@@ -0,0 +1,122 @@
+#!/usr/bin/env bash
+# Compares startup of the packaged jar, the extracted jar with a CDS archive, the same with Spring AOT, and
+# the native image: time from launch to the first successful API request, and the resident set at that point.
+#
+#   ./mvnw -Paot -DskipTests package   # a jar without -Paot runs every mode but aot
+#   ./mvnw -Pnative native:compile     # optional, needs GraalVM; adds the native mode
+#   docker compose up -d               # when PROFILE=prod (the default)
+#   benchmarks/compare-startup.sh
+#
+# Environment: PROFILE (prod), MODES (every mode the build supports), RUNS (5), PORT (8080),
+# URL (/api/devices/paged?size=1), RESULTS (benchmarks/startup-<timestamp>.csv), JAVA_OPTS.
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+
+PROFILE=${PROFILE:-prod}
+RUNS=${RUNS:-5}
+PORT=${PORT:-8080}
+URL=${URL:-/api/devices/paged?size=1}
+RESULTS=${RESULTS:-benchmarks/startup-$(date +%Y%m%d-%H%M%S).csv}
+JAR=$(ls target/DevicesAPI-*.jar 2>/dev/null | grep -v plain | head -n 1 || true)
+NATIVE=target/DevicesAPI
+WORK=target/startup
+
+if [[ -z "$JAR" ]]; then
+  echo "No application jar in target/, run ./mvnw -DskipTests package first" >&2
+  exit 1
+fi
+
+HAS_AOT=false
+if unzip -Z1 "$JAR" | grep 'DevicesApiApplication__ApplicationContextInitializer' > /dev/null; then
+  HAS_AOT=true
+fi
+
+if [[ -z "${MODES:-}" ]]; then
+  MODES="jar cds"
+  [[ "$HAS_AOT" == true ]] && MODES="$MODES aot"
+  [[ -x "$NATIVE" ]] && MODES="$MODES native"
+fi
+
+APP_PID=
+stop_app() {
+  if [[ -n "$APP_PID" ]]; then
+    kill "$APP_PID" 2>/dev/null || true
+    wait "$APP_PID" 2>/dev/null || true
+    APP_PID=
+  fi
+}
+trap stop_app EXIT
+
+# Same steps as the Dockerfile: extract once, then one training run per archive (AOT loads other classes)
+rm -rf "$WORK"
+java -Djarmode=tools -jar "$JAR" extract --destination "$WORK"
+APP=$WORK/$(basename "$JAR")
+train() {
+  local archive=$1 aot=$2
+  java -XX:ArchiveClassesAtExit="$WORK/$archive" -Dspring.aot.enabled="$aot" -Dspring.context.exit=onRefresh \
+    -jar "$APP" --spring.profiles.active=cds-training > "$WORK/train-$archive.log" 2>&1
+}
+
+# exec, so that $! is the application's own pid and its /proc entry holds the RSS
+launch() {
+  local mode=$1 args=(--spring.profiles.active="$PROFILE,fast-start" --server.port="$PORT")
+  case "$mode" in
+    jar) exec java ${JAVA_OPTS:-} -jar "$JAR" --spring.profiles.active="$PROFILE" --server.port="$PORT" ;;
+    cds) exec java ${JAVA_OPTS:-} -XX:SharedArchiveFile="$WORK/app.jsa" -jar "$APP" "${args[@]}" ;;
+    aot) exec java ${JAVA_OPTS:-} -XX:SharedArchiveFile="$WORK/app-aot.jsa" -Dspring.aot.enabled=true -jar "$APP" "${args[@]}" ;;
+    native) exec "$NATIVE" "${args[@]}" ;;
+  esac
+}
+
+echo "mode,run,first_request_ms,rss_mb" > "$RESULTS"
+
+for mode in $MODES; do
+  case "$mode" in
+    jar) ;;
+    cds) train app.jsa false ;;
+    aot)
+      if [[ "$HAS_AOT" != true ]]; then
+        echo "$JAR was not built with -Paot" >&2; exit 1
+      fi
+      train app-aot.jsa true ;;
+    native)
+      if [[ ! -x "$NATIVE" ]]; then
+        echo "No native executable at $NATIVE, run ./mvnw -Pnative native:compile first" >&2; exit 1
+      fi ;;
+    *) echo "Unknown mode $mode" >&2; exit 1 ;;
+  esac
+
+  for run in $(seq 1 "$RUNS"); do
+    started=$(date +%s%N)
+    launch "$mode" > "benchmarks/startup-$mode.log" 2>&1 &
+    APP_PID=$!
+
+    # A real request through the controller, service and database, not just the health endpoint
+    until curl -sf -o /dev/null "http://localhost:$PORT$URL"; do
+      if ! kill -0 "$APP_PID" 2>/dev/null; then
+        echo "Application failed to start, see benchmarks/startup-$mode.log" >&2
+        exit 1
+      fi
+      sleep 0.02
+    done
+    elapsed_ms=$(( ($(date +%s%N) - started) / 1000000 ))
+    rss_kb=$(awk '/^VmRSS:/ { print $2 }' "/proc/$APP_PID/status" 2>/dev/null || true)
+    rss_mb=${rss_kb:+$(( rss_kb / 1024 ))}
+
+    echo "$mode,$run,$elapsed_ms,$rss_mb" >> "$RESULTS"
+    echo "$mode run $run: first request after ${elapsed_ms} ms, RSS ${rss_mb:-?} MB"
+    stop_app
+  done
+done
+
+echo
+# Median of the runs per mode
+awk -F, 'NR > 1 { ms[$1] = ms[$1] " " $3; rss[$1] = rss[$1] " " $4; if (!($1 in seen)) { seen[$1]; order[++n] = $1 } }
+  function median(list,   v, c, i, j, t) {
+    c = split(list, v, " ")
+    for (i = 2; i <= c; i++) for (j = i; j > 1 && v[j] + 0 < v[j - 1] + 0; j--) { t = v[j]; v[j] = v[j - 1]; v[j - 1] = t }
+    return c % 2 ? v[(c + 1) / 2] : (v[c / 2] + v[c / 2 + 1]) / 2
+  }
+  END { printf "%-8s %22s %10s\n", "mode", "first_request_ms (p50)", "rss_mb"
+        for (i = 1; i <= n; i++) printf "%-8s %22s %10s\n", order[i], median(ms[order[i]]), median(rss[order[i]]) }' "$RESULTS"
@@ -0,0 +1,85 @@
+#!/usr/bin/env bash
+# Compares platform threads, virtual threads and the reactive stack (Netty event loop + R2DBC) on the same
+# build, database and load, including each server's thread count and memory footprint.
+#
+#   ./mvnw -Preactive -DskipTests package   # without -Preactive the jar has no reactive mode
+#   docker compose up -d            # when PROFILE=prod (the default)
+#   benchmarks/compare-threading.sh
+#
+# Environment: PROFILE (prod), MODES ("platform virtual reactive"), CLIENTS ("100 1000 10000"), WARMUP (10),
+# DURATION (30), MIX, PORT (8080), RESULTS (benchmarks/results-<timestamp>.csv), JAVA_OPTS.
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+
+PROFILE=${PROFILE:-prod}
+MODES=${MODES:-"platform virtual reactive"}
+CLIENTS=${CLIENTS:-"100 1000 10000"}
+WARMUP=${WARMUP:-10}
+DURATION=${DURATION:-30}
+MIX=${MIX:-"get=70,paged=20,patch=10"}
+PORT=${PORT:-8080}
+RESULTS=${RESULTS:-benchmarks/results-$(date +%Y%m%d-%H%M%S).csv}
+JAR=$(ls target/DevicesAPI-*.jar 2>/dev/null | grep -v plain | head -n 1 || true)
+
+if [[ -z "$JAR" ]]; then
+  echo "No application jar in target/, run ./mvnw -Preactive -DskipTests package first" >&2
+  exit 1
+fi
+
+# 10k clients need 10k sockets on each side
+ulimit -n 65536 2>/dev/null || echo "Could not raise the open file limit; large client counts may fail" >&2
+
+APP_PID=
+stop_app() {
+  if [[ -n "$APP_PID" ]]; then
+    kill "$APP_PID" 2>/dev/null || true
+    wait "$APP_PID" 2>/dev/null || true
+    APP_PID=
+  fi
+}
+trap stop_app EXIT
+
+for mode in $MODES; do
+  case "$mode" in
+    platform) profiles=$PROFILE ;;
+    virtual) profiles="$PROFILE,virtual-threads" ;;
+    reactive) profiles="$PROFILE,reactive" ;;
+    *) echo "Unknown mode $mode" >&2; exit 1 ;;
+  esac
+
+  # Same connection limits for both Tomcat modes, so only the threading model differs; Netty has no connection cap
+  java ${JAVA_OPTS:-} -jar "$JAR" \
+    --spring.profiles.active="$profiles" \
+    --server.port="$PORT" \
+    --server.tomcat.max-connections=20000 \
+    --server.tomcat.accept-count=1000 \
+    --management.endpoints.web.exposure.include=health,metrics \
+    > "benchmarks/app-$mode.log" 2>&1 &
+  APP_PID=$!
+
+  until curl -sf "http://localhost:$PORT/actuator/health" > /dev/null; do
+    if ! kill -0 "$APP_PID" 2>/dev/null; then
+      echo "Application failed to start, see benchmarks/app-$mode.log" >&2
+      exit 1
+    fi
+    sleep 1
+  done
+
+  for clients in $CLIENTS; do
+    java benchmarks/DeviceLoadBenchmark.java \
+      --base-url "http://localhost:$PORT" \
+      --clients "$clients" \
+      --warmup "$WARMUP" \
+      --duration "$DURATION" \
+      --mix "$MIX" \
+      --label "$mode" \
+      --pid "$APP_PID" \
+      --csv "$RESULTS"
+  done
+
+  stop_app
+done
+
+echo
+column -s, -t < "$RESULTS" 2>/dev/null || cat "$RESULTS"
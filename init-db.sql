@@ -7,15 +7,39 @@ CREATE TABLE IF NOT EXISTS devices (
     name VARCHAR(255) NOT NULL UNIQUE,
     brand VARCHAR(100) NOT NULL,
     state VARCHAR(50) NOT NULL,
-    creation_time TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+    creation_time TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    version BIGINT NOT NULL DEFAULT 0
 );
 
+-- Optimistic locking version, also served as the ETag; added in place on existing databases
+ALTER TABLE devices ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+
 -- Create an index on brand for better query performance
 CREATE INDEX IF NOT EXISTS idx_devices_brand ON devices(brand);
 
 -- Create an index on state for better query performance
 CREATE INDEX IF NOT EXISTS idx_devices_state ON devices(state);
 
+-- Composite indexes backing the keyset (cursor) pagination; each one matches a filter + sort order
+CREATE INDEX IF NOT EXISTS idx_devices_creation_time_id ON devices(creation_time, id);
+CREATE INDEX IF NOT EXISTS idx_devices_brand_creation_time_id ON devices(brand, creation_time, id);
+CREATE INDEX IF NOT EXISTS idx_devices_state_creation_time_id ON devices(state, creation_time, id);
+CREATE INDEX IF NOT EXISTS idx_devices_brand_name ON devices(brand, name);
+CREATE INDEX IF NOT EXISTS idx_devices_state_name ON devices(state, name);
+
+-- Combined search: brand/state IN lists plus a creation_time range; the covering columns allow index-only scans
+CREATE INDEX IF NOT EXISTS idx_devices_brand_state_creation_time_id ON devices(brand, state, creation_time, id) INCLUDE (name, version);
+-- Left-anchored name prefix searches (LIKE 'abc%') regardless of the database collation
+CREATE INDEX IF NOT EXISTS idx_devices_name_pattern ON devices(name varchar_pattern_ops);
+
+-- Change versions of the device lists, shared by every instance; the application adds the rows
+CREATE TABLE IF NOT EXISTS device_list_versions (
+    partition_key VARCHAR(64) PRIMARY KEY,
+    generation BIGINT NOT NULL,
+    version BIGINT NOT NULL,
+    last_modified TIMESTAMP WITH TIME ZONE NOT NULL
+);
+
 -- Insert some sample data
 INSERT INTO devices (name, brand, state) VALUES
     ('iPhone 15 Pro', 'APPLE', 'AVAILABLE'),
@@ -0,0 +1,61 @@
+package com.devicesapi.benchmarks;
+
+import com.devicesapi.domain.enums.Brand;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Path variable parsing as DeviceController#getDeviceByState and #getDeviceByBrand do it:
+ * upper-case, {@code valueOf}, and a ResponseStatusException for unknown values. The unknown
+ * case pays for two exceptions with stack traces.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DeviceEnumParsingBenchmark {
+
+    // One state per path variable, so each benchmark only runs over its own values
+    @State(Scope.Benchmark)
+    public static class StatePath {
+        @Param({"available", "IN_USE", "unknown"})
+        public String value;
+    }
+
+    @State(Scope.Benchmark)
+    public static class BrandPath {
+        @Param({"samsung", "APPLE", "nokia"})
+        public String value;
+    }
+
+    @Benchmark
+    public Object parseState(StatePath state) {
+        try {
+            return com.devicesapi.domain.enums.State.valueOf(state.value.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return new ResponseStatusException(HttpStatus.BAD_REQUEST, "Enum Value Not Found");
+        }
+    }
+
+    @Benchmark
+    public Object parseBrand(BrandPath brand) {
+        try {
+            return Brand.valueOf(brand.value.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return new ResponseStatusException(HttpStatus.BAD_REQUEST, "Enum Value Not Found");
+        }
+    }
+}
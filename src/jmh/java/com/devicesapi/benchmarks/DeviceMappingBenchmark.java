@@ -0,0 +1,72 @@
+package com.devicesapi.benchmarks;
+
+import com.devicesapi.application.dto.DeviceRequestDto;
+import com.devicesapi.application.dto.DeviceResponseDto;
+import com.devicesapi.domain.entities.Device;
+import com.devicesapi.domain.enums.Brand;
+import com.devicesapi.infrastructure.persistence.entities.DeviceEntity;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The conversions every single-device request makes between the web, domain and JPA representations.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DeviceMappingBenchmark {
+
+    private DeviceRequestDto request;
+    private Device device;
+    private DeviceEntity entity;
+
+    @Setup
+    public void setUp() {
+        request = new DeviceRequestDto("Galaxy S24", Brand.SAMSUNG, com.devicesapi.domain.enums.State.AVAILABLE);
+        device = Device.createWithIdAndTime(UUID.randomUUID(), "Galaxy S24", Brand.SAMSUNG,
+                com.devicesapi.domain.enums.State.AVAILABLE, LocalDateTime.now()).withVersion(3L);
+        entity = DeviceEntity.fromDomain(device);
+    }
+
+    // Includes the LocalDateTime.now() call of Device.createNew
+    @Benchmark
+    public Device requestToDomain() {
+        return request.toDomain();
+    }
+
+    @Benchmark
+    public DeviceEntity entityFromDomain() {
+        return DeviceEntity.fromDomain(device);
+    }
+
+    @Benchmark
+    public Device entityToDomain() {
+        return entity.toDomain();
+    }
+
+    @Benchmark
+    public DeviceResponseDto responseFromDomain() {
+        return DeviceResponseDto.fromDomain(device);
+    }
+
+    // The whole read path of GET /api/devices/{id} short of JSON: entity -> domain -> response
+    @Benchmark
+    public DeviceResponseDto entityToResponse() {
+        return DeviceResponseDto.fromDomain(entity.toDomain());
+    }
+}
@@ -0,0 +1,97 @@
+package com.devicesapi.benchmarks;
+
+import com.devicesapi.DevicesApiApplication;
+import com.devicesapi.application.dto.DeviceResponseDto;
+import com.devicesapi.domain.enums.Brand;
+import com.devicesapi.infrastructure.adapters.DevicePersistence;
+import com.devicesapi.infrastructure.persistence.entities.DeviceEntity;
+import com.devicesapi.infrastructure.persistence.repositories.DeviceRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * List reads against an in-memory H2 database: managed entities mapped twice (the former path of
+ * DevicePersistence#findAll) against the constructor projection it uses now. Both end at the
+ * response DTOs the controller writes.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DeviceReadPathBenchmark {
+
+    @Param({"10000"})
+    public int rows;
+
+    private ConfigurableApplicationContext context;
+    private DeviceRepository deviceRepository;
+    private DevicePersistence devicePersistence;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(DevicesApiApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles("test")
+                // Arguments, so that they win over application.yml
+                .run("--spring.datasource.url=jdbc:h2:mem:readpath;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+                        "--spring.jpa.show-sql=false",
+                        "--spring.docker.compose.enabled=false",
+                        "--devices.cache.enabled=false",
+                        "--devices.index.enabled=false",
+                        "--logging.level.root=WARN",
+                        "--logging.level.com.devicesapi=WARN",
+                        "--logging.level.org.hibernate.SQL=WARN");
+        deviceRepository = context.getBean(DeviceRepository.class);
+        devicePersistence = context.getBean(DevicePersistence.class);
+
+        Brand[] brands = Brand.values();
+        LocalDateTime now = LocalDateTime.now();
+        List<DeviceEntity> entities = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            entities.add(DeviceEntity.createWithTime("Device " + i, brands[i % brands.length],
+                    com.devicesapi.domain.enums.State.AVAILABLE, now.minusSeconds(i)));
+        }
+        deviceRepository.saveAll(entities);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<DeviceResponseDto> managedEntities() {
+        return deviceRepository.findAll().stream()
+                .map(DeviceEntity::toDomain)
+                .map(DeviceResponseDto::fromDomain)
+                .toList();
+    }
+
+    @Benchmark
+    public List<DeviceResponseDto> constructorProjection() {
+        return devicePersistence.findAll().stream()
+                .map(DeviceResponseDto::fromDomain)
+                .toList();
+    }
+}
@@ -0,0 +1,158 @@
+package com.devicesapi.benchmarks;
+
+import com.devicesapi.application.dto.DeviceRequestDto;
+import com.devicesapi.application.dto.DeviceResponseDto;
+import com.devicesapi.domain.entities.Device;
+import com.devicesapi.domain.enums.Brand;
+import com.devicesapi.infrastructure.web.streaming.DeviceColumnarReader;
+import com.devicesapi.infrastructure.web.streaming.DeviceColumnarWriter;
+import com.devicesapi.infrastructure.web.streaming.DeviceJsonWriter;
+import com.devicesapi.infrastructure.web.streaming.NdjsonDeviceWriter;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON writing and reading of devices with the ObjectMapper defaults Spring Boot applies
+ * (JavaTimeModule, ISO dates). List sizes match a large unpaged list endpoint response.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DeviceSerializationBenchmark {
+
+    private static final int LIST_SIZE = 10_000;
+
+    private ObjectMapper objectMapper;
+    private DeviceResponseDto response;
+    private List<Device> devices;
+    private List<DeviceResponseDto> responses;
+    private byte[] requestJson;
+    private byte[] listJson;
+    private byte[] listColumnar;
+
+    @Setup
+    public void setUp() throws IOException {
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+
+        Brand[] brands = Brand.values();
+        com.devicesapi.domain.enums.State[] states = com.devicesapi.domain.enums.State.values();
+        LocalDateTime now = LocalDateTime.now();
+        devices = new ArrayList<>(LIST_SIZE);
+        for (int i = 0; i < LIST_SIZE; i++) {
+            devices.add(Device.createWithIdAndTime(UUID.randomUUID(), "Device " + i, brands[i % brands.length],
+                    states[i % states.length], now.minusSeconds(i)));
+        }
+        responses = devices.stream().map(DeviceResponseDto::fromDomain).toList();
+        response = responses.get(0);
+        requestJson = "{\"name\":\"Galaxy S24\",\"brand\":\"SAMSUNG\",\"state\":\"AVAILABLE\"}".getBytes(StandardCharsets.UTF_8);
+
+        // Only a fair comparison while both write the same response
+        ByteArrayOutputStream direct = new ByteArrayOutputStream();
+        writeDirect(direct);
+        if (!Arrays.equals(direct.toByteArray(), mapAndWriteDeviceList())) {
+            throw new IllegalStateException("DeviceJsonWriter output differs from the ObjectMapper's");
+        }
+        listJson = direct.toByteArray();
+        ByteArrayOutputStream columnar = new ByteArrayOutputStream();
+        writeColumnar(columnar);
+        listColumnar = columnar.toByteArray();
+        System.out.printf("%n%d devices: %d bytes as JSON, %d bytes columnar%n", LIST_SIZE, listJson.length, listColumnar.length);
+    }
+
+    @Benchmark
+    public byte[] writeDevice() throws IOException {
+        return objectMapper.writeValueAsBytes(response);
+    }
+
+    @Benchmark
+    public DeviceRequestDto readDeviceRequest() throws IOException {
+        return objectMapper.readValue(requestJson, DeviceRequestDto.class);
+    }
+
+    @Benchmark
+    public byte[] writeDeviceList() throws IOException {
+        return objectMapper.writeValueAsBytes(responses);
+    }
+
+    // What a list endpoint does per request: map every device, then write the array
+    @Benchmark
+    public byte[] mapAndWriteDeviceList() throws IOException {
+        return objectMapper.writeValueAsBytes(devices.stream().map(DeviceResponseDto::fromDomain).toList());
+    }
+
+    // The list endpoints before DeviceJsonWriter, and after: both straight to the response stream
+    @Benchmark
+    public void mapAndStreamDeviceList() throws IOException {
+        objectMapper.writeValue(OutputStream.nullOutputStream(), devices.stream().map(DeviceResponseDto::fromDomain).toList());
+    }
+
+    @Benchmark
+    public void streamDeviceListDirect() throws IOException {
+        writeDirect(OutputStream.nullOutputStream());
+    }
+
+    @Benchmark
+    public void streamDeviceListColumnar() throws IOException {
+        writeColumnar(OutputStream.nullOutputStream());
+    }
+
+    // What a Java client does with each response
+    @Benchmark
+    public List<DeviceResponseDto> readDeviceListJson() throws IOException {
+        return objectMapper.readValue(listJson, new TypeReference<>() {
+        });
+    }
+
+    @Benchmark
+    public List<Device> readDeviceListColumnar() throws IOException {
+        return DeviceColumnarReader.readAll(new ByteArrayInputStream(listColumnar));
+    }
+
+    @Benchmark
+    public void writeNdjsonExport() throws IOException {
+        NdjsonDeviceWriter writer = new NdjsonDeviceWriter(objectMapper, OutputStream.nullOutputStream());
+        devices.forEach(writer);
+        writer.finish();
+    }
+
+    private void writeDirect(OutputStream outputStream) throws IOException {
+        DeviceJsonWriter writer = new DeviceJsonWriter(outputStream);
+        writer.writeArray(devices);
+        writer.flush();
+    }
+
+    private void writeColumnar(OutputStream outputStream) throws IOException {
+        DeviceColumnarWriter writer = new DeviceColumnarWriter(outputStream);
+        writer.writeAll(devices);
+        writer.finish();
+    }
+}
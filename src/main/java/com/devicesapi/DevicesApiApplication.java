@@ -1,9 +1,12 @@
 package com.devicesapi;
 
+import com.devicesapi.infrastructure.config.DeviceRuntimeHints;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.ImportRuntimeHints;
 
 @SpringBootApplication
+@ImportRuntimeHints(DeviceRuntimeHints.class)
 public class DevicesApiApplication {
 
     public static void main(String[] args) {
@@ -0,0 +1,22 @@
+package com.devicesapi.application.dto;
+
+import com.devicesapi.domain.batch.DeviceBatchOperation;
+import com.devicesapi.domain.batch.DeviceBatchOperationType;
+import com.devicesapi.domain.entities.Device;
+import com.devicesapi.domain.enums.Brand;
+import com.devicesapi.domain.enums.State;
+
+import java.util.UUID;
+
+public record DeviceBatchOperationDto(
+        DeviceBatchOperationType type,
+        UUID id,
+        String name,
+        Brand brand,
+        State state
+) {
+    public DeviceBatchOperation toDomain() {
+        Device device = type == DeviceBatchOperationType.DELETE ? null : Device.createNew(this.name, this.brand, this.state);
+        return new DeviceBatchOperation(this.type, this.id, device);
+    }
+}
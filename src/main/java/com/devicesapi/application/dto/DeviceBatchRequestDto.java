@@ -0,0 +1,18 @@
+package com.devicesapi.application.dto;
+
+import com.devicesapi.domain.batch.DeviceBatchRequest;
+
+import java.util.List;
+
+public record DeviceBatchRequestDto(
+        Integer chunkSize,
+        List<DeviceBatchOperationDto> operations
+) {
+    public DeviceBatchRequest toDomain() {
+        return DeviceBatchRequest.of(
+                operations == null ? null : operations.stream()
+                        .map(operation -> operation == null ? null : operation.toDomain())
+                        .toList(),
+                chunkSize);
+    }
+}
@@ -0,0 +1,28 @@
+package com.devicesapi.application.dto;
+
+import com.devicesapi.domain.batch.DeviceBatchResult;
+import com.devicesapi.domain.batch.DeviceBatchStatus;
+
+import java.util.List;
+
+public record DeviceBatchResponseDto(
+        long succeeded,
+        long rejected,
+        long failed,
+        List<DeviceBatchResultDto> results
+) {
+    public static DeviceBatchResponseDto fromDomain(List<DeviceBatchResult> results) {
+        return new DeviceBatchResponseDto(
+                count(results, DeviceBatchStatus.SUCCEEDED),
+                count(results, DeviceBatchStatus.REJECTED),
+                count(results, DeviceBatchStatus.FAILED),
+                results.stream()
+                        .map(DeviceBatchResultDto::fromDomain)
+                        .toList()
+        );
+    }
+
+    private static long count(List<DeviceBatchResult> results, DeviceBatchStatus status) {
+        return results.stream().filter(result -> result.status() == status).count();
+    }
+}
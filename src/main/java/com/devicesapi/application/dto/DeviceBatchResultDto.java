@@ -0,0 +1,25 @@
+package com.devicesapi.application.dto;
+
+import com.devicesapi.domain.batch.DeviceBatchOperationType;
+import com.devicesapi.domain.batch.DeviceBatchResult;
+import com.devicesapi.domain.batch.DeviceBatchStatus;
+
+import java.util.UUID;
+
+public record DeviceBatchResultDto(
+        int index,
+        DeviceBatchOperationType type,
+        UUID id,
+        DeviceBatchStatus status,
+        String message
+) {
+    public static DeviceBatchResultDto fromDomain(DeviceBatchResult result) {
+        return new DeviceBatchResultDto(
+                result.index(),
+                result.type(),
+                result.id(),
+                result.status(),
+                result.message()
+        );
+    }
+}
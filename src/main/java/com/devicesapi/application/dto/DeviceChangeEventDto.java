@@ -0,0 +1,44 @@
+package com.devicesapi.application.dto;
+
+import com.devicesapi.domain.changes.DeviceChangeEvent;
+import com.devicesapi.domain.entities.Device;
+import com.devicesapi.domain.enums.Brand;
+import com.devicesapi.domain.enums.DeviceChangeType;
+import com.devicesapi.domain.enums.State;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+// Fields the change did not carry are null: patches only hold what was patched, deletes only the id.
+// previousBrand and previousState are the values before the change, so filtered subscribers see a device leave
+public record DeviceChangeEventDto(
+        String generation,
+        long sequence,
+        DeviceChangeType type,
+        Instant occurredAt,
+        UUID id,
+        String name,
+        Brand brand,
+        State state,
+        LocalDateTime creationTime,
+        Brand previousBrand,
+        State previousState
+) {
+    public static DeviceChangeEventDto fromDomain(DeviceChangeEvent event) {
+        Device device = event.change().device();
+        return new DeviceChangeEventDto(
+                event.id().generation(),
+                event.sequence(),
+                event.change().type(),
+                event.occurredAt(),
+                event.change().id(),
+                device == null ? null : device.getName(),
+                device == null ? null : device.getBrand(),
+                device == null ? null : device.getState(),
+                device == null ? null : device.getCreationTime(),
+                event.change().previousBrand(),
+                event.change().previousState()
+        );
+    }
+}
@@ -0,0 +1,26 @@
+package com.devicesapi.application.dto;
+
+import com.devicesapi.domain.entities.Device;
+import com.fasterxml.jackson.annotation.JsonValue;
+
+import java.util.List;
+
+/**
+ * A list endpoint response: the devices themselves, written straight to the response by
+ * {@link com.devicesapi.infrastructure.web.streaming.DeviceListHttpMessageConverter}. Any other
+ * Jackson path sees the usual array of {@link DeviceResponseDto}.
+ */
+public record DeviceListResponseDto(
+        List<Device> devices
+) {
+    public static DeviceListResponseDto fromDomain(List<Device> devices) {
+        return new DeviceListResponseDto(devices);
+    }
+
+    @JsonValue
+    public List<DeviceResponseDto> items() {
+        return devices.stream()
+                .map(DeviceResponseDto::fromDomain)
+                .toList();
+    }
+}
@@ -0,0 +1,9 @@
+package com.devicesapi.application.dto;
+
+import java.util.List;
+import java.util.UUID;
+
+public record DeviceLookupRequestDto(
+        List<UUID> ids
+) {
+}
@@ -0,0 +1,20 @@
+package com.devicesapi.application.dto;
+
+import com.devicesapi.domain.queries.DeviceLookup;
+
+import java.util.List;
+import java.util.UUID;
+
+public record DeviceLookupResponseDto(
+        List<DeviceResponseDto> devices,
+        List<UUID> missing
+) {
+    public static DeviceLookupResponseDto fromDomain(DeviceLookup lookup) {
+        return new DeviceLookupResponseDto(
+                lookup.devices().stream()
+                        .map(DeviceResponseDto::fromDomain)
+                        .toList(),
+                lookup.missing()
+        );
+    }
+}
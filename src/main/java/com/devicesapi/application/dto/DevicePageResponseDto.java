@@ -0,0 +1,19 @@
+package com.devicesapi.application.dto;
+
+import com.devicesapi.domain.queries.DevicePage;
+
+import java.util.List;
+
+public record DevicePageResponseDto(
+        List<DeviceResponseDto> items,
+        String next
+) {
+    public static DevicePageResponseDto fromDomain(DevicePage page) {
+        return new DevicePageResponseDto(
+                page.items().stream()
+                        .map(DeviceResponseDto::fromDomain)
+                        .toList(),
+                page.hasNext() ? page.next().encode() : null
+        );
+    }
+}
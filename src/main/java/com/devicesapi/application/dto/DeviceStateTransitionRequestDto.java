@@ -0,0 +1,17 @@
+package com.devicesapi.application.dto;
+
+import com.devicesapi.domain.batch.DeviceStateTransition;
+import com.devicesapi.domain.enums.Brand;
+import com.devicesapi.domain.enums.State;
+
+public record DeviceStateTransitionRequestDto(
+        Brand brand,
+        State from,
+        State to,
+        Integer chunkSize
+) {
+    public DeviceStateTransition toDomain() {
+        return new DeviceStateTransition(this.brand, this.from, this.to,
+                this.chunkSize == null ? DeviceStateTransition.DEFAULT_CHUNK_SIZE : this.chunkSize);
+    }
+}
@@ -0,0 +1,12 @@
+package com.devicesapi.application.dto;
+
+import com.devicesapi.domain.enums.Brand;
+import com.devicesapi.domain.enums.State;
+
+public record DeviceStateTransitionResponseDto(
+        Brand brand,
+        State from,
+        State to,
+        long affected
+) {
+}
@@ -0,0 +1,16 @@
+package com.devicesapi.application.dto;
+
+import com.devicesapi.domain.enums.Brand;
+import com.devicesapi.domain.enums.State;
+import com.devicesapi.domain.queries.DeviceCounts;
+
+import java.util.Map;
+
+public record DeviceStatsResponseDto(
+        long total,
+        Map<Brand, Map<State, Long>> counts
+) {
+    public static DeviceStatsResponseDto fromDomain(DeviceCounts counts) {
+        return new DeviceStatsResponseDto(counts.total(), counts.counts());
+    }
+}
@@ -0,0 +1,16 @@
+package com.devicesapi.domain.batch;
+
+import com.devicesapi.domain.entities.Device;
+
+import java.util.UUID;
+
+/**
+ * One entry of a batch. {@code id} targets the existing device for update, patch and delete;
+ * {@code device} carries the values for create, update and patch.
+ */
+public record DeviceBatchOperation(
+        DeviceBatchOperationType type,
+        UUID id,
+        Device device
+) {
+}
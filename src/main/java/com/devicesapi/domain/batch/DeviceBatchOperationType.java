@@ -0,0 +1,8 @@
+package com.devicesapi.domain.batch;
+
+public enum DeviceBatchOperationType {
+    CREATE,
+    UPDATE,
+    PATCH,
+    DELETE
+}
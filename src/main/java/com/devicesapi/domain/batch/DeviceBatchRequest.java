@@ -0,0 +1,38 @@
+package com.devicesapi.domain.batch;
+
+import com.devicesapi.domain.exception.DeviceBadRequestException;
+
+import java.util.List;
+
+/**
+ * Operations to apply in order. Every {@code chunkSize} operations run in their own transaction;
+ * without a chunk size the whole batch is one transaction.
+ */
+public record DeviceBatchRequest(
+        List<DeviceBatchOperation> operations,
+        int chunkSize
+) {
+    public static final int MAX_OPERATIONS = 10_000;
+
+    public DeviceBatchRequest {
+        if (operations == null || operations.isEmpty()) {
+            throw new DeviceBadRequestException("Batch must contain at least one operation");
+        }
+        if (operations.size() > MAX_OPERATIONS) {
+            throw new DeviceBadRequestException("Batch must not contain more than " + MAX_OPERATIONS + " operations");
+        }
+        if (operations.stream().anyMatch(operation -> operation == null || operation.type() == null)) {
+            throw new DeviceBadRequestException("Every batch operation needs a type");
+        }
+        if (chunkSize < 1) {
+            throw new DeviceBadRequestException("Chunk size must be at least 1");
+        }
+        operations = List.copyOf(operations);
+        chunkSize = Math.min(chunkSize, operations.size());
+    }
+
+    public static DeviceBatchRequest of(List<DeviceBatchOperation> operations, Integer chunkSize) {
+        // Clamped to the batch size, so no chunk size means a single transaction
+        return new DeviceBatchRequest(operations, chunkSize == null ? MAX_OPERATIONS : chunkSize);
+    }
+}
@@ -0,0 +1,40 @@
+package com.devicesapi.domain.batch;
+
+import java.util.UUID;
+
+/**
+ * Outcome of one batch operation. {@code inUse} marks a rejection because the device is in use, so the
+ * metrics can count it alongside the single-device rejections.
+ */
+public record DeviceBatchResult(
+        int index,
+        DeviceBatchOperationType type,
+        UUID id,
+        DeviceBatchStatus status,
+        String message,
+        boolean inUse
+) {
+    public DeviceBatchResult(int index, DeviceBatchOperationType type, UUID id, DeviceBatchStatus status, String message) {
+        this(index, type, id, status, message, false);
+    }
+
+    public static DeviceBatchResult succeeded(int index, DeviceBatchOperationType type, UUID id) {
+        return new DeviceBatchResult(index, type, id, DeviceBatchStatus.SUCCEEDED, null);
+    }
+
+    public static DeviceBatchResult rejected(int index, DeviceBatchOperation operation, String message) {
+        return new DeviceBatchResult(index, operation.type(), operation.id(), DeviceBatchStatus.REJECTED, message);
+    }
+
+    public static DeviceBatchResult rejectedInUse(int index, DeviceBatchOperation operation, String message) {
+        return new DeviceBatchResult(index, operation.type(), operation.id(), DeviceBatchStatus.REJECTED, message, true);
+    }
+
+    public static DeviceBatchResult failed(int index, DeviceBatchOperation operation, String message) {
+        return new DeviceBatchResult(index, operation.type(), operation.id(), DeviceBatchStatus.FAILED, message);
+    }
+
+    public boolean isSucceeded() {
+        return status == DeviceBatchStatus.SUCCEEDED;
+    }
+}
@@ -0,0 +1,10 @@
+package com.devicesapi.domain.batch;
+
+public enum DeviceBatchStatus {
+    // Applied and committed
+    SUCCEEDED,
+    // Refused by a business rule (missing device, device in use, incomplete values); the rest of the chunk still commits
+    REJECTED,
+    // Valid, but its chunk was rolled back by a database error
+    FAILED
+}
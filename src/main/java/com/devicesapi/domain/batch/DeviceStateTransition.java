@@ -0,0 +1,37 @@
+package com.devicesapi.domain.batch;
+
+import com.devicesapi.domain.enums.Brand;
+import com.devicesapi.domain.enums.State;
+import com.devicesapi.domain.exception.DeviceBadRequestException;
+
+/**
+ * Moves every device of {@code brand} (all brands when null) from one state to another,
+ * {@code chunkSize} primary keys per statement.
+ */
+public record DeviceStateTransition(
+        Brand brand,
+        State from,
+        State to,
+        int chunkSize
+) {
+    public static final int DEFAULT_CHUNK_SIZE = 1000;
+    // Keeps the IN list of each statement within the bind parameter limits of PostgreSQL and H2
+    public static final int MAX_CHUNK_SIZE = 1000;
+
+    public DeviceStateTransition {
+        if (from == null || to == null) {
+            throw new DeviceBadRequestException("Both the current and the target state are required");
+        }
+        if (from == to) {
+            throw new DeviceBadRequestException("Current and target state must differ");
+        }
+        // Same rule as a single update: a device in use cannot be changed
+        if (from == State.IN_USE) {
+            throw new DeviceBadRequestException("Devices in use cannot be transitioned");
+        }
+        if (chunkSize < 1) {
+            throw new DeviceBadRequestException("Chunk size must be at least 1");
+        }
+        chunkSize = Math.min(chunkSize, MAX_CHUNK_SIZE);
+    }
+}
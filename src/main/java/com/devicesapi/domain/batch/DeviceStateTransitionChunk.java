@@ -0,0 +1,23 @@
+package com.devicesapi.domain.batch;
+
+import com.devicesapi.domain.entities.Device;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * One statement of a {@link DeviceStateTransition}: the ids it targeted, in primary key order, and
+ * the devices that still matched and were changed, as reported by the statement with their id and brand.
+ */
+public record DeviceStateTransitionChunk(
+        List<UUID> ids,
+        List<Device> transitioned
+) {
+    public int affected() {
+        return transitioned.size();
+    }
+
+    public UUID lastId() {
+        return ids.isEmpty() ? null : ids.get(ids.size() - 1);
+    }
+}
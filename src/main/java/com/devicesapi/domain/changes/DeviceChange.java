@@ -0,0 +1,78 @@
+package com.devicesapi.domain.changes;
+
+import com.devicesapi.domain.entities.Device;
+import com.devicesapi.domain.enums.Brand;
+import com.devicesapi.domain.enums.DeviceChangeType;
+import com.devicesapi.domain.enums.State;
+
+import java.util.UUID;
+
+/**
+ * A committed write to one device. {@code device} holds the values after the change as far as the
+ * writer knew them: complete for creates and updates, only the changed fields for patches and
+ * nothing for deletes. {@code previousBrand} and {@code previousState} are the values the device
+ * had before the change, null for creates and wherever the writer did not learn them.
+ */
+public record DeviceChange(
+        DeviceChangeType type,
+        UUID id,
+        Device device,
+        Brand previousBrand,
+        State previousState
+) {
+    public static DeviceChange created(Device device) {
+        return new DeviceChange(DeviceChangeType.CREATED, device.getId(), device, null, null);
+    }
+
+    public static DeviceChange updated(Device device, Device previous) {
+        return new DeviceChange(DeviceChangeType.UPDATED, device.getId(), device, brandOf(previous), stateOf(previous));
+    }
+
+    public static DeviceChange patched(UUID id, Device changes, Device previous) {
+        return new DeviceChange(DeviceChangeType.PATCHED, id, changes, brandOf(previous), stateOf(previous));
+    }
+
+    public static DeviceChange deleted(UUID id, Device previous) {
+        return new DeviceChange(DeviceChangeType.DELETED, id, null, brandOf(previous), stateOf(previous));
+    }
+
+    // The brand after the change: the written one, else the one the device kept; null after a delete
+    public Brand brand() {
+        if (type == DeviceChangeType.DELETED) {
+            return null;
+        }
+        return device != null && device.getBrand() != null ? device.getBrand() : previousBrand;
+    }
+
+    // The state after the change: the written one, else the one the device kept; null after a delete
+    public State state() {
+        if (type == DeviceChangeType.DELETED) {
+            return null;
+        }
+        return device != null && device.getState() != null ? device.getState() : previousState;
+    }
+
+    /**
+     * Whether the change can concern a device of the given brand and state, before or after it; a null
+     * filter matches anything. A device moving out of the filter is delivered as well as one moving in,
+     * so subscribers learn that it left. Values the change does not carry are unknown and never rule it out.
+     */
+    public boolean matches(Brand brand, State state) {
+        boolean after = type != DeviceChangeType.DELETED && matches(brand(), state(), brand, state);
+        boolean before = type != DeviceChangeType.CREATED && matches(previousBrand, previousState, brand, state);
+        return after || before;
+    }
+
+    private static boolean matches(Brand deviceBrand, State deviceState, Brand brand, State state) {
+        return (brand == null || deviceBrand == null || deviceBrand == brand)
+                && (state == null || deviceState == null || deviceState == state);
+    }
+
+    private static Brand brandOf(Device device) {
+        return device == null ? null : device.getBrand();
+    }
+
+    private static State stateOf(Device device) {
+        return device == null ? null : device.getState();
+    }
+}
@@ -0,0 +1,17 @@
+package com.devicesapi.domain.changes;
+
+import java.time.Instant;
+
+/**
+ * A {@link DeviceChange} as published to subscribers. Sequences increase by one per change within a
+ * generation, so a subscriber can resume after the last id it has seen.
+ */
+public record DeviceChangeEvent(
+        DeviceChangeEventId id,
+        Instant occurredAt,
+        DeviceChange change
+) {
+    public long sequence() {
+        return id.sequence();
+    }
+}
@@ -0,0 +1,34 @@
+package com.devicesapi.domain.changes;
+
+/**
+ * Position of a change event, written as {@code <generation>-<sequence>}. Sequences restart with every
+ * buffer, so the generation tells a resuming subscriber whether its sequence still means anything: ids
+ * of another generation, and bare sequences of older clients, can only be answered with a reset.
+ */
+public record DeviceChangeEventId(
+        String generation,
+        long sequence
+) {
+    private static final char SEPARATOR = '-';
+
+    public boolean sameGeneration(String other) {
+        return generation != null && generation.equals(other);
+    }
+
+    public String format() {
+        return generation + SEPARATOR + sequence;
+    }
+
+    // Throws IllegalArgumentException for anything that is neither an id nor a bare sequence
+    public static DeviceChangeEventId parse(String value) {
+        String trimmed = value.trim();
+        int separator = trimmed.lastIndexOf(SEPARATOR);
+        if (separator < 0) {
+            return new DeviceChangeEventId(null, Long.parseLong(trimmed));
+        }
+        if (separator == 0) {
+            throw new IllegalArgumentException("Missing generation in '" + value + "'");
+        }
+        return new DeviceChangeEventId(trimmed.substring(0, separator), Long.parseLong(trimmed.substring(separator + 1)));
+    }
+}
@@ -0,0 +1,172 @@
+package com.devicesapi.domain.changes;
+
+import com.devicesapi.domain.enums.Brand;
+import com.devicesapi.domain.enums.DeviceChangeType;
+import com.devicesapi.domain.enums.State;
+import com.devicesapi.domain.ports.DeviceListVersionPort;
+import com.devicesapi.domain.queries.DeviceListVersion;
+
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Change versions of the device lists: all devices, and one partition per brand and per state. Each
+ * change takes the next value of one shared sequence and stamps it on every partition it touches, so
+ * a partition's version only moves when a device entered, left or changed inside it, and the
+ * brand-and-state list can use the larger of its two partitions' versions.
+ * <p>
+ * The versions are kept behind a {@link DeviceListVersionPort}, shared by every instance; only writes
+ * made straight to the database leave them untouched.
+ */
+public class DeviceListVersions {
+
+    static final String ALL = "all";
+
+    private static final List<String> PARTITIONS = partitions();
+
+    private final DeviceListVersionPort port;
+    private final Clock clock;
+    private volatile boolean initialized;
+
+    public DeviceListVersions(DeviceListVersionPort port, Clock clock) {
+        this.port = port;
+        this.clock = clock;
+    }
+
+    /**
+     * Stores the partitions not stored yet. Runs once the application is ready, and otherwise on first
+     * use, so creating this object needs no database; a failed attempt is retried on the next use.
+     */
+    public void initialize() {
+        if (initialized) {
+            return;
+        }
+        synchronized (this) {
+            if (!initialized) {
+                port.initialize(PARTITIONS, clock.instant());
+                initialized = true;
+            }
+        }
+    }
+
+    /**
+     * The version of the devices of the given brand and state; a null filter stands for every value.
+     */
+    public DeviceListVersion current(Brand brand, State state) {
+        initialize();
+        if (brand == null && state == null) {
+            return read(ALL);
+        }
+        if (state == null) {
+            return read(partition(brand));
+        }
+        if (brand == null) {
+            return read(partition(state));
+        }
+        Map<String, DeviceListVersion> versions = port.read(List.of(partition(brand), partition(state)));
+        DeviceListVersion byBrand = require(versions, partition(brand));
+        DeviceListVersion byState = require(versions, partition(state));
+        return byBrand.version() >= byState.version() ? byBrand : byState;
+    }
+
+    /**
+     * Records a committed change to devices of the given brand and state; a null value is unknown and
+     * moves every partition of its kind.
+     */
+    public void changed(Brand brand, State state) {
+        initialize();
+        Set<String> touched = touched();
+        stamp(touched, brand, state);
+        port.advance(touched, clock.instant());
+    }
+
+    /**
+     * Records a committed change to one device: the partitions it left and the ones it is in now move
+     * together, under one version. A value the change does not carry is unknown and moves every
+     * partition of its kind.
+     */
+    public void changed(DeviceChange change) {
+        changed(List.of(change));
+    }
+
+    /**
+     * Records committed changes to several devices, e.g. one batch chunk, under one version.
+     */
+    public void changed(Collection<DeviceChange> changes) {
+        if (changes.isEmpty()) {
+            return;
+        }
+        initialize();
+        Set<String> touched = touched();
+        for (DeviceChange change : changes) {
+            if (change.type() != DeviceChangeType.CREATED) {
+                stamp(touched, change.previousBrand(), change.previousState());
+            }
+            if (change.type() != DeviceChangeType.DELETED) {
+                stamp(touched, change.brand(), change.state());
+            }
+        }
+        port.advance(touched, clock.instant());
+    }
+
+    private static List<String> partitions() {
+        List<String> partitions = new ArrayList<>();
+        partitions.add(ALL);
+        for (Brand brand : Brand.values()) {
+            partitions.add(partition(brand));
+        }
+        for (State state : State.values()) {
+            partitions.add(partition(state));
+        }
+        return List.copyOf(partitions);
+    }
+
+    private DeviceListVersion read(String partition) {
+        return require(port.read(List.of(partition)), partition);
+    }
+
+    // Sorted, so concurrent changes lock the stored partitions in the same order
+    private static Set<String> touched() {
+        Set<String> touched = new TreeSet<>();
+        touched.add(ALL);
+        return touched;
+    }
+
+    private static void stamp(Set<String> touched, Brand brand, State state) {
+        if (brand == null) {
+            for (Brand each : Brand.values()) {
+                touched.add(partition(each));
+            }
+        } else {
+            touched.add(partition(brand));
+        }
+        if (state == null) {
+            for (State each : State.values()) {
+                touched.add(partition(each));
+            }
+        } else {
+            touched.add(partition(state));
+        }
+    }
+
+    private static DeviceListVersion require(Map<String, DeviceListVersion> versions, String partition) {
+        DeviceListVersion version = versions.get(partition);
+        if (version == null) {
+            throw new IllegalStateException("Device list partition '" + partition + "' has no stored version");
+        }
+        return version;
+    }
+
+    static String partition(Brand brand) {
+        return "brand:" + brand.name();
+    }
+
+    static String partition(State state) {
+        return "state:" + state.name();
+    }
+}
@@ -0,0 +1,22 @@
+package com.devicesapi.domain.changes;
+
+import com.devicesapi.domain.enums.State;
+
+/**
+ * A state write standing for {@code changes} state changes coalesced into one: only the latest state
+ * is written, but the version moves once per change, so every state a client was shown keeps a
+ * version of its own.
+ */
+public record DeviceStateUpdate(
+        State state,
+        long changes
+) {
+    public static DeviceStateUpdate of(State state) {
+        return new DeviceStateUpdate(state, 1);
+    }
+
+    // One more change on top of these, ending in the given state
+    public DeviceStateUpdate then(State next) {
+        return new DeviceStateUpdate(next, changes + 1);
+    }
+}
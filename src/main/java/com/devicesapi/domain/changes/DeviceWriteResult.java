@@ -0,0 +1,26 @@
+package com.devicesapi.domain.changes;
+
+import com.devicesapi.domain.entities.Device;
+import com.devicesapi.domain.enums.DeviceWriteOutcome;
+
+/**
+ * The outcome of a conditional write and, when it was applied, the device as the write found it.
+ * The previous values come from the write statement itself, so they are the brand and state the
+ * device actually left even when other writes raced with it.
+ */
+public record DeviceWriteResult(
+        DeviceWriteOutcome outcome,
+        Device previous
+) {
+    public static DeviceWriteResult applied(Device previous) {
+        return new DeviceWriteResult(DeviceWriteOutcome.APPLIED, previous);
+    }
+
+    public static DeviceWriteResult rejected(DeviceWriteOutcome outcome) {
+        return new DeviceWriteResult(outcome, null);
+    }
+
+    public boolean isApplied() {
+        return outcome == DeviceWriteOutcome.APPLIED;
+    }
+}
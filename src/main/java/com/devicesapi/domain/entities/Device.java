@@ -4,14 +4,18 @@ import com.devicesapi.domain.enums.Brand;
 import com.devicesapi.domain.enums.State;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Value;
+import lombok.With;
 
 import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Value
 @Builder
+// Public so that persistence queries can project rows straight into devices
+@AllArgsConstructor
 public class Device {
 
     UUID id;
@@ -27,16 +31,20 @@ public class Device {
 
     LocalDateTime creationTime;
 
+    // Optimistic locking version; null until the device has been stored
+    @With
+    Long version;
+
     // Static factory methods for creating devices
     public static Device createNew(String name, Brand brand, State state) {
-        return new Device(null, name, brand, state, LocalDateTime.now());
+        return new Device(null, name, brand, state, LocalDateTime.now(), null);
     }
 
     public static Device createWithIdAndTime(UUID id, String name, Brand brand, State state, LocalDateTime creationTime) {
-        return new Device(id, name, brand, state, creationTime);
+        return new Device(id, name, brand, state, creationTime, null);
     }
 
     public static Device updateDevice(UUID id, String name, Brand brand, State state, LocalDateTime creationTime) {
-        return new Device(id, name, brand, state, creationTime);
+        return new Device(id, name, brand, state, creationTime, null);
     }
 }
\ No newline at end of file
@@ -0,0 +1,8 @@
+package com.devicesapi.domain.enums;
+
+public enum DeviceChangeType {
+    CREATED,
+    UPDATED,
+    PATCHED,
+    DELETED
+}
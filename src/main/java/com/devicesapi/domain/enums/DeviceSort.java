@@ -0,0 +1,27 @@
+package com.devicesapi.domain.enums;
+
+import com.devicesapi.domain.exception.DeviceBadRequestException;
+
+public enum DeviceSort {
+    CREATION_TIME("creationTime"),
+    NAME("name");
+
+    private final String parameter;
+
+    DeviceSort(String parameter) {
+        this.parameter = parameter;
+    }
+
+    public String getParameter() {
+        return parameter;
+    }
+
+    public static DeviceSort fromParameter(String parameter) {
+        for (DeviceSort sort : values()) {
+            if (sort.parameter.equalsIgnoreCase(parameter)) {
+                return sort;
+            }
+        }
+        throw new DeviceBadRequestException("Unsupported sort '" + parameter + "'");
+    }
+}
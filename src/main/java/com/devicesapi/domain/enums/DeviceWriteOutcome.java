@@ -0,0 +1,8 @@
+package com.devicesapi.domain.enums;
+
+public enum DeviceWriteOutcome {
+    APPLIED,
+    NOT_FOUND,
+    IN_USE,
+    VERSION_MISMATCH
+}
@@ -0,0 +1,9 @@
+package com.devicesapi.domain.exception;
+
+// Extends DeviceNotFoundException so clients keep receiving the 404 they always got for devices in use
+public class DeviceInUseException extends DeviceNotFoundException {
+
+    public DeviceInUseException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,8 @@
+package com.devicesapi.domain.exception;
+
+public class DevicePreconditionFailedException extends RuntimeException {
+
+    public DevicePreconditionFailedException(String message) {
+        super(message);
+    }
+}
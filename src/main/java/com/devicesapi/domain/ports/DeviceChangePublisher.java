@@ -0,0 +1,9 @@
+package com.devicesapi.domain.ports;
+
+import com.devicesapi.domain.changes.DeviceChange;
+
+public interface DeviceChangePublisher {
+
+    // Called after the change is committed; must not block on subscribers
+    void publish(DeviceChange change);
+}
@@ -0,0 +1,23 @@
+package com.devicesapi.domain.ports;
+
+import com.devicesapi.domain.queries.DeviceListVersion;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Where the change versions of the device lists are kept. Every application instance reads and
+ * advances the same versions, so a write made through one instance moves the lists of all of them.
+ */
+public interface DeviceListVersionPort {
+
+    // Creates the partitions not stored yet, at version 0; existing ones keep their versions
+    void initialize(Collection<String> partitions, Instant at);
+
+    // The stored versions of the given partitions, keyed by partition
+    Map<String, DeviceListVersion> read(Collection<String> partitions);
+
+    // Takes the next value of one sequence shared by every partition and stamps it on the given ones
+    void advance(Collection<String> partitions, Instant at);
+}
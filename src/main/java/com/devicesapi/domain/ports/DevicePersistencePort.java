@@ -1,25 +1,76 @@
 package com.devicesapi.domain.ports;
 
+import com.devicesapi.domain.batch.DeviceStateTransition;
+import com.devicesapi.domain.batch.DeviceStateTransitionChunk;
+import com.devicesapi.domain.changes.DeviceStateUpdate;
+import com.devicesapi.domain.changes.DeviceWriteResult;
 import com.devicesapi.domain.entities.Device;
 import com.devicesapi.domain.enums.Brand;
 import com.devicesapi.domain.enums.State;
+import com.devicesapi.domain.queries.DeviceCounts;
+import com.devicesapi.domain.queries.DevicePage;
+import com.devicesapi.domain.queries.DevicePageRequest;
+import com.devicesapi.domain.queries.DeviceSearchRequest;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 public interface DevicePersistencePort {
     Device save(Device device);
 
+    List<Device> saveAll(Collection<Device> devices);
+
+    /**
+     * Sets the non-null name, brand and state of {@code changes} on the device, in one statement
+     * that only matches while the device is not in use and, when {@code expectedVersion} is given,
+     * still at that version. When applied, the result holds the device as the statement found it.
+     */
+    DeviceWriteResult updateUnlessInUse(UUID id, Device changes, Long expectedVersion);
+
+    // Sets each device's state unless it is in use, as one batch, moving its version once per change; returns the ids that were updated
+    Collection<UUID> updateStates(Map<UUID, DeviceStateUpdate> states);
+
     Optional<Device> findById(UUID id);
 
+    Optional<Long> findVersionById(UUID id);
+
     List<Device> findAll();
 
     List<Device> findByBrand(Brand brand);
 
     List<Device> findByState(State state);
 
+    List<Device> findByBrandAndState(Brand brand, State state);
+
+    List<Device> findAllById(Collection<UUID> ids);
+
+    /**
+     * Read-only lookup of many devices, in no particular order and without the ids that have none.
+     * Unlike {@link #findAllById}, which writes use to read the stored rows, it may be served from caches.
+     */
+    List<Device> findDevicesById(Collection<UUID> ids);
+
+    DeviceCounts countByBrandAndState();
+
+    DevicePage findPage(DevicePageRequest request);
+
+    DevicePage search(DeviceSearchRequest request);
+
+    void exportDevices(Brand brand, State state, Consumer<Device> consumer);
+
+    DeviceStateTransitionChunk transitionStateChunk(DeviceStateTransition transition, UUID after);
+
     void deleteById(UUID id);
 
+    // One statement that only matches while the device is not in use; when applied, the result holds the deleted row
+    DeviceWriteResult deleteUnlessInUse(UUID id);
+
+    // Deletes the devices that are not in use, re-checked by the statement itself; returns the deleted rows
+    List<Device> deleteAllUnlessInUse(Collection<UUID> ids);
+
     boolean existsById(UUID id);
 }
\ No newline at end of file
@@ -1,12 +1,22 @@
 package com.devicesapi.domain.ports;
 
+import com.devicesapi.domain.batch.DeviceBatchRequest;
+import com.devicesapi.domain.batch.DeviceBatchResult;
+import com.devicesapi.domain.batch.DeviceStateTransition;
 import com.devicesapi.domain.entities.Device;
 import com.devicesapi.domain.enums.Brand;
 import com.devicesapi.domain.enums.State;
+import com.devicesapi.domain.queries.DeviceCounts;
+import com.devicesapi.domain.queries.DeviceListVersion;
+import com.devicesapi.domain.queries.DeviceLookup;
+import com.devicesapi.domain.queries.DevicePage;
+import com.devicesapi.domain.queries.DevicePageRequest;
+import com.devicesapi.domain.queries.DeviceSearchRequest;
 
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 public interface DeviceServicePort {
 
@@ -14,15 +24,42 @@ public interface DeviceServicePort {
 
     Optional<Device> getDeviceById(UUID id);
 
+    Optional<Long> getDeviceVersion(UUID id);
+
+    // Each id once, in the order first asked for
+    DeviceLookup lookupDevices(List<UUID> ids);
+
     List<Device> getAllDevices();
 
     List<Device> getDevicesByBrand(Brand brand);
 
     List<Device> getDevicesByState(State state);
 
+    List<Device> getDevicesByBrandAndState(Brand brand, State state);
+
+    DevicePage getDevicesPage(DevicePageRequest request);
+
+    DevicePage searchDevices(DeviceSearchRequest request);
+
+    // A null brand or state stands for every value
+    DeviceListVersion getListVersion(Brand brand, State state);
+
+    DeviceCounts getDeviceCounts();
+
+    void exportDevices(Brand brand, State state, Consumer<Device> consumer);
+
     Device updateDevice(UUID id, Device updatedDevice);
 
+    // expectedVersion null means unconditional
+    Device updateDevice(UUID id, Device updatedDevice, Long expectedVersion);
+
     void patchDevice(UUID id, Device deviceToBePatched);
 
+    void patchDevice(UUID id, Device deviceToBePatched, Long expectedVersion);
+
     void deleteDevice(UUID id);
+
+    List<DeviceBatchResult> executeBatch(DeviceBatchRequest request);
+
+    long transitionState(DeviceStateTransition transition);
 }
\ No newline at end of file
@@ -0,0 +1,35 @@
+package com.devicesapi.domain.queries;
+
+import com.devicesapi.domain.enums.Brand;
+import com.devicesapi.domain.enums.State;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+
+public record DeviceCounts(
+        Map<Brand, Map<State, Long>> counts
+) {
+    public static DeviceCounts fromMatrix(long[][] matrix) {
+        EnumMap<Brand, Map<State, Long>> counts = new EnumMap<>(Brand.class);
+        for (Brand brand : Brand.values()) {
+            EnumMap<State, Long> byState = new EnumMap<>(State.class);
+            for (State state : State.values()) {
+                byState.put(state, matrix[brand.ordinal()][state.ordinal()]);
+            }
+            counts.put(brand, Collections.unmodifiableMap(byState));
+        }
+        return new DeviceCounts(Collections.unmodifiableMap(counts));
+    }
+
+    public long get(Brand brand, State state) {
+        return counts.get(brand).get(state);
+    }
+
+    public long total() {
+        return counts.values().stream()
+                .flatMap(byState -> byState.values().stream())
+                .mapToLong(Long::longValue)
+                .sum();
+    }
+}
@@ -0,0 +1,58 @@
+package com.devicesapi.domain.queries;
+
+import com.devicesapi.domain.entities.Device;
+import com.devicesapi.domain.enums.DeviceSort;
+import com.devicesapi.domain.exception.DeviceBadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Keyset position of the last device of a page. Clients only ever see the encoded token,
+ * so the layout can change as long as old tokens keep decoding to the same position.
+ */
+public record DeviceCursor(
+        DeviceSort sort,
+        boolean descending,
+        UUID id,
+        LocalDateTime creationTime,
+        String name
+) {
+    private static final String SEPARATOR = "\n";
+
+    public static DeviceCursor after(Device device, DeviceSort sort, boolean descending) {
+        return switch (sort) {
+            case CREATION_TIME -> new DeviceCursor(sort, descending, device.getId(), device.getCreationTime(), null);
+            case NAME -> new DeviceCursor(sort, descending, device.getId(), null, device.getName());
+        };
+    }
+
+    public String encode() {
+        String key = sort == DeviceSort.CREATION_TIME ? creationTime.toString() : name;
+        String raw = sort.name() + SEPARATOR + (descending ? "D" : "A") + SEPARATOR + id + SEPARATOR + key;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static DeviceCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            // The sort key goes last so that names containing the separator still decode
+            String[] parts = raw.split(SEPARATOR, 4);
+            DeviceSort sort = DeviceSort.valueOf(parts[0]);
+            boolean descending = switch (parts[1]) {
+                case "A" -> false;
+                case "D" -> true;
+                default -> throw new IllegalArgumentException("Unknown direction " + parts[1]);
+            };
+            UUID id = UUID.fromString(parts[2]);
+            return switch (sort) {
+                case CREATION_TIME -> new DeviceCursor(sort, descending, id, LocalDateTime.parse(parts[3]), null);
+                case NAME -> new DeviceCursor(sort, descending, id, null, parts[3]);
+            };
+        } catch (RuntimeException e) {
+            throw new DeviceBadRequestException("Invalid pagination cursor");
+        }
+    }
+}
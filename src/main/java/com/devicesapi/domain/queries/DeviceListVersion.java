@@ -0,0 +1,15 @@
+package com.devicesapi.domain.queries;
+
+import java.time.Instant;
+
+/**
+ * The change version of one device list. {@code version} only grows within one {@code generation};
+ * the generation is picked when the versions are first stored, so versions of a database that was
+ * recreated since never compare equal.
+ */
+public record DeviceListVersion(
+        long generation,
+        long version,
+        Instant lastModified
+) {
+}
@@ -0,0 +1,16 @@
+package com.devicesapi.domain.queries;
+
+import com.devicesapi.domain.entities.Device;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * The devices found for a list of ids, in the order they were asked for, and the ids no device has.
+ */
+public record DeviceLookup(
+        List<Device> devices,
+        List<UUID> missing
+) {
+    public static final int MAX_IDS = 10_000;
+}
@@ -0,0 +1,14 @@
+package com.devicesapi.domain.queries;
+
+import com.devicesapi.domain.entities.Device;
+
+import java.util.List;
+
+public record DevicePage(
+        List<Device> items,
+        DeviceCursor next
+) {
+    public boolean hasNext() {
+        return next != null;
+    }
+}
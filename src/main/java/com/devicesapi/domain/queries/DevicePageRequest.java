@@ -0,0 +1,32 @@
+package com.devicesapi.domain.queries;
+
+import com.devicesapi.domain.enums.Brand;
+import com.devicesapi.domain.enums.DeviceSort;
+import com.devicesapi.domain.enums.State;
+import com.devicesapi.domain.exception.DeviceBadRequestException;
+
+public record DevicePageRequest(
+        Brand brand,
+        State state,
+        DeviceSort sort,
+        boolean descending,
+        int size,
+        DeviceCursor cursor
+) {
+    public static final int DEFAULT_SIZE = 50;
+    public static final int MAX_SIZE = 500;
+
+    public DevicePageRequest {
+        if (sort == null) {
+            sort = DeviceSort.CREATION_TIME;
+        }
+        if (size < 1) {
+            throw new DeviceBadRequestException("Page size must be at least 1");
+        }
+        size = Math.min(size, MAX_SIZE);
+        // A cursor only marks a position within the ordering it was issued for
+        if (cursor != null && (cursor.sort() != sort || cursor.descending() != descending)) {
+            throw new DeviceBadRequestException("Cursor does not match the requested sort");
+        }
+    }
+}
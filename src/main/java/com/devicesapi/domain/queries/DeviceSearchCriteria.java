@@ -0,0 +1,31 @@
+package com.devicesapi.domain.queries;
+
+import com.devicesapi.domain.enums.Brand;
+import com.devicesapi.domain.enums.State;
+import com.devicesapi.domain.exception.DeviceBadRequestException;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+
+/**
+ * Filters of a device search, all optional and combined with AND. Empty sets match every value;
+ * the creation time range includes {@code createdFrom} and excludes {@code createdTo}.
+ */
+public record DeviceSearchCriteria(
+        Set<Brand> brands,
+        Set<State> states,
+        String namePrefix,
+        LocalDateTime createdFrom,
+        LocalDateTime createdTo
+) {
+    public DeviceSearchCriteria {
+        brands = brands == null ? Set.of() : Set.copyOf(brands);
+        states = states == null ? Set.of() : Set.copyOf(states);
+        if (namePrefix != null && namePrefix.isEmpty()) {
+            namePrefix = null;
+        }
+        if (createdFrom != null && createdTo != null && !createdFrom.isBefore(createdTo)) {
+            throw new DeviceBadRequestException("createdFrom must be before createdTo");
+        }
+    }
+}
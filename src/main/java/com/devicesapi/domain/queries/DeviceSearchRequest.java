@@ -0,0 +1,31 @@
+package com.devicesapi.domain.queries;
+
+import com.devicesapi.domain.enums.DeviceSort;
+import com.devicesapi.domain.exception.DeviceBadRequestException;
+
+/**
+ * One keyset page of a device search; paged like {@link DevicePageRequest}.
+ */
+public record DeviceSearchRequest(
+        DeviceSearchCriteria criteria,
+        DeviceSort sort,
+        boolean descending,
+        int size,
+        DeviceCursor cursor
+) {
+    public DeviceSearchRequest {
+        if (criteria == null) {
+            criteria = new DeviceSearchCriteria(null, null, null, null, null);
+        }
+        if (sort == null) {
+            sort = DeviceSort.CREATION_TIME;
+        }
+        if (size < 1) {
+            throw new DeviceBadRequestException("Page size must be at least 1");
+        }
+        size = Math.min(size, DevicePageRequest.MAX_SIZE);
+        if (cursor != null && (cursor.sort() != sort || cursor.descending() != descending)) {
+            throw new DeviceBadRequestException("Cursor does not match the requested sort");
+        }
+    }
+}
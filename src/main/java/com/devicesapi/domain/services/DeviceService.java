@@ -1,32 +1,102 @@
 package com.devicesapi.domain.services;
 
+import com.devicesapi.domain.batch.DeviceBatchOperation;
+import com.devicesapi.domain.batch.DeviceBatchOperationType;
+import com.devicesapi.domain.batch.DeviceBatchRequest;
+import com.devicesapi.domain.batch.DeviceBatchResult;
+import com.devicesapi.domain.batch.DeviceStateTransition;
+import com.devicesapi.domain.batch.DeviceStateTransitionChunk;
+import com.devicesapi.domain.changes.DeviceChange;
+import com.devicesapi.domain.changes.DeviceListVersions;
+import com.devicesapi.domain.changes.DeviceWriteResult;
 import com.devicesapi.domain.entities.Device;
 import com.devicesapi.domain.enums.Brand;
+import com.devicesapi.domain.enums.DeviceWriteOutcome;
 import com.devicesapi.domain.enums.State;
+import com.devicesapi.domain.exception.DeviceBadRequestException;
+import com.devicesapi.domain.exception.DeviceInUseException;
 import com.devicesapi.domain.exception.DeviceNotFoundException;
+import com.devicesapi.domain.exception.DevicePreconditionFailedException;
+import com.devicesapi.domain.ports.DeviceChangePublisher;
 import com.devicesapi.domain.ports.DevicePersistencePort;
 import com.devicesapi.domain.ports.DeviceServicePort;
+import com.devicesapi.domain.queries.DeviceCounts;
+import com.devicesapi.domain.queries.DeviceListVersion;
+import com.devicesapi.domain.queries.DeviceLookup;
+import com.devicesapi.domain.queries.DevicePage;
+import com.devicesapi.domain.queries.DevicePageRequest;
+import com.devicesapi.domain.queries.DeviceSearchRequest;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionOperations;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Consumer;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "devices", name = "stack", havingValue = "servlet", matchIfMissing = true)
 public class DeviceService implements DeviceServicePort {
 
     private final DevicePersistencePort devicePersistencePort;
+    private final TransactionOperations transactionOperations;
+    private final DeviceChangePublisher changePublisher;
+    private final DeviceListVersions listVersions;
 
     public Device createDevice(Device device) {
-        return devicePersistencePort.save(device);
+        Device created = devicePersistencePort.save(device);
+        publish(DeviceChange.created(created));
+        return created;
     }
 
     public Optional<Device> getDeviceById(UUID id) {
         return devicePersistencePort.findById(id);
     }
 
+    public Optional<Long> getDeviceVersion(UUID id) {
+        return devicePersistencePort.findVersionById(id);
+    }
+
+    public DeviceLookup lookupDevices(List<UUID> ids) {
+        if (ids == null || ids.isEmpty()) {
+            throw new DeviceBadRequestException("Lookup must name at least one id");
+        }
+        if (ids.size() > DeviceLookup.MAX_IDS) {
+            throw new DeviceBadRequestException("Lookup must not name more than " + DeviceLookup.MAX_IDS + " ids");
+        }
+        if (ids.stream().anyMatch(Objects::isNull)) {
+            throw new DeviceBadRequestException("Lookup ids must not be null");
+        }
+        Set<UUID> requested = new LinkedHashSet<>(ids);
+        Map<UUID, Device> found = new HashMap<>();
+        devicePersistencePort.findDevicesById(requested).forEach(device -> found.put(device.getId(), device));
+
+        List<Device> devices = new ArrayList<>(found.size());
+        List<UUID> missing = new ArrayList<>(requested.size() - found.size());
+        for (UUID id : requested) {
+            Device device = found.get(id);
+            if (device != null) {
+                devices.add(device);
+            } else {
+                missing.add(id);
+            }
+        }
+        return new DeviceLookup(devices, missing);
+    }
+
     public List<Device> getAllDevices() {
         return devicePersistencePort.findAll();
     }
@@ -39,56 +109,306 @@ public class DeviceService implements DeviceServicePort {
         return devicePersistencePort.findByState(state);
     }
 
-    public void patchDevice(UUID id, Device deviceToBePatched) {
-        Device existingDevice = getDeviceById(id)
-                .orElseThrow(() -> new DeviceNotFoundException("Device with id '" + id + "' not found"));
+    public List<Device> getDevicesByBrandAndState(Brand brand, State state) {
+        return devicePersistencePort.findByBrandAndState(brand, state);
+    }
 
-        validateDeviceToBeUpdated(existingDevice);
+    public DevicePage getDevicesPage(DevicePageRequest request) {
+        return devicePersistencePort.findPage(request);
+    }
 
-        String name = deviceToBePatched.getName() == null ? existingDevice.getName() : deviceToBePatched.getName();
-        Brand brand = deviceToBePatched.getBrand() == null ? existingDevice.getBrand() : deviceToBePatched.getBrand();
-        State state = deviceToBePatched.getState() == null ? existingDevice.getState() : deviceToBePatched.getState();
+    public DevicePage searchDevices(DeviceSearchRequest request) {
+        return devicePersistencePort.search(request);
+    }
 
-        Device deviceToBeSaved = Device.updateDevice(id, name, brand, state,
-                //Cannot be updated
-                existingDevice.getCreationTime());
+    public DeviceListVersion getListVersion(Brand brand, State state) {
+        return listVersions.current(brand, state);
+    }
+
+    public DeviceCounts getDeviceCounts() {
+        return devicePersistencePort.countByBrandAndState();
+    }
+
+    public void exportDevices(Brand brand, State state, Consumer<Device> consumer) {
+        devicePersistencePort.exportDevices(brand, state, consumer);
+    }
+
+    public void patchDevice(UUID id, Device deviceToBePatched) {
+        patchDevice(id, deviceToBePatched, null);
+    }
 
-        devicePersistencePort.save(deviceToBeSaved);
+    public void patchDevice(UUID id, Device deviceToBePatched, Long expectedVersion) {
+        // The IN_USE check is part of the UPDATE itself, so concurrent requests cannot race past it
+        DeviceWriteResult result = devicePersistencePort.updateUnlessInUse(id, deviceToBePatched, expectedVersion);
+        checkUpdated(id, result.outcome());
+        publish(DeviceChange.patched(id, deviceToBePatched, result.previous()));
     }
 
     public Device updateDevice(UUID id, Device updatedDevice) {
-        Device existingDevice = getDeviceById(id)
+        return updateDevice(id, updatedDevice, null);
+    }
+
+    public Device updateDevice(UUID id, Device updatedDevice, Long expectedVersion) {
+        DeviceWriteResult result = devicePersistencePort.updateUnlessInUse(id, updatedDevice, expectedVersion);
+        checkUpdated(id, result.outcome());
+
+        // The response carries the creation time, which only the stored row knows
+        Device updated = devicePersistencePort.findById(id)
                 .orElseThrow(() -> new DeviceNotFoundException("Device with id '" + id + "' not found"));
+        publish(DeviceChange.updated(updated, result.previous()));
+        return updated;
+    }
+
+    public void deleteDevice(UUID id) {
+        DeviceWriteResult result = devicePersistencePort.deleteUnlessInUse(id);
+        switch (result.outcome()) {
+            case NOT_FOUND -> throw new DeviceNotFoundException("Device with id '" + id + "' not found");
+            case IN_USE -> throw inUseForDelete(id);
+            case APPLIED -> publish(DeviceChange.deleted(id, result.previous()));
+        }
+    }
+
+    public List<DeviceBatchResult> executeBatch(DeviceBatchRequest request) {
+        List<DeviceBatchOperation> operations = request.operations();
+        DeviceBatchResult[] results = new DeviceBatchResult[operations.size()];
+
+        for (int from = 0; from < operations.size(); from += request.chunkSize()) {
+            int to = Math.min(from + request.chunkSize(), operations.size());
+            executeChunk(operations, from, to, results);
+        }
+        return Arrays.asList(results);
+    }
 
-        validateDeviceToBeUpdated(existingDevice);
+    public long transitionState(DeviceStateTransition transition) {
+        long affected = 0;
+        UUID after = null;
+        DeviceStateTransitionChunk chunk;
+        do {
+            chunk = devicePersistencePort.transitionStateChunk(transition, after);
+            affected += chunk.affected();
+            if (chunk.affected() > 0) {
+                listVersions.changed(transition.brand(), transition.from());
+                listVersions.changed(transition.brand(), transition.to());
+            }
+            publishTransitioned(transition, chunk);
+            after = chunk.lastId();
+        } while (chunk.ids().size() == transition.chunkSize());
+        return affected;
+    }
 
-        Device deviceToBeSaved = Device.updateDevice(id,
+    /**
+     * Applies one chunk in a single transaction. Business rule violations only reject their own
+     * operation; a database error rolls back the chunk and fails every operation that had passed.
+     * Once the chunk is committed its results stand, even if the bookkeeping after it fails.
+     */
+    private void executeChunk(List<DeviceBatchOperation> operations, int from, int to, DeviceBatchResult[] results) {
+        List<DeviceChange> changes = new ArrayList<>();
+        try {
+            transactionOperations.executeWithoutResult(status -> applyChunk(operations, from, to, results, changes));
+        } catch (RuntimeException e) {
+            for (int i = from; i < to; i++) {
+                if (results[i] == null || results[i].isSucceeded()) {
+                    results[i] = DeviceBatchResult.failed(i, operations.get(i), "Chunk rolled back: " + e.getMessage());
+                }
+            }
+            return;
+        }
+        listVersionsChanged(changes);
+        changes.forEach(changePublisher::publish);
+    }
+
+    /**
+     * Collects the changes to publish; their brands and states before and after are the lists the
+     * chunk changes.
+     */
+    private void applyChunk(List<DeviceBatchOperation> operations, int from, int to, DeviceBatchResult[] results,
+                            List<DeviceChange> changes) {
+        // One lookup for every device the chunk touches instead of one per operation
+        Set<UUID> ids = new LinkedHashSet<>();
+        for (int i = from; i < to; i++) {
+            if (operations.get(i).id() != null) {
+                ids.add(operations.get(i).id());
+            }
+        }
+        Map<UUID, Device> current = new HashMap<>();
+        if (!ids.isEmpty()) {
+            devicePersistencePort.findAllById(ids).forEach(device -> current.put(device.getId(), device));
+        }
+        // The updates are merged against the versions read here, so these are the rows they replace
+        Map<UUID, Device> read = Map.copyOf(current);
+
+        List<Device> creates = new ArrayList<>();
+        List<Integer> createIndexes = new ArrayList<>();
+        Map<UUID, Device> updates = new LinkedHashMap<>();
+        Map<UUID, Integer> deletes = new LinkedHashMap<>();
+
+        for (int i = from; i < to; i++) {
+            DeviceBatchOperation operation = operations.get(i);
+            try {
+                switch (operation.type()) {
+                    case CREATE -> {
+                        Device device = requireComplete(operation.device());
+                        creates.add(Device.createNew(device.getName(), device.getBrand(), device.getState()));
+                        createIndexes.add(i);
+                    }
+                    case UPDATE, PATCH -> {
+                        Device existingDevice = requireDevice(current, operation.id());
+                        validateDeviceToBeUpdated(existingDevice);
+                        Device changed = operation.type() == DeviceBatchOperationType.UPDATE
+                                ? updated(existingDevice, requireComplete(operation.device()))
+                                : patched(existingDevice, requirePresent(operation.device()));
+                        // Later operations of the chunk see this change, like they would one by one
+                        current.put(changed.getId(), changed);
+                        updates.put(changed.getId(), changed);
+                        results[i] = DeviceBatchResult.succeeded(i, operation.type(), changed.getId());
+                    }
+                    case DELETE -> {
+                        Device existingDevice = requireDevice(current, operation.id());
+                        validateDeviceToBeDeleted(existingDevice);
+                        current.remove(existingDevice.getId());
+                        updates.remove(existingDevice.getId());
+                        deletes.put(existingDevice.getId(), i);
+                        results[i] = DeviceBatchResult.succeeded(i, operation.type(), existingDevice.getId());
+                    }
+                }
+            } catch (DeviceInUseException e) {
+                results[i] = DeviceBatchResult.rejectedInUse(i, operation, e.getMessage());
+            } catch (DeviceNotFoundException | DeviceBadRequestException e) {
+                results[i] = DeviceBatchResult.rejected(i, operation, e.getMessage());
+            }
+        }
+
+        if (!creates.isEmpty()) {
+            List<Device> created = devicePersistencePort.saveAll(creates);
+            for (int j = 0; j < created.size(); j++) {
+                int index = createIndexes.get(j);
+                results[index] = DeviceBatchResult.succeeded(index, operations.get(index).type(), created.get(j).getId());
+                changes.add(DeviceChange.created(created.get(j)));
+            }
+        }
+        if (!updates.isEmpty()) {
+            devicePersistencePort.saveAll(List.copyOf(updates.values()))
+                    .forEach(device -> changes.add(DeviceChange.updated(device, read.get(device.getId()))));
+        }
+        if (!deletes.isEmpty()) {
+            // The devices were read without a lock, so the DELETE re-checks that they are still not in use
+            Map<UUID, Device> deleted = new HashMap<>();
+            devicePersistencePort.deleteAllUnlessInUse(deletes.keySet()).forEach(device -> deleted.put(device.getId(), device));
+            deletes.forEach((id, index) -> {
+                Device previous = deleted.get(id);
+                if (previous != null) {
+                    changes.add(DeviceChange.deleted(id, previous));
+                } else {
+                    results[index] = DeviceBatchResult.rejectedInUse(index, operations.get(index), inUseForDelete(id).getMessage());
+                }
+            });
+        }
+    }
+
+    // Only the lists the device left and entered move, known from the previous values the write reported
+    private void publish(DeviceChange change) {
+        listVersionsChanged(List.of(change));
+        changePublisher.publish(change);
+    }
+
+    // Runs after the commit, so a failure must not report the write itself as failed
+    private void listVersionsChanged(List<DeviceChange> changes) {
+        try {
+            listVersions.changed(changes);
+        } catch (RuntimeException e) {
+            log.error("Could not advance the device list versions after {} committed change(s); list ETags stay behind until the next change",
+                    changes.size(), e);
+        }
+    }
+
+    private void publishTransitioned(DeviceStateTransition transition, DeviceStateTransitionChunk chunk) {
+        // Only the devices the statement reports as moved, each with the brand it has
+        for (Device device : chunk.transitioned()) {
+            changePublisher.publish(DeviceChange.patched(device.getId(),
+                    new Device(device.getId(), null, null, transition.to(), null, null),
+                    new Device(device.getId(), null, device.getBrand(), transition.from(), null, null)));
+        }
+    }
+
+    private Device requireDevice(Map<UUID, Device> devices, UUID id) {
+        if (id == null) {
+            throw new DeviceBadRequestException("Device id is required");
+        }
+        Device device = devices.get(id);
+        if (device == null) {
+            throw new DeviceNotFoundException("Device with id '" + id + "' not found");
+        }
+        return device;
+    }
+
+    private Device requirePresent(Device device) {
+        if (device == null) {
+            throw new DeviceBadRequestException("Device values are required");
+        }
+        return device;
+    }
+
+    private Device requireComplete(Device device) {
+        requirePresent(device);
+        if (device.getName() == null || device.getName().isBlank() || device.getBrand() == null || device.getState() == null) {
+            throw new DeviceBadRequestException("Device name, brand and state are required");
+        }
+        return device;
+    }
+
+    private Device updated(Device existingDevice, Device updatedDevice) {
+        return Device.updateDevice(existingDevice.getId(),
                 updatedDevice.getName(),
                 updatedDevice.getBrand(),
                 updatedDevice.getState(),
                 //Cannot be updated
-                existingDevice.getCreationTime());
-
-        return devicePersistencePort.save(deviceToBeSaved);
+                existingDevice.getCreationTime())
+                // Merged against the version that was read, so a concurrent write fails the flush
+                .withVersion(existingDevice.getVersion());
     }
 
-    public void deleteDevice(UUID id) {
-        Device existingDevice = devicePersistencePort.findById(id)
-                .orElseThrow(() -> new DeviceNotFoundException("Device with id '" + id + "' not found"));
+    private Device patched(Device existingDevice, Device deviceToBePatched) {
+        String name = deviceToBePatched.getName() == null ? existingDevice.getName() : deviceToBePatched.getName();
+        Brand brand = deviceToBePatched.getBrand() == null ? existingDevice.getBrand() : deviceToBePatched.getBrand();
+        State state = deviceToBePatched.getState() == null ? existingDevice.getState() : deviceToBePatched.getState();
 
+        return Device.updateDevice(existingDevice.getId(), name, brand, state,
+                //Cannot be updated
+                existingDevice.getCreationTime())
+                .withVersion(existingDevice.getVersion());
+    }
+
+    private void validateDeviceToBeDeleted(Device existingDevice) {
         if (isInUse(existingDevice)) {
-            throw new DeviceNotFoundException("Device with id '" + id + "' is still in use and cannot be deleted");
+            throw inUseForDelete(existingDevice.getId());
+        }
+    }
+
+    private DeviceInUseException inUseForDelete(UUID id) {
+        return new DeviceInUseException("Device with id '" + id + "' is still in use and cannot be deleted");
+    }
+
+    private void checkUpdated(UUID id, DeviceWriteOutcome outcome) {
+        switch (outcome) {
+            case NOT_FOUND -> throw new DeviceNotFoundException("Device with id '" + id + "' not found");
+            case IN_USE -> throw inUseForUpdate(id);
+            case VERSION_MISMATCH -> throw new DevicePreconditionFailedException("Device with id '" + id + "' has been modified since the given version");
+            case APPLIED -> {
+            }
         }
-        devicePersistencePort.deleteById(id);
     }
 
     private void validateDeviceToBeUpdated(Device existingDevice) {
         if (isInUse(existingDevice)) {
-            throw new DeviceNotFoundException("Device with id '" + existingDevice.getId() + "' is still in use so name and and cannot be updated");
+            throw inUseForUpdate(existingDevice.getId());
         }
     }
 
+    private DeviceInUseException inUseForUpdate(UUID id) {
+        return new DeviceInUseException("Device with id '" + id + "' is still in use so name and and cannot be updated");
+    }
+
     private boolean isInUse(Device device) {
         return device.getState() == State.IN_USE;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,234 @@
+package com.devicesapi.infrastructure.adapters;
+
+import com.devicesapi.domain.batch.DeviceStateTransition;
+import com.devicesapi.domain.batch.DeviceStateTransitionChunk;
+import com.devicesapi.domain.changes.DeviceStateUpdate;
+import com.devicesapi.domain.changes.DeviceWriteResult;
+import com.devicesapi.domain.entities.Device;
+import com.devicesapi.domain.ports.DevicePersistencePort;
+import com.devicesapi.infrastructure.config.DeviceCacheProperties;
+import com.devicesapi.infrastructure.routing.DeviceReadRouting;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Near-cache for single device lookups. Caffeine bounds it by size (W-TinyLFU eviction) and age,
+ * and every write going through this port invalidates the affected id, again once its transaction
+ * has committed so a concurrent miss cannot re-cache the old row. List reads are not cached, but
+ * lookups of many ids are served from it like single ones.
+ * <p>
+ * With read replicas, misses load wherever the read is routed, so a replica serves them once the
+ * client's read-your-writes window has passed. Ids written through this port within that window
+ * load from the primary: a replica may not have the write yet, and the stale row would outlive the
+ * invalidation. Writes made by other instances are only bounded by {@code expireAfterWrite}, as before.
+ */
+public class CachingDevicePersistence extends ForwardingDevicePersistence {
+
+    static final String CACHE_NAME = "devices";
+
+    private final AsyncCache<UUID, Device> asyncCache;
+    private final Cache<UUID, Device> cache;
+    private final Timer loadTimer;
+    // Ids written through this port within the read-your-writes window; null without read replicas
+    private final Cache<UUID, Boolean> recentlyWritten;
+
+    public CachingDevicePersistence(DevicePersistencePort delegate, DeviceCacheProperties properties, MeterRegistry meterRegistry) {
+        this(delegate, properties, Duration.ZERO, meterRegistry);
+    }
+
+    public CachingDevicePersistence(DevicePersistencePort delegate, DeviceCacheProperties properties, Duration readYourWrites,
+                                    MeterRegistry meterRegistry) {
+        super(delegate);
+        this.recentlyWritten = readYourWrites.isZero() ? null : Caffeine.newBuilder()
+                .maximumSize(properties.maximumSize())
+                .expireAfterWrite(readYourWrites)
+                .build();
+        this.asyncCache = Caffeine.newBuilder()
+                .maximumSize(properties.maximumSize())
+                .expireAfterWrite(properties.expireAfterWrite())
+                .recordStats()
+                .buildAsync();
+        this.cache = asyncCache.synchronous();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, asyncCache, CACHE_NAME);
+        Gauge.builder("cache.hit.ratio", cache, c -> c.stats().hitRate())
+                .tag("cache", CACHE_NAME)
+                .description("Share of lookups served from the cache")
+                .register(meterRegistry);
+        // Caffeine only reports load times for loading caches, so misses are timed here
+        this.loadTimer = Timer.builder("devices.cache.load")
+                .description("Time spent loading a device into the cache on a miss")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Optional<Device> findById(UUID id) {
+        // Only the pending future is created inside the map's compute; the query runs outside it on the
+        // calling thread. A loader running inside compute would block while holding the bin lock, which
+        // pins a virtual thread to its carrier for the whole round trip. Concurrent misses share the future.
+        CompletableFuture<Device> pending = new CompletableFuture<>();
+        CompletableFuture<Device> future = asyncCache.get(id, (key, executor) -> pending);
+        if (future == pending) {
+            try {
+                // Absent devices are not cached: a future completed with null leaves no entry behind
+                pending.complete(loadTimer.record(() -> load(List.of(id), () -> delegate.findById(id)).orElse(null)));
+            } catch (RuntimeException e) {
+                pending.completeExceptionally(e);
+                throw e;
+            }
+        }
+        try {
+            return Optional.ofNullable(future.join());
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
+
+    @Override
+    public List<Device> findDevicesById(Collection<UUID> ids) {
+        // Caffeine hands over only the ids it has no entry or pending load for, and registers pending
+        // futures for them first, so a write committing during the query still drops what it loaded
+        CompletableFuture<Map<UUID, Device>> pending = new CompletableFuture<>();
+        List<Set<? extends UUID>> misses = new ArrayList<>(1);
+        CompletableFuture<Map<UUID, Device>> future = asyncCache.getAll(ids, (keys, executor) -> {
+            misses.add(keys);
+            return pending;
+        });
+        if (!misses.isEmpty()) {
+            try {
+                List<UUID> missing = List.copyOf(misses.get(0));
+                pending.complete(loadTimer.record(() -> load(missing, () -> delegate.findDevicesById(missing)).stream()
+                        .collect(Collectors.toMap(Device::getId, Function.identity()))));
+            } catch (RuntimeException e) {
+                pending.completeExceptionally(e);
+                throw e;
+            }
+        }
+        try {
+            return List.copyOf(future.join().values());
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
+
+    @Override
+    public Optional<Long> findVersionById(UUID id) {
+        // Writes invalidate the entry, so a cached device carries the current version
+        Device cached = cache.getIfPresent(id);
+        return cached != null ? Optional.ofNullable(cached.getVersion()) : delegate.findVersionById(id);
+    }
+
+    @Override
+    public boolean existsById(UUID id) {
+        return cache.getIfPresent(id) != null || delegate.existsById(id);
+    }
+
+    @Override
+    public Device save(Device device) {
+        if (device.getId() != null) {
+            invalidate(device.getId());
+        }
+        Device saved = delegate.save(device);
+        AfterCommit.run(() -> invalidate(saved.getId()));
+        return saved;
+    }
+
+    @Override
+    public DeviceWriteResult updateUnlessInUse(UUID id, Device changes, Long expectedVersion) {
+        invalidate(id);
+        DeviceWriteResult result = delegate.updateUnlessInUse(id, changes, expectedVersion);
+        AfterCommit.run(() -> invalidate(id));
+        return result;
+    }
+
+    @Override
+    public Collection<UUID> updateStates(Map<UUID, DeviceStateUpdate> states) {
+        List<UUID> ids = List.copyOf(states.keySet());
+        invalidateAll(ids);
+        Collection<UUID> updated = delegate.updateStates(states);
+        AfterCommit.run(() -> invalidateAll(ids));
+        return updated;
+    }
+
+    @Override
+    public List<Device> saveAll(Collection<Device> devices) {
+        List<UUID> ids = devices.stream().map(Device::getId).filter(Objects::nonNull).toList();
+        invalidateAll(ids);
+        List<Device> saved = delegate.saveAll(devices);
+        AfterCommit.run(() -> invalidateAll(ids));
+        return saved;
+    }
+
+    @Override
+    public DeviceStateTransitionChunk transitionStateChunk(DeviceStateTransition transition, UUID after) {
+        DeviceStateTransitionChunk chunk = delegate.transitionStateChunk(transition, after);
+        AfterCommit.run(() -> invalidateAll(chunk.ids()));
+        return chunk;
+    }
+
+    @Override
+    public void deleteById(UUID id) {
+        invalidate(id);
+        delegate.deleteById(id);
+        AfterCommit.run(() -> invalidate(id));
+    }
+
+    @Override
+    public DeviceWriteResult deleteUnlessInUse(UUID id) {
+        invalidate(id);
+        DeviceWriteResult result = delegate.deleteUnlessInUse(id);
+        AfterCommit.run(() -> invalidate(id));
+        return result;
+    }
+
+    @Override
+    public List<Device> deleteAllUnlessInUse(Collection<UUID> ids) {
+        List<UUID> idList = List.copyOf(ids);
+        invalidateAll(idList);
+        List<Device> deleted = delegate.deleteAllUnlessInUse(idList);
+        AfterCommit.run(() -> invalidateAll(idList));
+        return deleted;
+    }
+
+    // Routed like any other read, unless one of the ids was written recently enough for a replica to miss it
+    private <T> T load(Collection<UUID> ids, Supplier<T> reads) {
+        if (recentlyWritten != null && ids.stream().anyMatch(id -> recentlyWritten.getIfPresent(id) != null)) {
+            return DeviceReadRouting.onPrimary(reads);
+        }
+        return reads.get();
+    }
+
+    private void invalidate(UUID id) {
+        cache.invalidate(id);
+        if (recentlyWritten != null) {
+            recentlyWritten.put(id, Boolean.TRUE);
+        }
+    }
+
+    private void invalidateAll(Collection<UUID> ids) {
+        cache.invalidateAll(ids);
+        if (recentlyWritten != null) {
+            ids.forEach(id -> recentlyWritten.put(id, Boolean.TRUE));
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.devicesapi.infrastructure.adapters;
+
+import com.devicesapi.domain.ports.DeviceListVersionPort;
+import com.devicesapi.domain.queries.DeviceListVersion;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Keeps the device list versions in the {@code device_list_versions} table. Besides one row per
+ * partition there is a sequence row: every change advances it first, so its row lock orders
+ * concurrent changes and each one stamps a value no other change got.
+ * <p>
+ * The versions are read without a transaction, so they always come from the primary, and a read
+ * routed to a replica can tell from them how recent a list's last change is.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "devices", name = "stack", havingValue = "servlet", matchIfMissing = true)
+public class DeviceListVersionPersistence implements DeviceListVersionPort {
+
+    static final String SEQUENCE = "sequence";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionOperations transactionOperations;
+
+    @Override
+    public void initialize(Collection<String> partitions, Instant at) {
+        List<String> keys = new ArrayList<>(partitions);
+        keys.add(SEQUENCE);
+        try {
+            transactionOperations.executeWithoutResult(status -> insertMissing(keys, at));
+        } catch (DataIntegrityViolationException e) {
+            // Another instance stored the same rows first; insert whatever it left out
+            transactionOperations.executeWithoutResult(status -> insertMissing(keys, at));
+        }
+    }
+
+    @Override
+    public Map<String, DeviceListVersion> read(Collection<String> partitions) {
+        if (partitions.isEmpty()) {
+            return Map.of();
+        }
+        Map<String, DeviceListVersion> versions = new HashMap<>();
+        jdbcTemplate.query(
+                "select partition_key, generation, version, last_modified from device_list_versions where partition_key in ("
+                        + placeholders(partitions.size()) + ")",
+                row -> {
+                    versions.put(row.getString("partition_key"), new DeviceListVersion(
+                            row.getLong("generation"),
+                            row.getLong("version"),
+                            row.getObject("last_modified", OffsetDateTime.class).toInstant()));
+                },
+                partitions.toArray());
+        return versions;
+    }
+
+    // Last modified never moves back, even when the instances' clocks disagree
+    @Override
+    @Transactional
+    public void advance(Collection<String> partitions, Instant at) {
+        OffsetDateTime lastModified = at.atOffset(ZoneOffset.UTC);
+        jdbcTemplate.update("update device_list_versions set version = version + 1 where partition_key = ?", SEQUENCE);
+        Long next = jdbcTemplate.queryForObject("select version from device_list_versions where partition_key = ?", Long.class, SEQUENCE);
+        if (partitions.isEmpty()) {
+            return;
+        }
+        List<Object> args = new ArrayList<>();
+        args.add(next);
+        args.add(lastModified);
+        args.addAll(partitions);
+        args.add(next);
+        jdbcTemplate.update(
+                "update device_list_versions set version = ?, last_modified = greatest(last_modified, ?) where partition_key in ("
+                        + placeholders(partitions.size()) + ") and version < ?",
+                args.toArray());
+    }
+
+    // Every row shares the generation picked when the first ones were stored
+    private void insertMissing(List<String> keys, Instant at) {
+        Map<String, Long> stored = new HashMap<>();
+        jdbcTemplate.query("select partition_key, generation from device_list_versions",
+                row -> {
+                    stored.put(row.getString("partition_key"), row.getLong("generation"));
+                });
+        long generation = stored.isEmpty()
+                ? ThreadLocalRandom.current().nextLong() & Long.MAX_VALUE
+                : stored.values().iterator().next();
+        List<Object[]> missing = keys.stream()
+                .filter(key -> !stored.containsKey(key))
+                .map(key -> new Object[]{key, generation, 0L, at.atOffset(ZoneOffset.UTC)})
+                .toList();
+        if (!missing.isEmpty()) {
+            jdbcTemplate.batchUpdate(
+                    "insert into device_list_versions (partition_key, generation, version, last_modified) values (?, ?, ?, ?)",
+                    missing);
+        }
+    }
+
+    private static String placeholders(int count) {
+        return String.join(", ", Collections.nCopies(count, "?"));
+    }
+}
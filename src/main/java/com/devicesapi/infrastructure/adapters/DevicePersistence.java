@@ -1,23 +1,86 @@
 package com.devicesapi.infrastructure.adapters;
 
+import com.devicesapi.domain.batch.DeviceStateTransition;
+import com.devicesapi.domain.batch.DeviceStateTransitionChunk;
+import com.devicesapi.domain.changes.DeviceStateUpdate;
+import com.devicesapi.domain.changes.DeviceWriteResult;
 import com.devicesapi.domain.entities.Device;
 import com.devicesapi.domain.enums.Brand;
+import com.devicesapi.domain.enums.DeviceSort;
+import com.devicesapi.domain.enums.DeviceWriteOutcome;
 import com.devicesapi.domain.enums.State;
 import com.devicesapi.domain.ports.DevicePersistencePort;
+import com.devicesapi.domain.queries.DeviceCounts;
+import com.devicesapi.domain.queries.DeviceCursor;
+import com.devicesapi.domain.queries.DevicePage;
+import com.devicesapi.domain.queries.DevicePageRequest;
+import com.devicesapi.domain.queries.DeviceSearchRequest;
 import com.devicesapi.infrastructure.persistence.entities.DeviceEntity;
 import com.devicesapi.infrastructure.persistence.repositories.DeviceRepository;
+import com.devicesapi.infrastructure.persistence.specifications.DeviceSpecifications;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.SqlParameterValue;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.sql.Statement;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Component
 @RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "devices", name = "stack", havingValue = "servlet", matchIfMissing = true)
 public class DevicePersistence implements DevicePersistencePort {
 
+    // Keeps IN lists well below the bind parameter limits of PostgreSQL and H2
+    static final int ID_CHUNK_SIZE = 1000;
+
+    private static final String UPDATE_UNLESS_IN_USE = """
+            update devices
+               set name = coalesce(?, name), brand = coalesce(?, brand), state = coalesce(?, state), version = version + 1
+             where id = ? and state <> 'IN_USE' and (cast(? as bigint) is null or version = ?)
+            """;
+
+    // RETURNING only sees the new row; the locked self-join keeps the old one, unchanged by racing writes
+    private static final String UPDATE_UNLESS_IN_USE_POSTGRES = """
+            update devices d
+               set name = coalesce(?, d.name), brand = coalesce(?, d.brand), state = coalesce(?, d.state), version = d.version + 1
+              from (select * from devices where id = ? for update) previous
+             where d.id = previous.id and d.state <> 'IN_USE' and (cast(? as bigint) is null or d.version = ?)
+            returning previous.*
+            """;
+
+    private static final RowMapper<Device> PREVIOUS_ROW = (row, rowNum) -> new Device(
+            row.getObject("id", UUID.class),
+            row.getString("name"),
+            Brand.valueOf(row.getString("brand")),
+            State.valueOf(row.getString("state")),
+            row.getObject("creation_time", LocalDateTime.class),
+            row.getLong("version"));
+
     private final DeviceRepository deviceRepository;
+    private final EntityManager entityManager;
+    private final JdbcTemplate jdbcTemplate;
+
+    private volatile Boolean postgres;
 
     @Override
     public Device save(Device device) {
@@ -25,6 +88,65 @@ public class DevicePersistence implements DevicePersistencePort {
         return savedEntity.toDomain();
     }
 
+    @Override
+    public List<Device> saveAll(Collection<Device> devices) {
+        // Inserts and updates are flushed as JDBC batches (hibernate.jdbc.batch_size)
+        return deviceRepository.saveAll(devices.stream().map(DeviceEntity::fromDomain).toList())
+                .stream()
+                .map(DeviceEntity::toDomain)
+                .toList();
+    }
+
+    @Override
+    @Transactional
+    public DeviceWriteResult updateUnlessInUse(UUID id, Device changes, Long expectedVersion) {
+        // Null values keep the stored ones; the statement reports the row as it was before the update
+        List<Device> previous = writeReturningPrevious(postgres()
+                        ? UPDATE_UNLESS_IN_USE_POSTGRES
+                        : "select * from old table (" + UPDATE_UNLESS_IN_USE + ")",
+                new SqlParameterValue(Types.VARCHAR, changes.getName()),
+                new SqlParameterValue(Types.VARCHAR, changes.getBrand() == null ? null : changes.getBrand().name()),
+                new SqlParameterValue(Types.VARCHAR, changes.getState() == null ? null : changes.getState().name()),
+                id,
+                new SqlParameterValue(Types.BIGINT, expectedVersion),
+                new SqlParameterValue(Types.BIGINT, expectedVersion));
+        if (!previous.isEmpty()) {
+            return DeviceWriteResult.applied(previous.get(0));
+        }
+        // Only the rejected path pays for a second statement to tell the causes apart
+        return DeviceWriteResult.rejected(deviceRepository.findWriteStateById(id)
+                .map(current -> current.getState() == State.IN_USE || expectedVersion == null
+                        ? DeviceWriteOutcome.IN_USE
+                        : DeviceWriteOutcome.VERSION_MISMATCH)
+                .orElse(DeviceWriteOutcome.NOT_FOUND));
+    }
+
+    @Override
+    @Transactional
+    public Collection<UUID> updateStates(Map<UUID, DeviceStateUpdate> states) {
+        List<Map.Entry<UUID, DeviceStateUpdate>> entries = List.copyOf(states.entrySet());
+        // Plain JDBC batch: no entity is loaded, and the IN_USE rule is re-checked by each statement
+        int[][] counts = jdbcTemplate.batchUpdate(
+                "update devices set state = ?, version = version + ? where id = ? and state <> ?",
+                entries, ID_CHUNK_SIZE, (statement, entry) -> {
+                    statement.setString(1, entry.getValue().state().name());
+                    statement.setLong(2, entry.getValue().changes());
+                    statement.setObject(3, entry.getKey());
+                    statement.setString(4, State.IN_USE.name());
+                });
+        List<UUID> updated = new ArrayList<>(entries.size());
+        int index = 0;
+        for (int[] chunk : counts) {
+            for (int count : chunk) {
+                if (count > 0 || count == Statement.SUCCESS_NO_INFO) {
+                    updated.add(entries.get(index).getKey());
+                }
+                index++;
+            }
+        }
+        return updated;
+    }
+
     @Override
     public Optional<Device> findById(UUID id) {
         return deviceRepository.findById(id)
@@ -32,27 +154,154 @@ public class DevicePersistence implements DevicePersistencePort {
     }
 
     @Override
+    public Optional<Long> findVersionById(UUID id) {
+        return deviceRepository.findVersionById(id);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public List<Device> findAll() {
-        return deviceRepository.findAll()
-                .stream()
-                .map(DeviceEntity::toDomain)
-                .toList();
+        return deviceRepository.findAllDevices();
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<Device> findByBrand(Brand brand) {
-        return deviceRepository.findByBrand(brand)
-                .stream()
+        return deviceRepository.findDevicesByBrand(brand);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Device> findByState(State state) {
+        return deviceRepository.findDevicesByState(state);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Device> findByBrandAndState(Brand brand, State state) {
+        return deviceRepository.findDevicesByBrandAndState(brand, state);
+    }
+
+    @Override
+    public List<Device> findAllById(Collection<UUID> ids) {
+        List<UUID> idList = List.copyOf(ids);
+        List<Device> devices = new ArrayList<>(idList.size());
+        for (int from = 0; from < idList.size(); from += ID_CHUNK_SIZE) {
+            List<UUID> chunk = idList.subList(from, Math.min(from + ID_CHUNK_SIZE, idList.size()));
+            deviceRepository.findAllById(chunk)
+                    .forEach(entity -> devices.add(entity.toDomain()));
+        }
+        return devices;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Device> findDevicesById(Collection<UUID> ids) {
+        List<UUID> idList = List.copyOf(ids);
+        List<Device> devices = new ArrayList<>(idList.size());
+        for (int from = 0; from < idList.size(); from += ID_CHUNK_SIZE) {
+            devices.addAll(deviceRepository.findDevicesByIdIn(idList.subList(from, Math.min(from + ID_CHUNK_SIZE, idList.size()))));
+        }
+        return devices;
+    }
+
+    @Override
+    public DeviceCounts countByBrandAndState() {
+        long[][] matrix = new long[Brand.values().length][State.values().length];
+        deviceRepository.countByBrandAndState()
+                .forEach(row -> matrix[row.getBrand().ordinal()][row.getState().ordinal()] = row.getTotal());
+        return DeviceCounts.fromMatrix(matrix);
+    }
+
+    @Override
+    public DevicePage findPage(DevicePageRequest request) {
+        ScrollPosition position = toScrollPosition(request.cursor());
+        Sort sort = toSort(request.sort(), request.descending());
+        Limit limit = Limit.of(request.size());
+
+        Window<DeviceEntity> window;
+        if (request.brand() != null && request.state() != null) {
+            window = deviceRepository.findByBrandAndState(request.brand(), request.state(), position, sort, limit);
+        } else if (request.brand() != null) {
+            window = deviceRepository.findByBrand(request.brand(), position, sort, limit);
+        } else if (request.state() != null) {
+            window = deviceRepository.findByState(request.state(), position, sort, limit);
+        } else {
+            window = deviceRepository.findBy(position, sort, limit);
+        }
+
+        List<Device> devices = window.stream()
                 .map(DeviceEntity::toDomain)
                 .toList();
+
+        DeviceCursor next = window.hasNext() && !devices.isEmpty()
+                ? DeviceCursor.after(devices.get(devices.size() - 1), request.sort(), request.descending())
+                : null;
+
+        return new DevicePage(devices, next);
     }
 
     @Override
-    public List<Device> findByState(State state) {
-        return deviceRepository.findByState(state)
-                .stream()
+    @Transactional(readOnly = true)
+    public DevicePage search(DeviceSearchRequest request) {
+        Sort sort = toSort(request.sort(), request.descending());
+        ScrollPosition position = toScrollPosition(request.cursor());
+        Window<DeviceEntity> window = deviceRepository.findBy(DeviceSpecifications.matching(request.criteria()),
+                query -> query.sortBy(sort).limit(request.size()).scroll(position));
+
+        List<Device> devices = window.stream()
                 .map(DeviceEntity::toDomain)
                 .toList();
+
+        DeviceCursor next = window.hasNext() && !devices.isEmpty()
+                ? DeviceCursor.after(devices.get(devices.size() - 1), request.sort(), request.descending())
+                : null;
+
+        return new DevicePage(devices, next);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportDevices(Brand brand, State state, Consumer<Device> consumer) {
+        try (Stream<DeviceEntity> entities = deviceRepository.streamAll(brand, state)) {
+            entities.forEach(entity -> {
+                consumer.accept(entity.toDomain());
+                // Keep the persistence context empty so memory does not grow with the table
+                entityManager.detach(entity);
+            });
+        }
+    }
+
+    @Override
+    @Transactional
+    public DeviceStateTransitionChunk transitionStateChunk(DeviceStateTransition transition, UUID after) {
+        Limit limit = Limit.of(transition.chunkSize());
+        List<UUID> ids = after == null
+                ? deviceRepository.findIdsByBrandAndState(transition.brand(), transition.from(), limit)
+                : deviceRepository.findIdsByBrandAndStateAfter(transition.brand(), transition.from(), after, limit);
+        if (ids.isEmpty()) {
+            return new DeviceStateTransitionChunk(ids, List.of());
+        }
+        // Each chunk commits on its own, so row locks are held for one short statement at a time. The brand and
+        // state are re-checked, so rows changed since their ids were read are left alone and not reported
+        String update = "update devices set state = ?, version = version + 1 where id in (" + placeholders(ids.size()) + ")"
+                + " and state = ? and (cast(? as varchar) is null or brand = ?)";
+        String brand = transition.brand() == null ? null : transition.brand().name();
+        List<Object> args = new ArrayList<>(ids.size() + 4);
+        args.add(transition.to().name());
+        args.addAll(ids);
+        args.add(transition.from().name());
+        args.add(brand);
+        args.add(brand);
+
+        entityManager.flush();
+        List<Device> transitioned = jdbcTemplate.query(
+                postgres() ? update + " returning id, brand" : "select id, brand from final table (" + update + ")",
+                (row, rowNum) -> new Device(row.getObject("id", UUID.class), null, Brand.valueOf(row.getString("brand")),
+                        transition.to(), null, null),
+                args.toArray());
+        entityManager.clear();
+        return new DeviceStateTransitionChunk(ids, transitioned);
     }
 
     @Override
@@ -60,8 +309,82 @@ public class DevicePersistence implements DevicePersistencePort {
         deviceRepository.deleteById(id);
     }
 
+    @Override
+    @Transactional
+    public DeviceWriteResult deleteUnlessInUse(UUID id) {
+        List<Device> deleted = writeReturningPrevious(deleteUnlessInUse(1), id);
+        if (!deleted.isEmpty()) {
+            return DeviceWriteResult.applied(deleted.get(0));
+        }
+        return DeviceWriteResult.rejected(deviceRepository.existsById(id) ? DeviceWriteOutcome.IN_USE : DeviceWriteOutcome.NOT_FOUND);
+    }
+
+    @Override
+    @Transactional
+    public List<Device> deleteAllUnlessInUse(Collection<UUID> ids) {
+        List<UUID> idList = List.copyOf(ids);
+        List<Device> deleted = new ArrayList<>(idList.size());
+        for (int from = 0; from < idList.size(); from += ID_CHUNK_SIZE) {
+            List<UUID> chunk = idList.subList(from, Math.min(from + ID_CHUNK_SIZE, idList.size()));
+            deleted.addAll(writeReturningPrevious(deleteUnlessInUse(chunk.size()), chunk.toArray()));
+        }
+        return deleted;
+    }
+
     @Override
     public boolean existsById(UUID id) {
         return deviceRepository.existsById(id);
     }
+
+    /**
+     * Runs a conditional write that reports every row it matched as the row was before the write, so callers
+     * learn the brand and state a device left from the write itself rather than from a separate read that can
+     * race with it. Like the {@code @Modifying} queries, pending entity changes are flushed first and the
+     * persistence context is cleared afterwards.
+     */
+    private List<Device> writeReturningPrevious(String sql, Object... args) {
+        entityManager.flush();
+        List<Device> previous = jdbcTemplate.query(sql, PREVIOUS_ROW, args);
+        entityManager.clear();
+        return previous;
+    }
+
+    private String deleteUnlessInUse(int ids) {
+        String delete = "delete from devices where id in (" + placeholders(ids) + ") and state <> 'IN_USE'";
+        return postgres() ? delete + " returning *" : "select * from old table (" + delete + ")";
+    }
+
+    // PostgreSQL reports the matched rows through RETURNING, H2 (the tests) through data change delta tables
+    private boolean postgres() {
+        Boolean postgres = this.postgres;
+        if (postgres == null) {
+            postgres = jdbcTemplate.execute((ConnectionCallback<Boolean>) connection ->
+                    "PostgreSQL".equals(connection.getMetaData().getDatabaseProductName()));
+            this.postgres = postgres;
+        }
+        return postgres;
+    }
+
+    private static String placeholders(int count) {
+        return String.join(", ", Collections.nCopies(count, "?"));
+    }
+
+    private Sort toSort(DeviceSort deviceSort, boolean descending) {
+        Sort.Direction direction = descending ? Sort.Direction.DESC : Sort.Direction.ASC;
+        // The id is the tie breaker; Spring Data appends it ascending when it is missing from the sort
+        return switch (deviceSort) {
+            case CREATION_TIME -> Sort.by(direction, "creationTime", "id");
+            case NAME -> Sort.by(direction, "name");
+        };
+    }
+
+    private ScrollPosition toScrollPosition(DeviceCursor cursor) {
+        if (cursor == null) {
+            return ScrollPosition.keyset();
+        }
+        return switch (cursor.sort()) {
+            case CREATION_TIME -> ScrollPosition.forward(Map.of("creationTime", cursor.creationTime(), "id", cursor.id()));
+            case NAME -> ScrollPosition.forward(Map.of("name", cursor.name(), "id", cursor.id()));
+        };
+    }
 }
\ No newline at end of file
@@ -0,0 +1,139 @@
+package com.devicesapi.infrastructure.adapters;
+
+import com.devicesapi.domain.batch.DeviceStateTransition;
+import com.devicesapi.domain.batch.DeviceStateTransitionChunk;
+import com.devicesapi.domain.changes.DeviceStateUpdate;
+import com.devicesapi.domain.changes.DeviceWriteResult;
+import com.devicesapi.domain.entities.Device;
+import com.devicesapi.domain.enums.Brand;
+import com.devicesapi.domain.enums.State;
+import com.devicesapi.domain.ports.DevicePersistencePort;
+import com.devicesapi.domain.queries.DeviceCounts;
+import com.devicesapi.domain.queries.DevicePage;
+import com.devicesapi.domain.queries.DevicePageRequest;
+import com.devicesapi.domain.queries.DeviceSearchRequest;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Base class for decorators of {@link DevicePersistencePort}: every call goes to the delegate
+ * unless a subclass overrides it.
+ */
+public abstract class ForwardingDevicePersistence implements DevicePersistencePort {
+
+    protected final DevicePersistencePort delegate;
+
+    protected ForwardingDevicePersistence(DevicePersistencePort delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public Device save(Device device) {
+        return delegate.save(device);
+    }
+
+    @Override
+    public List<Device> saveAll(Collection<Device> devices) {
+        return delegate.saveAll(devices);
+    }
+
+    @Override
+    public DeviceWriteResult updateUnlessInUse(UUID id, Device changes, Long expectedVersion) {
+        return delegate.updateUnlessInUse(id, changes, expectedVersion);
+    }
+
+    @Override
+    public Collection<UUID> updateStates(Map<UUID, DeviceStateUpdate> states) {
+        return delegate.updateStates(states);
+    }
+
+    @Override
+    public Optional<Device> findById(UUID id) {
+        return delegate.findById(id);
+    }
+
+    @Override
+    public Optional<Long> findVersionById(UUID id) {
+        return delegate.findVersionById(id);
+    }
+
+    @Override
+    public List<Device> findAll() {
+        return delegate.findAll();
+    }
+
+    @Override
+    public List<Device> findByBrand(Brand brand) {
+        return delegate.findByBrand(brand);
+    }
+
+    @Override
+    public List<Device> findByState(State state) {
+        return delegate.findByState(state);
+    }
+
+    @Override
+    public List<Device> findByBrandAndState(Brand brand, State state) {
+        return delegate.findByBrandAndState(brand, state);
+    }
+
+    @Override
+    public List<Device> findAllById(Collection<UUID> ids) {
+        return delegate.findAllById(ids);
+    }
+
+    @Override
+    public List<Device> findDevicesById(Collection<UUID> ids) {
+        return delegate.findDevicesById(ids);
+    }
+
+    @Override
+    public DeviceCounts countByBrandAndState() {
+        return delegate.countByBrandAndState();
+    }
+
+    @Override
+    public DevicePage findPage(DevicePageRequest request) {
+        return delegate.findPage(request);
+    }
+
+    @Override
+    public DevicePage search(DeviceSearchRequest request) {
+        return delegate.search(request);
+    }
+
+    @Override
+    public void exportDevices(Brand brand, State state, Consumer<Device> consumer) {
+        delegate.exportDevices(brand, state, consumer);
+    }
+
+    @Override
+    public DeviceStateTransitionChunk transitionStateChunk(DeviceStateTransition transition, UUID after) {
+        return delegate.transitionStateChunk(transition, after);
+    }
+
+    @Override
+    public void deleteById(UUID id) {
+        delegate.deleteById(id);
+    }
+
+    @Override
+    public DeviceWriteResult deleteUnlessInUse(UUID id) {
+        return delegate.deleteUnlessInUse(id);
+    }
+
+    @Override
+    public List<Device> deleteAllUnlessInUse(Collection<UUID> ids) {
+        return delegate.deleteAllUnlessInUse(ids);
+    }
+
+    @Override
+    public boolean existsById(UUID id) {
+        return delegate.existsById(id);
+    }
+}
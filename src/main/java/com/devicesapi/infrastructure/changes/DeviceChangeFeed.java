@@ -0,0 +1,137 @@
+package com.devicesapi.infrastructure.changes;
+
+import com.devicesapi.domain.changes.DeviceChange;
+import com.devicesapi.domain.changes.DeviceChangeEvent;
+import com.devicesapi.domain.changes.DeviceChangeEventId;
+import com.devicesapi.domain.enums.Brand;
+import com.devicesapi.domain.enums.State;
+import com.devicesapi.domain.ports.DeviceChangePublisher;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Fans committed device changes out to subscribers. Publishing only appends to the ring buffer and
+ * schedules a drain per subscriber on the executor, so a slow or stuck subscriber never holds up a
+ * write; it only falls behind, and once the buffer has overwritten events it has not seen yet it
+ * gets a reset and continues from the latest event. A subscriber resuming from an id of another
+ * generation gets a reset straight away.
+ */
+@Slf4j
+public class DeviceChangeFeed implements DeviceChangePublisher, AutoCloseable {
+
+    static final int DRAIN_BATCH_SIZE = 256;
+
+    private final DeviceChangeRingBuffer buffer;
+    private final Executor executor;
+    private final List<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+
+    public DeviceChangeFeed(DeviceChangeRingBuffer buffer, Executor executor) {
+        this.buffer = buffer;
+        this.executor = executor;
+    }
+
+    @Override
+    public void publish(DeviceChange change) {
+        buffer.append(change);
+        for (Subscription subscription : subscriptions) {
+            subscription.signal();
+        }
+    }
+
+    /**
+     * Subscribes to the changes matching the brand and state (null matches any), starting after
+     * {@code lastEventId}, or with the next change when it is null. An id of another generation, or
+     * one that is no longer buffered, starts the subscription with a reset.
+     */
+    public Subscription subscribe(Brand brand, State state, DeviceChangeEventId lastEventId, DeviceChangeSink sink) {
+        long cursor = lastEventId == null ? buffer.latest() : lastEventId.sequence();
+        boolean resetPending = lastEventId != null && !lastEventId.sameGeneration(buffer.generation());
+        Subscription subscription = new Subscription(brand, state, cursor, resetPending, sink);
+        subscriptions.add(subscription);
+        subscription.signal();
+        return subscription;
+    }
+
+    int subscriberCount() {
+        return subscriptions.size();
+    }
+
+    @Override
+    public void close() {
+        subscriptions.forEach(Subscription::cancel);
+        if (executor instanceof ExecutorService executorService) {
+            executorService.shutdownNow();
+        }
+    }
+
+    public final class Subscription {
+
+        private final Brand brand;
+        private final State state;
+        private final DeviceChangeSink sink;
+        private final AtomicBoolean draining = new AtomicBoolean();
+        // Only touched by the single drain that holds the draining flag
+        private long cursor;
+        private boolean resetPending;
+        private volatile boolean cancelled;
+
+        private Subscription(Brand brand, State state, long cursor, boolean resetPending, DeviceChangeSink sink) {
+            this.brand = brand;
+            this.state = state;
+            this.cursor = cursor;
+            this.resetPending = resetPending;
+            this.sink = sink;
+        }
+
+        public void cancel() {
+            cancelled = true;
+            subscriptions.remove(this);
+        }
+
+        private void signal() {
+            if (!cancelled && draining.compareAndSet(false, true)) {
+                executor.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            try {
+                do {
+                    deliverPending();
+                    draining.set(false);
+                    // A publish between the last read and releasing the flag found it still set
+                } while (!cancelled && cursor < buffer.latest() && draining.compareAndSet(false, true));
+            } catch (Exception e) {
+                log.debug("Device change subscriber dropped: {}", e.getMessage());
+                draining.set(false);
+                cancel();
+            }
+        }
+
+        private void deliverPending() throws Exception {
+            while (!cancelled) {
+                List<DeviceChangeEvent> events = resetPending ? null : buffer.after(cursor, DRAIN_BATCH_SIZE);
+                if (events == null) {
+                    resetPending = false;
+                    cursor = buffer.latest();
+                    sink.reset(new DeviceChangeEventId(buffer.generation(), cursor));
+                    continue;
+                }
+                if (events.isEmpty()) {
+                    return;
+                }
+                for (DeviceChangeEvent event : events) {
+                    if (event.change().matches(brand, state)) {
+                        sink.send(event);
+                    }
+                    cursor = event.sequence();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.devicesapi.infrastructure.changes;
+
+import com.devicesapi.domain.changes.DeviceChange;
+import com.devicesapi.domain.changes.DeviceChangeEvent;
+import com.devicesapi.domain.changes.DeviceChangeEventId;
+
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * The last {@code capacity} change events, addressed by sequence. Sequences start at 1; appending
+ * past the capacity overwrites the oldest event. Every buffer draws a random generation that prefixes
+ * its event ids, so ids issued by another process, or before a restart, are never mistaken for its own.
+ */
+public class DeviceChangeRingBuffer {
+
+    private final DeviceChangeEvent[] events;
+    private final Clock clock;
+    private final String generation;
+    private long latest;
+
+    public DeviceChangeRingBuffer(int capacity, Clock clock) {
+        this(capacity, clock, Long.toString(ThreadLocalRandom.current().nextLong() & Long.MAX_VALUE, Character.MAX_RADIX));
+    }
+
+    public DeviceChangeRingBuffer(int capacity, Clock clock, String generation) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be at least 1");
+        }
+        this.events = new DeviceChangeEvent[capacity];
+        this.clock = clock;
+        this.generation = generation;
+    }
+
+    public String generation() {
+        return generation;
+    }
+
+    public synchronized DeviceChangeEvent append(DeviceChange change) {
+        DeviceChangeEvent event = new DeviceChangeEvent(new DeviceChangeEventId(generation, ++latest), clock.instant(), change);
+        events[slot(latest)] = event;
+        return event;
+    }
+
+    public synchronized long latest() {
+        return latest;
+    }
+
+    /**
+     * Up to {@code max} events following {@code sequence}, oldest first, or null when some of the
+     * events following it have already been overwritten or the sequence was never issued.
+     */
+    public synchronized List<DeviceChangeEvent> after(long sequence, int max) {
+        if (sequence > latest || sequence < latest - events.length) {
+            return null;
+        }
+        int count = (int) Math.min(max, latest - sequence);
+        List<DeviceChangeEvent> result = new ArrayList<>(count);
+        for (long next = sequence + 1; next <= sequence + count; next++) {
+            result.add(events[slot(next)]);
+        }
+        return result;
+    }
+
+    private int slot(long sequence) {
+        return (int) (sequence % events.length);
+    }
+}
@@ -0,0 +1,18 @@
+package com.devicesapi.infrastructure.changes;
+
+import com.devicesapi.domain.changes.DeviceChangeEvent;
+import com.devicesapi.domain.changes.DeviceChangeEventId;
+
+import java.io.IOException;
+
+/**
+ * Receives the events of one subscription, always from one thread at a time and never from the
+ * thread that published them. Throwing ends the subscription.
+ */
+public interface DeviceChangeSink {
+
+    void send(DeviceChangeEvent event) throws IOException;
+
+    // Events up to and including the given id were missed; the subscriber has to reload its state
+    void reset(DeviceChangeEventId id) throws IOException;
+}
@@ -0,0 +1,10 @@
+package com.devicesapi.infrastructure.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties("devices.changes")
+public record DeviceChangeFeedProperties(
+        @DefaultValue("10000") int bufferSize
+) {
+}
@@ -0,0 +1,13 @@
+package com.devicesapi.infrastructure.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties("devices.index")
+public record DeviceIndexProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("15m") Duration integrityCheckInterval
+) {
+}
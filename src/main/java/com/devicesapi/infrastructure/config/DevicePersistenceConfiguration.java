@@ -0,0 +1,142 @@
+package com.devicesapi.infrastructure.config;
+
+import com.devicesapi.domain.ports.DevicePersistencePort;
+import com.devicesapi.infrastructure.adapters.CachingDevicePersistence;
+import com.devicesapi.infrastructure.adapters.DevicePersistence;
+import com.devicesapi.infrastructure.index.IndexedDevicePersistence;
+import com.devicesapi.infrastructure.limit.GradientConcurrencyLimit;
+import com.devicesapi.infrastructure.limit.LimitedDevicePersistence;
+import com.devicesapi.infrastructure.metrics.MeteredDevicePersistence;
+import com.devicesapi.infrastructure.stats.CountingDevicePersistence;
+import com.devicesapi.infrastructure.writebehind.WriteBehindDevicePersistence;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.time.Duration;
+
+/**
+ * Assembles the {@link DevicePersistencePort} the domain sees: the JPA adapter wrapped by the
+ * decorators enabled for the active profile, innermost first. Only the servlet (JPA) stack uses it.
+ */
+@Configuration
+@EnableScheduling
+@ConditionalOnProperty(prefix = "devices", name = "stack", havingValue = "servlet", matchIfMissing = true)
+@EnableConfigurationProperties({DeviceCacheProperties.class, DeviceIndexProperties.class, DeviceStatsProperties.class,
+        DeviceMetricsProperties.class, DeviceWriteBehindProperties.class, DeviceConcurrencyLimitProperties.class})
+public class DevicePersistenceConfiguration {
+
+    // Only present with read replicas; the cache needs their read-your-writes window
+    private final ObjectProvider<DeviceReadRoutingProperties> readRoutingProperties;
+
+    public DevicePersistenceConfiguration(ObjectProvider<DeviceReadRoutingProperties> readRoutingProperties) {
+        this.readRoutingProperties = readRoutingProperties;
+    }
+
+    // A bean of its own so that every decorator built on the JPA adapter shares one limit
+    @Bean
+    @ConditionalOnProperty(prefix = "devices.concurrency-limit", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public LimitedDevicePersistence limitedDevicePersistence(DevicePersistence devicePersistence,
+                                                             DeviceConcurrencyLimitProperties properties,
+                                                             MeterRegistry meterRegistry) {
+        GradientConcurrencyLimit limit = new GradientConcurrencyLimit(properties.initialLimit(), properties.minLimit(),
+                properties.maxLimit(), properties.rttTolerance());
+        return new LimitedDevicePersistence(devicePersistence, limit, properties.retryAfter(), meterRegistry);
+    }
+
+    // A bean of its own so that its startup rebuild and scheduled integrity check are picked up
+    @Bean
+    @ConditionalOnProperty(prefix = "devices.index", name = "enabled", havingValue = "true")
+    public IndexedDevicePersistence indexedDevicePersistence(DevicePersistence devicePersistence,
+                                                             ObjectProvider<LimitedDevicePersistence> limitedDevicePersistence) {
+        return new IndexedDevicePersistence(database(devicePersistence, limitedDevicePersistence));
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "devices.stats", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public CountingDevicePersistence countingDevicePersistence(DevicePersistence devicePersistence,
+                                                               ObjectProvider<LimitedDevicePersistence> limitedDevicePersistence,
+                                                               ObjectProvider<IndexedDevicePersistence> indexedDevicePersistence) {
+        IndexedDevicePersistence indexed = indexedDevicePersistence.getIfAvailable();
+        return new CountingDevicePersistence(indexed != null ? indexed : database(devicePersistence, limitedDevicePersistence));
+    }
+
+    // A bean of its own so that closing the context writes the states still pending
+    @Bean
+    @ConditionalOnProperty(prefix = "devices.write-behind", name = "enabled", havingValue = "true")
+    public WriteBehindDevicePersistence writeBehindDevicePersistence(DevicePersistence devicePersistence,
+                                                                     ObjectProvider<LimitedDevicePersistence> limitedDevicePersistence,
+                                                                     ObjectProvider<IndexedDevicePersistence> indexedDevicePersistence,
+                                                                     ObjectProvider<CountingDevicePersistence> countingDevicePersistence,
+                                                                     DeviceCacheProperties cacheProperties,
+                                                                     DeviceWriteBehindProperties writeBehindProperties,
+                                                                     TransactionOperations transactionOperations,
+                                                                     MeterRegistry meterRegistry) {
+        DevicePersistencePort port = decorate(database(devicePersistence, limitedDevicePersistence), indexedDevicePersistence,
+                countingDevicePersistence, cacheProperties, meterRegistry);
+        return new WriteBehindDevicePersistence(port, writeBehindProperties.maxLag(), writeBehindProperties.batchSize(),
+                transactionOperations, meterRegistry);
+    }
+
+    @Bean
+    @Primary
+    public DevicePersistencePort devicePersistencePort(DevicePersistence devicePersistence,
+                                                       ObjectProvider<LimitedDevicePersistence> limitedDevicePersistence,
+                                                       ObjectProvider<IndexedDevicePersistence> indexedDevicePersistence,
+                                                       ObjectProvider<CountingDevicePersistence> countingDevicePersistence,
+                                                       ObjectProvider<WriteBehindDevicePersistence> writeBehindDevicePersistence,
+                                                       DeviceCacheProperties cacheProperties,
+                                                       DeviceMetricsProperties metricsProperties,
+                                                       MeterRegistry meterRegistry) {
+        DevicePersistencePort port = writeBehindDevicePersistence.getIfAvailable();
+        if (port == null) {
+            port = decorate(database(devicePersistence, limitedDevicePersistence), indexedDevicePersistence,
+                    countingDevicePersistence, cacheProperties, meterRegistry);
+        }
+
+        if (metricsProperties.enabled()) {
+            port = new MeteredDevicePersistence(port, meterRegistry);
+        }
+
+        return port;
+    }
+
+    // The JPA adapter, behind the concurrency limit when there is one
+    private DevicePersistencePort database(DevicePersistence devicePersistence,
+                                           ObjectProvider<LimitedDevicePersistence> limitedDevicePersistence) {
+        LimitedDevicePersistence limited = limitedDevicePersistence.getIfAvailable();
+        return limited != null ? limited : devicePersistence;
+    }
+
+    private DevicePersistencePort decorate(DevicePersistencePort database,
+                                           ObjectProvider<IndexedDevicePersistence> indexedDevicePersistence,
+                                           ObjectProvider<CountingDevicePersistence> countingDevicePersistence,
+                                           DeviceCacheProperties cacheProperties,
+                                           MeterRegistry meterRegistry) {
+        DevicePersistencePort port = database;
+
+        IndexedDevicePersistence indexed = indexedDevicePersistence.getIfAvailable();
+        if (indexed != null) {
+            port = indexed;
+        }
+
+        CountingDevicePersistence counting = countingDevicePersistence.getIfAvailable();
+        if (counting != null) {
+            port = counting;
+        }
+
+        if (cacheProperties.enabled()) {
+            DeviceReadRoutingProperties routing = readRoutingProperties.getIfAvailable();
+            port = new CachingDevicePersistence(port, cacheProperties,
+                    routing != null ? routing.readYourWrites() : Duration.ZERO, meterRegistry);
+        }
+
+        return port;
+    }
+}
@@ -0,0 +1,88 @@
+package com.devicesapi.infrastructure.config;
+
+import com.devicesapi.infrastructure.routing.ReadWriteRoutingDataSource;
+import com.devicesapi.infrastructure.web.routing.ReplicaReadInterceptor;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.sql.DataSource;
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Replaces the single auto-configured DataSource with the primary pool plus one pool per read replica,
+ * routed by {@link ReadWriteRoutingDataSource}. Only the servlet (JPA) stack uses it.
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnProperty(prefix = "devices.read-routing", name = "enabled", havingValue = "true")
+@EnableConfigurationProperties(DeviceReadRoutingProperties.class)
+public class DeviceReadRoutingConfiguration implements WebMvcConfigurer {
+
+    private final DeviceReadRoutingProperties properties;
+
+    public DeviceReadRoutingConfiguration(DeviceReadRoutingProperties properties) {
+        this.properties = properties;
+    }
+
+    // spring.datasource and spring.datasource.hikari keep configuring the primary
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties dataSourceProperties) {
+        return dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    // A bean of its own so that closing the context closes the replica pools
+    @Bean
+    public ReadWriteRoutingDataSource readWriteRoutingDataSource(HikariDataSource primaryDataSource, MeterRegistry meterRegistry) {
+        List<HikariDataSource> replicas = new ArrayList<>();
+        for (int i = 0; i < properties.replicas().size(); i++) {
+            replicas.add(replica(i, properties.replicas().get(i), meterRegistry));
+        }
+        return new ReadWriteRoutingDataSource(primaryDataSource, replicas, properties.readYourWrites(),
+                properties.replicaDownFor(), Clock.systemUTC());
+    }
+
+    // The physical connection is fetched on the first statement, once the transaction's read-only flag is bound
+    @Bean
+    @Primary
+    public DataSource dataSource(ReadWriteRoutingDataSource readWriteRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(readWriteRoutingDataSource);
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new ReplicaReadInterceptor(properties.readYourWrites(), Clock.systemUTC()))
+                .addPathPatterns("/api/**");
+    }
+
+    private static HikariDataSource replica(int index, DeviceReadRoutingProperties.Replica replica, MeterRegistry meterRegistry) {
+        HikariConfig config = new HikariConfig();
+        config.setPoolName("devices-replica-" + index);
+        config.setJdbcUrl(replica.url());
+        config.setUsername(replica.username());
+        config.setPassword(replica.password());
+        config.setMaximumPoolSize(replica.maximumPoolSize());
+        config.setMinimumIdle(replica.minimumIdle());
+        config.setConnectionTimeout(replica.connectionTimeout().toMillis());
+        config.setReadOnly(true);
+        // A replica that is down at startup must not stop the application; its reads go to the primary
+        config.setInitializationFailTimeout(-1);
+        config.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+        return new HikariDataSource(config);
+    }
+}
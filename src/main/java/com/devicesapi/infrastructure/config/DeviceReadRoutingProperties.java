@@ -0,0 +1,31 @@
+package com.devicesapi.infrastructure.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Read replicas next to the primary in {@code spring.datasource}. Each replica has a pool of its own;
+ * its connection timeout is short so that a replica that is down costs reads little before they fall
+ * back to the primary.
+ */
+@ConfigurationProperties("devices.read-routing")
+public record DeviceReadRoutingProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("2s") Duration readYourWrites,
+        @DefaultValue("10s") Duration replicaDownFor,
+        @DefaultValue List<Replica> replicas
+) {
+
+    public record Replica(
+            String url,
+            String username,
+            String password,
+            @DefaultValue("10") int maximumPoolSize,
+            @DefaultValue("2") int minimumIdle,
+            @DefaultValue("1s") Duration connectionTimeout
+    ) {
+    }
+}
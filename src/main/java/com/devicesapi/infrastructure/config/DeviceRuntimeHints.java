@@ -0,0 +1,24 @@
+package com.devicesapi.infrastructure.config;
+
+import com.devicesapi.application.dto.DeviceChangeEventDto;
+import com.devicesapi.application.dto.DeviceResponseDto;
+import com.devicesapi.domain.entities.Device;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+
+/**
+ * Reflection the native image cannot infer from controller signatures or repository metadata: the
+ * {@code select new Device(...)} projections, and the DTOs written by hand through the ObjectMapper
+ * (NDJSON exports) or the SSE emitters.
+ */
+public class DeviceRuntimeHints implements RuntimeHintsRegistrar {
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        hints.reflection().registerType(Device.class, MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+        new BindingReflectionHintsRegistrar().registerReflectionHints(hints.reflection(),
+                DeviceResponseDto.class, DeviceChangeEventDto.class);
+    }
+}
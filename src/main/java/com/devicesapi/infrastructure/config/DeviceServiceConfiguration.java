@@ -0,0 +1,75 @@
+package com.devicesapi.infrastructure.config;
+
+import com.devicesapi.domain.changes.DeviceListVersions;
+import com.devicesapi.domain.ports.DeviceChangePublisher;
+import com.devicesapi.domain.ports.DeviceListVersionPort;
+import com.devicesapi.domain.ports.DeviceServicePort;
+import com.devicesapi.domain.services.DeviceService;
+import com.devicesapi.infrastructure.changes.DeviceChangeFeed;
+import com.devicesapi.infrastructure.changes.DeviceChangeRingBuffer;
+import com.devicesapi.infrastructure.metrics.MeteredDeviceService;
+import com.devicesapi.infrastructure.stats.CountingDevicePersistence;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+import java.time.Clock;
+import java.util.concurrent.Executors;
+
+/**
+ * Beans around the {@link DeviceService}: the change feed and device counts it publishes to, the list
+ * versions it bumps on every write, and the metered port the web layer sees when
+ * {@code devices.metrics.enabled} is set, which is the default.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "devices", name = "stack", havingValue = "servlet", matchIfMissing = true)
+@EnableConfigurationProperties(DeviceChangeFeedProperties.class)
+public class DeviceServiceConfiguration {
+
+    // Each subscriber drains on a virtual thread of its own, so a stalled connection only parks that thread
+    @Bean
+    public DeviceChangeFeed deviceChangeFeed(DeviceChangeFeedProperties properties) {
+        return new DeviceChangeFeed(
+                new DeviceChangeRingBuffer(properties.bufferSize(), Clock.systemUTC()),
+                Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("device-changes-", 0).factory()));
+    }
+
+    // The device counts follow the same committed changes as the feed, before its subscribers see them
+    @Bean
+    @Primary
+    public DeviceChangePublisher deviceChangePublisher(DeviceChangeFeed deviceChangeFeed,
+                                                       ObjectProvider<CountingDevicePersistence> countingDevicePersistence) {
+        CountingDevicePersistence counting = countingDevicePersistence.getIfAvailable();
+        if (counting == null) {
+            return deviceChangeFeed;
+        }
+        return change -> {
+            counting.publish(change);
+            deviceChangeFeed.publish(change);
+        };
+    }
+
+    @Bean
+    public DeviceListVersions deviceListVersions(DeviceListVersionPort deviceListVersionPort) {
+        return new DeviceListVersions(deviceListVersionPort, Clock.systemUTC());
+    }
+
+    // Not while the context refreshes: the CDS training run refreshes it without a database
+    @Bean
+    public ApplicationListener<ApplicationReadyEvent> deviceListVersionsInitializer(DeviceListVersions deviceListVersions) {
+        return event -> deviceListVersions.initialize();
+    }
+
+    @Bean
+    @Primary
+    @ConditionalOnProperty(prefix = "devices.metrics", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public DeviceServicePort meteredDeviceService(DeviceService deviceService, MeterRegistry meterRegistry) {
+        return new MeteredDeviceService(deviceService, meterRegistry);
+    }
+}
@@ -0,0 +1,13 @@
+package com.devicesapi.infrastructure.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties("devices.stats")
+public record DeviceStatsProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("1m") Duration reconcileInterval
+) {
+}
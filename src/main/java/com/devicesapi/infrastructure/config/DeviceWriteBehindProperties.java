@@ -0,0 +1,14 @@
+package com.devicesapi.infrastructure.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties("devices.write-behind")
+public record DeviceWriteBehindProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("200ms") Duration maxLag,
+        @DefaultValue("500") int batchSize
+) {
+}
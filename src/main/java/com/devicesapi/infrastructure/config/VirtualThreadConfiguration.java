@@ -0,0 +1,27 @@
+package com.devicesapi.infrastructure.config;
+
+import com.devicesapi.infrastructure.diagnostics.VirtualThreadPinningMonitor;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Extras for the virtual-thread execution mode ({@code spring.threads.virtual.enabled}). Spring Boot
+ * itself moves Tomcat request handling, the application task executor (MVC async, streaming exports)
+ * and the scheduler onto virtual threads.
+ */
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+@EnableConfigurationProperties(PinningMonitorProperties.class)
+public class VirtualThreadConfiguration {
+
+    @Bean
+    @ConditionalOnProperty(prefix = "devices.virtual-threads.pinning-monitor", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public VirtualThreadPinningMonitor virtualThreadPinningMonitor(PinningMonitorProperties properties, MeterRegistry meterRegistry) {
+        return new VirtualThreadPinningMonitor(properties.threshold(), properties.stackDepth(), meterRegistry);
+    }
+}
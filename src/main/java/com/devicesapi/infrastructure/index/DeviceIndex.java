@@ -0,0 +1,134 @@
+package com.devicesapi.infrastructure.index;
+
+import com.devicesapi.domain.enums.Brand;
+import com.devicesapi.domain.enums.State;
+import com.devicesapi.domain.queries.DeviceCounts;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Brand x state matrix of device id sets. Every id lives in exactly one cell; a null brand or
+ * state in a lookup acts as a wildcard over that dimension.
+ */
+public class DeviceIndex {
+
+    private final EnumMap<Brand, EnumMap<State, UuidSet>> cells = new EnumMap<>(Brand.class);
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public DeviceIndex() {
+        for (Brand brand : Brand.values()) {
+            EnumMap<State, UuidSet> byState = new EnumMap<>(State.class);
+            for (State state : State.values()) {
+                byState.put(state, new UuidSet());
+            }
+            cells.put(brand, byState);
+        }
+    }
+
+    public void put(UUID id, Brand brand, State state) {
+        lock.writeLock().lock();
+        try {
+            UuidSet target = cells.get(brand).get(state);
+            if (!target.contains(id)) {
+                removeFromAllCells(id);
+                target.add(id);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Moves an indexed id to the given brand and state; a null keeps the current value of that
+     * dimension. Ids that are not indexed are left alone.
+     */
+    public void update(UUID id, Brand brand, State state) {
+        lock.writeLock().lock();
+        try {
+            for (Map.Entry<Brand, EnumMap<State, UuidSet>> byBrand : cells.entrySet()) {
+                for (Map.Entry<State, UuidSet> cell : byBrand.getValue().entrySet()) {
+                    if (cell.getValue().remove(id)) {
+                        cells.get(brand == null ? byBrand.getKey() : brand)
+                                .get(state == null ? cell.getKey() : state)
+                                .add(id);
+                        return;
+                    }
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(UUID id) {
+        lock.writeLock().lock();
+        try {
+            removeFromAllCells(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Moves the id from the {@code from} to the {@code to} cell of its brand, keeping the brand.
+     * Returns false when the id is not indexed under {@code from}.
+     */
+    public boolean moveState(UUID id, Brand brand, State from, State to) {
+        lock.writeLock().lock();
+        try {
+            for (Brand candidateBrand : brand == null ? Brand.values() : new Brand[]{brand}) {
+                EnumMap<State, UuidSet> byState = cells.get(candidateBrand);
+                if (byState.get(from).remove(id)) {
+                    byState.get(to).add(id);
+                    return true;
+                }
+            }
+            return false;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public List<UUID> ids(Brand brand, State state) {
+        lock.readLock().lock();
+        try {
+            List<UUID> ids = new ArrayList<>();
+            for (Brand candidateBrand : brand == null ? Brand.values() : new Brand[]{brand}) {
+                for (State candidateState : state == null ? State.values() : new State[]{state}) {
+                    ids.addAll(cells.get(candidateBrand).get(candidateState).toList());
+                }
+            }
+            return ids;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public DeviceCounts counts() {
+        lock.readLock().lock();
+        try {
+            long[][] matrix = new long[Brand.values().length][State.values().length];
+            cells.forEach((brand, byState) -> byState.forEach((state, ids) ->
+                    matrix[brand.ordinal()][state.ordinal()] = ids.size()));
+            return DeviceCounts.fromMatrix(matrix);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void removeFromAllCells(UUID id) {
+        for (EnumMap<State, UuidSet> byState : cells.values()) {
+            for (UuidSet ids : byState.values()) {
+                if (ids.remove(id)) {
+                    return;
+                }
+            }
+        }
+    }
+}
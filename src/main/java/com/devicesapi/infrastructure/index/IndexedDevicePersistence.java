@@ -0,0 +1,209 @@
+package com.devicesapi.infrastructure.index;
+
+import com.devicesapi.domain.batch.DeviceStateTransition;
+import com.devicesapi.domain.batch.DeviceStateTransitionChunk;
+import com.devicesapi.domain.changes.DeviceStateUpdate;
+import com.devicesapi.domain.changes.DeviceWriteResult;
+import com.devicesapi.domain.entities.Device;
+import com.devicesapi.domain.enums.Brand;
+import com.devicesapi.domain.enums.State;
+import com.devicesapi.domain.ports.DevicePersistencePort;
+import com.devicesapi.domain.queries.DeviceCounts;
+import com.devicesapi.infrastructure.adapters.AfterCommit;
+import com.devicesapi.infrastructure.adapters.ForwardingDevicePersistence;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Answers brand/state filters from an in-memory {@link DeviceIndex} and only goes to the database
+ * for the primary key lookups of the matching ids. The index is built from a full scan once the
+ * application is ready; until then every call goes straight to the delegate.
+ * <p>
+ * The index only sees writes made through this port, so it is only consistent when every writer
+ * goes through this instance. The periodic integrity check rebuilds it when the counts drift.
+ */
+@Slf4j
+public class IndexedDevicePersistence extends ForwardingDevicePersistence {
+
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+    private final Set<UUID> writtenDuringRebuild = ConcurrentHashMap.newKeySet();
+
+    private volatile DeviceIndex index = new DeviceIndex();
+    private volatile boolean ready;
+    private volatile boolean rebuilding;
+
+    public IndexedDevicePersistence(DevicePersistencePort delegate) {
+        super(delegate);
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public DeviceCounts indexedCounts() {
+        return index.counts();
+    }
+
+    @Override
+    public List<Device> findByBrand(Brand brand) {
+        return ready ? delegate.findAllById(index.ids(brand, null)) : delegate.findByBrand(brand);
+    }
+
+    @Override
+    public List<Device> findByState(State state) {
+        return ready ? delegate.findAllById(index.ids(null, state)) : delegate.findByState(state);
+    }
+
+    @Override
+    public List<Device> findByBrandAndState(Brand brand, State state) {
+        return ready ? delegate.findAllById(index.ids(brand, state)) : delegate.findByBrandAndState(brand, state);
+    }
+
+    @Override
+    public Device save(Device device) {
+        Device saved = delegate.save(device);
+        AfterCommit.run(() -> indexSaved(saved));
+        return saved;
+    }
+
+    @Override
+    public DeviceWriteResult updateUnlessInUse(UUID id, Device changes, Long expectedVersion) {
+        DeviceWriteResult result = delegate.updateUnlessInUse(id, changes, expectedVersion);
+        if (result.isApplied()) {
+            AfterCommit.run(() -> {
+                trackWrite(id);
+                index.update(id, changes.getBrand(), changes.getState());
+            });
+        }
+        return result;
+    }
+
+    @Override
+    public Collection<UUID> updateStates(Map<UUID, DeviceStateUpdate> states) {
+        Collection<UUID> updated = delegate.updateStates(states);
+        AfterCommit.run(() -> updated.forEach(id -> {
+            trackWrite(id);
+            index.update(id, null, states.get(id).state());
+        }));
+        return updated;
+    }
+
+    @Override
+    public List<Device> saveAll(Collection<Device> devices) {
+        List<Device> saved = delegate.saveAll(devices);
+        AfterCommit.run(() -> saved.forEach(this::indexSaved));
+        return saved;
+    }
+
+    @Override
+    public DeviceStateTransitionChunk transitionStateChunk(DeviceStateTransition transition, UUID after) {
+        DeviceStateTransitionChunk chunk = delegate.transitionStateChunk(transition, after);
+        AfterCommit.run(() -> indexTransitioned(transition, chunk));
+        return chunk;
+    }
+
+    @Override
+    public void deleteById(UUID id) {
+        delegate.deleteById(id);
+        AfterCommit.run(() -> indexDeleted(id));
+    }
+
+    @Override
+    public DeviceWriteResult deleteUnlessInUse(UUID id) {
+        DeviceWriteResult result = delegate.deleteUnlessInUse(id);
+        if (result.isApplied()) {
+            AfterCommit.run(() -> indexDeleted(id));
+        }
+        return result;
+    }
+
+    @Override
+    public List<Device> deleteAllUnlessInUse(Collection<UUID> ids) {
+        List<Device> deleted = delegate.deleteAllUnlessInUse(ids);
+        AfterCommit.run(() -> deleted.forEach(device -> indexDeleted(device.getId())));
+        return deleted;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        rebuildLock.lock();
+        try {
+            long started = System.nanoTime();
+            rebuilding = true;
+            writtenDuringRebuild.clear();
+
+            DeviceIndex rebuilt = new DeviceIndex();
+            delegate.exportDevices(null, null, device -> rebuilt.put(device.getId(), device.getBrand(), device.getState()));
+            index = rebuilt;
+            rebuilding = false;
+
+            // Writes that raced with the scan may be missing from the rebuilt index; re-read them
+            for (UUID id : writtenDuringRebuild) {
+                delegate.findById(id).ifPresentOrElse(
+                        device -> rebuilt.put(id, device.getBrand(), device.getState()),
+                        () -> rebuilt.remove(id));
+            }
+            writtenDuringRebuild.clear();
+            ready = true;
+
+            log.info("Device index rebuilt with {} devices in {} ms",
+                    rebuilt.counts().total(), (System.nanoTime() - started) / 1_000_000);
+        } finally {
+            rebuilding = false;
+            rebuildLock.unlock();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${devices.index.integrity-check-interval:15m}",
+            initialDelayString = "${devices.index.integrity-check-interval:15m}")
+    public boolean verifyIntegrity() {
+        if (!ready) {
+            return false;
+        }
+        DeviceCounts indexed = index.counts();
+        DeviceCounts stored = delegate.countByBrandAndState();
+        if (indexed.equals(stored)) {
+            return true;
+        }
+        log.warn("Device index drifted from the database (indexed {} devices, stored {}), rebuilding",
+                indexed.total(), stored.total());
+        rebuild();
+        return false;
+    }
+
+    private void indexSaved(Device device) {
+        trackWrite(device.getId());
+        index.put(device.getId(), device.getBrand(), device.getState());
+    }
+
+    private void indexTransitioned(DeviceStateTransition transition, DeviceStateTransitionChunk chunk) {
+        // The chunk reports each device it moved with its brand; the ids it skipped were changed by other writes
+        chunk.transitioned().forEach(device -> {
+            trackWrite(device.getId());
+            if (!index.moveState(device.getId(), device.getBrand(), transition.from(), transition.to())) {
+                index.put(device.getId(), device.getBrand(), transition.to());
+            }
+        });
+    }
+
+    private void indexDeleted(UUID id) {
+        trackWrite(id);
+        index.remove(id);
+    }
+
+    private void trackWrite(UUID id) {
+        if (rebuilding) {
+            writtenDuringRebuild.add(id);
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package com.devicesapi.infrastructure.index;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Open-addressing hash set of UUIDs stored as two parallel long arrays (16 bytes per slot, no
+ * per-element objects). Linear probing with backward-shift deletion, so there are no tombstones.
+ * The nil UUID marks an empty slot and is tracked with a flag instead. Not thread-safe.
+ */
+final class UuidSet {
+
+    private static final int MIN_CAPACITY = 16;
+    private static final double LOAD_FACTOR = 0.6;
+
+    private long[] most;
+    private long[] least;
+    private int mask;
+    private int size;
+    private boolean containsNil;
+
+    UuidSet() {
+        allocate(MIN_CAPACITY);
+    }
+
+    int size() {
+        return size + (containsNil ? 1 : 0);
+    }
+
+    boolean contains(UUID id) {
+        long msb = id.getMostSignificantBits();
+        long lsb = id.getLeastSignificantBits();
+        if (msb == 0 && lsb == 0) {
+            return containsNil;
+        }
+        return indexOf(msb, lsb) >= 0;
+    }
+
+    boolean add(UUID id) {
+        long msb = id.getMostSignificantBits();
+        long lsb = id.getLeastSignificantBits();
+        if (msb == 0 && lsb == 0) {
+            boolean added = !containsNil;
+            containsNil = true;
+            return added;
+        }
+        if (size + 1 > (mask + 1) * LOAD_FACTOR) {
+            rehash((mask + 1) * 2);
+        }
+        return insert(msb, lsb);
+    }
+
+    boolean remove(UUID id) {
+        long msb = id.getMostSignificantBits();
+        long lsb = id.getLeastSignificantBits();
+        if (msb == 0 && lsb == 0) {
+            boolean removed = containsNil;
+            containsNil = false;
+            return removed;
+        }
+        int gap = indexOf(msb, lsb);
+        if (gap < 0) {
+            return false;
+        }
+        // Pull later entries of the probe chain back into the gap so lookups never stop early
+        int next = gap;
+        while (true) {
+            next = (next + 1) & mask;
+            if (isEmpty(next)) {
+                break;
+            }
+            int home = slot(most[next], least[next]);
+            boolean homeOutsideGap = gap <= next
+                    ? home <= gap || home > next
+                    : home <= gap && home > next;
+            if (homeOutsideGap) {
+                most[gap] = most[next];
+                least[gap] = least[next];
+                gap = next;
+            }
+        }
+        most[gap] = 0;
+        least[gap] = 0;
+        size--;
+        return true;
+    }
+
+    List<UUID> toList() {
+        List<UUID> ids = new ArrayList<>(size());
+        if (containsNil) {
+            ids.add(new UUID(0, 0));
+        }
+        for (int slot = 0; slot <= mask; slot++) {
+            if (!isEmpty(slot)) {
+                ids.add(new UUID(most[slot], least[slot]));
+            }
+        }
+        return ids;
+    }
+
+    private boolean insert(long msb, long lsb) {
+        int slot = slot(msb, lsb);
+        while (!isEmpty(slot)) {
+            if (most[slot] == msb && least[slot] == lsb) {
+                return false;
+            }
+            slot = (slot + 1) & mask;
+        }
+        most[slot] = msb;
+        least[slot] = lsb;
+        size++;
+        return true;
+    }
+
+    private int indexOf(long msb, long lsb) {
+        int slot = slot(msb, lsb);
+        while (!isEmpty(slot)) {
+            if (most[slot] == msb && least[slot] == lsb) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    private boolean isEmpty(int slot) {
+        return most[slot] == 0 && least[slot] == 0;
+    }
+
+    private int slot(long msb, long lsb) {
+        // Murmur3 finaliser; random UUIDs are already well spread but time-based ones are not
+        long hash = msb ^ lsb;
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        return (int) hash & mask;
+    }
+
+    private void rehash(int capacity) {
+        long[] oldMost = most;
+        long[] oldLeast = least;
+        allocate(capacity);
+        size = 0;
+        for (int slot = 0; slot < oldMost.length; slot++) {
+            if (oldMost[slot] != 0 || oldLeast[slot] != 0) {
+                insert(oldMost[slot], oldLeast[slot]);
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        most = new long[capacity];
+        least = new long[capacity];
+        mask = capacity - 1;
+    }
+}
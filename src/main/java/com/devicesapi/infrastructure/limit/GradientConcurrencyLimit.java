@@ -0,0 +1,106 @@
+package com.devicesapi.infrastructure.limit;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A concurrency limit that follows latency, after the gradient algorithm of Netflix's
+ * concurrency-limits: a short average of the call latency is compared with a long-running baseline.
+ * While they stay within {@code rttTolerance} of each other the limit grows by a small queue
+ * allowance, once calls slow down the limit shrinks in proportion, down to half per sample.
+ * <p>
+ * Samples taken while fewer than half of the permits are in use leave the limit alone: the latency
+ * says nothing about a limit the load never reached.
+ */
+public class GradientConcurrencyLimit {
+
+    // Exponential averages over roughly 10 and 600 samples
+    private static final double SHORT_WEIGHT = 0.1;
+    private static final double LONG_WEIGHT = 1.0 / 600;
+    private static final double SMOOTHING = 0.2;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double rttTolerance;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private volatile int limit;
+    private double estimatedLimit;
+    private double shortRtt;
+    private double longRtt;
+
+    public GradientConcurrencyLimit(int initialLimit, int minLimit, int maxLimit, double rttTolerance) {
+        if (minLimit < 1 || minLimit > maxLimit || initialLimit < minLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException("Expected 1 <= min <= initial <= max, got min " + minLimit
+                    + ", initial " + initialLimit + ", max " + maxLimit);
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.rttTolerance = rttTolerance;
+        this.limit = initialLimit;
+        this.estimatedLimit = initialLimit;
+    }
+
+    /**
+     * Takes a permit unless the limit is reached. Returns the number of calls in flight including this
+     * one, or 0 when the call has to be rejected.
+     */
+    public int tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit) {
+                return 0;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return current + 1;
+            }
+        }
+    }
+
+    /**
+     * Returns a permit without a latency sample, for calls whose duration says nothing about load.
+     */
+    public void release() {
+        inFlight.decrementAndGet();
+    }
+
+    /**
+     * Returns a permit and feeds the call's latency into the limit; {@code inFlight} is what
+     * {@link #tryAcquire()} returned for it.
+     */
+    public void release(long rttNanos, int inFlight) {
+        this.inFlight.decrementAndGet();
+        onSample(rttNanos, inFlight);
+    }
+
+    public int limit() {
+        return limit;
+    }
+
+    public int inFlight() {
+        return inFlight.get();
+    }
+
+    private synchronized void onSample(long rttNanos, int inFlight) {
+        double rtt = Math.max(rttNanos, 1);
+        if (longRtt == 0) {
+            shortRtt = rtt;
+            longRtt = rtt;
+        }
+        shortRtt += (rtt - shortRtt) * SHORT_WEIGHT;
+        longRtt += (rtt - longRtt) * LONG_WEIGHT;
+        // When latency drops for good, let the baseline follow within a few dozen samples
+        if (longRtt > 2 * shortRtt) {
+            longRtt *= 0.95;
+        }
+
+        if (inFlight < estimatedLimit / 2) {
+            return;
+        }
+
+        double gradient = Math.max(0.5, Math.min(1.0, rttTolerance * longRtt / shortRtt));
+        double queueSize = Math.sqrt(estimatedLimit);
+        double next = estimatedLimit * gradient + queueSize;
+        estimatedLimit = Math.max(minLimit, Math.min(maxLimit, estimatedLimit * (1 - SMOOTHING) + next * SMOOTHING));
+        limit = (int) estimatedLimit;
+    }
+}
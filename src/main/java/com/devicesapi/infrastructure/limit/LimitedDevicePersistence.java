@@ -0,0 +1,201 @@
+package com.devicesapi.infrastructure.limit;
+
+import com.devicesapi.domain.batch.DeviceStateTransition;
+import com.devicesapi.domain.batch.DeviceStateTransitionChunk;
+import com.devicesapi.domain.changes.DeviceStateUpdate;
+import com.devicesapi.domain.changes.DeviceWriteResult;
+import com.devicesapi.domain.entities.Device;
+import com.devicesapi.domain.enums.Brand;
+import com.devicesapi.domain.enums.State;
+import com.devicesapi.domain.exception.DeviceOverloadedException;
+import com.devicesapi.domain.ports.DevicePersistencePort;
+import com.devicesapi.domain.queries.DeviceCounts;
+import com.devicesapi.domain.queries.DevicePage;
+import com.devicesapi.domain.queries.DevicePageRequest;
+import com.devicesapi.domain.queries.DeviceSearchRequest;
+import com.devicesapi.infrastructure.adapters.ForwardingDevicePersistence;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Sheds load in front of the database: calls beyond the {@link GradientConcurrencyLimit} fail at once
+ * with {@link DeviceOverloadedException} instead of queueing for a pooled connection, so latency stays
+ * close to what the database can serve while the rest is answered with 503. Sits directly on the JPA
+ * adapter, below the caches, so only calls that reach the database count and feed the limit.
+ * <p>
+ * Calls joining an active transaction already hold a connection and always pass. Exports hold a
+ * permit for as long as they stream but leave the limit alone, their duration follows the table size.
+ */
+public class LimitedDevicePersistence extends ForwardingDevicePersistence {
+
+    private final GradientConcurrencyLimit limit;
+    private final Duration retryAfter;
+    private final Counter rejected;
+
+    public LimitedDevicePersistence(DevicePersistencePort delegate, GradientConcurrencyLimit limit, Duration retryAfter,
+                                    MeterRegistry meterRegistry) {
+        super(delegate);
+        this.limit = limit;
+        this.retryAfter = retryAfter;
+        Gauge.builder("devices.persistence.limit", limit, GradientConcurrencyLimit::limit)
+                .description("Concurrent database calls currently allowed")
+                .register(meterRegistry);
+        Gauge.builder("devices.persistence.in-flight", limit, GradientConcurrencyLimit::inFlight)
+                .description("Database calls in progress")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("devices.persistence.rejected")
+                .description("Calls rejected because the concurrency limit was reached")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Device save(Device device) {
+        return limited(() -> delegate.save(device));
+    }
+
+    @Override
+    public List<Device> saveAll(Collection<Device> devices) {
+        return limited(() -> delegate.saveAll(devices));
+    }
+
+    @Override
+    public DeviceWriteResult updateUnlessInUse(UUID id, Device changes, Long expectedVersion) {
+        return limited(() -> delegate.updateUnlessInUse(id, changes, expectedVersion));
+    }
+
+    @Override
+    public Collection<UUID> updateStates(Map<UUID, DeviceStateUpdate> states) {
+        return limited(() -> delegate.updateStates(states));
+    }
+
+    @Override
+    public Optional<Device> findById(UUID id) {
+        return limited(() -> delegate.findById(id));
+    }
+
+    @Override
+    public Optional<Long> findVersionById(UUID id) {
+        return limited(() -> delegate.findVersionById(id));
+    }
+
+    @Override
+    public List<Device> findAll() {
+        return limited(delegate::findAll);
+    }
+
+    @Override
+    public List<Device> findByBrand(Brand brand) {
+        return limited(() -> delegate.findByBrand(brand));
+    }
+
+    @Override
+    public List<Device> findByState(State state) {
+        return limited(() -> delegate.findByState(state));
+    }
+
+    @Override
+    public List<Device> findByBrandAndState(Brand brand, State state) {
+        return limited(() -> delegate.findByBrandAndState(brand, state));
+    }
+
+    @Override
+    public List<Device> findAllById(Collection<UUID> ids) {
+        return limited(() -> delegate.findAllById(ids));
+    }
+
+    @Override
+    public List<Device> findDevicesById(Collection<UUID> ids) {
+        return limited(() -> delegate.findDevicesById(ids));
+    }
+
+    @Override
+    public DeviceCounts countByBrandAndState() {
+        return limited(delegate::countByBrandAndState);
+    }
+
+    @Override
+    public DevicePage findPage(DevicePageRequest request) {
+        return limited(() -> delegate.findPage(request));
+    }
+
+    @Override
+    public DevicePage search(DeviceSearchRequest request) {
+        return limited(() -> delegate.search(request));
+    }
+
+    @Override
+    public void exportDevices(Brand brand, State state, Consumer<Device> consumer) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            delegate.exportDevices(brand, state, consumer);
+            return;
+        }
+        acquire();
+        try {
+            delegate.exportDevices(brand, state, consumer);
+        } finally {
+            limit.release();
+        }
+    }
+
+    @Override
+    public DeviceStateTransitionChunk transitionStateChunk(DeviceStateTransition transition, UUID after) {
+        return limited(() -> delegate.transitionStateChunk(transition, after));
+    }
+
+    @Override
+    public void deleteById(UUID id) {
+        limited(() -> {
+            delegate.deleteById(id);
+            return null;
+        });
+    }
+
+    @Override
+    public DeviceWriteResult deleteUnlessInUse(UUID id) {
+        return limited(() -> delegate.deleteUnlessInUse(id));
+    }
+
+    @Override
+    public List<Device> deleteAllUnlessInUse(Collection<UUID> ids) {
+        return limited(() -> delegate.deleteAllUnlessInUse(ids));
+    }
+
+    @Override
+    public boolean existsById(UUID id) {
+        return limited(() -> delegate.existsById(id));
+    }
+
+    private <T> T limited(Supplier<T> call) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return call.get();
+        }
+        int inFlight = acquire();
+        long start = System.nanoTime();
+        try {
+            return call.get();
+        } finally {
+            // Failed calls count too: a connection timeout is the clearest sign of overload
+            limit.release(System.nanoTime() - start, inFlight);
+        }
+    }
+
+    private int acquire() {
+        int inFlight = limit.tryAcquire();
+        if (inFlight == 0) {
+            rejected.increment();
+            throw new DeviceOverloadedException("Too many concurrent database calls, retry later", retryAfter);
+        }
+        return inFlight;
+    }
+}
@@ -0,0 +1,59 @@
+package com.devicesapi.infrastructure.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.time.Duration;
+
+/**
+ * Builds the meters of the metered ports. Meters are created once per method up front, so the hot
+ * path only records into an existing meter instead of looking one up by name and tags.
+ */
+final class DeviceMeters {
+
+    static final Duration[] LATENCY_SLOS = {
+            Duration.ofMillis(1), Duration.ofMillis(5), Duration.ofMillis(10), Duration.ofMillis(25),
+            Duration.ofMillis(50), Duration.ofMillis(100), Duration.ofMillis(250), Duration.ofMillis(500),
+            Duration.ofSeconds(1)
+    };
+
+    static final double[] RESULT_SIZE_SLOS = {1, 10, 50, 100, 500, 1_000, 10_000};
+
+    static final String IN_USE_REJECTIONS = "devices.rejections.in_use";
+
+    private DeviceMeters() {
+    }
+
+    /**
+     * Registered by both metered ports: the persistence counts single-device writes, the service counts
+     * batch operations, which never reach the single-device writes. {@code operation} is update or delete.
+     */
+    static Counter inUseRejections(MeterRegistry registry, String operation) {
+        return Counter.builder(IN_USE_REJECTIONS)
+                .tag("operation", operation)
+                .description("Writes rejected because the device is in use")
+                .register(registry);
+    }
+
+    static Timer timer(MeterRegistry registry, String name, String method) {
+        return Timer.builder(name)
+                .tag("method", method)
+                .publishPercentileHistogram()
+                .serviceLevelObjectives(LATENCY_SLOS)
+                // Cache hits answer within microseconds, exports can run for seconds
+                .minimumExpectedValue(Duration.ofNanos(100_000))
+                .maximumExpectedValue(Duration.ofSeconds(30))
+                .register(registry);
+    }
+
+    static DistributionSummary resultSize(MeterRegistry registry, String name, String method) {
+        return DistributionSummary.builder(name)
+                .tag("method", method)
+                .baseUnit("devices")
+                .publishPercentileHistogram()
+                .serviceLevelObjectives(RESULT_SIZE_SLOS)
+                .register(registry);
+    }
+}
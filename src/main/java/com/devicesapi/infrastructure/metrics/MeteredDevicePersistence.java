@@ -0,0 +1,200 @@
+package com.devicesapi.infrastructure.metrics;
+
+import com.devicesapi.domain.batch.DeviceStateTransition;
+import com.devicesapi.domain.batch.DeviceStateTransitionChunk;
+import com.devicesapi.domain.changes.DeviceStateUpdate;
+import com.devicesapi.domain.changes.DeviceWriteResult;
+import com.devicesapi.domain.entities.Device;
+import com.devicesapi.domain.enums.Brand;
+import com.devicesapi.domain.enums.DeviceWriteOutcome;
+import com.devicesapi.domain.enums.State;
+import com.devicesapi.domain.ports.DevicePersistencePort;
+import com.devicesapi.domain.queries.DeviceCounts;
+import com.devicesapi.domain.queries.DevicePage;
+import com.devicesapi.domain.queries.DevicePageRequest;
+import com.devicesapi.domain.queries.DeviceSearchRequest;
+import com.devicesapi.infrastructure.adapters.ForwardingDevicePersistence;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Times every persistence port call as {@code devices.persistence} tagged with the method, and counts
+ * writes the database rejected because the device is in use. Sits outermost in the persistence chain,
+ * so the timings are what the domain sees, cache hits included.
+ */
+public class MeteredDevicePersistence extends ForwardingDevicePersistence {
+
+    static final String TIMER = "devices.persistence";
+
+    private final Timer save;
+    private final Timer saveAll;
+    private final Timer updateUnlessInUse;
+    private final Timer updateStates;
+    private final Timer findById;
+    private final Timer findVersionById;
+    private final Timer findAll;
+    private final Timer findByBrand;
+    private final Timer findByState;
+    private final Timer findByBrandAndState;
+    private final Timer findAllById;
+    private final Timer findDevicesById;
+    private final Timer countByBrandAndState;
+    private final Timer findPage;
+    private final Timer search;
+    private final Timer exportDevices;
+    private final Timer transitionStateChunk;
+    private final Timer deleteById;
+    private final Timer deleteUnlessInUse;
+    private final Timer deleteAllUnlessInUse;
+    private final Timer existsById;
+    private final Counter updateInUseRejections;
+    private final Counter deleteInUseRejections;
+
+    public MeteredDevicePersistence(DevicePersistencePort delegate, MeterRegistry meterRegistry) {
+        super(delegate);
+        this.save = DeviceMeters.timer(meterRegistry, TIMER, "save");
+        this.saveAll = DeviceMeters.timer(meterRegistry, TIMER, "saveAll");
+        this.updateUnlessInUse = DeviceMeters.timer(meterRegistry, TIMER, "updateUnlessInUse");
+        this.updateStates = DeviceMeters.timer(meterRegistry, TIMER, "updateStates");
+        this.findById = DeviceMeters.timer(meterRegistry, TIMER, "findById");
+        this.findVersionById = DeviceMeters.timer(meterRegistry, TIMER, "findVersionById");
+        this.findAll = DeviceMeters.timer(meterRegistry, TIMER, "findAll");
+        this.findByBrand = DeviceMeters.timer(meterRegistry, TIMER, "findByBrand");
+        this.findByState = DeviceMeters.timer(meterRegistry, TIMER, "findByState");
+        this.findByBrandAndState = DeviceMeters.timer(meterRegistry, TIMER, "findByBrandAndState");
+        this.findAllById = DeviceMeters.timer(meterRegistry, TIMER, "findAllById");
+        this.findDevicesById = DeviceMeters.timer(meterRegistry, TIMER, "findDevicesById");
+        this.countByBrandAndState = DeviceMeters.timer(meterRegistry, TIMER, "countByBrandAndState");
+        this.findPage = DeviceMeters.timer(meterRegistry, TIMER, "findPage");
+        this.search = DeviceMeters.timer(meterRegistry, TIMER, "search");
+        this.exportDevices = DeviceMeters.timer(meterRegistry, TIMER, "exportDevices");
+        this.transitionStateChunk = DeviceMeters.timer(meterRegistry, TIMER, "transitionStateChunk");
+        this.deleteById = DeviceMeters.timer(meterRegistry, TIMER, "deleteById");
+        this.deleteUnlessInUse = DeviceMeters.timer(meterRegistry, TIMER, "deleteUnlessInUse");
+        this.deleteAllUnlessInUse = DeviceMeters.timer(meterRegistry, TIMER, "deleteAllUnlessInUse");
+        this.existsById = DeviceMeters.timer(meterRegistry, TIMER, "existsById");
+        this.updateInUseRejections = DeviceMeters.inUseRejections(meterRegistry, "update");
+        this.deleteInUseRejections = DeviceMeters.inUseRejections(meterRegistry, "delete");
+    }
+
+    @Override
+    public Device save(Device device) {
+        return save.record(() -> delegate.save(device));
+    }
+
+    @Override
+    public List<Device> saveAll(Collection<Device> devices) {
+        return saveAll.record(() -> delegate.saveAll(devices));
+    }
+
+    @Override
+    public DeviceWriteResult updateUnlessInUse(UUID id, Device changes, Long expectedVersion) {
+        DeviceWriteResult result = updateUnlessInUse.record(() -> delegate.updateUnlessInUse(id, changes, expectedVersion));
+        if (result.outcome() == DeviceWriteOutcome.IN_USE) {
+            updateInUseRejections.increment();
+        }
+        return result;
+    }
+
+    @Override
+    public Collection<UUID> updateStates(Map<UUID, DeviceStateUpdate> states) {
+        return updateStates.record(() -> delegate.updateStates(states));
+    }
+
+    @Override
+    public Optional<Device> findById(UUID id) {
+        return findById.record(() -> delegate.findById(id));
+    }
+
+    @Override
+    public Optional<Long> findVersionById(UUID id) {
+        return findVersionById.record(() -> delegate.findVersionById(id));
+    }
+
+    @Override
+    public List<Device> findAll() {
+        return findAll.record(delegate::findAll);
+    }
+
+    @Override
+    public List<Device> findByBrand(Brand brand) {
+        return findByBrand.record(() -> delegate.findByBrand(brand));
+    }
+
+    @Override
+    public List<Device> findByState(State state) {
+        return findByState.record(() -> delegate.findByState(state));
+    }
+
+    @Override
+    public List<Device> findByBrandAndState(Brand brand, State state) {
+        return findByBrandAndState.record(() -> delegate.findByBrandAndState(brand, state));
+    }
+
+    @Override
+    public List<Device> findAllById(Collection<UUID> ids) {
+        return findAllById.record(() -> delegate.findAllById(ids));
+    }
+
+    @Override
+    public List<Device> findDevicesById(Collection<UUID> ids) {
+        return findDevicesById.record(() -> delegate.findDevicesById(ids));
+    }
+
+    @Override
+    public DeviceCounts countByBrandAndState() {
+        return countByBrandAndState.record(delegate::countByBrandAndState);
+    }
+
+    @Override
+    public DevicePage findPage(DevicePageRequest request) {
+        return findPage.record(() -> delegate.findPage(request));
+    }
+
+    @Override
+    public DevicePage search(DeviceSearchRequest request) {
+        return search.record(() -> delegate.search(request));
+    }
+
+    @Override
+    public void exportDevices(Brand brand, State state, Consumer<Device> consumer) {
+        exportDevices.record(() -> delegate.exportDevices(brand, state, consumer));
+    }
+
+    @Override
+    public DeviceStateTransitionChunk transitionStateChunk(DeviceStateTransition transition, UUID after) {
+        return transitionStateChunk.record(() -> delegate.transitionStateChunk(transition, after));
+    }
+
+    @Override
+    public void deleteById(UUID id) {
+        deleteById.record(() -> delegate.deleteById(id));
+    }
+
+    @Override
+    public DeviceWriteResult deleteUnlessInUse(UUID id) {
+        DeviceWriteResult result = deleteUnlessInUse.record(() -> delegate.deleteUnlessInUse(id));
+        if (result.outcome() == DeviceWriteOutcome.IN_USE) {
+            deleteInUseRejections.increment();
+        }
+        return result;
+    }
+
+    @Override
+    public List<Device> deleteAllUnlessInUse(Collection<UUID> ids) {
+        return deleteAllUnlessInUse.record(() -> delegate.deleteAllUnlessInUse(ids));
+    }
+
+    @Override
+    public boolean existsById(UUID id) {
+        return existsById.record(() -> delegate.existsById(id));
+    }
+}
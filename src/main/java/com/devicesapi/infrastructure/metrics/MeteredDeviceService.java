@@ -0,0 +1,229 @@
+package com.devicesapi.infrastructure.metrics;
+
+import com.devicesapi.domain.batch.DeviceBatchOperationType;
+import com.devicesapi.domain.batch.DeviceBatchRequest;
+import com.devicesapi.domain.batch.DeviceBatchResult;
+import com.devicesapi.domain.batch.DeviceStateTransition;
+import com.devicesapi.domain.entities.Device;
+import com.devicesapi.domain.enums.Brand;
+import com.devicesapi.domain.enums.State;
+import com.devicesapi.domain.ports.DeviceServicePort;
+import com.devicesapi.domain.queries.DeviceCounts;
+import com.devicesapi.domain.queries.DeviceListVersion;
+import com.devicesapi.domain.queries.DeviceLookup;
+import com.devicesapi.domain.queries.DevicePage;
+import com.devicesapi.domain.queries.DevicePageRequest;
+import com.devicesapi.domain.queries.DeviceSearchRequest;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Times every service port call as {@code devices.service} tagged with the method, and records how
+ * many devices the list methods return as {@code devices.service.results}. The difference to the
+ * {@code devices.persistence} timings is the time spent in the domain itself. Batch operations rejected
+ * because the device is in use are counted into the same {@code devices.rejections.in_use} counters as
+ * the single-device writes.
+ */
+public class MeteredDeviceService implements DeviceServicePort {
+
+    static final String TIMER = "devices.service";
+    static final String RESULTS = "devices.service.results";
+
+    private final DeviceServicePort delegate;
+
+    private final Timer createDevice;
+    private final Timer getDeviceById;
+    private final Timer getDeviceVersion;
+    private final Timer lookupDevices;
+    private final Timer getAllDevices;
+    private final Timer getDevicesByBrand;
+    private final Timer getDevicesByState;
+    private final Timer getDevicesByBrandAndState;
+    private final Timer getDevicesPage;
+    private final Timer searchDevices;
+    private final Timer getListVersion;
+    private final Timer getDeviceCounts;
+    private final Timer exportDevices;
+    private final Timer updateDevice;
+    private final Timer patchDevice;
+    private final Timer deleteDevice;
+    private final Timer executeBatch;
+    private final Timer transitionState;
+    private final DistributionSummary lookupDevicesResults;
+    private final DistributionSummary getAllDevicesResults;
+    private final DistributionSummary getDevicesByBrandResults;
+    private final DistributionSummary getDevicesByStateResults;
+    private final DistributionSummary getDevicesByBrandAndStateResults;
+    private final DistributionSummary getDevicesPageResults;
+    private final DistributionSummary searchDevicesResults;
+    private final DistributionSummary exportDevicesResults;
+    private final Counter updateInUseRejections;
+    private final Counter deleteInUseRejections;
+
+    public MeteredDeviceService(DeviceServicePort delegate, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.createDevice = DeviceMeters.timer(meterRegistry, TIMER, "createDevice");
+        this.getDeviceById = DeviceMeters.timer(meterRegistry, TIMER, "getDeviceById");
+        this.getDeviceVersion = DeviceMeters.timer(meterRegistry, TIMER, "getDeviceVersion");
+        this.lookupDevices = DeviceMeters.timer(meterRegistry, TIMER, "lookupDevices");
+        this.getAllDevices = DeviceMeters.timer(meterRegistry, TIMER, "getAllDevices");
+        this.getDevicesByBrand = DeviceMeters.timer(meterRegistry, TIMER, "getDevicesByBrand");
+        this.getDevicesByState = DeviceMeters.timer(meterRegistry, TIMER, "getDevicesByState");
+        this.getDevicesByBrandAndState = DeviceMeters.timer(meterRegistry, TIMER, "getDevicesByBrandAndState");
+        this.getDevicesPage = DeviceMeters.timer(meterRegistry, TIMER, "getDevicesPage");
+        this.searchDevices = DeviceMeters.timer(meterRegistry, TIMER, "searchDevices");
+        this.getListVersion = DeviceMeters.timer(meterRegistry, TIMER, "getListVersion");
+        this.getDeviceCounts = DeviceMeters.timer(meterRegistry, TIMER, "getDeviceCounts");
+        this.exportDevices = DeviceMeters.timer(meterRegistry, TIMER, "exportDevices");
+        this.updateDevice = DeviceMeters.timer(meterRegistry, TIMER, "updateDevice");
+        this.patchDevice = DeviceMeters.timer(meterRegistry, TIMER, "patchDevice");
+        this.deleteDevice = DeviceMeters.timer(meterRegistry, TIMER, "deleteDevice");
+        this.executeBatch = DeviceMeters.timer(meterRegistry, TIMER, "executeBatch");
+        this.transitionState = DeviceMeters.timer(meterRegistry, TIMER, "transitionState");
+        this.lookupDevicesResults = DeviceMeters.resultSize(meterRegistry, RESULTS, "lookupDevices");
+        this.getAllDevicesResults = DeviceMeters.resultSize(meterRegistry, RESULTS, "getAllDevices");
+        this.getDevicesByBrandResults = DeviceMeters.resultSize(meterRegistry, RESULTS, "getDevicesByBrand");
+        this.getDevicesByStateResults = DeviceMeters.resultSize(meterRegistry, RESULTS, "getDevicesByState");
+        this.getDevicesByBrandAndStateResults = DeviceMeters.resultSize(meterRegistry, RESULTS, "getDevicesByBrandAndState");
+        this.getDevicesPageResults = DeviceMeters.resultSize(meterRegistry, RESULTS, "getDevicesPage");
+        this.searchDevicesResults = DeviceMeters.resultSize(meterRegistry, RESULTS, "searchDevices");
+        this.exportDevicesResults = DeviceMeters.resultSize(meterRegistry, RESULTS, "exportDevices");
+        this.updateInUseRejections = DeviceMeters.inUseRejections(meterRegistry, "update");
+        this.deleteInUseRejections = DeviceMeters.inUseRejections(meterRegistry, "delete");
+    }
+
+    @Override
+    public Device createDevice(Device device) {
+        return createDevice.record(() -> delegate.createDevice(device));
+    }
+
+    @Override
+    public Optional<Device> getDeviceById(UUID id) {
+        return getDeviceById.record(() -> delegate.getDeviceById(id));
+    }
+
+    @Override
+    public Optional<Long> getDeviceVersion(UUID id) {
+        return getDeviceVersion.record(() -> delegate.getDeviceVersion(id));
+    }
+
+    @Override
+    public DeviceLookup lookupDevices(List<UUID> ids) {
+        DeviceLookup lookup = lookupDevices.record(() -> delegate.lookupDevices(ids));
+        lookupDevicesResults.record(lookup.devices().size());
+        return lookup;
+    }
+
+    @Override
+    public List<Device> getAllDevices() {
+        List<Device> devices = getAllDevices.record(delegate::getAllDevices);
+        getAllDevicesResults.record(devices.size());
+        return devices;
+    }
+
+    @Override
+    public List<Device> getDevicesByBrand(Brand brand) {
+        List<Device> devices = getDevicesByBrand.record(() -> delegate.getDevicesByBrand(brand));
+        getDevicesByBrandResults.record(devices.size());
+        return devices;
+    }
+
+    @Override
+    public List<Device> getDevicesByState(State state) {
+        List<Device> devices = getDevicesByState.record(() -> delegate.getDevicesByState(state));
+        getDevicesByStateResults.record(devices.size());
+        return devices;
+    }
+
+    @Override
+    public List<Device> getDevicesByBrandAndState(Brand brand, State state) {
+        List<Device> devices = getDevicesByBrandAndState.record(() -> delegate.getDevicesByBrandAndState(brand, state));
+        getDevicesByBrandAndStateResults.record(devices.size());
+        return devices;
+    }
+
+    @Override
+    public DevicePage getDevicesPage(DevicePageRequest request) {
+        DevicePage page = getDevicesPage.record(() -> delegate.getDevicesPage(request));
+        getDevicesPageResults.record(page.items().size());
+        return page;
+    }
+
+    @Override
+    public DevicePage searchDevices(DeviceSearchRequest request) {
+        DevicePage page = searchDevices.record(() -> delegate.searchDevices(request));
+        searchDevicesResults.record(page.items().size());
+        return page;
+    }
+
+    @Override
+    public DeviceListVersion getListVersion(Brand brand, State state) {
+        return getListVersion.record(() -> delegate.getListVersion(brand, state));
+    }
+
+    @Override
+    public DeviceCounts getDeviceCounts() {
+        return getDeviceCounts.record(delegate::getDeviceCounts);
+    }
+
+    @Override
+    public void exportDevices(Brand brand, State state, Consumer<Device> consumer) {
+        long[] exported = new long[1];
+        try {
+            exportDevices.record(() -> delegate.exportDevices(brand, state, device -> {
+                consumer.accept(device);
+                exported[0]++;
+            }));
+        } finally {
+            exportDevicesResults.record(exported[0]);
+        }
+    }
+
+    @Override
+    public Device updateDevice(UUID id, Device updatedDevice) {
+        return updateDevice.record(() -> delegate.updateDevice(id, updatedDevice));
+    }
+
+    @Override
+    public Device updateDevice(UUID id, Device updatedDevice, Long expectedVersion) {
+        return updateDevice.record(() -> delegate.updateDevice(id, updatedDevice, expectedVersion));
+    }
+
+    @Override
+    public void patchDevice(UUID id, Device deviceToBePatched) {
+        patchDevice.record(() -> delegate.patchDevice(id, deviceToBePatched));
+    }
+
+    @Override
+    public void patchDevice(UUID id, Device deviceToBePatched, Long expectedVersion) {
+        patchDevice.record(() -> delegate.patchDevice(id, deviceToBePatched, expectedVersion));
+    }
+
+    @Override
+    public void deleteDevice(UUID id) {
+        deleteDevice.record(() -> delegate.deleteDevice(id));
+    }
+
+    @Override
+    public List<DeviceBatchResult> executeBatch(DeviceBatchRequest request) {
+        List<DeviceBatchResult> results = executeBatch.record(() -> delegate.executeBatch(request));
+        for (DeviceBatchResult result : results) {
+            if (result.inUse()) {
+                (result.type() == DeviceBatchOperationType.DELETE ? deleteInUseRejections : updateInUseRejections).increment();
+            }
+        }
+        return results;
+    }
+
+    @Override
+    public long transitionState(DeviceStateTransition transition) {
+        return transitionState.record(() -> delegate.transitionState(transition));
+    }
+}
@@ -12,7 +12,16 @@ import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Entity
-@Table(name = "devices")
+@Table(name = "devices", indexes = {
+        @Index(name = "idx_devices_brand", columnList = "brand"),
+        @Index(name = "idx_devices_state", columnList = "state"),
+        @Index(name = "idx_devices_creation_time_id", columnList = "creation_time, id"),
+        @Index(name = "idx_devices_brand_creation_time_id", columnList = "brand, creation_time, id"),
+        @Index(name = "idx_devices_state_creation_time_id", columnList = "state, creation_time, id"),
+        @Index(name = "idx_devices_brand_name", columnList = "brand, name"),
+        @Index(name = "idx_devices_state_name", columnList = "state, name"),
+        @Index(name = "idx_devices_brand_state_creation_time_id", columnList = "brand, state, creation_time, id")
+})
 @Getter
 @NoArgsConstructor
 @AllArgsConstructor
@@ -35,6 +44,14 @@ public class DeviceEntity {
     
     @Column(name = "creation_time", nullable = false)
     private LocalDateTime creationTime;
+
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
+    public DeviceEntity(UUID id, String name, Brand brand, State state, LocalDateTime creationTime) {
+        this(id, name, brand, state, creationTime, null);
+    }
     
     // Static factory methods for creating entities
     public static DeviceEntity createWithTime(String name, Brand brand, State state, LocalDateTime creationTime) {
@@ -47,7 +64,8 @@ public class DeviceEntity {
                 device.getName(),
                 device.getBrand(),
                 device.getState(),
-                device.getCreationTime()
+                device.getCreationTime(),
+                device.getVersion()
         );
     }
     
@@ -58,6 +76,6 @@ public class DeviceEntity {
                 this.brand,
                 this.state,
                 this.creationTime
-        );
+        ).withVersion(this.version);
     }
 }
\ No newline at end of file
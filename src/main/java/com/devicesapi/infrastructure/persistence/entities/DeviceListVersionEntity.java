@@ -0,0 +1,34 @@
+package com.devicesapi.infrastructure.persistence.entities;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * One stored device list version. Mapped for the schema; the rows are read and advanced with plain SQL
+ * by {@link com.devicesapi.infrastructure.adapters.DeviceListVersionPersistence}.
+ */
+@Entity
+@Table(name = "device_list_versions")
+@Getter
+@NoArgsConstructor
+public class DeviceListVersionEntity {
+
+    @Id
+    @Column(name = "partition_key", length = 64)
+    private String partitionKey;
+
+    @Column(nullable = false)
+    private long generation;
+
+    @Column(nullable = false)
+    private long version;
+
+    @Column(name = "last_modified", nullable = false)
+    private Instant lastModified;
+}
@@ -0,0 +1,13 @@
+package com.devicesapi.infrastructure.persistence.projections;
+
+import com.devicesapi.domain.enums.Brand;
+import com.devicesapi.domain.enums.State;
+
+public interface DeviceCountView {
+
+    Brand getBrand();
+
+    State getState();
+
+    long getTotal();
+}
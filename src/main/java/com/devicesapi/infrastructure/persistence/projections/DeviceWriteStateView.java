@@ -0,0 +1,10 @@
+package com.devicesapi.infrastructure.persistence.projections;
+
+import com.devicesapi.domain.enums.State;
+
+public interface DeviceWriteStateView {
+
+    State getState();
+
+    Long getVersion();
+}
@@ -1,20 +1,81 @@
 package com.devicesapi.infrastructure.persistence.repositories;
 
+import com.devicesapi.domain.entities.Device;
 import com.devicesapi.infrastructure.persistence.entities.DeviceEntity;
 import com.devicesapi.domain.enums.Brand;
 import com.devicesapi.domain.enums.State;
+import com.devicesapi.infrastructure.persistence.projections.DeviceCountView;
+import com.devicesapi.infrastructure.persistence.projections.DeviceWriteStateView;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
-public interface DeviceRepository extends JpaRepository<DeviceEntity, UUID> {
+public interface DeviceRepository extends JpaRepository<DeviceEntity, UUID>, JpaSpecificationExecutor<DeviceEntity> {
     
-    List<DeviceEntity> findByBrand(Brand brand);
-    
-    List<DeviceEntity> findByState(State state);
-}
\ No newline at end of file
+    // Constructor projections for the list reads: rows become domain devices directly, so no managed
+    // entities, dirty-checking snapshots or entity-to-domain copies are created
+    @Query("select new com.devicesapi.domain.entities.Device(d.id, d.name, d.brand, d.state, d.creationTime, d.version) from DeviceEntity d")
+    List<Device> findAllDevices();
+
+    @Query("select new com.devicesapi.domain.entities.Device(d.id, d.name, d.brand, d.state, d.creationTime, d.version) from DeviceEntity d where d.brand = :brand")
+    List<Device> findDevicesByBrand(@Param("brand") Brand brand);
+
+    @Query("select new com.devicesapi.domain.entities.Device(d.id, d.name, d.brand, d.state, d.creationTime, d.version) from DeviceEntity d where d.state = :state")
+    List<Device> findDevicesByState(@Param("state") State state);
+
+    @Query("select new com.devicesapi.domain.entities.Device(d.id, d.name, d.brand, d.state, d.creationTime, d.version) from DeviceEntity d where d.brand = :brand and d.state = :state")
+    List<Device> findDevicesByBrandAndState(@Param("brand") Brand brand, @Param("state") State state);
+
+    @Query("select new com.devicesapi.domain.entities.Device(d.id, d.name, d.brand, d.state, d.creationTime, d.version) from DeviceEntity d where d.id in :ids")
+    List<Device> findDevicesByIdIn(@Param("ids") Collection<UUID> ids);
+
+    @Query("select d.brand as brand, d.state as state, count(d) as total from DeviceEntity d group by d.brand, d.state")
+    List<DeviceCountView> countByBrandAndState();
+
+    // Keyset windows: the position becomes a WHERE predicate on the sort keys, so no OFFSET is ever issued
+    Window<DeviceEntity> findBy(ScrollPosition position, Sort sort, Limit limit);
+
+    Window<DeviceEntity> findByBrand(Brand brand, ScrollPosition position, Sort sort, Limit limit);
+
+    Window<DeviceEntity> findByState(State state, ScrollPosition position, Sort sort, Limit limit);
+
+    Window<DeviceEntity> findByBrandAndState(Brand brand, State state, ScrollPosition position, Sort sort, Limit limit);
+
+    // Must be consumed inside a transaction: PostgreSQL only honours the fetch size (server-side cursor) with autocommit off
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select d from DeviceEntity d where (:brand is null or d.brand = :brand) and (:state is null or d.state = :state)")
+    Stream<DeviceEntity> streamAll(@Param("brand") Brand brand, @Param("state") State state);
+
+    // Primary key chunks for set-based state transitions; the first chunk has no lower bound
+    @Query("select d.id from DeviceEntity d where (:brand is null or d.brand = :brand) and d.state = :state order by d.id")
+    List<UUID> findIdsByBrandAndState(@Param("brand") Brand brand, @Param("state") State state, Limit limit);
+
+    @Query("select d.id from DeviceEntity d where (:brand is null or d.brand = :brand) and d.state = :state and d.id > :after order by d.id")
+    List<UUID> findIdsByBrandAndStateAfter(@Param("brand") Brand brand, @Param("state") State state, @Param("after") UUID after, Limit limit);
+
+    // Conditional GETs compare against the version alone, without loading the row into an entity
+    @Query("select d.version from DeviceEntity d where d.id = :id")
+    Optional<Long> findVersionById(@Param("id") UUID id);
+
+    @Query("select d.state as state, d.version as version from DeviceEntity d where d.id = :id")
+    Optional<DeviceWriteStateView> findWriteStateById(@Param("id") UUID id);
+}
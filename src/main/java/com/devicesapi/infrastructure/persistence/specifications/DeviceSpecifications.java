@@ -0,0 +1,55 @@
+package com.devicesapi.infrastructure.persistence.specifications;
+
+import com.devicesapi.domain.queries.DeviceSearchCriteria;
+import com.devicesapi.infrastructure.persistence.entities.DeviceEntity;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public final class DeviceSpecifications {
+
+    private static final char LIKE_ESCAPE = '\\';
+
+    private DeviceSpecifications() {
+    }
+
+    /**
+     * One WHERE clause for every criterion that is set. Brand and state sets become IN lists and the
+     * name prefix a left-anchored LIKE, so (brand, state, creation_time) and name_pattern indexes apply.
+     */
+    public static Specification<DeviceEntity> matching(DeviceSearchCriteria criteria) {
+        return (root, query, builder) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            if (!criteria.brands().isEmpty()) {
+                predicates.add(root.get("brand").in(criteria.brands()));
+            }
+            if (!criteria.states().isEmpty()) {
+                predicates.add(root.get("state").in(criteria.states()));
+            }
+            if (criteria.namePrefix() != null) {
+                predicates.add(builder.like(root.get("name"), escapeLike(criteria.namePrefix()) + "%", LIKE_ESCAPE));
+            }
+            if (criteria.createdFrom() != null) {
+                predicates.add(builder.greaterThanOrEqualTo(root.get("creationTime"), criteria.createdFrom()));
+            }
+            if (criteria.createdTo() != null) {
+                predicates.add(builder.lessThan(root.get("creationTime"), criteria.createdTo()));
+            }
+            return builder.and(predicates.toArray(Predicate[]::new));
+        };
+    }
+
+    // A prefix containing % or _ must match those characters literally
+    private static String escapeLike(String value) {
+        StringBuilder escaped = new StringBuilder(value.length() + 4);
+        for (char c : value.toCharArray()) {
+            if (c == '%' || c == '_' || c == LIKE_ESCAPE) {
+                escaped.append(LIKE_ESCAPE);
+            }
+            escaped.append(c);
+        }
+        return escaped.toString();
+    }
+}
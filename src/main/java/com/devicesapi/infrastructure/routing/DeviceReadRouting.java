@@ -0,0 +1,65 @@
+package com.devicesapi.infrastructure.routing;
+
+import java.time.Instant;
+import java.util.function.Supplier;
+
+/**
+ * Marks the reads of the current thread that a replica may serve. Outside such a scope every
+ * connection comes from the primary, whatever the transaction's read-only flag says, so reads that
+ * guard a write (version checks, existence checks, reloading after an update) never see a lagging copy.
+ * <p>
+ * A scope carries the time of the latest write its reads must see, e.g. the client's own last write:
+ * while that write may not have reached the replicas yet the reads stay on the primary.
+ */
+public final class DeviceReadRouting {
+
+    private static final ThreadLocal<Instant> LAST_WRITE = new ThreadLocal<>();
+
+    private DeviceReadRouting() {
+    }
+
+    /**
+     * Opens a replica read scope on this thread; {@code lastWrite} may be null when no write is known.
+     */
+    public static void replicaReads(Instant lastWrite) {
+        LAST_WRITE.set(lastWrite != null ? lastWrite : Instant.EPOCH);
+    }
+
+    /**
+     * Records another write the reads of the current scope must see; outside a scope it does nothing.
+     */
+    public static void mustSee(Instant write) {
+        Instant current = LAST_WRITE.get();
+        if (current != null && write.isAfter(current)) {
+            LAST_WRITE.set(write);
+        }
+    }
+
+    public static void clear() {
+        LAST_WRITE.remove();
+    }
+
+    /**
+     * Runs reads on the primary even inside a replica read scope, for results that outlive the
+     * request, such as cache entries.
+     */
+    public static <T> T onPrimary(Supplier<T> reads) {
+        Instant scope = LAST_WRITE.get();
+        if (scope == null) {
+            return reads.get();
+        }
+        LAST_WRITE.remove();
+        try {
+            return reads.get();
+        } finally {
+            LAST_WRITE.set(scope);
+        }
+    }
+
+    /**
+     * The latest write the current reads must see, or null outside a replica read scope.
+     */
+    public static Instant lastWrite() {
+        return LAST_WRITE.get();
+    }
+}
@@ -0,0 +1,121 @@
+package com.devicesapi.infrastructure.routing;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Routes connections between the primary and the read replicas, keyed on the transaction's read-only
+ * flag: a read-only transaction inside a {@link DeviceReadRouting} scope reads from the replicas in
+ * turn, everything else goes to the primary. It has to sit behind a
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}, because transaction
+ * managers ask for the connection before the read-only flag of the new transaction is bound.
+ * <p>
+ * A replica that fails to hand out a connection is skipped for {@code downFor}; when none is left
+ * the primary serves the reads.
+ */
+@Slf4j
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+
+    private static final String PRIMARY = "primary";
+
+    private final DataSource primary;
+    private final List<Replica> replicas = new ArrayList<>();
+    private final Duration readYourWrites;
+    private final Duration downFor;
+    private final Clock clock;
+    private final AtomicInteger next = new AtomicInteger();
+
+    public ReadWriteRoutingDataSource(DataSource primary, List<? extends DataSource> replicas, Duration readYourWrites,
+                                      Duration downFor, Clock clock) {
+        this.primary = primary;
+        this.readYourWrites = readYourWrites;
+        this.downFor = downFor;
+        this.clock = clock;
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = new Replica("replica-" + i, replicas.get(i), new AtomicReference<>(Instant.MIN));
+            this.replicas.add(replica);
+            targets.put(replica.name(), replica.dataSource());
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        setLenientFallback(false);
+        afterPropertiesSet();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (routesToReplica()) {
+            for (int attempt = 0; attempt < replicas.size(); attempt++) {
+                Replica replica = nextAvailable();
+                if (replica == null) {
+                    break;
+                }
+                try {
+                    return replica.dataSource().getConnection();
+                } catch (SQLException e) {
+                    replica.downUntil().set(clock.instant().plus(downFor));
+                    log.warn("Read replica {} is unavailable, skipping it for {}: {}", replica.name(), downFor, e.getMessage());
+                }
+            }
+        }
+        return primary.getConnection();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!routesToReplica()) {
+            return PRIMARY;
+        }
+        Replica replica = nextAvailable();
+        return replica != null ? replica.name() : PRIMARY;
+    }
+
+    @Override
+    public void close() throws Exception {
+        for (Replica replica : replicas) {
+            if (replica.dataSource() instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+
+    private boolean routesToReplica() {
+        if (replicas.isEmpty() || !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return false;
+        }
+        Instant lastWrite = DeviceReadRouting.lastWrite();
+        return lastWrite != null && !lastWrite.plus(readYourWrites).isAfter(clock.instant());
+    }
+
+    // Round robin over the replicas that are not marked down
+    private Replica nextAvailable() {
+        Instant now = clock.instant();
+        int start = Math.floorMod(next.getAndIncrement(), replicas.size());
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = replicas.get((start + i) % replicas.size());
+            if (!replica.downUntil().get().isAfter(now)) {
+                return replica;
+            }
+        }
+        return null;
+    }
+
+    private record Replica(String name, DataSource dataSource, AtomicReference<Instant> downUntil) {
+    }
+}
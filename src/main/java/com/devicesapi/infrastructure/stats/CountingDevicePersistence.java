@@ -0,0 +1,108 @@
+package com.devicesapi.infrastructure.stats;
+
+import com.devicesapi.domain.changes.DeviceChange;
+import com.devicesapi.domain.ports.DeviceChangePublisher;
+import com.devicesapi.domain.ports.DevicePersistencePort;
+import com.devicesapi.domain.queries.DeviceCounts;
+import com.devicesapi.infrastructure.adapters.ForwardingDevicePersistence;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+
+/**
+ * Serves {@link #countByBrandAndState()} from an in-memory {@link DeviceCountMatrix} instead of a
+ * GROUP BY per call. The matrix is seeded with one GROUP BY once the application is ready and then
+ * follows every committed create, brand/state change and delete the device service publishes.
+ * <p>
+ * Writes made outside this instance, and deferred state changes that the write-behind later drops,
+ * can leave a cell off by a few; the periodic reconciliation against the database corrects it. Cells
+ * written while the database is counted are skipped by that pass and corrected by a later one.
+ */
+@Slf4j
+public class CountingDevicePersistence extends ForwardingDevicePersistence implements DeviceChangePublisher {
+
+    private final DeviceCountMatrix matrix = new DeviceCountMatrix();
+
+    private volatile boolean seeded;
+    private volatile boolean seedAttempted;
+
+    public CountingDevicePersistence(DevicePersistencePort delegate) {
+        super(delegate);
+    }
+
+    public boolean isSeeded() {
+        return seeded;
+    }
+
+    @Override
+    public DeviceCounts countByBrandAndState() {
+        return seeded ? matrix.snapshot() : delegate.countByBrandAndState();
+    }
+
+    /**
+     * Follows a committed change. The previous brand and state come from the write statement itself, so no
+     * extra read is made and racing writes cannot mislead it; a change that does not name both cells is left
+     * to the reconciliation.
+     */
+    @Override
+    public void publish(DeviceChange change) {
+        switch (change.type()) {
+            case CREATED -> matrix.increment(change.brand(), change.state());
+            case UPDATED, PATCHED -> {
+                if (change.previousBrand() == null || change.previousState() == null) {
+                    log.debug("Device change {} does not name the cell it left; counts wait for the reconciliation", change.id());
+                    return;
+                }
+                matrix.move(change.previousBrand(), change.previousState(), change.brand(), change.state(), 1);
+            }
+            case DELETED -> {
+                if (change.previousBrand() != null && change.previousState() != null) {
+                    matrix.decrement(change.previousBrand(), change.previousState());
+                }
+            }
+        }
+    }
+
+    /**
+     * Seeds the matrix from one GROUP BY. Cells written while the database was counted cannot be trusted,
+     * so the counts are only served from the matrix once a pass skipped no cell; until then the scheduled
+     * reconciliation keeps seeding.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void seed() {
+        seedAttempted = true;
+        DeviceCountMatrix.Reconciliation reconciliation = reconcileMatrix();
+        if (reconciliation.skippedCells() > 0) {
+            log.info("Device count matrix not seeded yet, {} cells were written while counting", reconciliation.skippedCells());
+            return;
+        }
+        seeded = true;
+        log.info("Device count matrix seeded with {} devices", matrix.snapshot().total());
+    }
+
+    @Scheduled(fixedDelayString = "${devices.stats.reconcile-interval:1m}",
+            initialDelayString = "${devices.stats.reconcile-interval:1m}")
+    public long reconcile() {
+        if (!seeded) {
+            if (seedAttempted) {
+                seed();
+            }
+            return 0;
+        }
+        DeviceCountMatrix.Reconciliation reconciliation = reconcileMatrix();
+        if (reconciliation.drift() > 0) {
+            log.warn("Device count matrix drifted from the database by {} devices, corrected", reconciliation.drift());
+        }
+        if (reconciliation.skippedCells() > 0) {
+            log.debug("{} device count cells were written while counting, left for the next reconciliation",
+                    reconciliation.skippedCells());
+        }
+        return reconciliation.drift();
+    }
+
+    private DeviceCountMatrix.Reconciliation reconcileMatrix() {
+        long[][] marks = matrix.writeMarks();
+        return matrix.reconcile(delegate.countByBrandAndState(), marks);
+    }
+}
@@ -0,0 +1,108 @@
+package com.devicesapi.infrastructure.stats;
+
+import com.devicesapi.domain.enums.Brand;
+import com.devicesapi.domain.enums.State;
+import com.devicesapi.domain.queries.DeviceCounts;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Brand x state device counts as striped counters, so concurrent writers never contend on one
+ * cell and a snapshot costs one pass over the fixed-size matrix. Every cell also counts the writes
+ * applied to it, so a reconciliation can tell which cells moved while the database was counted.
+ */
+public class DeviceCountMatrix {
+
+    private final LongAdder[][] cells = new LongAdder[Brand.values().length][State.values().length];
+    private final LongAdder[][] writes = new LongAdder[Brand.values().length][State.values().length];
+
+    public DeviceCountMatrix() {
+        for (int brand = 0; brand < cells.length; brand++) {
+            for (int state = 0; state < cells[brand].length; state++) {
+                cells[brand][state] = new LongAdder();
+                writes[brand][state] = new LongAdder();
+            }
+        }
+    }
+
+    public void increment(Brand brand, State state) {
+        add(brand, state, 1);
+    }
+
+    public void decrement(Brand brand, State state) {
+        add(brand, state, -1);
+    }
+
+    public void move(Brand fromBrand, State fromState, Brand toBrand, State toState, long count) {
+        if (fromBrand == toBrand && fromState == toState) {
+            return;
+        }
+        add(fromBrand, fromState, -count);
+        add(toBrand, toState, count);
+    }
+
+    private void add(Brand brand, State state, long count) {
+        cells[brand.ordinal()][state.ordinal()].add(count);
+        writes[brand.ordinal()][state.ordinal()].increment();
+    }
+
+    /**
+     * Per-cell write sequence to take before counting the database and hand to
+     * {@link #reconcile(DeviceCounts, long[][])} afterwards.
+     */
+    public long[][] writeMarks() {
+        long[][] marks = new long[writes.length][];
+        for (int brand = 0; brand < writes.length; brand++) {
+            marks[brand] = new long[writes[brand].length];
+            for (int state = 0; state < writes[brand].length; state++) {
+                marks[brand][state] = writes[brand][state].sum();
+            }
+        }
+        return marks;
+    }
+
+    /**
+     * Sets every cell to its {@code stored} count unless the cell was written since {@code marks} were
+     * taken: the count may or may not include such a write, so the cell is left as it is and skipped.
+     */
+    public Reconciliation reconcile(DeviceCounts stored, long[][] marks) {
+        long drift = 0;
+        int skipped = 0;
+        for (Brand brand : Brand.values()) {
+            for (State state : State.values()) {
+                LongAdder cell = cells[brand.ordinal()][state.ordinal()];
+                LongAdder cellWrites = writes[brand.ordinal()][state.ordinal()];
+                // A write landing between this check and the add below can still be overwritten; the window
+                // is a few instructions wide and the next reconciliation corrects it
+                if (cellWrites.sum() != marks[brand.ordinal()][state.ordinal()]) {
+                    skipped++;
+                    continue;
+                }
+                long difference = stored.get(brand, state) - cell.sum();
+                if (difference != 0) {
+                    cell.add(difference);
+                    drift += Math.abs(difference);
+                }
+            }
+        }
+        return new Reconciliation(drift, skipped);
+    }
+
+    /**
+     * Outcome of one reconciliation: the total absolute difference corrected and the number of cells
+     * skipped because they were written while the database was counted.
+     */
+    public record Reconciliation(long drift, int skippedCells) {
+    }
+
+    public DeviceCounts snapshot() {
+        long[][] matrix = new long[cells.length][];
+        for (int brand = 0; brand < cells.length; brand++) {
+            matrix[brand] = new long[cells[brand].length];
+            for (int state = 0; state < cells[brand].length; state++) {
+                matrix[brand][state] = cells[brand][state].sum();
+            }
+        }
+        return DeviceCounts.fromMatrix(matrix);
+    }
+}
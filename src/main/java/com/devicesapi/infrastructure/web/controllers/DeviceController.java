@@ -1,29 +1,75 @@
 package com.devicesapi.infrastructure.web.controllers;
 
+import com.devicesapi.application.dto.DeviceBatchRequestDto;
+import com.devicesapi.application.dto.DeviceBatchResponseDto;
+import com.devicesapi.application.dto.DeviceListResponseDto;
+import com.devicesapi.application.dto.DeviceLookupRequestDto;
+import com.devicesapi.application.dto.DeviceLookupResponseDto;
+import com.devicesapi.application.dto.DevicePageResponseDto;
 import com.devicesapi.application.dto.DeviceRequestDto;
 import com.devicesapi.application.dto.DeviceResponseDto;
+import com.devicesapi.application.dto.DeviceStateTransitionRequestDto;
+import com.devicesapi.application.dto.DeviceStateTransitionResponseDto;
+import com.devicesapi.application.dto.DeviceStatsResponseDto;
+import com.devicesapi.domain.batch.DeviceStateTransition;
+import com.devicesapi.domain.changes.DeviceChangeEventId;
 import com.devicesapi.domain.entities.Device;
 import com.devicesapi.domain.enums.Brand;
+import com.devicesapi.domain.enums.DeviceSort;
 import com.devicesapi.domain.enums.State;
 import com.devicesapi.domain.exception.DeviceBadRequestException;
 import com.devicesapi.domain.exception.DeviceNotFoundException;
 import com.devicesapi.domain.ports.DeviceServicePort;
+import com.devicesapi.domain.queries.DeviceCursor;
+import com.devicesapi.domain.queries.DeviceListVersion;
+import com.devicesapi.domain.queries.DevicePageRequest;
+import com.devicesapi.domain.queries.DeviceSearchCriteria;
+import com.devicesapi.domain.queries.DeviceSearchRequest;
+import com.devicesapi.infrastructure.changes.DeviceChangeFeed;
+import com.devicesapi.infrastructure.routing.DeviceReadRouting;
+import com.devicesapi.infrastructure.web.etag.DeviceETags;
+import com.devicesapi.infrastructure.web.etag.DeviceListETags;
+import com.devicesapi.infrastructure.web.routing.ReplicaRead;
+import com.devicesapi.infrastructure.web.streaming.DeviceColumnarFormat;
+import com.devicesapi.infrastructure.web.streaming.DeviceColumnarWriter;
+import com.devicesapi.infrastructure.web.streaming.NdjsonDeviceWriter;
+import com.devicesapi.infrastructure.web.streaming.SseDeviceChangeSink;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.util.MimeTypeUtils;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/devices")
 @RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "devices", name = "stack", havingValue = "servlet", matchIfMissing = true)
 public class DeviceController {
 
+    private static final String LAST_EVENT_ID = "Last-Event-ID";
+    private static final MediaType NDJSON = MediaType.parseMediaType(NdjsonDeviceWriter.MEDIA_TYPE);
+    private static final MediaType COLUMNAR = MediaType.parseMediaType(DeviceColumnarFormat.MEDIA_TYPE);
+
     private final DeviceServicePort deviceService;
+    private final DeviceChangeFeed deviceChangeFeed;
+    private final ObjectMapper objectMapper;
 
     @PostMapping
     public ResponseEntity<DeviceResponseDto> createDevice(@RequestBody DeviceRequestDto dto) {
@@ -31,66 +77,210 @@ public class DeviceController {
         return ResponseEntity.status(HttpStatus.CREATED).body(DeviceResponseDto.fromDomain(createdDevice));
     }
 
+    @PostMapping("/batch")
+    public ResponseEntity<DeviceBatchResponseDto> executeBatch(@RequestBody DeviceBatchRequestDto dto) {
+        return ResponseEntity.ok(DeviceBatchResponseDto.fromDomain(deviceService.executeBatch(dto.toDomain())));
+    }
+
+    @PostMapping("/state-transitions")
+    public ResponseEntity<DeviceStateTransitionResponseDto> transitionState(@RequestBody DeviceStateTransitionRequestDto dto) {
+        DeviceStateTransition transition = dto.toDomain();
+        long affected = deviceService.transitionState(transition);
+        return ResponseEntity.ok(new DeviceStateTransitionResponseDto(transition.brand(), transition.from(), transition.to(), affected));
+    }
+
     @GetMapping("/{id}")
-    public ResponseEntity<DeviceResponseDto> getDeviceById(@PathVariable UUID id) {
+    @ReplicaRead
+    public ResponseEntity<DeviceResponseDto> getDeviceById(@PathVariable UUID id,
+                                                           @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        if (ifNoneMatch != null) {
+            // Revalidation only reads the version column; the device is loaded only when it changed
+            Optional<Long> version = deviceService.getDeviceVersion(id);
+            if (version.isEmpty()) {
+                return ResponseEntity.notFound().build();
+            }
+            if (DeviceETags.matches(ifNoneMatch, version.get())) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(DeviceETags.of(version.get())).build();
+            }
+        }
+
         return deviceService.getDeviceById(id)
-                .map(device -> ResponseEntity.ok(DeviceResponseDto.fromDomain(device)))
+                .map(device -> withETag(ResponseEntity.ok(), device).body(DeviceResponseDto.fromDomain(device)))
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    // A read sent as POST only for its body
+    @PostMapping("/lookup")
+    @ReplicaRead
+    public ResponseEntity<DeviceLookupResponseDto> lookupDevices(@RequestBody DeviceLookupRequestDto dto) {
+        return ResponseEntity.ok(DeviceLookupResponseDto.fromDomain(deviceService.lookupDevices(dto.ids())));
+    }
+
+    // Bounded by the URL length the server accepts; large id lists belong in the POST body
+    @GetMapping("/lookup")
+    public ResponseEntity<DeviceLookupResponseDto> lookupDevices(@RequestParam List<String> ids) {
+        return ResponseEntity.ok(DeviceLookupResponseDto.fromDomain(deviceService.lookupDevices(ids.stream().map(this::toId).toList())));
+    }
+
     @PatchMapping("/{id}")
-    public ResponseEntity<Void> patchDevice(@PathVariable UUID id, @RequestBody DeviceRequestDto dto) {
-        deviceService.patchDevice(id, dto.toDomain());
+    public ResponseEntity<Void> patchDevice(@PathVariable UUID id,
+                                            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                            @RequestBody DeviceRequestDto dto) {
+        deviceService.patchDevice(id, dto.toDomain(), DeviceETags.expectedVersion(ifMatch));
         return ResponseEntity.ok().build();
     }
 
     @GetMapping("/state/{state}")
-    public ResponseEntity<List<DeviceResponseDto>> getDeviceByState(@PathVariable String state) {
-        State stateEnum;
+    @ReplicaRead
+    public ResponseEntity<DeviceListResponseDto> getDeviceByState(@PathVariable String state,
+                                                                  @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+                                                                  @RequestHeader(value = HttpHeaders.IF_MODIFIED_SINCE, required = false) String ifModifiedSince) {
+        State stateEnum = toState(state);
+        return listResponse(null, stateEnum, ifNoneMatch, ifModifiedSince, () -> deviceService.getDevicesByState(stateEnum));
+    }
 
-        try {
-            stateEnum = State.valueOf(state.toUpperCase());
-        } catch (IllegalArgumentException e) {
-            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Enum Value Not Found");
-        }
+    @GetMapping("/brand/{brand}")
+    @ReplicaRead
+    public ResponseEntity<DeviceListResponseDto> getDeviceByBrand(@PathVariable String brand,
+                                                                  @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+                                                                  @RequestHeader(value = HttpHeaders.IF_MODIFIED_SINCE, required = false) String ifModifiedSince) {
+        Brand brandEnum = toBrand(brand);
+        return listResponse(brandEnum, null, ifNoneMatch, ifModifiedSince, () -> deviceService.getDevicesByBrand(brandEnum));
+    }
 
-        List<DeviceResponseDto> deviceResponseDtoList = deviceService.getDevicesByState(stateEnum)
-                .stream()
-                .map(DeviceResponseDto::fromDomain)
-                .toList();
+    @GetMapping("/brand/{brand}/state/{state}")
+    @ReplicaRead
+    public ResponseEntity<DeviceListResponseDto> getDeviceByBrandAndState(@PathVariable String brand, @PathVariable String state,
+                                                                          @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+                                                                          @RequestHeader(value = HttpHeaders.IF_MODIFIED_SINCE, required = false) String ifModifiedSince) {
+        Brand brandEnum = toBrand(brand);
+        State stateEnum = toState(state);
+        return listResponse(brandEnum, stateEnum, ifNoneMatch, ifModifiedSince,
+                () -> deviceService.getDevicesByBrandAndState(brandEnum, stateEnum));
+    }
 
-        return ResponseEntity.ok(deviceResponseDtoList);
+    @GetMapping
+    @ReplicaRead
+    public ResponseEntity<DeviceListResponseDto> getAllDevices(@RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+                                                               @RequestHeader(value = HttpHeaders.IF_MODIFIED_SINCE, required = false) String ifModifiedSince) {
+        return listResponse(null, null, ifNoneMatch, ifModifiedSince, deviceService::getAllDevices);
     }
 
-    @GetMapping("/brand/{brand}")
-    public ResponseEntity<List<DeviceResponseDto>> getDeviceByBrand(@PathVariable String brand) {
-        Brand brandEnum = null;
+    @GetMapping("/paged")
+    public ResponseEntity<DevicePageResponseDto> getAllDevicesPaged(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "creationTime") String sort,
+            @RequestParam(defaultValue = "asc") String direction,
+            @RequestParam(defaultValue = "" + DevicePageRequest.DEFAULT_SIZE) int size) {
+        return ResponseEntity.ok(getDevicesPage(null, null, cursor, sort, direction, size));
+    }
 
-        try {
-            brandEnum = Brand.valueOf(brand.toUpperCase());
-        } catch (IllegalArgumentException e) {
-            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Enum Value Not Found");
-        }
+    @GetMapping("/state/{state}/paged")
+    public ResponseEntity<DevicePageResponseDto> getDeviceByStatePaged(
+            @PathVariable String state,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "creationTime") String sort,
+            @RequestParam(defaultValue = "asc") String direction,
+            @RequestParam(defaultValue = "" + DevicePageRequest.DEFAULT_SIZE) int size) {
+        return ResponseEntity.ok(getDevicesPage(null, toState(state), cursor, sort, direction, size));
+    }
 
-        List<DeviceResponseDto> deviceResponseDtoList = deviceService.getDevicesByBrand(brandEnum)
-                .stream()
-                .map(DeviceResponseDto::fromDomain)
-                .toList();
+    @GetMapping("/brand/{brand}/paged")
+    public ResponseEntity<DevicePageResponseDto> getDeviceByBrandPaged(
+            @PathVariable String brand,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "creationTime") String sort,
+            @RequestParam(defaultValue = "asc") String direction,
+            @RequestParam(defaultValue = "" + DevicePageRequest.DEFAULT_SIZE) int size) {
+        return ResponseEntity.ok(getDevicesPage(toBrand(brand), null, cursor, sort, direction, size));
+    }
 
-        return ResponseEntity.ok(deviceResponseDtoList);
+    @GetMapping("/stats")
+    public ResponseEntity<DeviceStatsResponseDto> getDeviceStats() {
+        return ResponseEntity.ok(DeviceStatsResponseDto.fromDomain(deviceService.getDeviceCounts()));
     }
 
-    @GetMapping
-    public ResponseEntity<List<DeviceResponseDto>> getAllDevices() {
-        return ResponseEntity.ok(deviceService.getAllDevices().stream()
-                .map(DeviceResponseDto::fromDomain)
-                .toList());
+    @GetMapping("/search")
+    public ResponseEntity<DevicePageResponseDto> searchDevices(
+            @RequestParam(required = false) List<String> brand,
+            @RequestParam(required = false) List<String> state,
+            @RequestParam(required = false) String namePrefix,
+            @RequestParam(required = false) String createdFrom,
+            @RequestParam(required = false) String createdTo,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "creationTime") String sort,
+            @RequestParam(defaultValue = "asc") String direction,
+            @RequestParam(defaultValue = "" + DevicePageRequest.DEFAULT_SIZE) int size) {
+        DeviceSearchCriteria criteria = new DeviceSearchCriteria(
+                brand == null ? null : brand.stream().map(this::toBrand).collect(Collectors.toSet()),
+                state == null ? null : state.stream().map(this::toState).collect(Collectors.toSet()),
+                namePrefix,
+                toDateTime("createdFrom", createdFrom),
+                toDateTime("createdTo", createdTo));
+        DeviceSearchRequest request = new DeviceSearchRequest(
+                criteria,
+                DeviceSort.fromParameter(sort),
+                isDescending(direction),
+                size,
+                cursor == null || cursor.isBlank() ? null : DeviceCursor.decode(cursor));
+
+        return ResponseEntity.ok(DevicePageResponseDto.fromDomain(deviceService.searchDevices(request)));
+    }
+
+    // Bounded by spring.mvc.async.request-timeout; clients reconnect with Last-Event-ID and miss nothing buffered
+    @GetMapping(value = "/changes/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamChanges(
+            @RequestParam(required = false) String brand,
+            @RequestParam(required = false) String state,
+            @RequestHeader(value = LAST_EVENT_ID, required = false) String lastEventId) {
+        Brand brandEnum = brand == null ? null : toBrand(brand);
+        State stateEnum = state == null ? null : toState(state);
+
+        SseEmitter emitter = new SseEmitter();
+        DeviceChangeFeed.Subscription subscription = deviceChangeFeed.subscribe(
+                brandEnum, stateEnum, toEventId(lastEventId), new SseDeviceChangeSink(emitter));
+        emitter.onCompletion(subscription::cancel);
+        emitter.onTimeout(subscription::cancel);
+        emitter.onError(e -> subscription.cancel());
+        return emitter;
+    }
+
+    @GetMapping(value = "/export", produces = {NdjsonDeviceWriter.MEDIA_TYPE, DeviceColumnarFormat.MEDIA_TYPE})
+    public ResponseEntity<StreamingResponseBody> exportDevices(
+            @RequestParam(required = false) String brand,
+            @RequestParam(required = false) String state,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        Brand brandEnum = brand == null ? null : toBrand(brand);
+        State stateEnum = state == null ? null : toState(state);
+
+        if (prefersColumnar(accept)) {
+            StreamingResponseBody body = outputStream -> {
+                DeviceColumnarWriter writer = new DeviceColumnarWriter(outputStream);
+                deviceService.exportDevices(brandEnum, stateEnum, writer);
+                writer.finish();
+            };
+            return ResponseEntity.ok()
+                    .contentType(COLUMNAR)
+                    .body(body);
+        }
+
+        StreamingResponseBody body = outputStream -> {
+            NdjsonDeviceWriter writer = new NdjsonDeviceWriter(objectMapper, outputStream);
+            deviceService.exportDevices(brandEnum, stateEnum, writer);
+            writer.finish();
+        };
+
+        return ResponseEntity.ok()
+                .contentType(NDJSON)
+                .body(body);
     }
 
     @PutMapping("/{id}")
-    public ResponseEntity<DeviceResponseDto> updateDevice(@PathVariable UUID id, @RequestBody DeviceRequestDto deviceRequestDto) {
-        Device updatedDevice = deviceService.updateDevice(id, deviceRequestDto.toDomain());
-        return ResponseEntity.ok(DeviceResponseDto.fromDomain(updatedDevice));
+    public ResponseEntity<DeviceResponseDto> updateDevice(@PathVariable UUID id,
+                                                          @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                                          @RequestBody DeviceRequestDto deviceRequestDto) {
+        Device updatedDevice = deviceService.updateDevice(id, deviceRequestDto.toDomain(), DeviceETags.expectedVersion(ifMatch));
+        return withETag(ResponseEntity.ok(), updatedDevice).body(DeviceResponseDto.fromDomain(updatedDevice));
     }
 
     @DeleteMapping("/{id}")
@@ -98,4 +288,126 @@ public class DeviceController {
         deviceService.deleteDevice(id);
         return ResponseEntity.ok().build();
     }
+
+    private DevicePageResponseDto getDevicesPage(Brand brand, State state, String cursor, String sort, String direction, int size) {
+        DevicePageRequest request = new DevicePageRequest(
+                brand,
+                state,
+                DeviceSort.fromParameter(sort),
+                isDescending(direction),
+                size,
+                cursor == null || cursor.isBlank() ? null : DeviceCursor.decode(cursor));
+
+        return DevicePageResponseDto.fromDomain(deviceService.getDevicesPage(request));
+    }
+
+    /**
+     * Answers a conditional list request from the list's change version alone, and only queries when
+     * the list may have changed. The version is read first, so a write racing with the query can only
+     * make the tag older than the body, never newer. For the same reason a list that changed too
+     * recently for the replicas to have caught up is read from the primary. Last-Modified is left out
+     * while the last change falls in the current second, so no later If-Modified-Since, ours or the
+     * one Spring checks against the header, can hide another change made within that second.
+     */
+    private ResponseEntity<DeviceListResponseDto> listResponse(Brand brand, State state, String ifNoneMatch, String ifModifiedSince,
+                                                               Supplier<List<Device>> devices) {
+        DeviceListVersion version = deviceService.getListVersion(brand, state);
+        DeviceReadRouting.mustSee(version.lastModified());
+        Instant now = Instant.now();
+        if (DeviceListETags.isNotModified(ifNoneMatch, ifModifiedSince, version, now)) {
+            return withLastModified(ResponseEntity.status(HttpStatus.NOT_MODIFIED), version, now)
+                    .eTag(DeviceListETags.of(version))
+                    .varyBy(HttpHeaders.ACCEPT)
+                    .build();
+        }
+        return withLastModified(ResponseEntity.ok(), version, now)
+                .eTag(DeviceListETags.of(version))
+                .varyBy(HttpHeaders.ACCEPT)
+                .body(DeviceListResponseDto.fromDomain(devices.get()));
+    }
+
+    private ResponseEntity.BodyBuilder withLastModified(ResponseEntity.BodyBuilder builder, DeviceListVersion version, Instant now) {
+        return DeviceListETags.isSettled(version, now) ? builder.lastModified(version.lastModified()) : builder;
+    }
+
+    private ResponseEntity.BodyBuilder withETag(ResponseEntity.BodyBuilder builder, Device device) {
+        return device.getVersion() == null ? builder : builder.eTag(DeviceETags.of(device.getVersion()));
+    }
+
+    private Brand toBrand(String brand) {
+        try {
+            return Brand.valueOf(brand.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Enum Value Not Found");
+        }
+    }
+
+    private State toState(String state) {
+        try {
+            return State.valueOf(state.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Enum Value Not Found");
+        }
+    }
+
+    // The most preferred acceptable type by quality, then specificity, decides; wildcards and ties go to NDJSON
+    private boolean prefersColumnar(String accept) {
+        if (accept == null || accept.isBlank()) {
+            return false;
+        }
+        List<MediaType> accepted = MediaType.parseMediaTypes(accept);
+        MimeTypeUtils.sortBySpecificity(accepted);
+        for (MediaType mediaType : accepted) {
+            if (mediaType.getQualityValue() == 0) {
+                continue;
+            }
+            if (mediaType.includes(NDJSON)) {
+                return false;
+            }
+            if (mediaType.includes(COLUMNAR)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private UUID toId(String id) {
+        try {
+            return UUID.fromString(id.trim());
+        } catch (IllegalArgumentException e) {
+            throw new DeviceBadRequestException("Invalid device id '" + id + "'");
+        }
+    }
+
+    private DeviceChangeEventId toEventId(String lastEventId) {
+        if (lastEventId == null || lastEventId.isBlank()) {
+            return null;
+        }
+        try {
+            return DeviceChangeEventId.parse(lastEventId);
+        } catch (IllegalArgumentException e) {
+            throw new DeviceBadRequestException("Invalid " + LAST_EVENT_ID + " '" + lastEventId + "'");
+        }
+    }
+
+    private LocalDateTime toDateTime(String parameter, String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            return LocalDateTime.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new DeviceBadRequestException("Invalid " + parameter + " '" + value + "'");
+        }
+    }
+
+    private boolean isDescending(String direction) {
+        if ("asc".equalsIgnoreCase(direction)) {
+            return false;
+        }
+        if ("desc".equalsIgnoreCase(direction)) {
+            return true;
+        }
+        throw new DeviceBadRequestException("Unsupported direction '" + direction + "'");
+    }
 }
\ No newline at end of file
@@ -3,6 +3,9 @@ package com.devicesapi.infrastructure.web.controllers.exception;
 import com.devicesapi.domain.exception.DeviceBadRequestException;
 import com.devicesapi.domain.exception.DeviceBusinessException;
 import com.devicesapi.domain.exception.DeviceNotFoundException;
+import com.devicesapi.domain.exception.DeviceOverloadedException;
+import com.devicesapi.domain.exception.DevicePreconditionFailedException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -52,6 +55,28 @@ public class GlobalExceptionHandler {
         ));
     }
 
+    @ExceptionHandler(DevicePreconditionFailedException.class)
+    public ResponseEntity<Map<String, Object>> handleDevicePreconditionFailed(DevicePreconditionFailedException ex) {
+        return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).body(Map.of(
+                "timestamp", Instant.now(),
+                "error", "Precondition failed",
+                "message", ex.getMessage()
+        ));
+    }
+
+    @ExceptionHandler(DeviceOverloadedException.class)
+    public ResponseEntity<Map<String, Object>> handleDeviceOverloaded(DeviceOverloadedException ex) {
+        // Retry-After takes whole seconds; round up so clients never come back early
+        long seconds = Math.max(1, (ex.getRetryAfter().toMillis() + 999) / 1000);
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(seconds))
+                .body(Map.of(
+                        "timestamp", Instant.now(),
+                        "error", "Service unavailable",
+                        "message", ex.getMessage()
+                ));
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<Map<String, Object>> handleValidationErrors(MethodArgumentNotValidException ex) {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of(
@@ -0,0 +1,61 @@
+package com.devicesapi.infrastructure.web.etag;
+
+import com.devicesapi.domain.exception.DeviceBadRequestException;
+import com.devicesapi.domain.exception.DevicePreconditionFailedException;
+
+/**
+ * Strong entity tags for single devices: the quoted optimistic locking version, e.g. {@code "3"}.
+ */
+public final class DeviceETags {
+
+    private static final String WEAK_PREFIX = "W/";
+
+    private DeviceETags() {
+    }
+
+    public static String of(long version) {
+        return "\"" + version + "\"";
+    }
+
+    /**
+     * {@code If-None-Match} check; uses the weak comparison, so {@code W/"3"} also matches version 3.
+     */
+    public static boolean matches(String ifNoneMatch, long version) {
+        String current = of(version);
+        for (String tag : ifNoneMatch.split(",")) {
+            String candidate = tag.trim();
+            if (candidate.equals("*")) {
+                return true;
+            }
+            if (candidate.startsWith(WEAK_PREFIX)) {
+                candidate = candidate.substring(WEAK_PREFIX.length());
+            }
+            if (candidate.equals(current)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * The version an {@code If-Match} header requires, or null when any version will do.
+     */
+    public static Long expectedVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.contains(",")) {
+            throw new DeviceBadRequestException("If-Match must name a single entity tag");
+        }
+        // If-Match uses the strong comparison: weak or foreign tags can never match
+        if (tag.length() < 3 || !tag.startsWith("\"") || !tag.endsWith("\"")) {
+            throw new DevicePreconditionFailedException("If-Match does not match the current device version");
+        }
+        try {
+            return Long.parseLong(tag.substring(1, tag.length() - 1));
+        } catch (NumberFormatException e) {
+            throw new DevicePreconditionFailedException("If-Match does not match the current device version");
+        }
+    }
+}
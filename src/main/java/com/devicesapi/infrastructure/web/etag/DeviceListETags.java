@@ -0,0 +1,70 @@
+package com.devicesapi.infrastructure.web.etag;
+
+import com.devicesapi.domain.queries.DeviceListVersion;
+
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Weak entity tags for device lists, built from the list's change version, e.g. {@code W/"1a2b-17"}.
+ * They are weak because the same list can be written as JSON or in the columnar format.
+ */
+public final class DeviceListETags {
+
+    private DeviceListETags() {
+    }
+
+    public static String of(DeviceListVersion version) {
+        return "W/\"" + Long.toHexString(version.generation()) + "-" + version.version() + "\"";
+    }
+
+    /**
+     * Whether a conditional GET can be answered with 304. {@code If-Modified-Since} only counts when
+     * there is no {@code If-None-Match}; a date that cannot be parsed is ignored, and so is any date
+     * while the list's last change falls in the current second, since a later change within that
+     * second would carry the same HTTP date.
+     */
+    public static boolean isNotModified(String ifNoneMatch, String ifModifiedSince, DeviceListVersion version, Instant now) {
+        if (ifNoneMatch != null) {
+            return matches(ifNoneMatch, version);
+        }
+        if (ifModifiedSince == null || !isSettled(version, now)) {
+            return false;
+        }
+        try {
+            Instant since = ZonedDateTime.parse(ifModifiedSince.trim(), DateTimeFormatter.RFC_1123_DATE_TIME).toInstant();
+            // HTTP dates have whole seconds
+            return version.lastModified().getEpochSecond() <= since.getEpochSecond();
+        } catch (DateTimeParseException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Whether the list's last change lies in an earlier second than {@code now}, so no later change can
+     * share its HTTP date.
+     */
+    public static boolean isSettled(DeviceListVersion version, Instant now) {
+        return version.lastModified().getEpochSecond() < now.getEpochSecond();
+    }
+
+    // Weak comparison, so a strong tag naming the same version matches too
+    private static boolean matches(String ifNoneMatch, DeviceListVersion version) {
+        String current = of(version).substring(2);
+        for (String tag : ifNoneMatch.split(",")) {
+            String candidate = tag.trim();
+            if (candidate.equals("*")) {
+                return true;
+            }
+            if (candidate.startsWith("W/")) {
+                candidate = candidate.substring(2);
+            }
+            if (candidate.equals(current)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
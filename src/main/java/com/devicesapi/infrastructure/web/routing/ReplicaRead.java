@@ -0,0 +1,16 @@
+package com.devicesapi.infrastructure.web.routing;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a read-only endpoint whose queries may be served by a read replica when read routing is
+ * enabled, see {@link ReplicaReadInterceptor}. Whatever its HTTP method, the endpoint does not count
+ * as a write for read-your-writes.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ReplicaRead {
+}
@@ -0,0 +1,74 @@
+package com.devicesapi.infrastructure.web.routing;
+
+import com.devicesapi.infrastructure.routing.DeviceReadRouting;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseCookie;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.util.WebUtils;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Set;
+
+/**
+ * Opens a replica read scope for {@link ReplicaRead} endpoints and gives clients read-your-writes:
+ * every other request with a write method gets a cookie with the time it started, so reads sent as
+ * POST, like the bulk lookup, do not pin the client to the primary. While that time is within
+ * {@code readYourWrites} the client's reads stay on the primary. The cookie expires with the window,
+ * so clients that keep cookies need nothing else; instances share no state for it.
+ */
+public class ReplicaReadInterceptor implements HandlerInterceptor {
+
+    public static final String LAST_WRITE_COOKIE = "devices-last-write";
+
+    private static final Set<String> WRITE_METHODS = Set.of(
+            HttpMethod.POST.name(), HttpMethod.PUT.name(), HttpMethod.PATCH.name(), HttpMethod.DELETE.name());
+
+    private final Duration readYourWrites;
+    private final Clock clock;
+
+    public ReplicaReadInterceptor(Duration readYourWrites, Clock clock) {
+        this.readYourWrites = readYourWrites;
+        this.clock = clock;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (handler instanceof HandlerMethod method && method.hasMethodAnnotation(ReplicaRead.class)) {
+            DeviceReadRouting.replicaReads(lastWrite(request));
+        } else if (WRITE_METHODS.contains(request.getMethod())) {
+            // Set before the write runs: the response may be committed by the time it has
+            ResponseCookie cookie = ResponseCookie.from(LAST_WRITE_COOKIE, String.valueOf(clock.millis()))
+                    .path("/")
+                    .httpOnly(true)
+                    .sameSite("Lax")
+                    .maxAge(Duration.ofSeconds((readYourWrites.toMillis() + 999) / 1000))
+                    .build();
+            response.addHeader(HttpHeaders.SET_COOKIE, cookie.toString());
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        DeviceReadRouting.clear();
+    }
+
+    private static Instant lastWrite(HttpServletRequest request) {
+        Cookie cookie = WebUtils.getCookie(request, LAST_WRITE_COOKIE);
+        if (cookie == null) {
+            return null;
+        }
+        try {
+            return Instant.ofEpochMilli(Long.parseLong(cookie.getValue()));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
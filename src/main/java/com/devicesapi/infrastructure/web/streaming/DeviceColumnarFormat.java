@@ -0,0 +1,60 @@
+package com.devicesapi.infrastructure.web.streaming;
+
+import com.devicesapi.domain.enums.Brand;
+import com.devicesapi.domain.enums.State;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * A compact binary encoding of devices for service-to-service transfers of the whole catalog.
+ * All numbers are big-endian.
+ * <pre>
+ * header: "DEVC", version byte,
+ *         brand dictionary and state dictionary: count byte, then per entry a length byte and ASCII name
+ * block:  int device count (0 ends the stream), then one column after another:
+ *         16-byte ids, brand bytes, state bytes (dictionary index, 0xFF for none),
+ *         creation times as long microseconds since 1970-01-01T00:00 (Long.MIN_VALUE for none),
+ *         name lengths as varints of length + 1 (0 for none), then the UTF-8 names back to back
+ * </pre>
+ * Creation times are kept to the microsecond, the precision the database stores them with.
+ */
+public final class DeviceColumnarFormat {
+
+    public static final String MEDIA_TYPE = "application/vnd.devices.columnar";
+
+    static final byte[] MAGIC = "DEVC".getBytes(StandardCharsets.US_ASCII);
+    static final int VERSION = 1;
+    static final int BLOCK_SIZE = 1024;
+    static final int NONE = 0xFF;
+    static final long NO_TIME = Long.MIN_VALUE;
+
+    static final String[] BRANDS = names(Brand.values());
+    static final String[] STATES = names(State.values());
+
+    private static final LocalDateTime EPOCH = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    private DeviceColumnarFormat() {
+    }
+
+    static long toMicros(LocalDateTime time) {
+        if (time == null) {
+            return NO_TIME;
+        }
+        return Math.addExact(Math.multiplyExact(time.toEpochSecond(ZoneOffset.UTC), 1_000_000L), time.getNano() / 1_000);
+    }
+
+    static LocalDateTime fromMicros(long micros) {
+        return micros == NO_TIME ? null : EPOCH.plus(micros, ChronoUnit.MICROS);
+    }
+
+    private static String[] names(Enum<?>[] values) {
+        String[] names = new String[values.length];
+        for (int i = 0; i < values.length; i++) {
+            names[i] = values[i].name();
+        }
+        return names;
+    }
+}
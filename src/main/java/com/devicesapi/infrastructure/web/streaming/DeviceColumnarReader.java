@@ -0,0 +1,113 @@
+package com.devicesapi.infrastructure.web.streaming;
+
+import com.devicesapi.domain.entities.Device;
+import com.devicesapi.domain.enums.Brand;
+import com.devicesapi.domain.enums.State;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Decodes {@link DeviceColumnarFormat}. Dictionary entries are matched to enum constants by name, so a
+ * client keeps working when the server adds values: devices with values it does not know get none.
+ */
+public class DeviceColumnarReader {
+
+    private final DataInputStream input;
+    private final Brand[] brands;
+    private final State[] states;
+
+    public DeviceColumnarReader(InputStream inputStream) throws IOException {
+        this.input = new DataInputStream(new BufferedInputStream(inputStream, 16 * 1024));
+        byte[] magic = input.readNBytes(DeviceColumnarFormat.MAGIC.length);
+        if (!Arrays.equals(magic, DeviceColumnarFormat.MAGIC)) {
+            throw new IOException("Not a columnar device stream");
+        }
+        int version = input.readUnsignedByte();
+        if (version != DeviceColumnarFormat.VERSION) {
+            throw new IOException("Unsupported columnar device stream version " + version);
+        }
+        this.brands = readDictionary(Brand.class, Brand[]::new);
+        this.states = readDictionary(State.class, State[]::new);
+    }
+
+    public static List<Device> readAll(InputStream inputStream) throws IOException {
+        List<Device> devices = new ArrayList<>();
+        new DeviceColumnarReader(inputStream).read(devices::add);
+        return devices;
+    }
+
+    public void read(Consumer<Device> consumer) throws IOException {
+        int size;
+        while ((size = input.readInt()) > 0) {
+            UUID[] ids = new UUID[size];
+            for (int i = 0; i < size; i++) {
+                ids[i] = new UUID(input.readLong(), input.readLong());
+            }
+            Brand[] blockBrands = new Brand[size];
+            for (int i = 0; i < size; i++) {
+                blockBrands[i] = lookup(brands, input.readUnsignedByte());
+            }
+            State[] blockStates = new State[size];
+            for (int i = 0; i < size; i++) {
+                blockStates[i] = lookup(states, input.readUnsignedByte());
+            }
+            long[] micros = new long[size];
+            for (int i = 0; i < size; i++) {
+                micros[i] = input.readLong();
+            }
+            int[] nameLengths = new int[size];
+            for (int i = 0; i < size; i++) {
+                nameLengths[i] = readVarInt();
+            }
+            for (int i = 0; i < size; i++) {
+                String name = nameLengths[i] == 0 ? null : readString(nameLengths[i] - 1, StandardCharsets.UTF_8);
+                consumer.accept(Device.createWithIdAndTime(ids[i], name, blockBrands[i], blockStates[i],
+                        DeviceColumnarFormat.fromMicros(micros[i])));
+            }
+        }
+    }
+
+    private String readString(int length, Charset charset) throws IOException {
+        byte[] bytes = new byte[length];
+        input.readFully(bytes);
+        return new String(bytes, charset);
+    }
+
+    private int readVarInt() throws IOException {
+        int value = 0;
+        for (int shift = 0; ; shift += 7) {
+            int b = input.readUnsignedByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+    }
+
+    private <E extends Enum<E>> E[] readDictionary(Class<E> type, Function<Integer, E[]> arrayFactory) throws IOException {
+        E[] values = arrayFactory.apply(input.readUnsignedByte());
+        for (int i = 0; i < values.length; i++) {
+            String name = readString(input.readUnsignedByte(), StandardCharsets.US_ASCII);
+            values[i] = Arrays.stream(type.getEnumConstants())
+                    .filter(value -> value.name().equals(name))
+                    .findFirst()
+                    .orElse(null);
+        }
+        return values;
+    }
+
+    private static <E> E lookup(E[] dictionary, int index) {
+        return index < dictionary.length ? dictionary[index] : null;
+    }
+}
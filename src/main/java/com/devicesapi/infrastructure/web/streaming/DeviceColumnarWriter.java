@@ -0,0 +1,130 @@
+package com.devicesapi.infrastructure.web.streaming;
+
+import com.devicesapi.domain.entities.Device;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Consumer;
+
+import static com.devicesapi.infrastructure.web.streaming.DeviceColumnarFormat.BLOCK_SIZE;
+import static com.devicesapi.infrastructure.web.streaming.DeviceColumnarFormat.NONE;
+
+/**
+ * Writes devices in {@link DeviceColumnarFormat}, one block of up to {@code BLOCK_SIZE} devices at a
+ * time, encoded into a reused buffer. Every block is flushed as it is written, so an export reaches
+ * the client block by block.
+ */
+public class DeviceColumnarWriter implements Consumer<Device> {
+
+    // Every column but the names
+    private static final int FIXED_BYTES_PER_DEVICE = 16 + 1 + 1 + 8;
+
+    private final OutputStream outputStream;
+    private final Device[] block = new Device[BLOCK_SIZE];
+    private final byte[][] names = new byte[BLOCK_SIZE][];
+    private ByteBuffer buffer = ByteBuffer.allocate(4 + BLOCK_SIZE * (FIXED_BYTES_PER_DEVICE + 32));
+    private int size;
+
+    public DeviceColumnarWriter(OutputStream outputStream) throws IOException {
+        this.outputStream = outputStream;
+        buffer.put(DeviceColumnarFormat.MAGIC);
+        buffer.put((byte) DeviceColumnarFormat.VERSION);
+        putDictionary(DeviceColumnarFormat.BRANDS);
+        putDictionary(DeviceColumnarFormat.STATES);
+    }
+
+    @Override
+    public void accept(Device device) {
+        block[size++] = device;
+        if (size == BLOCK_SIZE) {
+            try {
+                writeBlock();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    public void writeAll(Iterable<Device> devices) {
+        devices.forEach(this);
+    }
+
+    public void finish() throws IOException {
+        if (size > 0) {
+            writeBlock();
+        }
+        buffer.putInt(0);
+        writeBuffer();
+    }
+
+    private void writeBlock() throws IOException {
+        int nameBytes = 0;
+        for (int i = 0; i < size; i++) {
+            String name = block[i].getName();
+            names[i] = name == null ? null : name.getBytes(StandardCharsets.UTF_8);
+            nameBytes += names[i] == null ? 1 : names[i].length + 5;
+        }
+        ensureCapacity(4 + size * FIXED_BYTES_PER_DEVICE + nameBytes);
+
+        buffer.putInt(size);
+        for (int i = 0; i < size; i++) {
+            buffer.putLong(block[i].getId().getMostSignificantBits());
+            buffer.putLong(block[i].getId().getLeastSignificantBits());
+        }
+        for (int i = 0; i < size; i++) {
+            buffer.put((byte) (block[i].getBrand() == null ? NONE : block[i].getBrand().ordinal()));
+        }
+        for (int i = 0; i < size; i++) {
+            buffer.put((byte) (block[i].getState() == null ? NONE : block[i].getState().ordinal()));
+        }
+        for (int i = 0; i < size; i++) {
+            buffer.putLong(DeviceColumnarFormat.toMicros(block[i].getCreationTime()));
+        }
+        for (int i = 0; i < size; i++) {
+            putVarInt(names[i] == null ? 0 : names[i].length + 1);
+        }
+        for (int i = 0; i < size; i++) {
+            if (names[i] != null) {
+                buffer.put(names[i]);
+            }
+            block[i] = null;
+            names[i] = null;
+        }
+        size = 0;
+        writeBuffer();
+    }
+
+    private void writeBuffer() throws IOException {
+        outputStream.write(buffer.array(), 0, buffer.position());
+        outputStream.flush();
+        buffer.clear();
+    }
+
+    private void ensureCapacity(int bytes) {
+        if (buffer.remaining() < bytes) {
+            ByteBuffer larger = ByteBuffer.allocate(buffer.position() + bytes);
+            larger.put(buffer.array(), 0, buffer.position());
+            buffer = larger;
+        }
+    }
+
+    private void putVarInt(int value) {
+        while ((value & ~0x7F) != 0) {
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    private void putDictionary(String[] names) {
+        buffer.put((byte) names.length);
+        for (String name : names) {
+            byte[] bytes = name.getBytes(StandardCharsets.US_ASCII);
+            buffer.put((byte) bytes.length);
+            buffer.put(bytes);
+        }
+    }
+}
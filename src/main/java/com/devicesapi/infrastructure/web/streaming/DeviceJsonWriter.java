@@ -0,0 +1,242 @@
+package com.devicesapi.infrastructure.web.streaming;
+
+import com.devicesapi.domain.entities.Device;
+import com.devicesapi.domain.enums.Brand;
+import com.devicesapi.domain.enums.State;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.UUID;
+
+/**
+ * Writes devices as the JSON Jackson produces for {@link com.devicesapi.application.dto.DeviceResponseDto}
+ * with Spring Boot's ObjectMapper defaults, byte for byte, without going through the DTO or any
+ * intermediate String: field names and enum values are pre-encoded, ids and creation times are
+ * formatted digit by digit into a reused buffer.
+ */
+public class DeviceJsonWriter {
+
+    private static final int BUFFER_SIZE = 8192;
+    // Longest fixed-size part of a device: everything but the name
+    private static final int MAX_DEVICE_BYTES = 160;
+
+    private static final byte[] ID = ascii("{\"id\":");
+    private static final byte[] NAME = ascii(",\"name\":");
+    private static final byte[] BRAND = ascii(",\"brand\":");
+    private static final byte[] STATE = ascii(",\"state\":");
+    private static final byte[] CREATION_TIME = ascii(",\"creationTime\":");
+    private static final byte[] NULL = ascii("null");
+    private static final byte[][] BRANDS = quoted(Brand.values());
+    private static final byte[][] STATES = quoted(State.values());
+    private static final byte[] HEX = ascii("0123456789abcdef");
+    private static final byte[] ESCAPE_HEX = ascii("0123456789ABCDEF");
+
+    private final OutputStream outputStream;
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+    private int position;
+
+    public DeviceJsonWriter(OutputStream outputStream) {
+        this.outputStream = outputStream;
+    }
+
+    public void writeArray(Iterable<Device> devices) throws IOException {
+        writeByte('[');
+        boolean first = true;
+        for (Device device : devices) {
+            if (!first) {
+                writeByte(',');
+            }
+            write(device);
+            first = false;
+        }
+        writeByte(']');
+    }
+
+    public void write(Device device) throws IOException {
+        ensureCapacity(MAX_DEVICE_BYTES);
+        writeBytes(ID);
+        writeUuid(device.getId());
+        writeBytes(NAME);
+        writeString(device.getName());
+        ensureCapacity(MAX_DEVICE_BYTES);
+        writeBytes(BRAND);
+        writeBytes(device.getBrand() == null ? NULL : BRANDS[device.getBrand().ordinal()]);
+        writeBytes(STATE);
+        writeBytes(device.getState() == null ? NULL : STATES[device.getState().ordinal()]);
+        writeBytes(CREATION_TIME);
+        writeDateTime(device.getCreationTime());
+        writeByte('}');
+    }
+
+    public void flush() throws IOException {
+        outputStream.write(buffer, 0, position);
+        position = 0;
+        outputStream.flush();
+    }
+
+    private void writeUuid(UUID id) {
+        if (id == null) {
+            writeBytes(NULL);
+            return;
+        }
+        long most = id.getMostSignificantBits();
+        long least = id.getLeastSignificantBits();
+        buffer[position++] = '"';
+        writeHex(most >>> 32, 8);
+        buffer[position++] = '-';
+        writeHex(most >>> 16, 4);
+        buffer[position++] = '-';
+        writeHex(most, 4);
+        buffer[position++] = '-';
+        writeHex(least >>> 48, 4);
+        buffer[position++] = '-';
+        writeHex(least, 12);
+        buffer[position++] = '"';
+    }
+
+    private void writeHex(long value, int digits) {
+        for (int i = digits - 1; i >= 0; i--) {
+            buffer[position + i] = HEX[(int) (value & 0xF)];
+            value >>>= 4;
+        }
+        position += digits;
+    }
+
+    // ISO_LOCAL_DATE_TIME: seconds always present, fraction only as long as needed
+    private void writeDateTime(LocalDateTime time) {
+        if (time == null) {
+            writeBytes(NULL);
+            return;
+        }
+        if (time.getYear() < 0 || time.getYear() > 9999) {
+            writeBytes(ascii('"' + DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(time) + '"'));
+            return;
+        }
+        buffer[position++] = '"';
+        writeDigits(time.getYear(), 4);
+        buffer[position++] = '-';
+        writeDigits(time.getMonthValue(), 2);
+        buffer[position++] = '-';
+        writeDigits(time.getDayOfMonth(), 2);
+        buffer[position++] = 'T';
+        writeDigits(time.getHour(), 2);
+        buffer[position++] = ':';
+        writeDigits(time.getMinute(), 2);
+        buffer[position++] = ':';
+        writeDigits(time.getSecond(), 2);
+        int nano = time.getNano();
+        if (nano > 0) {
+            int digits = 9;
+            while (nano % 10 == 0) {
+                nano /= 10;
+                digits--;
+            }
+            buffer[position++] = '.';
+            writeDigits(nano, digits);
+        }
+        buffer[position++] = '"';
+    }
+
+    private void writeDigits(int value, int digits) {
+        for (int i = digits - 1; i >= 0; i--) {
+            buffer[position + i] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+        position += digits;
+    }
+
+    // Jackson's default escaping: quote, backslash, control characters and surrogates; everything else as UTF-8
+    private void writeString(String value) throws IOException {
+        if (value == null) {
+            writeBytes(NULL);
+            return;
+        }
+        ensureCapacity(2);
+        buffer[position++] = '"';
+        int length = value.length();
+        for (int i = 0; i < length; i++) {
+            ensureCapacity(6);
+            char c = value.charAt(i);
+            if (c >= 0x80) {
+                writeNonAscii(c);
+            } else if (c == '"' || c == '\\') {
+                buffer[position++] = '\\';
+                buffer[position++] = (byte) c;
+            } else if (c < 0x20) {
+                writeControl(c);
+            } else {
+                buffer[position++] = (byte) c;
+            }
+        }
+        ensureCapacity(1);
+        buffer[position++] = '"';
+    }
+
+    private void writeNonAscii(char c) {
+        if (c < 0x800) {
+            buffer[position++] = (byte) (0xC0 | (c >> 6));
+            buffer[position++] = (byte) (0x80 | (c & 0x3F));
+        } else if (Character.isSurrogate(c)) {
+            // Jackson escapes surrogates one by one rather than combining pairs into a 4-byte sequence
+            buffer[position++] = '\\';
+            buffer[position++] = 'u';
+            buffer[position++] = ESCAPE_HEX[c >> 12];
+            buffer[position++] = ESCAPE_HEX[(c >> 8) & 0xF];
+            buffer[position++] = ESCAPE_HEX[(c >> 4) & 0xF];
+            buffer[position++] = ESCAPE_HEX[c & 0xF];
+        } else {
+            buffer[position++] = (byte) (0xE0 | (c >> 12));
+            buffer[position++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+            buffer[position++] = (byte) (0x80 | (c & 0x3F));
+        }
+    }
+
+    private void writeControl(char c) {
+        buffer[position++] = '\\';
+        switch (c) {
+            case '\b' -> buffer[position++] = 'b';
+            case '\t' -> buffer[position++] = 't';
+            case '\n' -> buffer[position++] = 'n';
+            case '\f' -> buffer[position++] = 'f';
+            case '\r' -> buffer[position++] = 'r';
+            default -> {
+                buffer[position++] = 'u';
+                buffer[position++] = '0';
+                buffer[position++] = '0';
+                buffer[position++] = ESCAPE_HEX[c >> 4];
+                buffer[position++] = ESCAPE_HEX[c & 0xF];
+            }
+        }
+    }
+
+    private void writeBytes(byte[] bytes) {
+        System.arraycopy(bytes, 0, buffer, position, bytes.length);
+        position += bytes.length;
+    }
+
+    private void writeByte(char c) throws IOException {
+        ensureCapacity(1);
+        buffer[position++] = (byte) c;
+    }
+
+    private void ensureCapacity(int bytes) throws IOException {
+        if (position + bytes > buffer.length) {
+            outputStream.write(buffer, 0, position);
+            position = 0;
+        }
+    }
+
+    private static byte[] ascii(String value) {
+        return value.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    private static byte[][] quoted(Enum<?>[] values) {
+        return Arrays.stream(values)
+                .map(value -> ascii('"' + value.name() + '"'))
+                .toArray(byte[][]::new);
+    }
+}
@@ -0,0 +1,54 @@
+package com.devicesapi.infrastructure.web.streaming;
+
+import com.devicesapi.application.dto.DeviceListResponseDto;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+
+/**
+ * Writes list endpoint responses with {@link DeviceJsonWriter}, or with {@link DeviceColumnarWriter}
+ * when the client asks for {@link DeviceColumnarFormat#MEDIA_TYPE}. Picked up ahead of the Jackson
+ * converter as a bean, so it answers every request for a {@link DeviceListResponseDto}.
+ */
+@Component
+public class DeviceListHttpMessageConverter extends AbstractHttpMessageConverter<DeviceListResponseDto> {
+
+    private static final MediaType COLUMNAR = MediaType.parseMediaType(DeviceColumnarFormat.MEDIA_TYPE);
+
+    public DeviceListHttpMessageConverter() {
+        super(MediaType.APPLICATION_JSON, COLUMNAR);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return DeviceListResponseDto.class == clazz;
+    }
+
+    @Override
+    protected boolean canRead(MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected DeviceListResponseDto readInternal(Class<? extends DeviceListResponseDto> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Device lists are only written", inputMessage);
+    }
+
+    @Override
+    protected void writeInternal(DeviceListResponseDto response, HttpOutputMessage outputMessage) throws IOException {
+        if (COLUMNAR.isCompatibleWith(outputMessage.getHeaders().getContentType())) {
+            DeviceColumnarWriter writer = new DeviceColumnarWriter(outputMessage.getBody());
+            writer.writeAll(response.devices());
+            writer.finish();
+            return;
+        }
+        DeviceJsonWriter writer = new DeviceJsonWriter(outputMessage.getBody());
+        writer.writeArray(response.devices());
+        writer.flush();
+    }
+}
@@ -0,0 +1,47 @@
+package com.devicesapi.infrastructure.web.streaming;
+
+import com.devicesapi.application.dto.DeviceResponseDto;
+import com.devicesapi.domain.entities.Device;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.function.Consumer;
+
+/**
+ * Writes one device per line (application/x-ndjson). The first line is flushed straight away so
+ * clients see bytes immediately, after that the output is flushed every {@link #FLUSH_EVERY} devices.
+ */
+public class NdjsonDeviceWriter implements Consumer<Device> {
+
+    public static final String MEDIA_TYPE = "application/x-ndjson";
+
+    private static final int FLUSH_EVERY = 500;
+
+    private final JsonGenerator generator;
+    private long written;
+
+    public NdjsonDeviceWriter(ObjectMapper objectMapper, OutputStream outputStream) throws IOException {
+        this.generator = objectMapper.getFactory().createGenerator(outputStream);
+        this.generator.setRootValueSeparator(null);
+    }
+
+    @Override
+    public void accept(Device device) {
+        try {
+            generator.writeObject(DeviceResponseDto.fromDomain(device));
+            generator.writeRaw('\n');
+            if (++written % FLUSH_EVERY == 1) {
+                generator.flush();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public void finish() throws IOException {
+        generator.flush();
+    }
+}
@@ -0,0 +1,42 @@
+package com.devicesapi.infrastructure.web.streaming;
+
+import com.devicesapi.application.dto.DeviceChangeEventDto;
+import com.devicesapi.domain.changes.DeviceChangeEvent;
+import com.devicesapi.domain.changes.DeviceChangeEventId;
+import com.devicesapi.infrastructure.changes.DeviceChangeSink;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Writes change events as SSE: the event name is the change type, the id its generation and
+ * sequence, so the browser's {@code Last-Event-ID} on reconnect is the event to resume after.
+ */
+public class SseDeviceChangeSink implements DeviceChangeSink {
+
+    public static final String RESET_EVENT = "reset";
+
+    private final SseEmitter emitter;
+
+    public SseDeviceChangeSink(SseEmitter emitter) {
+        this.emitter = emitter;
+    }
+
+    @Override
+    public void send(DeviceChangeEvent event) throws IOException {
+        emitter.send(SseEmitter.event()
+                .id(event.id().format())
+                .name(event.change().type().name().toLowerCase())
+                .data(DeviceChangeEventDto.fromDomain(event), MediaType.APPLICATION_JSON));
+    }
+
+    @Override
+    public void reset(DeviceChangeEventId id) throws IOException {
+        emitter.send(SseEmitter.event()
+                .id(id.format())
+                .name(RESET_EVENT)
+                .data(Map.of("generation", id.generation(), "sequence", id.sequence()), MediaType.APPLICATION_JSON));
+    }
+}
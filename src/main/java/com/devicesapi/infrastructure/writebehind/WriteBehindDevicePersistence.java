@@ -0,0 +1,336 @@
+package com.devicesapi.infrastructure.writebehind;
+
+import com.devicesapi.domain.batch.DeviceStateTransition;
+import com.devicesapi.domain.batch.DeviceStateTransitionChunk;
+import com.devicesapi.domain.changes.DeviceStateUpdate;
+import com.devicesapi.domain.changes.DeviceWriteResult;
+import com.devicesapi.domain.entities.Device;
+import com.devicesapi.domain.enums.Brand;
+import com.devicesapi.domain.enums.DeviceWriteOutcome;
+import com.devicesapi.domain.enums.State;
+import com.devicesapi.domain.ports.DevicePersistencePort;
+import com.devicesapi.domain.queries.DeviceCounts;
+import com.devicesapi.domain.queries.DevicePage;
+import com.devicesapi.domain.queries.DevicePageRequest;
+import com.devicesapi.domain.queries.DeviceSearchRequest;
+import com.devicesapi.infrastructure.adapters.AfterCommit;
+import com.devicesapi.infrastructure.adapters.ForwardingDevicePersistence;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Defers state-only, unconditional updates: they are checked against the latest known state, kept
+ * per device with the last one winning, and written as JDBC batches once {@code batchSize} devices
+ * are pending or {@code maxLag} has passed. Closing writes whatever is still pending.
+ * <p>
+ * Pending states the database no longer accepts, because the device was deleted or put in use
+ * meanwhile, are dropped and counted as {@code devices.write_behind.dropped}.
+ * <p>
+ * Single device reads see pending states directly, with the version the row will have once written:
+ * the version moves once per coalesced change, so each state a client was shown has its own version.
+ * Reads over many devices and every other write to a pending device write the pending states first,
+ * so filters, counts and conditional writes always run against the database.
+ */
+@Slf4j
+public class WriteBehindDevicePersistence extends ForwardingDevicePersistence implements AutoCloseable {
+
+    static final String DROPPED = "devices.write_behind.dropped";
+    static final int CLOSE_ATTEMPTS = 3;
+    static final Duration CLOSE_RETRY_DELAY = Duration.ofMillis(200);
+
+    private final Map<UUID, DeviceStateUpdate> pending = new ConcurrentHashMap<>();
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+    private final ScheduledExecutorService flusher;
+    private final int batchSize;
+    private final TransactionOperations transactionOperations;
+    private final Counter dropped;
+
+    public WriteBehindDevicePersistence(DevicePersistencePort delegate, Duration maxLag, int batchSize,
+                                        TransactionOperations transactionOperations, MeterRegistry meterRegistry) {
+        super(delegate);
+        this.batchSize = batchSize;
+        this.transactionOperations = transactionOperations;
+        this.dropped = Counter.builder(DROPPED)
+                .description("Pending state changes dropped because the device was deleted or put in use meanwhile")
+                .register(meterRegistry);
+        this.flusher = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("device-write-behind").daemon().factory());
+        flusher.scheduleWithFixedDelay(this::flushQuietly, maxLag.toNanos(), maxLag.toNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    public int pendingCount() {
+        return pending.size();
+    }
+
+    @Override
+    public DeviceWriteResult updateUnlessInUse(UUID id, Device changes, Long expectedVersion) {
+        if (expectedVersion != null || changes.getName() != null || changes.getBrand() != null || changes.getState() == null) {
+            flush(List.of(id));
+            return delegate.updateUnlessInUse(id, changes, expectedVersion);
+        }
+        while (true) {
+            DeviceStateUpdate queued = pending.get(id);
+            if (queued != null) {
+                if (queued.state() == State.IN_USE) {
+                    return DeviceWriteResult.rejected(DeviceWriteOutcome.IN_USE);
+                }
+                if (pending.replace(id, queued, queued.then(changes.getState()))) {
+                    // Nothing was read, so only the replaced state is known about the device
+                    return DeviceWriteResult.applied(new Device(id, null, null, queued.state(), null, null));
+                }
+                continue;
+            }
+            Optional<Device> stored = delegate.findById(id);
+            if (stored.isEmpty()) {
+                return DeviceWriteResult.rejected(DeviceWriteOutcome.NOT_FOUND);
+            }
+            if (stored.get().getState() == State.IN_USE) {
+                return DeviceWriteResult.rejected(DeviceWriteOutcome.IN_USE);
+            }
+            // Lost to a concurrent update of the same device when it fails; check against that one instead
+            if (pending.putIfAbsent(id, DeviceStateUpdate.of(changes.getState())) == null) {
+                scheduleFlushWhenFull();
+                return DeviceWriteResult.applied(stored.get());
+            }
+        }
+    }
+
+    @Override
+    public Collection<UUID> updateStates(Map<UUID, DeviceStateUpdate> states) {
+        flush(states.keySet());
+        return delegate.updateStates(states);
+    }
+
+    @Override
+    public Optional<Device> findById(UUID id) {
+        return delegate.findById(id).map(this::withPendingState);
+    }
+
+    @Override
+    public Optional<Long> findVersionById(UUID id) {
+        return delegate.findVersionById(id).map(version -> version + pendingChanges(id));
+    }
+
+    @Override
+    public List<Device> findAllById(Collection<UUID> ids) {
+        return delegate.findAllById(ids).stream()
+                .map(this::withPendingState)
+                .toList();
+    }
+
+    @Override
+    public List<Device> findDevicesById(Collection<UUID> ids) {
+        return delegate.findDevicesById(ids).stream()
+                .map(this::withPendingState)
+                .toList();
+    }
+
+    @Override
+    public List<Device> findAll() {
+        flush();
+        return delegate.findAll();
+    }
+
+    @Override
+    public List<Device> findByBrand(Brand brand) {
+        flush();
+        return delegate.findByBrand(brand);
+    }
+
+    @Override
+    public List<Device> findByState(State state) {
+        flush();
+        return delegate.findByState(state);
+    }
+
+    @Override
+    public List<Device> findByBrandAndState(Brand brand, State state) {
+        flush();
+        return delegate.findByBrandAndState(brand, state);
+    }
+
+    @Override
+    public DeviceCounts countByBrandAndState() {
+        flush();
+        return delegate.countByBrandAndState();
+    }
+
+    @Override
+    public DevicePage findPage(DevicePageRequest request) {
+        flush();
+        return delegate.findPage(request);
+    }
+
+    @Override
+    public DevicePage search(DeviceSearchRequest request) {
+        flush();
+        return delegate.search(request);
+    }
+
+    @Override
+    public void exportDevices(Brand brand, State state, Consumer<Device> consumer) {
+        flush();
+        delegate.exportDevices(brand, state, consumer);
+    }
+
+    @Override
+    public Device save(Device device) {
+        if (device.getId() != null) {
+            flush(List.of(device.getId()));
+        }
+        return delegate.save(device);
+    }
+
+    @Override
+    public List<Device> saveAll(Collection<Device> devices) {
+        flush(devices.stream().map(Device::getId).filter(Objects::nonNull).toList());
+        return delegate.saveAll(devices);
+    }
+
+    @Override
+    public DeviceStateTransitionChunk transitionStateChunk(DeviceStateTransition transition, UUID after) {
+        flush();
+        return delegate.transitionStateChunk(transition, after);
+    }
+
+    @Override
+    public void deleteById(UUID id) {
+        flush(List.of(id));
+        delegate.deleteById(id);
+    }
+
+    @Override
+    public DeviceWriteResult deleteUnlessInUse(UUID id) {
+        flush(List.of(id));
+        return delegate.deleteUnlessInUse(id);
+    }
+
+    @Override
+    public List<Device> deleteAllUnlessInUse(Collection<UUID> ids) {
+        flush(ids);
+        return delegate.deleteAllUnlessInUse(ids);
+    }
+
+    public void flush() {
+        flush(pending.keySet());
+    }
+
+    /**
+     * Writes what is still pending, retrying a failed flush a few times. Each attempt runs in a transaction of
+     * its own, which the concurrency limit lets through, so shutting down under load cannot be shed. States
+     * that still could not be written are logged with their device ids.
+     */
+    @Override
+    public void close() throws InterruptedException {
+        flusher.shutdown();
+        flusher.awaitTermination(10, TimeUnit.SECONDS);
+        int remaining = pending.size();
+        for (int attempt = 1; attempt <= CLOSE_ATTEMPTS && !pending.isEmpty(); attempt++) {
+            try {
+                transactionOperations.executeWithoutResult(status -> flush());
+            } catch (RuntimeException e) {
+                log.warn("Writing pending device states on close failed (attempt {} of {}): {}", attempt, CLOSE_ATTEMPTS, e.getMessage());
+                if (attempt < CLOSE_ATTEMPTS) {
+                    Thread.sleep(CLOSE_RETRY_DELAY.toMillis() * attempt);
+                }
+            }
+        }
+        if (!pending.isEmpty()) {
+            log.error("Device write-behind closed with {} state changes unwritten: {}", pending.size(), Map.copyOf(pending));
+            return;
+        }
+        log.info("Device write-behind closed after writing {} pending state changes", remaining);
+    }
+
+    private void flush(Collection<UUID> ids) {
+        if (pending.isEmpty()) {
+            return;
+        }
+        flushLock.lock();
+        try {
+            Map<UUID, DeviceStateUpdate> batch = new LinkedHashMap<>();
+            for (UUID id : ids) {
+                DeviceStateUpdate update = pending.get(id);
+                if (update != null) {
+                    batch.put(id, update);
+                }
+                if (batch.size() == batchSize) {
+                    write(batch);
+                    batch = new LinkedHashMap<>();
+                }
+            }
+            if (!batch.isEmpty()) {
+                write(batch);
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void write(Map<UUID, DeviceStateUpdate> batch) {
+        Collection<UUID> updated = delegate.updateStates(batch);
+        if (updated.size() < batch.size()) {
+            Set<UUID> written = new HashSet<>(updated);
+            List<UUID> droppedIds = batch.keySet().stream().filter(id -> !written.contains(id)).toList();
+            dropped.increment(droppedIds.size());
+            log.warn("{} pending state changes were dropped, the devices were deleted or put in use meanwhile: {}",
+                    droppedIds.size(), droppedIds);
+        }
+        // Entries unchanged since they were read are done; one changed meanwhile stays pending with only the
+        // changes this batch did not write. Inside a caller's transaction they stay pending until it commits,
+        // and are retried if it rolls back.
+        AfterCommit.run(() -> batch.forEach((id, written) -> pending.computeIfPresent(id, (key, current) -> current.equals(written)
+                ? null
+                : new DeviceStateUpdate(current.state(), current.changes() - written.changes()))));
+    }
+
+    private void flushQuietly() {
+        flushScheduled.set(false);
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.warn("Writing pending device states failed, retrying with the next batch: {}", e.getMessage());
+        }
+    }
+
+    private void scheduleFlushWhenFull() {
+        if (pending.size() >= batchSize && flushScheduled.compareAndSet(false, true)) {
+            flusher.execute(this::flushQuietly);
+        }
+    }
+
+    private long pendingChanges(UUID id) {
+        DeviceStateUpdate update = pending.get(id);
+        return update == null ? 0 : update.changes();
+    }
+
+    private Device withPendingState(Device device) {
+        DeviceStateUpdate update = pending.get(device.getId());
+        if (update == null) {
+            return device;
+        }
+        return new Device(device.getId(), device.getName(), device.getBrand(), update.state(), device.getCreationTime(),
+                device.getVersion() == null ? null : device.getVersion() + update.changes());
+    }
+}
@@ -0,0 +1,25 @@
+package com.devicesapi;
+
+import com.devicesapi.domain.ports.DeviceServicePort;
+import com.devicesapi.domain.ports.ReactiveDeviceServicePort;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles({"reactive", "test"})
+class DevicesApiReactiveApplicationTest {
+
+    @Autowired
+    private ApplicationContext context;
+
+    @Test
+    void contextLoads_WithReactiveStackOnly() {
+        assertThat(context.getBeanNamesForType(ReactiveDeviceServicePort.class)).hasSize(1);
+        assertThat(context.getBeanNamesForType(DeviceServicePort.class)).isEmpty();
+    }
+}
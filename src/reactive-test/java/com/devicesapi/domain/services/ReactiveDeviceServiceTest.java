@@ -0,0 +1,102 @@
+package com.devicesapi.domain.services;
+
+import com.devicesapi.domain.entities.Device;
+import com.devicesapi.domain.enums.Brand;
+import com.devicesapi.domain.enums.DeviceWriteOutcome;
+import com.devicesapi.domain.enums.State;
+import com.devicesapi.domain.exception.DeviceInUseException;
+import com.devicesapi.domain.exception.DeviceNotFoundException;
+import com.devicesapi.domain.exception.DevicePreconditionFailedException;
+import com.devicesapi.domain.ports.ReactiveDevicePersistencePort;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReactiveDeviceServiceTest {
+
+    @Mock
+    private ReactiveDevicePersistencePort devicePersistencePort;
+
+    @InjectMocks
+    private ReactiveDeviceService deviceService;
+
+    private UUID testId;
+    private Device testDevice;
+
+    @BeforeEach
+    void setUp() {
+        testId = UUID.randomUUID();
+        testDevice = Device.createWithIdAndTime(testId, "Test Device", Brand.SAMSUNG, State.AVAILABLE, LocalDateTime.now());
+    }
+
+    @Test
+    void updateDevice_WhenApplied_ShouldReturnStoredDevice() {
+        // Given
+        Device changes = Device.createNew("Test Device", Brand.SAMSUNG, State.AVAILABLE);
+        when(devicePersistencePort.updateUnlessInUse(testId, changes, 1L)).thenReturn(Mono.just(DeviceWriteOutcome.APPLIED));
+        when(devicePersistencePort.findById(testId)).thenReturn(Mono.just(testDevice));
+
+        // When & Then
+        StepVerifier.create(deviceService.updateDevice(testId, changes, 1L))
+                .expectNext(testDevice)
+                .verifyComplete();
+    }
+
+    @Test
+    void updateDevice_WhenVersionMismatch_ShouldFailWithPreconditionFailed() {
+        // Given
+        Device changes = Device.createNew("Test Device", Brand.SAMSUNG, State.AVAILABLE);
+        when(devicePersistencePort.updateUnlessInUse(testId, changes, 1L)).thenReturn(Mono.just(DeviceWriteOutcome.VERSION_MISMATCH));
+        when(devicePersistencePort.findById(testId)).thenReturn(Mono.just(testDevice));
+
+        // When & Then
+        StepVerifier.create(deviceService.updateDevice(testId, changes, 1L))
+                .verifyError(DevicePreconditionFailedException.class);
+    }
+
+    @Test
+    void patchDevice_WhenInUse_ShouldFailWithInUse() {
+        // Given
+        Device changes = Device.builder().name("Renamed").build();
+        when(devicePersistencePort.updateUnlessInUse(testId, changes, null)).thenReturn(Mono.just(DeviceWriteOutcome.IN_USE));
+
+        // When & Then
+        StepVerifier.create(deviceService.patchDevice(testId, changes, null))
+                .verifyError(DeviceInUseException.class);
+    }
+
+    @Test
+    void deleteDevice_WhenNotFound_ShouldFailWithNotFound() {
+        // Given
+        when(devicePersistencePort.deleteUnlessInUse(testId)).thenReturn(Mono.just(DeviceWriteOutcome.NOT_FOUND));
+
+        // When & Then
+        StepVerifier.create(deviceService.deleteDevice(testId))
+                .expectErrorSatisfies(error -> assertThat(error)
+                        .isExactlyInstanceOf(DeviceNotFoundException.class)
+                        .hasMessage("Device with id '" + testId + "' not found"))
+                .verify();
+    }
+
+    @Test
+    void deleteDevice_WhenApplied_ShouldComplete() {
+        // Given
+        when(devicePersistencePort.deleteUnlessInUse(testId)).thenReturn(Mono.just(DeviceWriteOutcome.APPLIED));
+
+        // When & Then
+        StepVerifier.create(deviceService.deleteDevice(testId))
+                .verifyComplete();
+    }
+}
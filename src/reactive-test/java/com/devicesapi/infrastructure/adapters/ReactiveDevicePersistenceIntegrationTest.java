@@ -0,0 +1,190 @@
+package com.devicesapi.infrastructure.adapters;
+
+import com.devicesapi.domain.entities.Device;
+import com.devicesapi.domain.enums.Brand;
+import com.devicesapi.domain.enums.DeviceSort;
+import com.devicesapi.domain.enums.DeviceWriteOutcome;
+import com.devicesapi.domain.enums.State;
+import com.devicesapi.domain.queries.DeviceCursor;
+import com.devicesapi.domain.queries.DevicePage;
+import com.devicesapi.domain.queries.DevicePageRequest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.data.r2dbc.DataR2dbcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.test.context.ActiveProfiles;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataR2dbcTest
+@ActiveProfiles({"reactive", "test"})
+@Import(ReactiveDevicePersistence.class)
+class ReactiveDevicePersistenceIntegrationTest {
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    @Autowired
+    private ReactiveDevicePersistence devicePersistence;
+
+    private final LocalDateTime baseTime = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    @BeforeEach
+    void setUp() {
+        databaseClient.sql("""
+                CREATE TABLE IF NOT EXISTS devices (
+                    id UUID PRIMARY KEY,
+                    name VARCHAR(255) NOT NULL UNIQUE,
+                    brand VARCHAR(100) NOT NULL,
+                    state VARCHAR(50) NOT NULL,
+                    creation_time TIMESTAMP NOT NULL,
+                    version BIGINT NOT NULL DEFAULT 0
+                )""").then().block();
+        databaseClient.sql("DELETE FROM devices").then().block();
+
+        Flux.range(0, 25)
+                // Every three devices share a creation time so the id tie breaker is exercised
+                .concatMap(i -> devicePersistence.save(Device.createWithIdAndTime(null, "Device " + (char) ('a' + i),
+                        i % 2 == 0 ? Brand.APPLE : Brand.SAMSUNG, State.AVAILABLE, baseTime.plusMinutes(i / 3))))
+                .blockLast();
+    }
+
+    @Test
+    void save_ShouldGenerateIdAndInitialVersion() {
+        // When
+        Device saved = devicePersistence.save(Device.createNew("Created", Brand.GOOGLE, State.AVAILABLE)).block();
+
+        // Then
+        assertThat(saved.getId()).isNotNull();
+        assertThat(saved.getVersion()).isZero();
+        StepVerifier.create(devicePersistence.findVersionById(saved.getId()))
+                .expectNext(0L)
+                .verifyComplete();
+    }
+
+    @Test
+    void findPage_ByCreationTime_ShouldWalkAllDevicesWithoutGapsOrDuplicates() {
+        // When
+        List<Device> walked = walk(null, DeviceSort.CREATION_TIME, false, 4);
+
+        // Then
+        assertThat(walked).hasSize(25);
+        assertThat(walked).extracting(Device::getId).doesNotHaveDuplicates();
+        assertThat(walked).isSortedAccordingTo(Comparator.comparing(Device::getCreationTime));
+    }
+
+    @Test
+    void findPage_ByNameDescending_ShouldReturnDevicesInReverseNameOrder() {
+        // When
+        List<Device> walked = walk(null, DeviceSort.NAME, true, 7);
+
+        // Then
+        assertThat(walked).hasSize(25);
+        assertThat(walked).isSortedAccordingTo(Comparator.comparing(Device::getName).reversed());
+    }
+
+    @Test
+    void findPage_ByBrand_ShouldOnlyReturnMatchingDevices() {
+        // When
+        List<Device> walked = walk(Brand.APPLE, DeviceSort.CREATION_TIME, false, 5);
+
+        // Then
+        assertThat(walked).hasSize(13).allMatch(device -> device.getBrand() == Brand.APPLE);
+    }
+
+    @Test
+    void exportDevices_WithBrandAndState_ShouldStreamOnlyMatchingDevices() {
+        // Given
+        devicePersistence.save(Device.createNew("Inactive Apple", Brand.APPLE, State.INACTIVE)).block();
+
+        // When / Then
+        StepVerifier.create(devicePersistence.exportDevices(Brand.APPLE, State.INACTIVE).map(Device::getName))
+                .expectNext("Inactive Apple")
+                .verifyComplete();
+    }
+
+    @Test
+    void exportDevices_ShouldHonourSubscriberDemand() {
+        // When / Then
+        StepVerifier.create(devicePersistence.exportDevices(null, null), 2)
+                .expectNextCount(2)
+                .thenRequest(23)
+                .expectNextCount(23)
+                .verifyComplete();
+    }
+
+    @Test
+    void updateUnlessInUse_ShouldApplyChangesAndBumpVersion() {
+        // Given
+        Device device = devicePersistence.findByBrand(Brand.APPLE).blockFirst();
+
+        // When
+        DeviceWriteOutcome outcome = devicePersistence.updateUnlessInUse(device.getId(),
+                Device.builder().state(State.INACTIVE).build(), device.getVersion()).block();
+
+        // Then
+        assertThat(outcome).isEqualTo(DeviceWriteOutcome.APPLIED);
+        Device updated = devicePersistence.findById(device.getId()).block();
+        assertThat(updated.getName()).isEqualTo(device.getName());
+        assertThat(updated.getState()).isEqualTo(State.INACTIVE);
+        assertThat(updated.getVersion()).isEqualTo(device.getVersion() + 1);
+    }
+
+    @Test
+    void updateUnlessInUse_ShouldReportWhyNothingWasUpdated() {
+        // Given
+        Device device = devicePersistence.findByBrand(Brand.SAMSUNG).blockFirst();
+        Device inUse = devicePersistence.save(Device.createNew("In use", Brand.APPLE, State.IN_USE)).block();
+        Device changes = Device.builder().name("Renamed").build();
+
+        // When / Then
+        StepVerifier.create(devicePersistence.updateUnlessInUse(device.getId(), changes, device.getVersion() + 5))
+                .expectNext(DeviceWriteOutcome.VERSION_MISMATCH)
+                .verifyComplete();
+        StepVerifier.create(devicePersistence.updateUnlessInUse(inUse.getId(), changes, null))
+                .expectNext(DeviceWriteOutcome.IN_USE)
+                .verifyComplete();
+        StepVerifier.create(devicePersistence.updateUnlessInUse(UUID.randomUUID(), changes, null))
+                .expectNext(DeviceWriteOutcome.NOT_FOUND)
+                .verifyComplete();
+    }
+
+    @Test
+    void deleteUnlessInUse_ShouldOnlyDeleteDevicesNotInUse() {
+        // Given
+        Device available = devicePersistence.findByState(State.AVAILABLE).blockFirst();
+        Device inUse = devicePersistence.save(Device.createNew("In use", Brand.APPLE, State.IN_USE)).block();
+
+        // When / Then
+        StepVerifier.create(devicePersistence.deleteUnlessInUse(available.getId()))
+                .expectNext(DeviceWriteOutcome.APPLIED)
+                .verifyComplete();
+        StepVerifier.create(devicePersistence.deleteUnlessInUse(inUse.getId()))
+                .expectNext(DeviceWriteOutcome.IN_USE)
+                .verifyComplete();
+        StepVerifier.create(devicePersistence.deleteUnlessInUse(available.getId()))
+                .expectNext(DeviceWriteOutcome.NOT_FOUND)
+                .verifyComplete();
+    }
+
+    private List<Device> walk(Brand brand, DeviceSort sort, boolean descending, int size) {
+        List<Device> walked = new ArrayList<>();
+        DeviceCursor cursor = null;
+        do {
+            DevicePage page = devicePersistence.findPage(new DevicePageRequest(brand, null, sort, descending, size, cursor)).block();
+            walked.addAll(page.items());
+            cursor = page.next();
+        } while (cursor != null);
+        return walked;
+    }
+}
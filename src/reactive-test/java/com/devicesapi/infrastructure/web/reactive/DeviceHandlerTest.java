@@ -0,0 +1,218 @@
+package com.devicesapi.infrastructure.web.reactive;
+
+import com.devicesapi.application.dto.DeviceRequestDto;
+import com.devicesapi.domain.entities.Device;
+import com.devicesapi.domain.enums.Brand;
+import com.devicesapi.domain.enums.DeviceSort;
+import com.devicesapi.domain.enums.State;
+import com.devicesapi.domain.exception.DeviceInUseException;
+import com.devicesapi.domain.exception.DevicePreconditionFailedException;
+import com.devicesapi.domain.ports.ReactiveDeviceServicePort;
+import com.devicesapi.domain.queries.DeviceCursor;
+import com.devicesapi.domain.queries.DevicePage;
+import com.devicesapi.domain.queries.DevicePageRequest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+@WebFluxTest(properties = "devices.stack=reactive")
+@Import({DeviceRoutes.class, DeviceHandler.class})
+class DeviceHandlerTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @MockBean
+    private ReactiveDeviceServicePort deviceService;
+
+    private Device testDevice;
+    private UUID testId;
+
+    @BeforeEach
+    void setUp() {
+        testId = UUID.randomUUID();
+        testDevice = Device.createWithIdAndTime(testId, "Test Device", Brand.SAMSUNG, State.AVAILABLE, LocalDateTime.now())
+                .withVersion(3L);
+    }
+
+    @Test
+    void createDevice_ShouldReturnCreatedDevice() {
+        // Given
+        when(deviceService.createDevice(any(Device.class))).thenReturn(Mono.just(testDevice));
+
+        // When & Then
+        webTestClient.post().uri("/api/devices")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new DeviceRequestDto("Test Device", Brand.SAMSUNG, State.AVAILABLE))
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody()
+                .jsonPath("$.id").isEqualTo(testId.toString())
+                .jsonPath("$.brand").isEqualTo("SAMSUNG");
+    }
+
+    @Test
+    void getDeviceById_WhenDeviceExists_ShouldReturnDeviceWithETag() {
+        // Given
+        when(deviceService.getDeviceById(testId)).thenReturn(Mono.just(testDevice));
+
+        // When & Then
+        webTestClient.get().uri("/api/devices/{id}", testId)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, "\"3\"")
+                .expectBody()
+                .jsonPath("$.name").isEqualTo("Test Device");
+    }
+
+    @Test
+    void getDeviceById_WhenDeviceNotExists_ShouldReturnNotFound() {
+        // Given
+        when(deviceService.getDeviceById(testId)).thenReturn(Mono.empty());
+
+        // When & Then
+        webTestClient.get().uri("/api/devices/{id}", testId)
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    void getDeviceById_WithMatchingIfNoneMatch_ShouldReturnNotModifiedWithoutLoadingDevice() {
+        // Given
+        when(deviceService.getDeviceVersion(testId)).thenReturn(Mono.just(3L));
+        when(deviceService.getDeviceById(testId)).thenReturn(Mono.just(testDevice));
+
+        // When & Then
+        webTestClient.get().uri("/api/devices/{id}", testId)
+                .header(HttpHeaders.IF_NONE_MATCH, "\"3\"")
+                .exchange()
+                .expectStatus().isNotModified()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, "\"3\"");
+    }
+
+    @Test
+    void getDevicesByBrand_WithNdjsonAccept_ShouldStreamOneDevicePerLine() {
+        // Given
+        Device other = Device.createWithIdAndTime(UUID.randomUUID(), "Other Device", Brand.SAMSUNG, State.INACTIVE, LocalDateTime.now());
+        when(deviceService.getDevicesByBrand(Brand.SAMSUNG)).thenReturn(Flux.just(testDevice, other));
+
+        // When
+        String body = webTestClient.get().uri("/api/devices/brand/samsung")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .expectBody(String.class)
+                .returnResult()
+                .getResponseBody();
+
+        // Then
+        assertThat(body.lines()).hasSize(2);
+        assertThat(body.lines().findFirst()).hasValueSatisfying(line -> assertThat(line).contains(testId.toString()));
+    }
+
+    @Test
+    void getDevicesByState_ShouldReturnJsonArray() {
+        // Given
+        when(deviceService.getDevicesByState(State.AVAILABLE)).thenReturn(Flux.just(testDevice));
+
+        // When & Then
+        webTestClient.get().uri("/api/devices/state/available")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(1)
+                .jsonPath("$[0].id").isEqualTo(testId.toString());
+    }
+
+    @Test
+    void getDevicesByBrand_WithInvalidBrand_ShouldReturnBadRequest() {
+        // When & Then
+        webTestClient.get().uri("/api/devices/brand/nokia")
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.message").isEqualTo("Enum Value Not Found");
+
+        verifyNoInteractions(deviceService);
+    }
+
+    @Test
+    void getDevicesByBrandPaged_ShouldReturnPageWithNextCursor() {
+        // Given
+        DeviceCursor next = DeviceCursor.after(testDevice, DeviceSort.CREATION_TIME, false);
+        when(deviceService.getDevicesPage(any(DevicePageRequest.class))).thenReturn(Mono.just(new DevicePage(List.of(testDevice), next)));
+
+        // When & Then
+        webTestClient.get().uri("/api/devices/brand/samsung/paged?size=1")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.items[0].id").isEqualTo(testId.toString())
+                .jsonPath("$.next").isEqualTo(next.encode());
+
+        verify(deviceService).getDevicesPage(new DevicePageRequest(Brand.SAMSUNG, null, DeviceSort.CREATION_TIME, false, 1, null));
+    }
+
+    @Test
+    void updateDevice_WithStaleIfMatch_ShouldReturnPreconditionFailed() {
+        // Given
+        when(deviceService.updateDevice(eq(testId), any(Device.class), eq(2L)))
+                .thenReturn(Mono.error(new DevicePreconditionFailedException("Device with id '" + testId + "' has been modified since the given version")));
+
+        // When & Then
+        webTestClient.put().uri("/api/devices/{id}", testId)
+                .header(HttpHeaders.IF_MATCH, "\"2\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new DeviceRequestDto("Renamed", Brand.SAMSUNG, State.AVAILABLE))
+                .exchange()
+                .expectStatus().isEqualTo(412);
+    }
+
+    @Test
+    void patchDevice_WhenDeviceInUse_ShouldReturnNotFound() {
+        // Given
+        when(deviceService.patchDevice(eq(testId), any(Device.class), isNull()))
+                .thenReturn(Mono.error(new DeviceInUseException("Device with id '" + testId + "' is still in use so name and and cannot be updated")));
+
+        // When & Then
+        webTestClient.patch().uri("/api/devices/{id}", testId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new DeviceRequestDto("Renamed", null, null))
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectBody()
+                .jsonPath("$.error").isEqualTo("Device not found");
+    }
+
+    @Test
+    void deleteDevice_ShouldReturnOk() {
+        // Given
+        when(deviceService.deleteDevice(testId)).thenReturn(Mono.empty());
+
+        // When & Then
+        webTestClient.delete().uri("/api/devices/{id}", testId)
+                .exchange()
+                .expectStatus().isOk();
+
+        verify(deviceService).deleteDevice(testId);
+    }
+}
@@ -0,0 +1,42 @@
+package com.devicesapi.domain.ports;
+
+import com.devicesapi.domain.entities.Device;
+import com.devicesapi.domain.enums.Brand;
+import com.devicesapi.domain.enums.DeviceWriteOutcome;
+import com.devicesapi.domain.enums.State;
+import com.devicesapi.domain.queries.DevicePage;
+import com.devicesapi.domain.queries.DevicePageRequest;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.UUID;
+
+/**
+ * Non-blocking counterpart of {@link DevicePersistencePort}. Empty monos stand for absent devices,
+ * and fluxes emit rows as the database client is asked for them.
+ */
+public interface ReactiveDevicePersistencePort {
+    Mono<Device> save(Device device);
+
+    // Same single conditional statement as DevicePersistencePort#updateUnlessInUse
+    Mono<DeviceWriteOutcome> updateUnlessInUse(UUID id, Device changes, Long expectedVersion);
+
+    Mono<Device> findById(UUID id);
+
+    Mono<Long> findVersionById(UUID id);
+
+    Flux<Device> findAll();
+
+    Flux<Device> findByBrand(Brand brand);
+
+    Flux<Device> findByState(State state);
+
+    Flux<Device> findByBrandAndState(Brand brand, State state);
+
+    Mono<DevicePage> findPage(DevicePageRequest request);
+
+    // Null filters match every device
+    Flux<Device> exportDevices(Brand brand, State state);
+
+    Mono<DeviceWriteOutcome> deleteUnlessInUse(UUID id);
+}
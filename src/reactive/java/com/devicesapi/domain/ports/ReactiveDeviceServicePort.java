@@ -0,0 +1,39 @@
+package com.devicesapi.domain.ports;
+
+import com.devicesapi.domain.entities.Device;
+import com.devicesapi.domain.enums.Brand;
+import com.devicesapi.domain.enums.State;
+import com.devicesapi.domain.queries.DevicePage;
+import com.devicesapi.domain.queries.DevicePageRequest;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.UUID;
+
+public interface ReactiveDeviceServicePort {
+
+    Mono<Device> createDevice(Device device);
+
+    Mono<Device> getDeviceById(UUID id);
+
+    Mono<Long> getDeviceVersion(UUID id);
+
+    Flux<Device> getAllDevices();
+
+    Flux<Device> getDevicesByBrand(Brand brand);
+
+    Flux<Device> getDevicesByState(State state);
+
+    Flux<Device> getDevicesByBrandAndState(Brand brand, State state);
+
+    Mono<DevicePage> getDevicesPage(DevicePageRequest request);
+
+    Flux<Device> exportDevices(Brand brand, State state);
+
+    // expectedVersion null means unconditional
+    Mono<Device> updateDevice(UUID id, Device updatedDevice, Long expectedVersion);
+
+    Mono<Void> patchDevice(UUID id, Device deviceToBePatched, Long expectedVersion);
+
+    Mono<Void> deleteDevice(UUID id);
+}
@@ -0,0 +1,102 @@
+package com.devicesapi.domain.services;
+
+import com.devicesapi.domain.entities.Device;
+import com.devicesapi.domain.enums.Brand;
+import com.devicesapi.domain.enums.DeviceWriteOutcome;
+import com.devicesapi.domain.enums.State;
+import com.devicesapi.domain.exception.DeviceInUseException;
+import com.devicesapi.domain.exception.DeviceNotFoundException;
+import com.devicesapi.domain.exception.DevicePreconditionFailedException;
+import com.devicesapi.domain.ports.ReactiveDevicePersistencePort;
+import com.devicesapi.domain.ports.ReactiveDeviceServicePort;
+import com.devicesapi.domain.queries.DevicePage;
+import com.devicesapi.domain.queries.DevicePageRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.UUID;
+
+/**
+ * The rules of {@link DeviceService} over the non-blocking persistence port; active with {@code devices.stack=reactive}.
+ */
+@Service
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "devices", name = "stack", havingValue = "reactive")
+public class ReactiveDeviceService implements ReactiveDeviceServicePort {
+
+    private final ReactiveDevicePersistencePort devicePersistencePort;
+
+    public Mono<Device> createDevice(Device device) {
+        return devicePersistencePort.save(device);
+    }
+
+    public Mono<Device> getDeviceById(UUID id) {
+        return devicePersistencePort.findById(id);
+    }
+
+    public Mono<Long> getDeviceVersion(UUID id) {
+        return devicePersistencePort.findVersionById(id);
+    }
+
+    public Flux<Device> getAllDevices() {
+        return devicePersistencePort.findAll();
+    }
+
+    public Flux<Device> getDevicesByBrand(Brand brand) {
+        return devicePersistencePort.findByBrand(brand);
+    }
+
+    public Flux<Device> getDevicesByState(State state) {
+        return devicePersistencePort.findByState(state);
+    }
+
+    public Flux<Device> getDevicesByBrandAndState(Brand brand, State state) {
+        return devicePersistencePort.findByBrandAndState(brand, state);
+    }
+
+    public Mono<DevicePage> getDevicesPage(DevicePageRequest request) {
+        return devicePersistencePort.findPage(request);
+    }
+
+    public Flux<Device> exportDevices(Brand brand, State state) {
+        return devicePersistencePort.exportDevices(brand, state);
+    }
+
+    public Mono<Device> updateDevice(UUID id, Device updatedDevice, Long expectedVersion) {
+        return devicePersistencePort.updateUnlessInUse(id, updatedDevice, expectedVersion)
+                .flatMap(outcome -> checkUpdated(id, outcome))
+                // The response carries the creation time, which only the stored row knows
+                .then(devicePersistencePort.findById(id))
+                .switchIfEmpty(Mono.error(() -> notFound(id)));
+    }
+
+    public Mono<Void> patchDevice(UUID id, Device deviceToBePatched, Long expectedVersion) {
+        return devicePersistencePort.updateUnlessInUse(id, deviceToBePatched, expectedVersion)
+                .flatMap(outcome -> checkUpdated(id, outcome));
+    }
+
+    public Mono<Void> deleteDevice(UUID id) {
+        return devicePersistencePort.deleteUnlessInUse(id)
+                .flatMap(outcome -> switch (outcome) {
+                    case NOT_FOUND -> Mono.error(notFound(id));
+                    case IN_USE -> Mono.error(new DeviceInUseException("Device with id '" + id + "' is still in use and cannot be deleted"));
+                    case APPLIED, VERSION_MISMATCH -> Mono.empty();
+                });
+    }
+
+    private Mono<Void> checkUpdated(UUID id, DeviceWriteOutcome outcome) {
+        return switch (outcome) {
+            case NOT_FOUND -> Mono.error(notFound(id));
+            case IN_USE -> Mono.error(new DeviceInUseException("Device with id '" + id + "' is still in use so name and and cannot be updated"));
+            case VERSION_MISMATCH -> Mono.error(new DevicePreconditionFailedException("Device with id '" + id + "' has been modified since the given version"));
+            case APPLIED -> Mono.empty();
+        };
+    }
+
+    private DeviceNotFoundException notFound(UUID id) {
+        return new DeviceNotFoundException("Device with id '" + id + "' not found");
+    }
+}
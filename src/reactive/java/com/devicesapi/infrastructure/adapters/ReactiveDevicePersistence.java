@@ -0,0 +1,192 @@
+package com.devicesapi.infrastructure.adapters;
+
+import com.devicesapi.domain.entities.Device;
+import com.devicesapi.domain.enums.Brand;
+import com.devicesapi.domain.enums.DeviceWriteOutcome;
+import com.devicesapi.domain.enums.State;
+import com.devicesapi.domain.ports.ReactiveDevicePersistencePort;
+import com.devicesapi.domain.queries.DeviceCursor;
+import com.devicesapi.domain.queries.DevicePage;
+import com.devicesapi.domain.queries.DevicePageRequest;
+import com.devicesapi.infrastructure.persistence.entities.DeviceRow;
+import com.devicesapi.infrastructure.persistence.repositories.ReactiveDeviceRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.data.relational.core.query.Criteria;
+import org.springframework.data.relational.core.query.Query;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "devices", name = "stack", havingValue = "reactive")
+public class ReactiveDevicePersistence implements ReactiveDevicePersistencePort {
+
+    // Rows the driver fetches per round trip while an export is being consumed
+    static final int EXPORT_FETCH_SIZE = 1000;
+
+    private final ReactiveDeviceRepository deviceRepository;
+    private final R2dbcEntityTemplate template;
+
+    @Override
+    public Mono<Device> save(Device device) {
+        DeviceRow row = DeviceRow.fromDomain(device);
+        // Ids are generated here, as Hibernate does for the JPA stack; a null version makes it an INSERT
+        if (row.getId() == null) {
+            row = row.withId(UUID.randomUUID());
+        }
+        return deviceRepository.save(row)
+                .map(DeviceRow::toDomain);
+    }
+
+    @Override
+    public Mono<DeviceWriteOutcome> updateUnlessInUse(UUID id, Device changes, Long expectedVersion) {
+        return deviceRepository.updateUnlessInUse(id,
+                        changes.getName(),
+                        changes.getBrand() == null ? null : changes.getBrand().name(),
+                        changes.getState() == null ? null : changes.getState().name(),
+                        expectedVersion)
+                .flatMap(updated -> updated == 1
+                        ? Mono.just(DeviceWriteOutcome.APPLIED)
+                        // Only the rejected path pays for a second statement to tell the causes apart
+                        : deviceRepository.findById(id)
+                        .map(current -> current.getState() == State.IN_USE || expectedVersion == null
+                                ? DeviceWriteOutcome.IN_USE
+                                : DeviceWriteOutcome.VERSION_MISMATCH)
+                        .defaultIfEmpty(DeviceWriteOutcome.NOT_FOUND));
+    }
+
+    @Override
+    public Mono<Device> findById(UUID id) {
+        return deviceRepository.findById(id)
+                .map(DeviceRow::toDomain);
+    }
+
+    @Override
+    public Mono<Long> findVersionById(UUID id) {
+        return deviceRepository.findVersionById(id);
+    }
+
+    @Override
+    public Flux<Device> findAll() {
+        return deviceRepository.findAll()
+                .map(DeviceRow::toDomain);
+    }
+
+    @Override
+    public Flux<Device> findByBrand(Brand brand) {
+        return deviceRepository.findByBrand(brand)
+                .map(DeviceRow::toDomain);
+    }
+
+    @Override
+    public Flux<Device> findByState(State state) {
+        return deviceRepository.findByState(state)
+                .map(DeviceRow::toDomain);
+    }
+
+    @Override
+    public Flux<Device> findByBrandAndState(Brand brand, State state) {
+        return deviceRepository.findByBrandAndState(brand, state)
+                .map(DeviceRow::toDomain);
+    }
+
+    @Override
+    public Mono<DevicePage> findPage(DevicePageRequest request) {
+        List<Criteria> criteria = filters(request.brand(), request.state());
+        if (request.cursor() != null) {
+            criteria.add(after(request.cursor()));
+        }
+
+        // One extra row tells whether another page follows
+        Query query = Query.query(Criteria.from(criteria))
+                .sort(toSort(request))
+                .limit(request.size() + 1);
+
+        return template.select(query, DeviceRow.class)
+                .map(DeviceRow::toDomain)
+                .collectList()
+                .map(devices -> {
+                    if (devices.size() <= request.size()) {
+                        return new DevicePage(devices, null);
+                    }
+                    List<Device> page = devices.subList(0, request.size());
+                    return new DevicePage(page, DeviceCursor.after(page.get(page.size() - 1), request.sort(), request.descending()));
+                });
+    }
+
+    @Override
+    public Flux<Device> exportDevices(Brand brand, State state) {
+        StringBuilder sql = new StringBuilder("SELECT * FROM devices WHERE 1 = 1");
+        if (brand != null) {
+            sql.append(" AND brand = :brand");
+        }
+        if (state != null) {
+            sql.append(" AND state = :state");
+        }
+
+        DatabaseClient.GenericExecuteSpec spec = template.getDatabaseClient().sql(sql.toString())
+                // Rows are pulled from the server in fetch-size batches as the subscriber requests them
+                .filter(statement -> statement.fetchSize(EXPORT_FETCH_SIZE));
+        if (brand != null) {
+            spec = spec.bind("brand", brand.name());
+        }
+        if (state != null) {
+            spec = spec.bind("state", state.name());
+        }
+        return spec.map((row, metadata) -> template.getConverter().read(DeviceRow.class, row, metadata))
+                .all()
+                .map(DeviceRow::toDomain);
+    }
+
+    @Override
+    public Mono<DeviceWriteOutcome> deleteUnlessInUse(UUID id) {
+        return deviceRepository.deleteUnlessInUse(id)
+                .flatMap(deleted -> deleted == 1
+                        ? Mono.just(DeviceWriteOutcome.APPLIED)
+                        : deviceRepository.existsById(id)
+                        .map(exists -> exists ? DeviceWriteOutcome.IN_USE : DeviceWriteOutcome.NOT_FOUND));
+    }
+
+    private List<Criteria> filters(Brand brand, State state) {
+        List<Criteria> criteria = new ArrayList<>();
+        if (brand != null) {
+            criteria.add(Criteria.where("brand").is(brand));
+        }
+        if (state != null) {
+            criteria.add(Criteria.where("state").is(state));
+        }
+        return criteria;
+    }
+
+    // Keyset predicate on the sort keys, the same position the JPA stack derives from a ScrollPosition
+    private Criteria after(DeviceCursor cursor) {
+        return switch (cursor.sort()) {
+            case CREATION_TIME -> cursor.descending()
+                    ? Criteria.where("creationTime").lessThan(cursor.creationTime())
+                    .or(Criteria.where("creationTime").is(cursor.creationTime()).and("id").lessThan(cursor.id()))
+                    : Criteria.where("creationTime").greaterThan(cursor.creationTime())
+                    .or(Criteria.where("creationTime").is(cursor.creationTime()).and("id").greaterThan(cursor.id()));
+            // Names are unique, so the name alone is a complete position
+            case NAME -> cursor.descending()
+                    ? Criteria.where("name").lessThan(cursor.name())
+                    : Criteria.where("name").greaterThan(cursor.name());
+        };
+    }
+
+    private Sort toSort(DevicePageRequest request) {
+        Sort.Direction direction = request.descending() ? Sort.Direction.DESC : Sort.Direction.ASC;
+        return switch (request.sort()) {
+            case CREATION_TIME -> Sort.by(direction, "creationTime", "id");
+            case NAME -> Sort.by(direction, "name");
+        };
+    }
+}
@@ -0,0 +1,63 @@
+package com.devicesapi.infrastructure.persistence.entities;
+
+import com.devicesapi.domain.entities.Device;
+import com.devicesapi.domain.enums.Brand;
+import com.devicesapi.domain.enums.State;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.With;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.relational.core.mapping.Column;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * R2DBC mapping of the {@code devices} table, used by the reactive stack. The schema is the one
+ * {@link DeviceEntity} maps for JPA.
+ */
+@Table("devices")
+@Getter
+@AllArgsConstructor
+public class DeviceRow {
+
+    @Id
+    @With
+    private final UUID id;
+
+    private final String name;
+
+    private final Brand brand;
+
+    private final State state;
+
+    @Column("creation_time")
+    private final LocalDateTime creationTime;
+
+    @Version
+    @With
+    private final Long version;
+
+    public static DeviceRow fromDomain(Device device) {
+        return new DeviceRow(
+                device.getId(),
+                device.getName(),
+                device.getBrand(),
+                device.getState(),
+                device.getCreationTime(),
+                device.getVersion()
+        );
+    }
+
+    public Device toDomain() {
+        return Device.createWithIdAndTime(
+                this.id,
+                this.name,
+                this.brand,
+                this.state,
+                this.creationTime
+        ).withVersion(this.version);
+    }
+}
@@ -0,0 +1,47 @@
+package com.devicesapi.infrastructure.persistence.repositories;
+
+import com.devicesapi.domain.enums.Brand;
+import com.devicesapi.domain.enums.State;
+import com.devicesapi.infrastructure.persistence.entities.DeviceRow;
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.data.repository.query.Param;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.UUID;
+
+public interface ReactiveDeviceRepository extends R2dbcRepository<DeviceRow, UUID> {
+
+    Flux<DeviceRow> findByBrand(Brand brand);
+
+    Flux<DeviceRow> findByState(State state);
+
+    Flux<DeviceRow> findByBrandAndState(Brand brand, State state);
+
+    @Query("SELECT version FROM devices WHERE id = :id")
+    Mono<Long> findVersionById(@Param("id") UUID id);
+
+    // Enums are bound by name, the same strings JPA stores with EnumType.STRING
+    @Modifying
+    @Query("""
+            UPDATE devices
+               SET name = COALESCE(:name, name),
+                   brand = COALESCE(:brand, brand),
+                   state = COALESCE(:state, state),
+                   version = version + 1
+             WHERE id = :id
+               AND state <> 'IN_USE'
+               AND (CAST(:expectedVersion AS BIGINT) IS NULL OR version = :expectedVersion)
+            """)
+    Mono<Integer> updateUnlessInUse(@Param("id") UUID id,
+                                    @Param("name") String name,
+                                    @Param("brand") String brand,
+                                    @Param("state") String state,
+                                    @Param("expectedVersion") Long expectedVersion);
+
+    @Modifying
+    @Query("DELETE FROM devices WHERE id = :id AND state <> 'IN_USE'")
+    Mono<Integer> deleteUnlessInUse(@Param("id") UUID id);
+}
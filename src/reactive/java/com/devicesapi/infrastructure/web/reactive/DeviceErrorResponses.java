@@ -0,0 +1,51 @@
+package com.devicesapi.infrastructure.web.reactive;
+
+import com.devicesapi.domain.exception.DeviceBadRequestException;
+import com.devicesapi.domain.exception.DeviceBusinessException;
+import com.devicesapi.domain.exception.DeviceNotFoundException;
+import com.devicesapi.domain.exception.DevicePreconditionFailedException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * Error bodies of the reactive routes; the same statuses and fields as the servlet GlobalExceptionHandler.
+ */
+final class DeviceErrorResponses {
+
+    private DeviceErrorResponses() {
+    }
+
+    static Mono<ServerResponse> of(Throwable ex) {
+        if (ex instanceof DeviceNotFoundException) {
+            return body(HttpStatus.NOT_FOUND, "Device not found", ex.getMessage());
+        }
+        if (ex instanceof DeviceBadRequestException) {
+            return body(HttpStatus.BAD_REQUEST, "Bad Request error", ex.getMessage());
+        }
+        if (ex instanceof DeviceBusinessException) {
+            return body(HttpStatus.UNPROCESSABLE_ENTITY, "Business error", ex.getMessage());
+        }
+        if (ex instanceof DevicePreconditionFailedException) {
+            return body(HttpStatus.PRECONDITION_FAILED, "Precondition failed", ex.getMessage());
+        }
+        if (ex instanceof ResponseStatusException statusException) {
+            return body(statusException.getStatusCode(), statusException.getStatusCode().toString(),
+                    statusException.getReason() != null ? statusException.getReason() : "Request failed");
+        }
+        return body(HttpStatus.INTERNAL_SERVER_ERROR, "Internal server error", String.valueOf(ex.getMessage()));
+    }
+
+    private static Mono<ServerResponse> body(HttpStatusCode status, String error, String message) {
+        return ServerResponse.status(status).bodyValue(Map.of(
+                "timestamp", Instant.now(),
+                "error", error,
+                "message", message
+        ));
+    }
+}
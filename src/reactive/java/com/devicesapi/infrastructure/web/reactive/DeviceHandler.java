@@ -0,0 +1,196 @@
+package com.devicesapi.infrastructure.web.reactive;
+
+import com.devicesapi.application.dto.DevicePageResponseDto;
+import com.devicesapi.application.dto.DeviceRequestDto;
+import com.devicesapi.application.dto.DeviceResponseDto;
+import com.devicesapi.domain.entities.Device;
+import com.devicesapi.domain.enums.Brand;
+import com.devicesapi.domain.enums.DeviceSort;
+import com.devicesapi.domain.enums.State;
+import com.devicesapi.domain.exception.DeviceBadRequestException;
+import com.devicesapi.domain.ports.ReactiveDeviceServicePort;
+import com.devicesapi.domain.queries.DeviceCursor;
+import com.devicesapi.domain.queries.DevicePageRequest;
+import com.devicesapi.infrastructure.web.etag.DeviceETags;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.UUID;
+
+/**
+ * Handler functions behind {@link DeviceRoutes}. List endpoints write devices as the database emits
+ * them, so the client's read rate is what pulls rows through the driver.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "devices", name = "stack", havingValue = "reactive")
+public class DeviceHandler {
+
+    private final ReactiveDeviceServicePort deviceService;
+
+    public Mono<ServerResponse> createDevice(ServerRequest request) {
+        return request.bodyToMono(DeviceRequestDto.class)
+                .flatMap(dto -> deviceService.createDevice(dto.toDomain()))
+                .flatMap(device -> ServerResponse.status(HttpStatus.CREATED).bodyValue(DeviceResponseDto.fromDomain(device)));
+    }
+
+    public Mono<ServerResponse> getDeviceById(ServerRequest request) {
+        UUID id = toId(request.pathVariable("id"));
+        String ifNoneMatch = request.headers().firstHeader(HttpHeaders.IF_NONE_MATCH);
+
+        Mono<ServerResponse> device = deviceService.getDeviceById(id)
+                .flatMap(found -> withETag(ServerResponse.ok(), found).bodyValue(DeviceResponseDto.fromDomain(found)))
+                .switchIfEmpty(Mono.defer(() -> ServerResponse.notFound().build()));
+        if (ifNoneMatch == null) {
+            return device;
+        }
+
+        // Revalidation only reads the version column; the device is loaded only when it changed
+        return deviceService.getDeviceVersion(id)
+                .flatMap(version -> DeviceETags.matches(ifNoneMatch, version)
+                        ? ServerResponse.status(HttpStatus.NOT_MODIFIED).eTag(DeviceETags.of(version)).build()
+                        : device)
+                .switchIfEmpty(Mono.defer(() -> ServerResponse.notFound().build()));
+    }
+
+    public Mono<ServerResponse> getAllDevices(ServerRequest request) {
+        return devices(request, deviceService.getAllDevices());
+    }
+
+    public Mono<ServerResponse> getDevicesByState(ServerRequest request) {
+        return devices(request, deviceService.getDevicesByState(toState(request.pathVariable("state"))));
+    }
+
+    public Mono<ServerResponse> getDevicesByBrand(ServerRequest request) {
+        return devices(request, deviceService.getDevicesByBrand(toBrand(request.pathVariable("brand"))));
+    }
+
+    public Mono<ServerResponse> getDevicesByBrandAndState(ServerRequest request) {
+        return devices(request, deviceService.getDevicesByBrandAndState(
+                toBrand(request.pathVariable("brand")), toState(request.pathVariable("state"))));
+    }
+
+    public Mono<ServerResponse> getAllDevicesPaged(ServerRequest request) {
+        return page(request, null, null);
+    }
+
+    public Mono<ServerResponse> getDevicesByStatePaged(ServerRequest request) {
+        return page(request, null, toState(request.pathVariable("state")));
+    }
+
+    public Mono<ServerResponse> getDevicesByBrandPaged(ServerRequest request) {
+        return page(request, toBrand(request.pathVariable("brand")), null);
+    }
+
+    public Mono<ServerResponse> exportDevices(ServerRequest request) {
+        Brand brand = request.queryParam("brand").map(this::toBrand).orElse(null);
+        State state = request.queryParam("state").map(this::toState).orElse(null);
+
+        return ServerResponse.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(deviceService.exportDevices(brand, state).map(DeviceResponseDto::fromDomain), DeviceResponseDto.class);
+    }
+
+    public Mono<ServerResponse> updateDevice(ServerRequest request) {
+        UUID id = toId(request.pathVariable("id"));
+        Long expectedVersion = DeviceETags.expectedVersion(request.headers().firstHeader(HttpHeaders.IF_MATCH));
+
+        return request.bodyToMono(DeviceRequestDto.class)
+                .flatMap(dto -> deviceService.updateDevice(id, dto.toDomain(), expectedVersion))
+                .flatMap(device -> withETag(ServerResponse.ok(), device).bodyValue(DeviceResponseDto.fromDomain(device)));
+    }
+
+    public Mono<ServerResponse> patchDevice(ServerRequest request) {
+        UUID id = toId(request.pathVariable("id"));
+        Long expectedVersion = DeviceETags.expectedVersion(request.headers().firstHeader(HttpHeaders.IF_MATCH));
+
+        return request.bodyToMono(DeviceRequestDto.class)
+                .flatMap(dto -> deviceService.patchDevice(id, dto.toDomain(), expectedVersion))
+                .then(ServerResponse.ok().build());
+    }
+
+    public Mono<ServerResponse> deleteDevice(ServerRequest request) {
+        return deviceService.deleteDevice(toId(request.pathVariable("id")))
+                .then(ServerResponse.ok().build());
+    }
+
+    // application/x-ndjson streams one device per line; otherwise the JSON array is written element by element
+    private Mono<ServerResponse> devices(ServerRequest request, Flux<Device> devices) {
+        MediaType mediaType = request.headers().accept().contains(MediaType.APPLICATION_NDJSON)
+                ? MediaType.APPLICATION_NDJSON
+                : MediaType.APPLICATION_JSON;
+
+        return ServerResponse.ok()
+                .contentType(mediaType)
+                .body(devices.map(DeviceResponseDto::fromDomain), DeviceResponseDto.class);
+    }
+
+    private Mono<ServerResponse> page(ServerRequest request, Brand brand, State state) {
+        String cursor = request.queryParam("cursor").orElse(null);
+        DevicePageRequest pageRequest = new DevicePageRequest(
+                brand,
+                state,
+                DeviceSort.fromParameter(request.queryParam("sort").orElse("creationTime")),
+                isDescending(request.queryParam("direction").orElse("asc")),
+                toSize(request.queryParam("size").orElse("" + DevicePageRequest.DEFAULT_SIZE)),
+                cursor == null || cursor.isBlank() ? null : DeviceCursor.decode(cursor));
+
+        return deviceService.getDevicesPage(pageRequest)
+                .flatMap(page -> ServerResponse.ok().bodyValue(DevicePageResponseDto.fromDomain(page)));
+    }
+
+    private ServerResponse.BodyBuilder withETag(ServerResponse.BodyBuilder builder, Device device) {
+        return device.getVersion() == null ? builder : builder.eTag(DeviceETags.of(device.getVersion()));
+    }
+
+    private UUID toId(String id) {
+        try {
+            return UUID.fromString(id);
+        } catch (IllegalArgumentException e) {
+            throw new DeviceBadRequestException("Invalid device id '" + id + "'");
+        }
+    }
+
+    private int toSize(String size) {
+        try {
+            return Integer.parseInt(size);
+        } catch (NumberFormatException e) {
+            throw new DeviceBadRequestException("Invalid page size '" + size + "'");
+        }
+    }
+
+    private Brand toBrand(String brand) {
+        try {
+            return Brand.valueOf(brand.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Enum Value Not Found");
+        }
+    }
+
+    private State toState(String state) {
+        try {
+            return State.valueOf(state.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Enum Value Not Found");
+        }
+    }
+
+    private boolean isDescending(String direction) {
+        if ("asc".equalsIgnoreCase(direction)) {
+            return false;
+        }
+        if ("desc".equalsIgnoreCase(direction)) {
+            return true;
+        }
+        throw new DeviceBadRequestException("Unsupported direction '" + direction + "'");
+    }
+}
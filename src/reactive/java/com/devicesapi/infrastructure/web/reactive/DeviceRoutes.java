@@ -0,0 +1,42 @@
+package com.devicesapi.infrastructure.web.reactive;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Mono;
+
+import static org.springframework.web.reactive.function.server.RouterFunctions.route;
+
+/**
+ * Functional WebFlux routes of the reactive stack, mirroring the paths of the DeviceController.
+ * Batch writes and state transitions are only offered by the servlet stack.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "devices", name = "stack", havingValue = "reactive")
+public class DeviceRoutes {
+
+    @Bean
+    public RouterFunction<ServerResponse> deviceRouterFunction(DeviceHandler handler) {
+        return route()
+                .path("/api/devices", builder -> builder
+                        .POST("", handler::createDevice)
+                        .GET("", handler::getAllDevices)
+                        .GET("/paged", handler::getAllDevicesPaged)
+                        .GET("/export", handler::exportDevices)
+                        .GET("/state/{state}", handler::getDevicesByState)
+                        .GET("/state/{state}/paged", handler::getDevicesByStatePaged)
+                        .GET("/brand/{brand}", handler::getDevicesByBrand)
+                        .GET("/brand/{brand}/paged", handler::getDevicesByBrandPaged)
+                        .GET("/brand/{brand}/state/{state}", handler::getDevicesByBrandAndState)
+                        .GET("/{id}", handler::getDeviceById)
+                        .PUT("/{id}", handler::updateDevice)
+                        .PATCH("/{id}", handler::patchDevice)
+                        .DELETE("/{id}", handler::deleteDevice))
+                // Handlers also throw while reading the request, before any Mono exists
+                .filter((request, next) -> Mono.defer(() -> next.handle(request))
+                        .onErrorResume(DeviceErrorResponses::of))
+                .build();
+    }
+}
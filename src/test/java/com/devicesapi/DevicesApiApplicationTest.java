@@ -1,13 +1,20 @@
 package com.devicesapi;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.ActiveProfiles;
 
+import static org.assertj.core.api.Assertions.assertThat;
+
 @SpringBootTest
 @ActiveProfiles("test")
 class DevicesApiApplicationTest {
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     @Test
     void contextLoads() {
         // This test verifies that the Spring application context loads successfully
@@ -19,4 +26,11 @@ class DevicesApiApplicationTest {
         // This test verifies that the application can start without errors
         // All beans should be properly configured and dependencies resolved
     }
-}
\ No newline at end of file
+
+    @Test
+    void portsAreMetered() {
+        // The service and persistence ports the application uses are the metered decorators
+        assertThat(meterRegistry.find("devices.service").timers()).isNotEmpty();
+        assertThat(meterRegistry.find("devices.persistence").timers()).isNotEmpty();
+    }
+}
@@ -0,0 +1,123 @@
+package com.devicesapi;
+
+import com.devicesapi.infrastructure.web.routing.ReplicaReadInterceptor;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Read routing against two local H2 databases: the replica holds a device the primary does not, so
+ * every response shows which database answered.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:primarydb;DB_CLOSE_DELAY=-1",
+        "devices.read-routing.replicas[0].url=" + DevicesApiReadReplicaApplicationTest.REPLICA_URL,
+        "devices.read-routing.replicas[0].username=sa",
+        "devices.read-routing.replicas[0].password=password",
+        "devices.read-routing.read-your-writes=" + DevicesApiReadReplicaApplicationTest.READ_YOUR_WRITES_MILLIS + "ms",
+        // The brand index is built from the primary; without it the brand lists are queried
+        "devices.index.enabled=false"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles({"test", "replicas"})
+class DevicesApiReadReplicaApplicationTest {
+
+    static final String REPLICA_URL = "jdbc:h2:mem:replicadb;DB_CLOSE_DELAY=-1";
+    static final long READ_YOUR_WRITES_MILLIS = 2000;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        // Outside a transaction JdbcTemplate always writes to the primary
+        jdbcTemplate.update("delete from devices");
+        JdbcTemplate replica = new JdbcTemplate(new DriverManagerDataSource(REPLICA_URL, "sa", "password"));
+        replica.execute("drop all objects");
+        jdbcTemplate.queryForList("script nodata", String.class).forEach(replica::execute);
+        replica.update("insert into devices (id, name, brand, state, creation_time, version) values (?, ?, ?, ?, ?, ?)",
+                UUID.randomUUID(), "Replica Phone", "APPLE", "AVAILABLE", LocalDateTime.now(), 0L);
+    }
+
+    @Test
+    void getDevicesByBrand_WithoutRecentWrites_ShouldBeServedByTheReplica() throws Exception {
+        // Given: the list versions are stamped at startup, so the lists stay on the primary for one window
+        Thread.sleep(READ_YOUR_WRITES_MILLIS + 100);
+
+        // When & Then
+        mockMvc.perform(get("/api/devices/brand/APPLE"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].name", contains("Replica Phone")));
+    }
+
+    @Test
+    void getDeviceById_WithoutRecentWrites_ShouldBeLoadedFromTheReplica() throws Exception {
+        // Given
+        UUID replicaId = new JdbcTemplate(new DriverManagerDataSource(REPLICA_URL, "sa", "password"))
+                .queryForObject("select id from devices", UUID.class);
+
+        // When & Then: the cache loads where the read is routed, and no write has touched the device
+        mockMvc.perform(get("/api/devices/{id}", replicaId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("Replica Phone"));
+    }
+
+    @Test
+    void lookupDevices_ShouldBeServedByTheReplicaWithoutCountingAsAWrite() throws Exception {
+        // Given
+        UUID replicaId = new JdbcTemplate(new DriverManagerDataSource(REPLICA_URL, "sa", "password"))
+                .queryForObject("select id from devices", UUID.class);
+
+        // When & Then
+        mockMvc.perform(post("/api/devices/lookup")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"ids\":[\"" + replicaId + "\"]}"))
+                .andExpect(status().isOk())
+                .andExpect(cookie().doesNotExist(ReplicaReadInterceptor.LAST_WRITE_COOKIE))
+                .andExpect(jsonPath("$.devices[*].name", contains("Replica Phone")));
+    }
+
+    @Test
+    void getAllDevicesPaged_ShouldStayOnThePrimary() throws Exception {
+        // When & Then
+        mockMvc.perform(get("/api/devices/paged"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(0));
+    }
+
+    @Test
+    void getDevicesByBrand_AfterTheClientsOwnWrite_ShouldBeServedByThePrimary() throws Exception {
+        // Given
+        Cookie lastWrite = mockMvc.perform(post("/api/devices")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Primary Phone\",\"brand\":\"SAMSUNG\",\"state\":\"AVAILABLE\"}"))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getCookie(ReplicaReadInterceptor.LAST_WRITE_COOKIE);
+
+        // When & Then: the write did not touch the APPLE list, only the cookie keeps it on the primary
+        assertThat(lastWrite).isNotNull();
+        mockMvc.perform(get("/api/devices/brand/APPLE").cookie(lastWrite))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(0));
+    }
+}
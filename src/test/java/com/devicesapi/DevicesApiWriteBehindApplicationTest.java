@@ -0,0 +1,84 @@
+package com.devicesapi;
+
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.not;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Entity tags of devices with state changes still pending in the write-behind, which only writes
+ * them when a read or write needs the database.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:writebehinddb;DB_CLOSE_DELAY=-1",
+        "devices.write-behind.enabled=true",
+        "devices.write-behind.max-lag=1h"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class DevicesApiWriteBehindApplicationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void getDeviceById_AfterTwoCoalescedFlips_ShouldNotMatchTheTagOfTheFirst() throws Exception {
+        // Given: flipped to INACTIVE, seen by the client, then flipped back to AVAILABLE
+        String id = create("Write-behind Phone");
+        patchState(id, "INACTIVE");
+        String seen = mockMvc.perform(get("/api/devices/{id}", id))
+                .andExpect(jsonPath("$.state").value("INACTIVE"))
+                .andReturn().getResponse().getHeader("ETag");
+        patchState(id, "AVAILABLE");
+
+        // When & Then
+        mockMvc.perform(get("/api/devices/{id}", id).header("If-None-Match", seen))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", not(seen)))
+                .andExpect(jsonPath("$.state").value("AVAILABLE"));
+    }
+
+    @Test
+    void updateDevice_WithTheTagOfAnOverwrittenFlip_ShouldFailThePrecondition() throws Exception {
+        // Given
+        String id = create("Write-behind Tablet");
+        patchState(id, "INACTIVE");
+        String seen = mockMvc.perform(get("/api/devices/{id}", id))
+                .andReturn().getResponse().getHeader("ETag");
+        patchState(id, "AVAILABLE");
+
+        // When & Then: the PUT writes the pending states first, and the client never saw the second flip
+        mockMvc.perform(put("/api/devices/{id}", id)
+                        .header("If-Match", seen)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Renamed Tablet\",\"brand\":\"APPLE\",\"state\":\"INACTIVE\"}"))
+                .andExpect(status().isPreconditionFailed());
+    }
+
+    private String create(String name) throws Exception {
+        String body = mockMvc.perform(post("/api/devices")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"" + name + "\",\"brand\":\"APPLE\",\"state\":\"AVAILABLE\"}"))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        return JsonPath.read(body, "$.id");
+    }
+
+    private void patchState(String id, String state) throws Exception {
+        mockMvc.perform(patch("/api/devices/{id}", id)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"state\":\"" + state + "\"}"))
+                .andExpect(status().is2xxSuccessful());
+    }
+}
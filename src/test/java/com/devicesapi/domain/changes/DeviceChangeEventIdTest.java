@@ -0,0 +1,41 @@
+package com.devicesapi.domain.changes;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class DeviceChangeEventIdTest {
+
+    @Test
+    void formatParse_ShouldRoundTrip() {
+        // Given
+        DeviceChangeEventId id = new DeviceChangeEventId("k3x9", 42);
+
+        // When
+        DeviceChangeEventId parsed = DeviceChangeEventId.parse(id.format());
+
+        // Then
+        assertThat(id.format()).isEqualTo("k3x9-42");
+        assertThat(parsed).isEqualTo(id);
+        assertThat(parsed.sameGeneration("k3x9")).isTrue();
+    }
+
+    @Test
+    void parse_WithBareSequence_ShouldMatchNoGeneration() {
+        // When
+        DeviceChangeEventId parsed = DeviceChangeEventId.parse(" 41 ");
+
+        // Then
+        assertThat(parsed.sequence()).isEqualTo(41);
+        assertThat(parsed.sameGeneration("k3x9")).isFalse();
+    }
+
+    @Test
+    void parse_WithGarbage_ShouldThrow() {
+        // When & Then
+        assertThatThrownBy(() -> DeviceChangeEventId.parse("latest")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> DeviceChangeEventId.parse("-41")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> DeviceChangeEventId.parse("k3x9-")).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,183 @@
+package com.devicesapi.domain.changes;
+
+import com.devicesapi.domain.entities.Device;
+import com.devicesapi.domain.enums.Brand;
+import com.devicesapi.domain.enums.State;
+import com.devicesapi.domain.ports.DeviceListVersionPort;
+import com.devicesapi.domain.queries.DeviceListVersion;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class DeviceListVersionsTest {
+
+    private static final Instant START = Instant.parse("2024-01-01T00:00:00Z");
+    private static final long GENERATION = 0xabc;
+
+    @Test
+    void current_BeforeAnyChange_ShouldBeTheSameForEveryList() {
+        // Given
+        DeviceListVersions versions = new DeviceListVersions(new InMemoryDeviceListVersionPort(GENERATION), Clock.fixed(START, ZoneOffset.UTC));
+
+        // When & Then
+        assertThat(versions.current(Brand.APPLE, null))
+                .isEqualTo(versions.current(null, null))
+                .isEqualTo(versions.current(null, State.IN_USE))
+                .extracting(DeviceListVersion::version, DeviceListVersion::lastModified)
+                .containsExactly(0L, START);
+    }
+
+    @Test
+    void changed_ShouldOnlyMoveTheTouchedPartitions() {
+        // Given
+        DeviceListVersions versions = new DeviceListVersions(new InMemoryDeviceListVersionPort(GENERATION), Clock.fixed(START, ZoneOffset.UTC));
+
+        // When
+        versions.changed(Brand.APPLE, State.AVAILABLE);
+
+        // Then
+        assertThat(versions.current(Brand.APPLE, null).version()).isEqualTo(1);
+        assertThat(versions.current(null, State.AVAILABLE).version()).isEqualTo(1);
+        assertThat(versions.current(null, null).version()).isEqualTo(1);
+        assertThat(versions.current(Brand.SAMSUNG, null).version()).isZero();
+        assertThat(versions.current(null, State.IN_USE).version()).isZero();
+    }
+
+    @Test
+    void changed_WithUnknownValues_ShouldMoveEveryPartitionOfThatKind() {
+        // Given
+        DeviceListVersions versions = new DeviceListVersions(new InMemoryDeviceListVersionPort(GENERATION), Clock.fixed(START, ZoneOffset.UTC));
+
+        // When
+        versions.changed(null, State.INACTIVE);
+
+        // Then
+        for (Brand brand : Brand.values()) {
+            assertThat(versions.current(brand, null).version()).isEqualTo(1);
+        }
+        assertThat(versions.current(null, State.INACTIVE).version()).isEqualTo(1);
+        assertThat(versions.current(null, State.AVAILABLE).version()).isZero();
+    }
+
+    @Test
+    void current_ForBrandAndState_ShouldMoveWithEitherPartition() {
+        // Given
+        DeviceListVersions versions = new DeviceListVersions(new InMemoryDeviceListVersionPort(GENERATION), Clock.fixed(START, ZoneOffset.UTC));
+        versions.changed(Brand.APPLE, State.IN_USE);
+        DeviceListVersion before = versions.current(Brand.APPLE, State.AVAILABLE);
+
+        // When
+        versions.changed(Brand.SAMSUNG, State.AVAILABLE);
+
+        // Then
+        assertThat(versions.current(Brand.APPLE, State.AVAILABLE).version()).isGreaterThan(before.version());
+        assertThat(versions.current(Brand.GOOGLE, State.INACTIVE).version()).isZero();
+    }
+
+    @Test
+    void current_OfInstancesSharingOnePort_ShouldSeeEachOthersChanges() {
+        // Given
+        InMemoryDeviceListVersionPort port = new InMemoryDeviceListVersionPort(GENERATION);
+        DeviceListVersions first = new DeviceListVersions(port, Clock.fixed(START, ZoneOffset.UTC));
+        DeviceListVersions second = new DeviceListVersions(port, Clock.fixed(START.plusSeconds(5), ZoneOffset.UTC));
+        first.initialize();
+
+        // When
+        second.changed(Brand.GOOGLE, State.AVAILABLE);
+
+        // Then: the second instance did not reset the versions it found stored
+        assertThat(first.current(Brand.GOOGLE, null))
+                .isEqualTo(new DeviceListVersion(GENERATION, 1, START.plusSeconds(5)));
+        assertThat(first.current(Brand.APPLE, null).lastModified()).isEqualTo(START);
+    }
+
+    @Test
+    void new_ShouldNotTouchThePortUntilInitializedOrUsed() {
+        // Given
+        DeviceListVersionPort port = mock(DeviceListVersionPort.class);
+
+        // When
+        DeviceListVersions versions = new DeviceListVersions(port, Clock.fixed(START, ZoneOffset.UTC));
+
+        // Then
+        verifyNoInteractions(port);
+        versions.changed(Brand.APPLE, State.AVAILABLE);
+        versions.changed(Brand.APPLE, State.IN_USE);
+        verify(port, times(1)).initialize(anyCollection(), eq(START));
+    }
+
+    @Test
+    void initialize_WhenThePortFails_ShouldBeRetriedOnTheNextUse() {
+        // Given
+        DeviceListVersionPort port = mock(DeviceListVersionPort.class);
+        doThrow(new IllegalStateException("database down")).doNothing().when(port).initialize(anyCollection(), any());
+        DeviceListVersions versions = new DeviceListVersions(port, Clock.fixed(START, ZoneOffset.UTC));
+
+        // When
+        assertThatThrownBy(versions::initialize).isInstanceOf(IllegalStateException.class);
+        versions.changed(Brand.APPLE, State.AVAILABLE);
+
+        // Then
+        verify(port, times(2)).initialize(anyCollection(), any());
+        verify(port).advance(anyCollection(), eq(START));
+    }
+
+    @Test
+    void changed_WithDeviceChange_ShouldMoveThePartitionsLeftAndEnteredUnderOneVersion() {
+        // Given
+        DeviceListVersions versions = new DeviceListVersions(new InMemoryDeviceListVersionPort(GENERATION), Clock.fixed(START, ZoneOffset.UTC));
+        UUID id = UUID.randomUUID();
+        Device previous = new Device(id, "iPhone", Brand.APPLE, State.AVAILABLE, null, null);
+
+        // When
+        versions.changed(DeviceChange.patched(id, new Device(id, null, Brand.SAMSUNG, null, null, null), previous));
+
+        // Then
+        assertThat(versions.current(Brand.APPLE, null).version()).isEqualTo(1);
+        assertThat(versions.current(Brand.SAMSUNG, null).version()).isEqualTo(1);
+        assertThat(versions.current(null, State.AVAILABLE).version()).isEqualTo(1);
+        assertThat(versions.current(Brand.GOOGLE, null).version()).isZero();
+        assertThat(versions.current(null, State.INACTIVE).version()).isZero();
+    }
+
+    @Test
+    void changed_WithSeveralChanges_ShouldMoveEveryTouchedPartitionUnderOneVersion() {
+        // Given
+        DeviceListVersions versions = new DeviceListVersions(new InMemoryDeviceListVersionPort(GENERATION), Clock.fixed(START, ZoneOffset.UTC));
+        Device apple = new Device(UUID.randomUUID(), "iPhone", Brand.APPLE, State.AVAILABLE, null, null);
+        Device google = new Device(UUID.randomUUID(), "Pixel", Brand.GOOGLE, State.INACTIVE, null, null);
+
+        // When
+        versions.changed(List.of(DeviceChange.created(apple), DeviceChange.deleted(google.getId(), google)));
+
+        // Then
+        assertThat(versions.current(null, null).version()).isEqualTo(1);
+        assertThat(versions.current(Brand.APPLE, null).version()).isEqualTo(1);
+        assertThat(versions.current(Brand.GOOGLE, null).version()).isEqualTo(1);
+        assertThat(versions.current(null, State.INACTIVE).version()).isEqualTo(1);
+        assertThat(versions.current(Brand.SAMSUNG, State.IN_USE).version()).isZero();
+    }
+
+    @Test
+    void changed_WithoutChanges_ShouldNotMoveAnyPartition() {
+        // Given
+        DeviceListVersions versions = new DeviceListVersions(new InMemoryDeviceListVersionPort(GENERATION), Clock.fixed(START, ZoneOffset.UTC));
+
+        // When
+        versions.changed(List.of());
+
+        // Then
+        assertThat(versions.current(null, null).version()).isZero();
+    }
+}
@@ -0,0 +1,41 @@
+package com.devicesapi.domain.changes;
+
+import com.devicesapi.domain.ports.DeviceListVersionPort;
+import com.devicesapi.domain.queries.DeviceListVersion;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Keeps the list versions in a map, for tests that do not run against a database.
+ */
+public class InMemoryDeviceListVersionPort implements DeviceListVersionPort {
+
+    private final long generation;
+    private final Map<String, DeviceListVersion> versions = new HashMap<>();
+    private long sequence;
+
+    public InMemoryDeviceListVersionPort(long generation) {
+        this.generation = generation;
+    }
+
+    @Override
+    public synchronized void initialize(Collection<String> partitions, Instant at) {
+        partitions.forEach(partition -> versions.putIfAbsent(partition, new DeviceListVersion(generation, 0, at)));
+    }
+
+    @Override
+    public synchronized Map<String, DeviceListVersion> read(Collection<String> partitions) {
+        Map<String, DeviceListVersion> read = new HashMap<>();
+        partitions.forEach(partition -> read.put(partition, versions.get(partition)));
+        return read;
+    }
+
+    @Override
+    public synchronized void advance(Collection<String> partitions, Instant at) {
+        DeviceListVersion next = new DeviceListVersion(generation, ++sequence, at);
+        partitions.forEach(partition -> versions.put(partition, next));
+    }
+}
@@ -0,0 +1,85 @@
+package com.devicesapi.domain.queries;
+
+import com.devicesapi.domain.entities.Device;
+import com.devicesapi.domain.enums.Brand;
+import com.devicesapi.domain.enums.DeviceSort;
+import com.devicesapi.domain.enums.State;
+import com.devicesapi.domain.exception.DeviceBadRequestException;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class DeviceCursorTest {
+
+    private final Device device = Device.createWithIdAndTime(UUID.randomUUID(), "Pixel\n8 Pro",
+            Brand.GOOGLE, State.AVAILABLE, LocalDateTime.of(2024, 3, 1, 10, 15, 30, 123456000));
+
+    @Test
+    void encodeDecode_WithCreationTimeSort_ShouldRoundTrip() {
+        // Given
+        DeviceCursor cursor = DeviceCursor.after(device, DeviceSort.CREATION_TIME, true);
+
+        // When
+        DeviceCursor decoded = DeviceCursor.decode(cursor.encode());
+
+        // Then
+        assertThat(decoded).isEqualTo(cursor);
+        assertThat(decoded.creationTime()).isEqualTo(device.getCreationTime());
+        assertThat(decoded.id()).isEqualTo(device.getId());
+    }
+
+    @Test
+    void encodeDecode_WithNameSort_ShouldRoundTripNamesContainingSeparators() {
+        // Given
+        DeviceCursor cursor = DeviceCursor.after(device, DeviceSort.NAME, false);
+
+        // When
+        DeviceCursor decoded = DeviceCursor.decode(cursor.encode());
+
+        // Then
+        assertThat(decoded).isEqualTo(cursor);
+        assertThat(decoded.name()).isEqualTo("Pixel\n8 Pro");
+    }
+
+    @Test
+    void encode_ShouldProduceUrlSafeToken() {
+        // When
+        String token = DeviceCursor.after(device, DeviceSort.NAME, false).encode();
+
+        // Then
+        assertThat(token).matches("[A-Za-z0-9_-]+");
+    }
+
+    @Test
+    void decode_WithGarbage_ShouldThrowBadRequest() {
+        // When & Then
+        assertThatThrownBy(() -> DeviceCursor.decode("not-a-cursor"))
+                .isInstanceOf(DeviceBadRequestException.class)
+                .hasMessageContaining("Invalid pagination cursor");
+    }
+
+    @Test
+    void pageRequest_WithCursorForOtherSort_ShouldThrowBadRequest() {
+        // Given
+        DeviceCursor cursor = DeviceCursor.after(device, DeviceSort.NAME, false);
+
+        // When & Then
+        assertThatThrownBy(() -> new DevicePageRequest(null, null, DeviceSort.CREATION_TIME, false, 10, cursor))
+                .isInstanceOf(DeviceBadRequestException.class)
+                .hasMessageContaining("Cursor does not match the requested sort");
+    }
+
+    @Test
+    void pageRequest_WithOversizedPage_ShouldClampToMaximum() {
+        // When
+        DevicePageRequest request = new DevicePageRequest(null, null, null, false, 100_000, null);
+
+        // Then
+        assertThat(request.size()).isEqualTo(DevicePageRequest.MAX_SIZE);
+        assertThat(request.sort()).isEqualTo(DeviceSort.CREATION_TIME);
+    }
+}
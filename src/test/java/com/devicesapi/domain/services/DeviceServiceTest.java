@@ -1,22 +1,49 @@
 package com.devicesapi.domain.services;
 
+import com.devicesapi.domain.batch.DeviceBatchOperation;
+import com.devicesapi.domain.batch.DeviceBatchOperationType;
+import com.devicesapi.domain.batch.DeviceBatchRequest;
+import com.devicesapi.domain.batch.DeviceBatchResult;
+import com.devicesapi.domain.batch.DeviceBatchStatus;
+import com.devicesapi.domain.batch.DeviceStateTransition;
+import com.devicesapi.domain.batch.DeviceStateTransitionChunk;
+import com.devicesapi.domain.changes.DeviceChange;
+import com.devicesapi.domain.changes.DeviceListVersions;
+import com.devicesapi.domain.changes.InMemoryDeviceListVersionPort;
+import com.devicesapi.domain.changes.DeviceWriteResult;
 import com.devicesapi.domain.entities.Device;
 import com.devicesapi.domain.enums.Brand;
+import com.devicesapi.domain.enums.DeviceSort;
+import com.devicesapi.domain.enums.DeviceWriteOutcome;
 import com.devicesapi.domain.enums.State;
+import com.devicesapi.domain.exception.DeviceBadRequestException;
+import com.devicesapi.domain.exception.DeviceInUseException;
 import com.devicesapi.domain.exception.DeviceNotFoundException;
 import com.devicesapi.domain.exception.DeviceBusinessException;
+import com.devicesapi.domain.ports.DeviceChangePublisher;
 import com.devicesapi.domain.ports.DevicePersistencePort;
+import com.devicesapi.domain.queries.DeviceCounts;
+import com.devicesapi.domain.queries.DeviceLookup;
+import com.devicesapi.domain.queries.DevicePage;
+import com.devicesapi.domain.queries.DevicePageRequest;
+import com.devicesapi.domain.queries.DeviceSearchRequest;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.support.TransactionOperations;
 
+import java.time.Clock;
 import java.time.LocalDateTime;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -30,6 +57,15 @@ class DeviceServiceTest {
     @Mock
     private DevicePersistencePort devicePersistencePort;
 
+    @Spy
+    private TransactionOperations transactionOperations = TransactionOperations.withoutTransaction();
+
+    @Mock
+    private DeviceChangePublisher changePublisher;
+
+    @Spy
+    private DeviceListVersions listVersions = new DeviceListVersions(new InMemoryDeviceListVersionPort(1), Clock.systemUTC());
+
     @InjectMocks
     private DeviceService deviceService;
 
@@ -47,15 +83,15 @@ class DeviceServiceTest {
     @Test
     void deleteDevice_WhenDeviceInUse_ShouldThrowException() {
         // Given
-        Device inUseDevice = Device.createWithIdAndTime(testId, "In Use Device", Brand.SAMSUNG, State.IN_USE, testTime);
-        when(devicePersistencePort.findById(testId)).thenReturn(Optional.of(inUseDevice));
+        when(devicePersistencePort.deleteUnlessInUse(testId)).thenReturn(DeviceWriteResult.rejected(DeviceWriteOutcome.IN_USE));
 
         // When & Then
         assertThatThrownBy(() -> deviceService.deleteDevice(testId))
                 .isInstanceOf(DeviceNotFoundException.class)
                 .hasMessageContaining("is still in use and cannot be deleted");
         
-        verify(devicePersistencePort).findById(testId);
+        verify(devicePersistencePort).deleteUnlessInUse(testId);
+        verify(devicePersistencePort, never()).findById(any());
         verify(devicePersistencePort, never()).deleteById(any());
     }
 
@@ -73,6 +109,34 @@ class DeviceServiceTest {
         verify(devicePersistencePort).save(newDevice);
     }
 
+    @Test
+    void lookupDevices_ShouldReturnHitsInRequestOrderAndMissingIdsOnce() {
+        // Given
+        UUID otherId = UUID.randomUUID();
+        UUID missingId = UUID.randomUUID();
+        Device other = Device.createWithIdAndTime(otherId, "Other", Brand.APPLE, State.IN_USE, testTime);
+        when(devicePersistencePort.findDevicesById(any())).thenReturn(List.of(testDevice, other));
+
+        // When
+        DeviceLookup lookup = deviceService.lookupDevices(List.of(otherId, missingId, testId, otherId));
+
+        // Then
+        assertThat(lookup.devices()).containsExactly(other, testDevice);
+        assertThat(lookup.missing()).containsExactly(missingId);
+        verify(devicePersistencePort).findDevicesById(Set.of(otherId, missingId, testId));
+    }
+
+    @Test
+    void lookupDevices_WithTooManyIds_ShouldThrowBadRequest() {
+        // Given
+        List<UUID> ids = Collections.nCopies(DeviceLookup.MAX_IDS + 1, testId);
+
+        // When & Then
+        assertThatThrownBy(() -> deviceService.lookupDevices(ids))
+                .isInstanceOf(DeviceBadRequestException.class);
+        verifyNoInteractions(devicePersistencePort);
+    }
+
     @Test
     void getDeviceById_WhenDeviceExists_ShouldReturnDevice() {
         // Given
@@ -142,128 +206,489 @@ class DeviceServiceTest {
         verify(devicePersistencePort).findByState(State.AVAILABLE);
     }
 
+    @Test
+    void getDevicesByBrandAndState_ShouldReturnMatchingDevices() {
+        // Given
+        when(devicePersistencePort.findByBrandAndState(Brand.SAMSUNG, State.AVAILABLE)).thenReturn(List.of(testDevice));
+
+        // When
+        List<Device> result = deviceService.getDevicesByBrandAndState(Brand.SAMSUNG, State.AVAILABLE);
+
+        // Then
+        assertThat(result).containsExactly(testDevice);
+        verify(devicePersistencePort).findByBrandAndState(Brand.SAMSUNG, State.AVAILABLE);
+    }
+
+    @Test
+    void getDevicesPage_ShouldDelegateToPersistence() {
+        // Given
+        DevicePageRequest request = new DevicePageRequest(Brand.SAMSUNG, null, DeviceSort.NAME, false, 10, null);
+        DevicePage page = new DevicePage(List.of(testDevice), null);
+        when(devicePersistencePort.findPage(request)).thenReturn(page);
+
+        // When
+        DevicePage result = deviceService.getDevicesPage(request);
+
+        // Then
+        assertThat(result).isEqualTo(page);
+        verify(devicePersistencePort).findPage(request);
+    }
+
+    @Test
+    void createDevice_ShouldPublishCreatedChange() {
+        // Given
+        Device newDevice = Device.createNew("Test Device", Brand.SAMSUNG, State.AVAILABLE);
+        when(devicePersistencePort.save(newDevice)).thenReturn(testDevice);
+
+        // When
+        deviceService.createDevice(newDevice);
+
+        // Then
+        verify(changePublisher).publish(DeviceChange.created(testDevice));
+    }
+
+    @Test
+    void createDevice_ShouldOnlyChangeListsOfItsBrandAndState() {
+        // Given
+        Device newDevice = Device.createNew("Test Device", Brand.SAMSUNG, State.AVAILABLE);
+        when(devicePersistencePort.save(newDevice)).thenReturn(testDevice);
+        long appleVersion = deviceService.getListVersion(Brand.APPLE, null).version();
+        long inUseVersion = deviceService.getListVersion(null, State.IN_USE).version();
+        long samsungVersion = deviceService.getListVersion(Brand.SAMSUNG, null).version();
+
+        // When
+        deviceService.createDevice(newDevice);
+
+        // Then
+        assertThat(deviceService.getListVersion(Brand.APPLE, null).version()).isEqualTo(appleVersion);
+        assertThat(deviceService.getListVersion(null, State.IN_USE).version()).isEqualTo(inUseVersion);
+        assertThat(deviceService.getListVersion(Brand.SAMSUNG, null).version()).isGreaterThan(samsungVersion);
+        assertThat(deviceService.getListVersion(null, State.AVAILABLE).version()).isGreaterThan(inUseVersion);
+        assertThat(deviceService.getListVersion(null, null).version()).isGreaterThan(samsungVersion);
+    }
+
+    @Test
+    void patchDevice_WhenApplied_ShouldOnlyChangeTheListsTheDeviceLeftAndEntered() {
+        // Given
+        Device patch = Device.createNew(null, null, State.INACTIVE);
+        when(devicePersistencePort.updateUnlessInUse(testId, patch, null)).thenReturn(DeviceWriteResult.applied(testDevice));
+        long appleVersion = deviceService.getListVersion(Brand.APPLE, null).version();
+        long inUseVersion = deviceService.getListVersion(null, State.IN_USE).version();
+
+        // When
+        deviceService.patchDevice(testId, patch);
+
+        // Then
+        long version = deviceService.getListVersion(null, null).version();
+        assertThat(deviceService.getListVersion(Brand.SAMSUNG, null).version()).isEqualTo(version);
+        assertThat(deviceService.getListVersion(null, State.AVAILABLE).version()).isEqualTo(version);
+        assertThat(deviceService.getListVersion(null, State.INACTIVE).version()).isEqualTo(version);
+        assertThat(deviceService.getListVersion(Brand.APPLE, null).version()).isEqualTo(appleVersion);
+        assertThat(deviceService.getListVersion(null, State.IN_USE).version()).isEqualTo(inUseVersion);
+    }
+
+    @Test
+    void deleteDevice_WhenApplied_ShouldOnlyChangeTheListsTheDeviceLeft() {
+        // Given
+        when(devicePersistencePort.deleteUnlessInUse(testId)).thenReturn(DeviceWriteResult.applied(testDevice));
+        long appleVersion = deviceService.getListVersion(Brand.APPLE, null).version();
+        long inactiveVersion = deviceService.getListVersion(null, State.INACTIVE).version();
+
+        // When
+        deviceService.deleteDevice(testId);
+
+        // Then
+        assertThat(deviceService.getListVersion(Brand.SAMSUNG, State.AVAILABLE).version())
+                .isEqualTo(deviceService.getListVersion(null, null).version());
+        assertThat(deviceService.getListVersion(Brand.APPLE, null).version()).isEqualTo(appleVersion);
+        assertThat(deviceService.getListVersion(null, State.INACTIVE).version()).isEqualTo(inactiveVersion);
+    }
+
+    @Test
+    void patchDevice_WhenRejected_ShouldNotChangeAnyList() {
+        // Given
+        Device patch = Device.createNew(null, null, State.INACTIVE);
+        when(devicePersistencePort.updateUnlessInUse(testId, patch, null)).thenReturn(DeviceWriteResult.rejected(DeviceWriteOutcome.IN_USE));
+
+        // When
+        assertThatThrownBy(() -> deviceService.patchDevice(testId, patch)).isInstanceOf(DeviceInUseException.class);
+
+        // Then
+        verify(listVersions, never()).changed(any(), any());
+        verify(listVersions, never()).changed(any(DeviceChange.class));
+        verify(listVersions, never()).changed(anyCollection());
+    }
+
+    @Test
+    void executeBatch_ShouldChangeListsBeforeAndAfterEachChange() {
+        // Given
+        when(devicePersistencePort.findAllById(any())).thenReturn(List.of(testDevice));
+        when(devicePersistencePort.saveAll(any())).thenAnswer(invocation -> List.copyOf(invocation.getArgument(0)));
+        DeviceBatchRequest request = DeviceBatchRequest.of(List.of(
+                new DeviceBatchOperation(DeviceBatchOperationType.PATCH, testId, Device.createNew(null, Brand.GOOGLE, State.INACTIVE))
+        ), null);
+
+        // When
+        deviceService.executeBatch(request);
+
+        // Then
+        DeviceChange change = DeviceChange.updated(
+                Device.updateDevice(testId, "Test Device", Brand.GOOGLE, State.INACTIVE, testTime), testDevice);
+        verify(listVersions).changed(List.of(change));
+        verify(listVersions, never()).changed(any(), any());
+        verify(changePublisher).publish(change);
+    }
+
+    @Test
+    void executeBatch_WhenTheListVersionsFailAfterCommit_ShouldKeepTheCommittedResults() {
+        // Given
+        when(devicePersistencePort.findAllById(any())).thenReturn(List.of(testDevice));
+        when(devicePersistencePort.saveAll(any())).thenAnswer(invocation -> List.copyOf(invocation.getArgument(0)));
+        doThrow(new IllegalStateException("database down")).when(listVersions).changed(anyCollection());
+        DeviceBatchRequest request = DeviceBatchRequest.of(List.of(
+                new DeviceBatchOperation(DeviceBatchOperationType.PATCH, testId, Device.createNew(null, Brand.GOOGLE, State.INACTIVE))
+        ), null);
+
+        // When
+        List<DeviceBatchResult> results = deviceService.executeBatch(request);
+
+        // Then
+        assertThat(results).extracting(DeviceBatchResult::isSucceeded).containsExactly(true);
+        verify(changePublisher).publish(any(DeviceChange.class));
+    }
+
+    @Test
+    void patchAndDeleteDevice_WhenApplied_ShouldPublishThePreviousValuesTheWritesReported() {
+        // Given
+        Device patch = Device.createNew(null, null, State.INACTIVE);
+        when(devicePersistencePort.updateUnlessInUse(testId, patch, null)).thenReturn(DeviceWriteResult.applied(testDevice));
+        when(devicePersistencePort.deleteUnlessInUse(testId)).thenReturn(DeviceWriteResult.applied(testDevice));
+
+        // When
+        deviceService.patchDevice(testId, patch);
+        deviceService.deleteDevice(testId);
+
+        // Then
+        verify(changePublisher).publish(DeviceChange.patched(testId, patch, testDevice));
+        verify(changePublisher).publish(DeviceChange.deleted(testId, testDevice));
+        verify(devicePersistencePort, never()).findById(any());
+    }
+
+    @Test
+    void deleteDevice_WhenRejected_ShouldNotPublish() {
+        // Given
+        when(devicePersistencePort.deleteUnlessInUse(testId)).thenReturn(DeviceWriteResult.rejected(DeviceWriteOutcome.IN_USE));
+
+        // When & Then
+        assertThatThrownBy(() -> deviceService.deleteDevice(testId)).isInstanceOf(DeviceInUseException.class);
+        verifyNoInteractions(changePublisher);
+    }
+
+    @Test
+    void getDeviceCounts_ShouldDelegateToPersistence() {
+        // Given
+        DeviceCounts counts = DeviceCounts.fromMatrix(new long[Brand.values().length][State.values().length]);
+        when(devicePersistencePort.countByBrandAndState()).thenReturn(counts);
+
+        // When
+        DeviceCounts result = deviceService.getDeviceCounts();
+
+        // Then
+        assertThat(result).isEqualTo(counts);
+    }
+
+    @Test
+    void searchDevices_ShouldDelegateToPersistence() {
+        // Given
+        DeviceSearchRequest request = new DeviceSearchRequest(null, DeviceSort.NAME, true, 10, null);
+        DevicePage page = new DevicePage(List.of(testDevice), null);
+        when(devicePersistencePort.search(request)).thenReturn(page);
+
+        // When
+        DevicePage result = deviceService.searchDevices(request);
+
+        // Then
+        assertThat(result).isEqualTo(page);
+        verify(devicePersistencePort).search(request);
+    }
+
     @Test
     void updateDevice_WhenDeviceExistsAndNotInUse_ShouldUpdateDevice() {
         // Given
         Device updatedDevice = Device.createNew("Updated Device", Brand.APPLE, State.AVAILABLE);
         Device expectedDevice = Device.createWithIdAndTime(testId, "Updated Device", Brand.APPLE, State.AVAILABLE, testTime);
         
-        when(devicePersistencePort.findById(testId)).thenReturn(Optional.of(testDevice));
-        when(devicePersistencePort.save(any(Device.class))).thenReturn(expectedDevice);
+        when(devicePersistencePort.updateUnlessInUse(testId, updatedDevice, null)).thenReturn(DeviceWriteResult.applied(testDevice));
+        when(devicePersistencePort.findById(testId)).thenReturn(Optional.of(expectedDevice));
 
         // When
         Device result = deviceService.updateDevice(testId, updatedDevice);
 
         // Then
         assertThat(result).isEqualTo(expectedDevice);
-        verify(devicePersistencePort).findById(testId);
-        verify(devicePersistencePort).save(any(Device.class));
+        verify(devicePersistencePort).updateUnlessInUse(testId, updatedDevice, null);
+        verify(devicePersistencePort, never()).save(any());
     }
 
     @Test
     void updateDevice_WhenDeviceNotExists_ShouldThrowException() {
         // Given
         Device updatedDevice = Device.createNew("Updated Device", Brand.APPLE, State.AVAILABLE);
-        when(devicePersistencePort.findById(testId)).thenReturn(Optional.empty());
+        when(devicePersistencePort.updateUnlessInUse(testId, updatedDevice, null)).thenReturn(DeviceWriteResult.rejected(DeviceWriteOutcome.NOT_FOUND));
 
         // When & Then
         assertThatThrownBy(() -> deviceService.updateDevice(testId, updatedDevice))
                 .isInstanceOf(DeviceNotFoundException.class)
                 .hasMessageContaining("Device with id '" + testId + "' not found");
         
-        verify(devicePersistencePort).findById(testId);
+        verify(devicePersistencePort, never()).findById(any());
         verify(devicePersistencePort, never()).save(any());
     }
 
     @Test
     void updateDevice_WhenDeviceInUse_ShouldThrowException() {
         // Given
-        Device inUseDevice = Device.createWithIdAndTime(testId, "In Use Device", Brand.SAMSUNG, State.IN_USE, testTime);
         Device updatedDevice = Device.createNew("Updated Device", Brand.APPLE, State.AVAILABLE);
-        when(devicePersistencePort.findById(testId)).thenReturn(Optional.of(inUseDevice));
+        when(devicePersistencePort.updateUnlessInUse(testId, updatedDevice, null)).thenReturn(DeviceWriteResult.rejected(DeviceWriteOutcome.IN_USE));
 
         // When & Then
         assertThatThrownBy(() -> deviceService.updateDevice(testId, updatedDevice))
+                .isInstanceOf(DeviceInUseException.class)
                 .isInstanceOf(DeviceNotFoundException.class)
                 .hasMessageContaining("is still in use so name and and cannot be updated");
         
-        verify(devicePersistencePort).findById(testId);
+        verify(devicePersistencePort, never()).findById(any());
         verify(devicePersistencePort, never()).save(any());
     }
 
     @Test
     void patchDevice_WhenDeviceExistsAndNotInUse_ShouldPatchDevice() {
         // Given
-        Device patchDevice = Device.createNew("Patched Device", Brand.GOOGLE, State.INACTIVE);
-        Device expectedDevice = Device.createWithIdAndTime(testId, "Patched Device", Brand.GOOGLE, State.INACTIVE, testTime);
-        
-        when(devicePersistencePort.findById(testId)).thenReturn(Optional.of(testDevice));
-        when(devicePersistencePort.save(any(Device.class))).thenReturn(expectedDevice);
+        Device patchDevice = Device.createNew(null, null, State.INACTIVE);
+        when(devicePersistencePort.updateUnlessInUse(testId, patchDevice, null)).thenReturn(DeviceWriteResult.applied(testDevice));
 
         // When
         deviceService.patchDevice(testId, patchDevice);
 
         // Then
-        verify(devicePersistencePort).findById(testId);
-        verify(devicePersistencePort).save(any(Device.class));
+        verify(devicePersistencePort).updateUnlessInUse(testId, patchDevice, null);
+        verify(devicePersistencePort, never()).findById(any());
+        verify(devicePersistencePort, never()).save(any());
     }
 
     @Test
     void patchDevice_WhenDeviceNotExists_ShouldThrowException() {
         // Given
         Device patchDevice = Device.createNew("Patched Device", Brand.GOOGLE, State.INACTIVE);
-        when(devicePersistencePort.findById(testId)).thenReturn(Optional.empty());
+        when(devicePersistencePort.updateUnlessInUse(testId, patchDevice, null)).thenReturn(DeviceWriteResult.rejected(DeviceWriteOutcome.NOT_FOUND));
 
         // When & Then
         assertThatThrownBy(() -> deviceService.patchDevice(testId, patchDevice))
                 .isInstanceOf(DeviceNotFoundException.class)
                 .hasMessageContaining("Device with id '" + testId + "' not found");
         
-        verify(devicePersistencePort).findById(testId);
         verify(devicePersistencePort, never()).save(any());
     }
 
     @Test
     void patchDevice_WhenDeviceInUse_ShouldThrowException() {
         // Given
-        Device inUseDevice = Device.createWithIdAndTime(testId, "In Use Device", Brand.SAMSUNG, State.IN_USE, testTime);
         Device patchDevice = Device.createNew("Patched Device", Brand.GOOGLE, State.INACTIVE);
-        when(devicePersistencePort.findById(testId)).thenReturn(Optional.of(inUseDevice));
+        when(devicePersistencePort.updateUnlessInUse(testId, patchDevice, null)).thenReturn(DeviceWriteResult.rejected(DeviceWriteOutcome.IN_USE));
 
         // When & Then
         assertThatThrownBy(() -> deviceService.patchDevice(testId, patchDevice))
                 .isInstanceOf(DeviceNotFoundException.class)
                 .hasMessageContaining("is still in use so name and and cannot be updated");
         
-        verify(devicePersistencePort).findById(testId);
         verify(devicePersistencePort, never()).save(any());
     }
 
     @Test
     void deleteDevice_WhenDeviceExists_ShouldDeleteDevice() {
         // Given
-        Device availableDevice = Device.createWithIdAndTime(testId, "Available Device", Brand.SAMSUNG, State.AVAILABLE, testTime);
-        when(devicePersistencePort.findById(testId)).thenReturn(Optional.of(availableDevice));
+        when(devicePersistencePort.deleteUnlessInUse(testId)).thenReturn(DeviceWriteResult.applied(testDevice));
 
         // When
         deviceService.deleteDevice(testId);
 
         // Then
-        verify(devicePersistencePort).findById(testId);
-        verify(devicePersistencePort).deleteById(testId);
+        verify(devicePersistencePort).deleteUnlessInUse(testId);
+        verify(devicePersistencePort, never()).findById(any());
     }
 
     @Test
     void deleteDevice_WhenDeviceNotExists_ShouldThrowException() {
         // Given
-        when(devicePersistencePort.findById(testId)).thenReturn(Optional.empty());
+        when(devicePersistencePort.deleteUnlessInUse(testId)).thenReturn(DeviceWriteResult.rejected(DeviceWriteOutcome.NOT_FOUND));
 
         // When & Then
         assertThatThrownBy(() -> deviceService.deleteDevice(testId))
                 .isInstanceOf(DeviceNotFoundException.class)
                 .hasMessageContaining("Device with id '" + testId + "' not found");
         
-        verify(devicePersistencePort).findById(testId);
-        verify(devicePersistencePort, never()).deleteById(any());
+        verify(devicePersistencePort).deleteUnlessInUse(testId);
+    }
+
+    @Test
+    void executeBatch_ShouldApplyValidOperationsAndRejectTheRest() {
+        // Given
+        UUID inUseId = UUID.randomUUID();
+        UUID missingId = UUID.randomUUID();
+        Device inUseDevice = Device.createWithIdAndTime(inUseId, "In Use Device", Brand.APPLE, State.IN_USE, testTime);
+        when(devicePersistencePort.findAllById(any())).thenReturn(List.of(testDevice, inUseDevice));
+        when(devicePersistencePort.saveAll(any())).thenAnswer(invocation -> {
+            List<Device> devices = List.copyOf(invocation.getArgument(0));
+            return devices.stream()
+                    .map(d -> Device.createWithIdAndTime(d.getId() == null ? UUID.randomUUID() : d.getId(),
+                            d.getName(), d.getBrand(), d.getState(), d.getCreationTime()))
+                    .toList();
+        });
+
+        DeviceBatchRequest request = DeviceBatchRequest.of(List.of(
+                new DeviceBatchOperation(DeviceBatchOperationType.CREATE, null, Device.createNew("New Device", Brand.APPLE, State.AVAILABLE)),
+                new DeviceBatchOperation(DeviceBatchOperationType.PATCH, testId, Device.createNew(null, null, State.INACTIVE)),
+                new DeviceBatchOperation(DeviceBatchOperationType.UPDATE, inUseId, Device.createNew("Renamed", Brand.APPLE, State.AVAILABLE)),
+                new DeviceBatchOperation(DeviceBatchOperationType.DELETE, inUseId, null),
+                new DeviceBatchOperation(DeviceBatchOperationType.DELETE, missingId, null)
+        ), null);
+
+        // When
+        List<DeviceBatchResult> results = deviceService.executeBatch(request);
+
+        // Then
+        assertThat(results).extracting(DeviceBatchResult::status).containsExactly(
+                DeviceBatchStatus.SUCCEEDED,
+                DeviceBatchStatus.SUCCEEDED,
+                DeviceBatchStatus.REJECTED,
+                DeviceBatchStatus.REJECTED,
+                DeviceBatchStatus.REJECTED);
+        assertThat(results.get(0).id()).isNotNull();
+        assertThat(results.get(2).message()).contains("is still in use");
+        assertThat(results.get(3).message()).contains("is still in use and cannot be deleted");
+        assertThat(results.get(4).message()).contains("not found");
+        assertThat(results).extracting(DeviceBatchResult::inUse).containsExactly(false, false, true, true, false);
+        verify(devicePersistencePort, times(1)).findAllById(any());
+        verify(devicePersistencePort).saveAll(List.of(
+                Device.updateDevice(testId, "Test Device", Brand.SAMSUNG, State.INACTIVE, testTime)));
+        verify(devicePersistencePort, never()).deleteAllUnlessInUse(any());
+        verify(transactionOperations, times(1)).executeWithoutResult(any());
+    }
+
+    @Test
+    void executeBatch_WhenADeviceIsPutInUseAfterItWasRead_ShouldRejectItsDelete() {
+        // Given
+        Device otherDevice = Device.createWithIdAndTime(UUID.randomUUID(), "Other Device", Brand.APPLE, State.AVAILABLE, testTime);
+        when(devicePersistencePort.findAllById(any())).thenReturn(List.of(testDevice, otherDevice));
+        when(devicePersistencePort.deleteAllUnlessInUse(any())).thenReturn(List.of(otherDevice));
+
+        DeviceBatchRequest request = DeviceBatchRequest.of(List.of(
+                new DeviceBatchOperation(DeviceBatchOperationType.DELETE, testId, null),
+                new DeviceBatchOperation(DeviceBatchOperationType.DELETE, otherDevice.getId(), null)
+        ), null);
+
+        // When
+        List<DeviceBatchResult> results = deviceService.executeBatch(request);
+
+        // Then
+        assertThat(results).extracting(DeviceBatchResult::status).containsExactly(
+                DeviceBatchStatus.REJECTED,
+                DeviceBatchStatus.SUCCEEDED);
+        assertThat(results.get(0).message()).contains("is still in use and cannot be deleted");
+        assertThat(results.get(0).inUse()).isTrue();
+        verify(changePublisher).publish(DeviceChange.deleted(otherDevice.getId(), otherDevice));
+        verifyNoMoreInteractions(changePublisher);
+    }
+
+    @Test
+    void executeBatch_WhenChunkFails_ShouldOnlyFailThatChunk() {
+        // Given
+        when(devicePersistencePort.saveAll(any()))
+                .thenThrow(new DataIntegrityViolationException("duplicate name"))
+                .thenAnswer(invocation -> List.of(testDevice));
+
+        DeviceBatchRequest request = DeviceBatchRequest.of(List.of(
+                new DeviceBatchOperation(DeviceBatchOperationType.CREATE, null, Device.createNew("Duplicate", Brand.APPLE, State.AVAILABLE)),
+                new DeviceBatchOperation(DeviceBatchOperationType.CREATE, null, Device.createNew(" ", Brand.APPLE, State.AVAILABLE)),
+                new DeviceBatchOperation(DeviceBatchOperationType.CREATE, null, Device.createNew("Test Device", Brand.SAMSUNG, State.AVAILABLE))
+        ), 2);
+
+        // When
+        List<DeviceBatchResult> results = deviceService.executeBatch(request);
+
+        // Then
+        assertThat(results).extracting(DeviceBatchResult::status).containsExactly(
+                DeviceBatchStatus.FAILED,
+                DeviceBatchStatus.REJECTED,
+                DeviceBatchStatus.SUCCEEDED);
+        assertThat(results.get(0).message()).contains("duplicate name");
+        assertThat(results.get(2).id()).isEqualTo(testId);
+        verify(transactionOperations, times(2)).executeWithoutResult(any());
+        // Only the committed chunk is published
+        verify(changePublisher).publish(DeviceChange.created(testDevice));
+        verifyNoMoreInteractions(changePublisher);
+    }
+
+    @Test
+    void batchRequest_WithTooManyOperations_ShouldBeRejected() {
+        // Given
+        List<DeviceBatchOperation> operations = Collections.nCopies(DeviceBatchRequest.MAX_OPERATIONS + 1,
+                new DeviceBatchOperation(DeviceBatchOperationType.DELETE, testId, null));
+
+        // When & Then
+        assertThatThrownBy(() -> DeviceBatchRequest.of(operations, null))
+                .isInstanceOf(DeviceBadRequestException.class);
+    }
+
+    @Test
+    void transitionState_ShouldContinueUntilAShortChunk() {
+        // Given
+        DeviceStateTransition transition = new DeviceStateTransition(Brand.XIAOMI, State.INACTIVE, State.AVAILABLE, 2);
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        UUID third = UUID.randomUUID();
+        when(devicePersistencePort.transitionStateChunk(transition, null))
+                .thenReturn(new DeviceStateTransitionChunk(List.of(first, second), List.of(
+                        new Device(first, null, Brand.XIAOMI, State.AVAILABLE, null, null),
+                        new Device(second, null, Brand.XIAOMI, State.AVAILABLE, null, null))));
+        when(devicePersistencePort.transitionStateChunk(transition, second))
+                .thenReturn(new DeviceStateTransitionChunk(List.of(third), List.of()));
+
+        // When
+        long affected = deviceService.transitionState(transition);
+
+        // Then
+        assertThat(affected).isEqualTo(2);
+        verify(devicePersistencePort, times(2)).transitionStateChunk(eq(transition), any());
+    }
+
+    @Test
+    void transitionState_ShouldPublishOnlyTheDevicesTheChunkMoved() {
+        // Given: the second device was changed by another write after its id was read
+        DeviceStateTransition transition = new DeviceStateTransition(null, State.INACTIVE, State.AVAILABLE, 2);
+        UUID moved = UUID.randomUUID();
+        UUID skipped = UUID.randomUUID();
+        when(devicePersistencePort.transitionStateChunk(transition, null))
+                .thenReturn(new DeviceStateTransitionChunk(List.of(moved, skipped), List.of(
+                        new Device(moved, null, Brand.GOOGLE, State.AVAILABLE, null, null))));
+        when(devicePersistencePort.transitionStateChunk(transition, skipped))
+                .thenReturn(new DeviceStateTransitionChunk(List.of(), List.of()));
+
+        // When
+        deviceService.transitionState(transition);
+
+        // Then
+        verify(changePublisher).publish(DeviceChange.patched(moved,
+                new Device(moved, null, null, State.AVAILABLE, null, null),
+                new Device(moved, null, Brand.GOOGLE, State.INACTIVE, null, null)));
+        verifyNoMoreInteractions(changePublisher);
+    }
+
+    @Test
+    void stateTransition_FromInUse_ShouldBeRejected() {
+        // When & Then
+        assertThatThrownBy(() -> new DeviceStateTransition(Brand.XIAOMI, State.IN_USE, State.AVAILABLE, 100))
+                .isInstanceOf(DeviceBadRequestException.class)
+                .hasMessageContaining("in use");
     }
-}
\ No newline at end of file
+}
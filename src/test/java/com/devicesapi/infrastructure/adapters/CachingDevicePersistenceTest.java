@@ -0,0 +1,243 @@
+package com.devicesapi.infrastructure.adapters;
+
+import com.devicesapi.domain.entities.Device;
+import com.devicesapi.domain.enums.Brand;
+import com.devicesapi.domain.enums.State;
+import com.devicesapi.domain.ports.DevicePersistencePort;
+import com.devicesapi.infrastructure.config.DeviceCacheProperties;
+import com.devicesapi.infrastructure.routing.DeviceReadRouting;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CachingDevicePersistenceTest {
+
+    @Mock
+    private DevicePersistencePort delegate;
+
+    private SimpleMeterRegistry meterRegistry;
+    private CachingDevicePersistence cachingDevicePersistence;
+    private UUID testId;
+    private Device testDevice;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cachingDevicePersistence = new CachingDevicePersistence(delegate,
+                new DeviceCacheProperties(true, 100, Duration.ofMinutes(5)), meterRegistry);
+        testId = UUID.randomUUID();
+        testDevice = Device.createWithIdAndTime(testId, "Test Device", Brand.SAMSUNG, State.AVAILABLE, LocalDateTime.now());
+    }
+
+    @Test
+    void findById_WhenCalledTwice_ShouldHitDatabaseOnce() {
+        // Given
+        when(delegate.findById(testId)).thenReturn(Optional.of(testDevice));
+
+        // When
+        Optional<Device> first = cachingDevicePersistence.findById(testId);
+        Optional<Device> second = cachingDevicePersistence.findById(testId);
+
+        // Then
+        assertThat(first).contains(testDevice);
+        assertThat(second).contains(testDevice);
+        verify(delegate, times(1)).findById(testId);
+    }
+
+    @Test
+    void findById_WhenDeviceNotExists_ShouldNotCacheTheMiss() {
+        // Given
+        when(delegate.findById(testId)).thenReturn(Optional.empty(), Optional.of(testDevice));
+
+        // When
+        Optional<Device> first = cachingDevicePersistence.findById(testId);
+        Optional<Device> second = cachingDevicePersistence.findById(testId);
+
+        // Then
+        assertThat(first).isEmpty();
+        assertThat(second).contains(testDevice);
+        verify(delegate, times(2)).findById(testId);
+    }
+
+    @Test
+    void findDevicesById_ShouldOnlyQueryIdsNotCached() {
+        // Given
+        UUID otherId = UUID.randomUUID();
+        UUID missingId = UUID.randomUUID();
+        Device other = Device.createWithIdAndTime(otherId, "Other", Brand.APPLE, State.IN_USE, LocalDateTime.now());
+        when(delegate.findById(testId)).thenReturn(Optional.of(testDevice));
+        when(delegate.findDevicesById(anyCollection())).thenReturn(List.of(other));
+        cachingDevicePersistence.findById(testId);
+
+        // When
+        List<Device> devices = cachingDevicePersistence.findDevicesById(List.of(testId, otherId, missingId));
+
+        // Then
+        assertThat(devices).containsExactlyInAnyOrder(testDevice, other);
+        verify(delegate).findDevicesById(argThat(ids -> ids.size() == 2 && ids.containsAll(List.of(otherId, missingId))));
+        assertThat(cachingDevicePersistence.findById(otherId)).contains(other);
+        verify(delegate, never()).findById(otherId);
+    }
+
+    @Test
+    void findDevicesById_WhenAllCached_ShouldNotQuery() {
+        // Given
+        when(delegate.findById(testId)).thenReturn(Optional.of(testDevice));
+        cachingDevicePersistence.findById(testId);
+
+        // When
+        List<Device> devices = cachingDevicePersistence.findDevicesById(List.of(testId));
+
+        // Then
+        assertThat(devices).containsExactly(testDevice);
+        verify(delegate, never()).findDevicesById(any());
+    }
+
+    @Test
+    void save_ShouldInvalidateCachedDevice() {
+        // Given
+        Device updated = Device.createWithIdAndTime(testId, "Updated", Brand.APPLE, State.INACTIVE, testDevice.getCreationTime());
+        when(delegate.findById(testId)).thenReturn(Optional.of(testDevice), Optional.of(updated));
+        when(delegate.save(updated)).thenReturn(updated);
+        cachingDevicePersistence.findById(testId);
+
+        // When
+        cachingDevicePersistence.save(updated);
+
+        // Then
+        assertThat(cachingDevicePersistence.findById(testId)).contains(updated);
+        verify(delegate, times(2)).findById(testId);
+    }
+
+    @Test
+    void deleteById_ShouldInvalidateCachedDevice() {
+        // Given
+        when(delegate.findById(testId)).thenReturn(Optional.of(testDevice), Optional.empty());
+        cachingDevicePersistence.findById(testId);
+
+        // When
+        cachingDevicePersistence.deleteById(testId);
+
+        // Then
+        assertThat(cachingDevicePersistence.findById(testId)).isEmpty();
+        verify(delegate).deleteById(testId);
+    }
+
+    @Test
+    void deleteAllUnlessInUse_InTransaction_ShouldInvalidateAgainAfterCommit() {
+        // Given
+        when(delegate.findById(testId)).thenReturn(Optional.of(testDevice));
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            cachingDevicePersistence.deleteAllUnlessInUse(List.of(testId));
+            // A read racing with the uncommitted delete still sees the old row
+            cachingDevicePersistence.findById(testId);
+
+            // When
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        // Then
+        when(delegate.findById(testId)).thenReturn(Optional.empty());
+        assertThat(cachingDevicePersistence.findById(testId)).isEmpty();
+        verify(delegate).deleteAllUnlessInUse(List.of(testId));
+    }
+
+    @Test
+    void findById_InReplicaReadScope_ShouldLoadWhereTheReadIsRouted() {
+        // Given
+        cachingDevicePersistence = new CachingDevicePersistence(delegate,
+                new DeviceCacheProperties(true, 100, Duration.ofMinutes(5)), Duration.ofSeconds(2), meterRegistry);
+        List<Instant> scopes = new ArrayList<>();
+        when(delegate.findById(testId)).thenAnswer(invocation -> {
+            scopes.add(DeviceReadRouting.lastWrite());
+            return Optional.of(testDevice);
+        });
+
+        // When
+        DeviceReadRouting.replicaReads(null);
+        try {
+            cachingDevicePersistence.findById(testId);
+        } finally {
+            DeviceReadRouting.clear();
+        }
+
+        // Then: the replica read scope was left open for the load
+        assertThat(scopes).containsExactly(Instant.EPOCH);
+    }
+
+    @Test
+    void findById_InReplicaReadScope_AfterARecentWrite_ShouldLoadFromThePrimary() {
+        // Given
+        cachingDevicePersistence = new CachingDevicePersistence(delegate,
+                new DeviceCacheProperties(true, 100, Duration.ofMinutes(5)), Duration.ofSeconds(2), meterRegistry);
+        List<Instant> scopes = new ArrayList<>();
+        when(delegate.findById(testId)).thenAnswer(invocation -> {
+            scopes.add(DeviceReadRouting.lastWrite());
+            return Optional.of(testDevice);
+        });
+        cachingDevicePersistence.deleteById(testId);
+
+        // When
+        DeviceReadRouting.replicaReads(null);
+        try {
+            cachingDevicePersistence.findById(testId);
+        } finally {
+            DeviceReadRouting.clear();
+        }
+
+        // Then: a replica may not have the write yet, so the scope was suspended for the load
+        assertThat(scopes).singleElement().isNull();
+    }
+
+    @Test
+    void existsById_WhenCached_ShouldNotHitDatabase() {
+        // Given
+        when(delegate.findById(testId)).thenReturn(Optional.of(testDevice));
+        cachingDevicePersistence.findById(testId);
+
+        // When
+        boolean exists = cachingDevicePersistence.existsById(testId);
+
+        // Then
+        assertThat(exists).isTrue();
+        verify(delegate, never()).existsById(testId);
+    }
+
+    @Test
+    void statistics_ShouldBePublishedToMeterRegistry() {
+        // Given
+        when(delegate.findById(testId)).thenReturn(Optional.of(testDevice));
+
+        // When
+        cachingDevicePersistence.findById(testId);
+        cachingDevicePersistence.findById(testId);
+        cachingDevicePersistence.findById(testId);
+
+        // Then
+        assertThat(meterRegistry.get("cache.gets").tag("result", "hit").functionCounter().count()).isEqualTo(2);
+        assertThat(meterRegistry.get("cache.gets").tag("result", "miss").functionCounter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("cache.hit.ratio").gauge().value()).isEqualTo(2.0 / 3.0);
+        assertThat(meterRegistry.find("cache.evictions").tag("cache", "devices").meters()).isNotEmpty();
+        assertThat(meterRegistry.get("devices.cache.load").timer().count()).isEqualTo(1);
+    }
+}
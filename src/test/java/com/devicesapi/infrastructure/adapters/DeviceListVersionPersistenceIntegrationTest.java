@@ -0,0 +1,86 @@
+package com.devicesapi.infrastructure.adapters;
+
+import com.devicesapi.domain.queries.DeviceListVersion;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Import(DeviceListVersionPersistence.class)
+class DeviceListVersionPersistenceIntegrationTest {
+
+    private static final Instant START = Instant.parse("2024-01-01T10:00:00Z");
+
+    @Autowired
+    private DeviceListVersionPersistence persistence;
+
+    @Test
+    void initialize_ShouldStoreEveryPartitionAtVersionZeroUnderOneGeneration() {
+        // When
+        persistence.initialize(List.of("all", "brand:APPLE"), START);
+
+        // Then
+        Map<String, DeviceListVersion> versions = persistence.read(List.of("all", "brand:APPLE"));
+        assertThat(versions).hasSize(2);
+        assertThat(versions.get("all")).isEqualTo(versions.get("brand:APPLE"));
+        assertThat(versions.get("all").version()).isZero();
+        assertThat(versions.get("all").lastModified()).isEqualTo(START);
+    }
+
+    @Test
+    void initialize_Again_ShouldKeepTheStoredVersionsAndAddTheMissingPartitions() {
+        // Given
+        persistence.initialize(List.of("all"), START);
+        persistence.advance(List.of("all"), START.plusSeconds(1));
+
+        // When
+        persistence.initialize(List.of("all", "state:AVAILABLE"), START.plusSeconds(2));
+
+        // Then
+        Map<String, DeviceListVersion> versions = persistence.read(List.of("all", "state:AVAILABLE"));
+        assertThat(versions.get("all").version()).isEqualTo(1);
+        assertThat(versions.get("state:AVAILABLE").version()).isZero();
+        assertThat(versions.get("state:AVAILABLE").generation()).isEqualTo(versions.get("all").generation());
+    }
+
+    @Test
+    void advance_ShouldStampOneNewValueOnlyOnTheGivenPartitions() {
+        // Given
+        persistence.initialize(List.of("all", "brand:APPLE", "brand:GOOGLE"), START);
+        persistence.advance(List.of("all", "brand:APPLE"), START.plusSeconds(1));
+
+        // When
+        persistence.advance(List.of("all", "brand:GOOGLE"), START.plusSeconds(2));
+
+        // Then
+        Map<String, DeviceListVersion> versions = persistence.read(List.of("all", "brand:APPLE", "brand:GOOGLE"));
+        assertThat(versions.get("all").version()).isEqualTo(2);
+        assertThat(versions.get("brand:APPLE").version()).isEqualTo(1);
+        assertThat(versions.get("brand:GOOGLE").version()).isEqualTo(2);
+        assertThat(versions.get("brand:GOOGLE").lastModified()).isEqualTo(START.plusSeconds(2));
+    }
+
+    @Test
+    void advance_WithAnEarlierClock_ShouldNotMoveLastModifiedBack() {
+        // Given
+        persistence.initialize(List.of("all"), START);
+        persistence.advance(List.of("all"), START.plusSeconds(10));
+
+        // When: another instance whose clock is behind
+        persistence.advance(List.of("all"), START.plusSeconds(5));
+
+        // Then
+        DeviceListVersion all = persistence.read(List.of("all")).get("all");
+        assertThat(all.version()).isEqualTo(2);
+        assertThat(all.lastModified()).isEqualTo(START.plusSeconds(10));
+    }
+}
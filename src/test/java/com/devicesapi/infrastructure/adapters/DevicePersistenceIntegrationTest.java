@@ -0,0 +1,401 @@
+package com.devicesapi.infrastructure.adapters;
+
+import com.devicesapi.domain.batch.DeviceStateTransition;
+import com.devicesapi.domain.batch.DeviceStateTransitionChunk;
+import com.devicesapi.domain.changes.DeviceStateUpdate;
+import com.devicesapi.domain.changes.DeviceWriteResult;
+import com.devicesapi.domain.entities.Device;
+import com.devicesapi.domain.enums.Brand;
+import com.devicesapi.domain.enums.DeviceWriteOutcome;
+import com.devicesapi.domain.enums.DeviceSort;
+import com.devicesapi.domain.enums.State;
+import com.devicesapi.domain.queries.DeviceCursor;
+import com.devicesapi.domain.queries.DevicePage;
+import com.devicesapi.domain.queries.DevicePageRequest;
+import com.devicesapi.domain.queries.DeviceSearchCriteria;
+import com.devicesapi.domain.queries.DeviceSearchRequest;
+import com.devicesapi.infrastructure.persistence.entities.DeviceEntity;
+import com.devicesapi.infrastructure.persistence.repositories.DeviceRepository;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.AdditionalAnswers.delegatesTo;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Import(DevicePersistence.class)
+class DevicePersistenceIntegrationTest {
+
+    @Autowired
+    private DeviceRepository deviceRepository;
+
+    @Autowired
+    private DevicePersistence devicePersistence;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final LocalDateTime baseTime = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    @BeforeEach
+    void setUp() {
+        List<DeviceEntity> entities = new ArrayList<>();
+        for (int i = 0; i < 25; i++) {
+            Brand brand = i % 2 == 0 ? Brand.APPLE : Brand.SAMSUNG;
+            // Every three devices share a creation time so the id tie breaker is exercised
+            entities.add(DeviceEntity.createWithTime("Device " + (char) ('a' + i), brand, State.AVAILABLE, baseTime.plusMinutes(i / 3)));
+        }
+        deviceRepository.saveAllAndFlush(entities);
+    }
+
+    @Test
+    void findPage_ByCreationTime_ShouldWalkAllDevicesWithoutGapsOrDuplicates() {
+        // When
+        List<Device> walked = walk(null, DeviceSort.CREATION_TIME, false, 4);
+
+        // Then
+        assertThat(walked).hasSize(25);
+        assertThat(walked).extracting(Device::getId).doesNotHaveDuplicates();
+        assertThat(walked).isSortedAccordingTo(Comparator.comparing(Device::getCreationTime));
+    }
+
+    @Test
+    void findPage_ByNameDescending_ShouldReturnDevicesInReverseNameOrder() {
+        // When
+        List<Device> walked = walk(null, DeviceSort.NAME, true, 7);
+
+        // Then
+        assertThat(walked).hasSize(25);
+        assertThat(walked).isSortedAccordingTo(Comparator.comparing(Device::getName).reversed());
+    }
+
+    @Test
+    void findPage_ByBrand_ShouldOnlyReturnMatchingDevices() {
+        // When
+        List<Device> walked = walk(Brand.APPLE, DeviceSort.CREATION_TIME, false, 5);
+
+        // Then
+        assertThat(walked).hasSize(13).allMatch(device -> device.getBrand() == Brand.APPLE);
+    }
+
+    @Test
+    void findPage_OnLastPage_ShouldNotReturnNextCursor() {
+        // When
+        DevicePage page = devicePersistence.findPage(new DevicePageRequest(null, null, DeviceSort.NAME, false, 25, null));
+
+        // Then
+        assertThat(page.items()).hasSize(25);
+        assertThat(page.hasNext()).isFalse();
+    }
+
+    @Test
+    void search_WithCombinedCriteria_ShouldWalkOnlyMatchingDevicesInRange() {
+        // Given
+        DeviceSearchCriteria criteria = new DeviceSearchCriteria(
+                Set.of(Brand.APPLE), Set.of(State.AVAILABLE, State.IN_USE), "Device", baseTime.plusMinutes(2), baseTime.plusMinutes(6));
+
+        // When
+        List<Device> walked = new ArrayList<>();
+        DeviceCursor cursor = null;
+        do {
+            DevicePage page = devicePersistence.search(new DeviceSearchRequest(criteria, DeviceSort.CREATION_TIME, false, 4, cursor));
+            walked.addAll(page.items());
+            cursor = page.next();
+        } while (cursor != null);
+
+        // Then
+        assertThat(walked).isSortedAccordingTo(Comparator.comparing(Device::getCreationTime));
+        assertThat(walked).extracting(Device::getName)
+                .containsExactlyInAnyOrder("Device g", "Device i", "Device k", "Device m", "Device o", "Device q");
+    }
+
+    @Test
+    void search_WithNamePrefix_ShouldMatchWildcardCharactersLiterally() {
+        // When
+        DevicePage prefixed = devicePersistence.search(new DeviceSearchRequest(
+                new DeviceSearchCriteria(null, null, "Device b", null, null), null, false, 50, null));
+        DevicePage wildcard = devicePersistence.search(new DeviceSearchRequest(
+                new DeviceSearchCriteria(null, null, "Device _", null, null), null, false, 50, null));
+
+        // Then
+        assertThat(prefixed.items()).extracting(Device::getName).containsExactly("Device b");
+        assertThat(wildcard.items()).isEmpty();
+    }
+
+    @Test
+    void findByBrandAndState_ShouldProjectDevicesWithoutManagingEntities() {
+        // Given
+        deviceRepository.saveAndFlush(DeviceEntity.createWithTime("Inactive Apple", Brand.APPLE, State.INACTIVE, baseTime));
+        entityManager.clear();
+
+        // When
+        List<Device> devices = devicePersistence.findByBrandAndState(Brand.APPLE, State.INACTIVE);
+
+        // Then
+        assertThat(devices).singleElement().satisfies(device -> {
+            assertThat(device.getName()).isEqualTo("Inactive Apple");
+            assertThat(device.getCreationTime()).isEqualTo(baseTime);
+            assertThat(device.getVersion()).isZero();
+        });
+        assertThat(entityManager.unwrap(Session.class).getStatistics().getEntityCount()).isZero();
+    }
+
+    @Test
+    void findDevicesById_AcrossChunks_ShouldProjectOnlyExistingDevices() {
+        // Given
+        List<UUID> ids = new ArrayList<>(deviceRepository.findAll().stream().map(DeviceEntity::getId).toList());
+        for (int i = 0; i < DevicePersistence.ID_CHUNK_SIZE; i++) {
+            ids.add(UUID.randomUUID());
+        }
+        entityManager.clear();
+
+        // When
+        List<Device> devices = devicePersistence.findDevicesById(ids);
+
+        // Then
+        assertThat(devices).hasSize(25).extracting(Device::getId).doesNotHaveDuplicates();
+        assertThat(entityManager.unwrap(Session.class).getStatistics().getEntityCount()).isZero();
+    }
+
+    @Test
+    void exportDevices_WithBrandAndState_ShouldStreamOnlyMatchingDevices() {
+        // Given
+        deviceRepository.saveAndFlush(DeviceEntity.createWithTime("Inactive Apple", Brand.APPLE, State.INACTIVE, baseTime));
+        List<Device> exported = new ArrayList<>();
+
+        // When
+        devicePersistence.exportDevices(Brand.APPLE, State.INACTIVE, exported::add);
+
+        // Then
+        assertThat(exported).extracting(Device::getName).containsExactly("Inactive Apple");
+    }
+
+    @Test
+    void saveAllAndDeleteAllUnlessInUse_ShouldApplyEveryWrite() {
+        // Given
+        Device existing = deviceRepository.findAll().get(0).toDomain();
+        Device renamed = Device.updateDevice(existing.getId(), "Renamed", existing.getBrand(), State.INACTIVE, existing.getCreationTime())
+                .withVersion(existing.getVersion());
+        Device created = Device.createNew("Created", Brand.SAMSUNG, State.AVAILABLE);
+        UUID deletedId = deviceRepository.findAll().get(1).getId();
+
+        // When
+        List<Device> saved = devicePersistence.saveAll(List.of(created, renamed));
+        devicePersistence.deleteAllUnlessInUse(List.of(deletedId));
+
+        // Then
+        assertThat(saved).hasSize(2);
+        assertThat(saved.get(0).getId()).isNotNull();
+        assertThat(devicePersistence.findById(existing.getId())).get()
+                .extracting(Device::getName, Device::getState)
+                .containsExactly("Renamed", State.INACTIVE);
+        assertThat(devicePersistence.existsById(deletedId)).isFalse();
+        assertThat(deviceRepository.count()).isEqualTo(25);
+    }
+
+    @Test
+    void deleteAllUnlessInUse_ShouldLeaveDevicesInUseAndReportTheDeletedOnes() {
+        // Given
+        List<DeviceEntity> devices = deviceRepository.findAll();
+        DeviceEntity inUse = devices.get(0);
+        devicePersistence.updateUnlessInUse(inUse.getId(), Device.createNew(null, null, State.IN_USE), null);
+        DeviceEntity deletedDevice = devices.get(1);
+
+        // When
+        List<Device> deleted = devicePersistence.deleteAllUnlessInUse(List.of(inUse.getId(), deletedDevice.getId()));
+
+        // Then: each deleted row is reported as it was
+        assertThat(deleted).extracting(Device::getId, Device::getBrand, Device::getState)
+                .containsExactly(tuple(deletedDevice.getId(), deletedDevice.getBrand(), State.AVAILABLE));
+        UUID deletedId = deletedDevice.getId();
+        assertThat(devicePersistence.existsById(inUse.getId())).isTrue();
+        assertThat(devicePersistence.existsById(deletedId)).isFalse();
+    }
+
+    @Test
+    void transitionStateChunk_ShouldWalkMatchingDevicesByPrimaryKey() {
+        // Given
+        DeviceStateTransition transition = new DeviceStateTransition(Brand.APPLE, State.AVAILABLE, State.INACTIVE, 5);
+        List<Integer> chunkSizes = new ArrayList<>();
+        int affected = 0;
+        List<Device> transitioned = new ArrayList<>();
+
+        // When
+        UUID after = null;
+        DeviceStateTransitionChunk chunk;
+        do {
+            chunk = devicePersistence.transitionStateChunk(transition, after);
+            chunkSizes.add(chunk.ids().size());
+            affected += chunk.affected();
+            transitioned.addAll(chunk.transitioned());
+            after = chunk.lastId();
+        } while (chunk.ids().size() == transition.chunkSize());
+
+        // Then
+        assertThat(chunkSizes).containsExactly(5, 5, 3);
+        assertThat(affected).isEqualTo(13);
+        assertThat(transitioned).hasSize(13).allSatisfy(device -> assertThat(device.getBrand()).isEqualTo(Brand.APPLE));
+        assertThat(devicePersistence.countByBrandAndState().get(Brand.APPLE, State.INACTIVE)).isEqualTo(13);
+        assertThat(devicePersistence.countByBrandAndState().get(Brand.SAMSUNG, State.AVAILABLE)).isEqualTo(12);
+    }
+
+    @Test
+    void transitionStateChunk_WhenADeviceChangedBrandSinceItsIdWasRead_ShouldLeaveItAlone() {
+        // Given: the id select still saw the device as an APPLE one
+        DeviceEntity moved = deviceRepository.findAll().stream().filter(entity -> entity.getBrand() == Brand.SAMSUNG).findFirst().orElseThrow();
+        DeviceEntity apple = deviceRepository.findAll().stream().filter(entity -> entity.getBrand() == Brand.APPLE).findFirst().orElseThrow();
+        DeviceRepository staleReads = mock(DeviceRepository.class, delegatesTo(deviceRepository));
+        doReturn(List.of(apple.getId(), moved.getId())).when(staleReads).findIdsByBrandAndState(any(), any(), any());
+        DevicePersistence persistence = new DevicePersistence(staleReads, entityManager, jdbcTemplate);
+
+        // When
+        DeviceStateTransitionChunk chunk = persistence.transitionStateChunk(
+                new DeviceStateTransition(Brand.APPLE, State.AVAILABLE, State.INACTIVE, 5), null);
+
+        // Then
+        assertThat(chunk.transitioned()).extracting(Device::getId).containsExactly(apple.getId());
+        assertThat(devicePersistence.findById(moved.getId())).get().extracting(Device::getState).isEqualTo(State.AVAILABLE);
+    }
+
+    @Test
+    void updateUnlessInUse_ShouldTellAppliedInUseAndNotFoundApart() {
+        // Given
+        List<DeviceEntity> stored = deviceRepository.findAll();
+        UUID availableId = stored.get(0).getId();
+        UUID inUseId = stored.get(1).getId();
+        devicePersistence.updateUnlessInUse(inUseId, Device.createNew(null, null, State.IN_USE), null);
+
+        // When
+        DeviceWriteResult applied = devicePersistence.updateUnlessInUse(availableId, Device.createNew("Patched", null, null), null);
+        DeviceWriteResult inUse = devicePersistence.updateUnlessInUse(inUseId, Device.createNew("Blocked", null, State.AVAILABLE), null);
+        DeviceWriteResult notFound = devicePersistence.updateUnlessInUse(UUID.randomUUID(), Device.createNew("Missing", null, null), null);
+
+        // Then
+        assertThat(applied.outcome()).isEqualTo(DeviceWriteOutcome.APPLIED);
+        assertThat(inUse.outcome()).isEqualTo(DeviceWriteOutcome.IN_USE);
+        assertThat(notFound.outcome()).isEqualTo(DeviceWriteOutcome.NOT_FOUND);
+        // The update reports the row as it was before it
+        assertThat(applied.previous()).extracting(Device::getName, Device::getBrand, Device::getState, Device::getVersion)
+                .containsExactly(stored.get(0).getName(), stored.get(0).getBrand(), State.AVAILABLE, stored.get(0).getVersion());
+        assertThat(devicePersistence.findById(availableId)).get()
+                .extracting(Device::getName, Device::getBrand, Device::getState)
+                .containsExactly("Patched", stored.get(0).getBrand(), State.AVAILABLE);
+        assertThat(devicePersistence.findById(inUseId)).get()
+                .extracting(Device::getName, Device::getState)
+                .containsExactly(stored.get(1).getName(), State.IN_USE);
+    }
+
+    @Test
+    void updateUnlessInUse_WithExpectedVersion_ShouldOnlyApplyToThatVersion() {
+        // Given
+        UUID id = deviceRepository.findAll().get(0).getId();
+        long version = devicePersistence.findVersionById(id).orElseThrow();
+
+        // When
+        DeviceWriteOutcome applied = devicePersistence.updateUnlessInUse(id, Device.createNew("First", null, null), version).outcome();
+        DeviceWriteOutcome stale = devicePersistence.updateUnlessInUse(id, Device.createNew("Second", null, null), version).outcome();
+
+        // Then
+        assertThat(applied).isEqualTo(DeviceWriteOutcome.APPLIED);
+        assertThat(stale).isEqualTo(DeviceWriteOutcome.VERSION_MISMATCH);
+        assertThat(devicePersistence.findVersionById(id)).contains(version + 1);
+        assertThat(devicePersistence.findById(id)).get().extracting(Device::getName).isEqualTo("First");
+        assertThat(devicePersistence.findVersionById(UUID.randomUUID())).isEmpty();
+    }
+
+    @Test
+    void deleteUnlessInUse_ShouldTellAppliedInUseAndNotFoundApart() {
+        // Given
+        List<DeviceEntity> stored = deviceRepository.findAll();
+        UUID availableId = stored.get(0).getId();
+        UUID inUseId = stored.get(1).getId();
+        devicePersistence.updateUnlessInUse(inUseId, Device.createNew(null, null, State.IN_USE), null);
+
+        // When
+        DeviceWriteResult applied = devicePersistence.deleteUnlessInUse(availableId);
+        DeviceWriteOutcome inUse = devicePersistence.deleteUnlessInUse(inUseId).outcome();
+        DeviceWriteOutcome notFound = devicePersistence.deleteUnlessInUse(availableId).outcome();
+
+        // Then
+        assertThat(applied.outcome()).isEqualTo(DeviceWriteOutcome.APPLIED);
+        assertThat(applied.previous()).extracting(Device::getName, Device::getState)
+                .containsExactly(stored.get(0).getName(), State.AVAILABLE);
+        assertThat(inUse).isEqualTo(DeviceWriteOutcome.IN_USE);
+        assertThat(notFound).isEqualTo(DeviceWriteOutcome.NOT_FOUND);
+        assertThat(devicePersistence.existsById(inUseId)).isTrue();
+        assertThat(deviceRepository.count()).isEqualTo(24);
+    }
+
+    @Test
+    void updateStates_ShouldSkipDevicesInUseAndBumpVersions() {
+        // Given
+        List<DeviceEntity> stored = deviceRepository.findAll();
+        UUID available = stored.get(0).getId();
+        UUID inUse = deviceRepository.saveAndFlush(
+                DeviceEntity.createWithTime("In use", Brand.APPLE, State.IN_USE, baseTime)).getId();
+        UUID untouched = stored.get(1).getId();
+
+        // When
+        var updated = devicePersistence.updateStates(Map.of(
+                available, new DeviceStateUpdate(State.INACTIVE, 3),
+                inUse, DeviceStateUpdate.of(State.AVAILABLE),
+                UUID.randomUUID(), DeviceStateUpdate.of(State.INACTIVE)));
+        entityManager.clear();
+
+        // Then: one version per coalesced change
+        assertThat(updated).containsExactly(available);
+        assertThat(devicePersistence.findById(available)).get()
+                .extracting(Device::getState, Device::getVersion)
+                .containsExactly(State.INACTIVE, 3L);
+        assertThat(devicePersistence.findById(inUse)).get().extracting(Device::getState).isEqualTo(State.IN_USE);
+        assertThat(devicePersistence.findVersionById(untouched)).contains(0L);
+    }
+
+    @Test
+    void exportDevices_WithoutFilters_ShouldStreamEveryDevice() {
+        // Given
+        List<Device> exported = new ArrayList<>();
+
+        // When
+        devicePersistence.exportDevices(null, null, exported::add);
+
+        // Then
+        assertThat(exported).hasSize(25);
+    }
+
+    private List<Device> walk(Brand brand, DeviceSort sort, boolean descending, int size) {
+        List<Device> walked = new ArrayList<>();
+        DeviceCursor cursor = null;
+        do {
+            DevicePage page = devicePersistence.findPage(new DevicePageRequest(brand, null, sort, descending, size, cursor));
+            assertThat(page.items()).hasSizeLessThanOrEqualTo(size);
+            walked.addAll(page.items());
+            // Cursors travel through clients as opaque tokens
+            cursor = page.hasNext() ? DeviceCursor.decode(page.next().encode()) : null;
+        } while (cursor != null);
+        return walked;
+    }
+}
@@ -0,0 +1,173 @@
+package com.devicesapi.infrastructure.adapters;
+
+import com.devicesapi.domain.batch.DeviceStateTransition;
+import com.devicesapi.domain.batch.DeviceStateTransitionChunk;
+import com.devicesapi.domain.changes.DeviceWriteResult;
+import com.devicesapi.domain.entities.Device;
+import com.devicesapi.domain.enums.Brand;
+import com.devicesapi.domain.enums.DeviceWriteOutcome;
+import com.devicesapi.domain.enums.State;
+import com.devicesapi.infrastructure.persistence.entities.DeviceEntity;
+import com.devicesapi.infrastructure.persistence.repositories.DeviceRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.MountableFile;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.AdditionalAnswers.delegatesTo;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+
+/**
+ * The write statements that report the rows they matched have a PostgreSQL variant, built on
+ * {@code RETURNING}, next to the H2 one the other tests run. These tests run the PostgreSQL variants
+ * against the schema {@code init-db.sql} creates, and are skipped where Docker is not available.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.driverClassName=org.postgresql.Driver",
+        "spring.jpa.database-platform=org.hibernate.dialect.PostgreSQLDialect",
+        "spring.jpa.hibernate.ddl-auto=validate"
+})
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+@Import(DevicePersistence.class)
+class DevicePersistencePostgresIntegrationTest {
+
+    @Container
+    @ServiceConnection
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:15-alpine")
+            .withCopyFileToContainer(MountableFile.forHostPath("init-db.sql"), "/docker-entrypoint-initdb.d/init-db.sql");
+
+    @Autowired
+    private DeviceRepository deviceRepository;
+
+    @Autowired
+    private DevicePersistence devicePersistence;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final LocalDateTime baseTime = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    private UUID apple;
+    private UUID samsung;
+    private UUID inUse;
+
+    @BeforeEach
+    void setUp() {
+        apple = save("iPhone", Brand.APPLE, State.AVAILABLE);
+        samsung = save("Galaxy", Brand.SAMSUNG, State.AVAILABLE);
+        inUse = save("Pixel", Brand.GOOGLE, State.IN_USE);
+    }
+
+    @Test
+    void updateUnlessInUse_ShouldReportTheRowAsItWasBeforeTheUpdate() {
+        // When
+        DeviceWriteResult result = devicePersistence.updateUnlessInUse(apple, Device.createNew(null, Brand.SAMSUNG, State.INACTIVE), 0L);
+
+        // Then
+        assertThat(result.outcome()).isEqualTo(DeviceWriteOutcome.APPLIED);
+        assertThat(result.previous())
+                .extracting(Device::getId, Device::getName, Device::getBrand, Device::getState, Device::getVersion)
+                .containsExactly(apple, "iPhone", Brand.APPLE, State.AVAILABLE, 0L);
+        assertThat(devicePersistence.findById(apple)).get()
+                .extracting(Device::getName, Device::getBrand, Device::getState, Device::getVersion)
+                .containsExactly("iPhone", Brand.SAMSUNG, State.INACTIVE, 1L);
+    }
+
+    @Test
+    void updateUnlessInUse_ShouldTellInUseVersionMismatchAndNotFoundApart() {
+        // When
+        DeviceWriteOutcome blocked = devicePersistence.updateUnlessInUse(inUse, Device.createNew("Blocked", null, null), null).outcome();
+        DeviceWriteOutcome stale = devicePersistence.updateUnlessInUse(apple, Device.createNew("Stale", null, null), 7L).outcome();
+        DeviceWriteOutcome missing = devicePersistence.updateUnlessInUse(UUID.randomUUID(), Device.createNew("Missing", null, null), null).outcome();
+
+        // Then
+        assertThat(blocked).isEqualTo(DeviceWriteOutcome.IN_USE);
+        assertThat(stale).isEqualTo(DeviceWriteOutcome.VERSION_MISMATCH);
+        assertThat(missing).isEqualTo(DeviceWriteOutcome.NOT_FOUND);
+        assertThat(devicePersistence.findById(apple)).get().extracting(Device::getName).isEqualTo("iPhone");
+    }
+
+    @Test
+    void deleteUnlessInUse_ShouldReportTheDeletedRowAndKeepDevicesInUse() {
+        // When
+        DeviceWriteResult deleted = devicePersistence.deleteUnlessInUse(apple);
+        DeviceWriteResult blocked = devicePersistence.deleteUnlessInUse(inUse);
+
+        // Then
+        assertThat(deleted.outcome()).isEqualTo(DeviceWriteOutcome.APPLIED);
+        assertThat(deleted.previous())
+                .extracting(Device::getId, Device::getBrand, Device::getState)
+                .containsExactly(apple, Brand.APPLE, State.AVAILABLE);
+        assertThat(blocked.outcome()).isEqualTo(DeviceWriteOutcome.IN_USE);
+        assertThat(devicePersistence.existsById(apple)).isFalse();
+        assertThat(devicePersistence.existsById(inUse)).isTrue();
+    }
+
+    @Test
+    void deleteAllUnlessInUse_ShouldReportOnlyTheDeletedRows() {
+        // When
+        List<Device> deleted = devicePersistence.deleteAllUnlessInUse(List.of(apple, samsung, inUse, UUID.randomUUID()));
+
+        // Then
+        assertThat(deleted).extracting(Device::getId, Device::getBrand)
+                .containsExactlyInAnyOrder(tuple(apple, Brand.APPLE), tuple(samsung, Brand.SAMSUNG));
+        assertThat(devicePersistence.existsById(inUse)).isTrue();
+    }
+
+    @Test
+    void transitionStateChunk_ShouldReportTheTransitionedRowsWithTheirBrand() {
+        // When: init-db.sql adds one more AVAILABLE Apple device
+        DeviceStateTransitionChunk chunk = devicePersistence.transitionStateChunk(
+                new DeviceStateTransition(Brand.APPLE, State.AVAILABLE, State.INACTIVE, 10), null);
+
+        // Then
+        assertThat(chunk.transitioned()).hasSize(2)
+                .allSatisfy(device -> assertThat(device).extracting(Device::getBrand, Device::getState)
+                        .containsExactly(Brand.APPLE, State.INACTIVE))
+                .extracting(Device::getId).contains(apple);
+        assertThat(devicePersistence.findById(samsung)).get().extracting(Device::getState).isEqualTo(State.AVAILABLE);
+    }
+
+    @Test
+    void transitionStateChunk_WhenADeviceChangedBrandSinceItsIdWasRead_ShouldLeaveItAlone() {
+        // Given: the id select still saw the SAMSUNG device as an APPLE one
+        DeviceRepository staleReads = mock(DeviceRepository.class, delegatesTo(deviceRepository));
+        doReturn(List.of(apple, samsung)).when(staleReads).findIdsByBrandAndState(any(), any(), any());
+        DevicePersistence persistence = new DevicePersistence(staleReads, entityManager, jdbcTemplate);
+
+        // When
+        DeviceStateTransitionChunk chunk = persistence.transitionStateChunk(
+                new DeviceStateTransition(Brand.APPLE, State.AVAILABLE, State.INACTIVE, 10), null);
+
+        // Then
+        assertThat(chunk.transitioned()).extracting(Device::getId).containsExactly(apple);
+        assertThat(devicePersistence.findById(samsung)).get().extracting(Device::getState).isEqualTo(State.AVAILABLE);
+    }
+
+    private UUID save(String name, Brand brand, State state) {
+        return deviceRepository.saveAndFlush(DeviceEntity.createWithTime(name, brand, state, baseTime)).getId();
+    }
+}
@@ -4,8 +4,11 @@ import com.devicesapi.domain.entities.Device;
 import com.devicesapi.domain.enums.Brand;
 import com.devicesapi.domain.enums.State;
 
+import com.devicesapi.domain.queries.DeviceCounts;
 import com.devicesapi.infrastructure.persistence.entities.DeviceEntity;
+import com.devicesapi.infrastructure.persistence.projections.DeviceCountView;
 import com.devicesapi.infrastructure.persistence.repositories.DeviceRepository;
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -14,10 +17,12 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -31,6 +36,9 @@ class DevicePersistenceTest {
     @Mock
     private DeviceRepository deviceRepository;
 
+    @Mock
+    private EntityManager entityManager;
+
     @InjectMocks
     private DevicePersistence devicePersistence;
 
@@ -128,11 +136,11 @@ class DevicePersistenceTest {
     @Test
     void findAll_ShouldReturnAllDevices() {
         // Given
-        DeviceEntity entity1 = new DeviceEntity(UUID.randomUUID(), "Device 1", Brand.APPLE, State.AVAILABLE, LocalDateTime.now());
-        DeviceEntity entity2 = new DeviceEntity(UUID.randomUUID(), "Device 2", Brand.GOOGLE, State.IN_USE, LocalDateTime.now());
-        List<DeviceEntity> entities = Arrays.asList(entity1, entity2);
+        Device device1 = Device.createWithIdAndTime(UUID.randomUUID(), "Device 1", Brand.APPLE, State.AVAILABLE, LocalDateTime.now());
+        Device device2 = Device.createWithIdAndTime(UUID.randomUUID(), "Device 2", Brand.GOOGLE, State.IN_USE, LocalDateTime.now());
+        List<Device> devices = Arrays.asList(device1, device2);
         
-        when(deviceRepository.findAll()).thenReturn(entities);
+        when(deviceRepository.findAllDevices()).thenReturn(devices);
 
         // When
         List<Device> result = devicePersistence.findAll();
@@ -144,30 +152,30 @@ class DevicePersistenceTest {
         assertThat(result.get(1).getName()).isEqualTo("Device 2");
         assertThat(result.get(1).getBrand()).isEqualTo(Brand.GOOGLE);
         
-        verify(deviceRepository).findAll();
+        verify(deviceRepository).findAllDevices();
     }
 
     @Test
     void findAll_WhenNoDevices_ShouldReturnEmptyList() {
         // Given
-        when(deviceRepository.findAll()).thenReturn(Arrays.asList());
+        when(deviceRepository.findAllDevices()).thenReturn(Arrays.asList());
 
         // When
         List<Device> result = devicePersistence.findAll();
 
         // Then
         assertThat(result).isEmpty();
-        verify(deviceRepository).findAll();
+        verify(deviceRepository).findAllDevices();
     }
 
     @Test
     void findByState_ShouldReturnDevicesWithSpecificState() {
         // Given
-        DeviceEntity entity1 = new DeviceEntity(UUID.randomUUID(), "Device 1", Brand.SAMSUNG, State.AVAILABLE, LocalDateTime.now());
-        DeviceEntity entity2 = new DeviceEntity(UUID.randomUUID(), "Device 2", Brand.APPLE, State.AVAILABLE, LocalDateTime.now());
-        List<DeviceEntity> entities = Arrays.asList(entity1, entity2);
+        Device device1 = Device.createWithIdAndTime(UUID.randomUUID(), "Device 1", Brand.SAMSUNG, State.AVAILABLE, LocalDateTime.now());
+        Device device2 = Device.createWithIdAndTime(UUID.randomUUID(), "Device 2", Brand.APPLE, State.AVAILABLE, LocalDateTime.now());
+        List<Device> devices = Arrays.asList(device1, device2);
         
-        when(deviceRepository.findByState(State.AVAILABLE)).thenReturn(entities);
+        when(deviceRepository.findDevicesByState(State.AVAILABLE)).thenReturn(devices);
 
         // When
         List<Device> result = devicePersistence.findByState(State.AVAILABLE);
@@ -177,17 +185,17 @@ class DevicePersistenceTest {
         assertThat(result.get(0).getState()).isEqualTo(State.AVAILABLE);
         assertThat(result.get(1).getState()).isEqualTo(State.AVAILABLE);
         
-        verify(deviceRepository).findByState(State.AVAILABLE);
+        verify(deviceRepository).findDevicesByState(State.AVAILABLE);
     }
 
     @Test
     void findByBrand_ShouldReturnDevicesWithSpecificBrand() {
         // Given
-        DeviceEntity entity1 = new DeviceEntity(UUID.randomUUID(), "Galaxy S21", Brand.SAMSUNG, State.AVAILABLE, LocalDateTime.now());
-        DeviceEntity entity2 = new DeviceEntity(UUID.randomUUID(), "Galaxy Note", Brand.SAMSUNG, State.IN_USE, LocalDateTime.now());
-        List<DeviceEntity> entities = Arrays.asList(entity1, entity2);
+        Device device1 = Device.createWithIdAndTime(UUID.randomUUID(), "Galaxy S21", Brand.SAMSUNG, State.AVAILABLE, LocalDateTime.now());
+        Device device2 = Device.createWithIdAndTime(UUID.randomUUID(), "Galaxy Note", Brand.SAMSUNG, State.IN_USE, LocalDateTime.now());
+        List<Device> devices = Arrays.asList(device1, device2);
         
-        when(deviceRepository.findByBrand(Brand.SAMSUNG)).thenReturn(entities);
+        when(deviceRepository.findDevicesByBrand(Brand.SAMSUNG)).thenReturn(devices);
 
         // When
         List<Device> result = devicePersistence.findByBrand(Brand.SAMSUNG);
@@ -197,11 +205,63 @@ class DevicePersistenceTest {
         assertThat(result.get(0).getBrand()).isEqualTo(Brand.SAMSUNG);
         assertThat(result.get(1).getBrand()).isEqualTo(Brand.SAMSUNG);
         
-        verify(deviceRepository).findByBrand(Brand.SAMSUNG);
+        verify(deviceRepository).findDevicesByBrand(Brand.SAMSUNG);
     }
 
 
 
+    @Test
+    void exportDevices_ShouldPassEveryDeviceAndDetachItsEntity() {
+        // Given
+        DeviceEntity entity2 = new DeviceEntity(UUID.randomUUID(), "Device 2", testBrand, State.INACTIVE, testTime);
+        when(deviceRepository.streamAll(testBrand, null)).thenReturn(Stream.of(testEntity, entity2));
+        List<Device> exported = new ArrayList<>();
+
+        // When
+        devicePersistence.exportDevices(testBrand, null, exported::add);
+
+        // Then
+        assertThat(exported).extracting(Device::getName).containsExactly(testName, "Device 2");
+        verify(entityManager).detach(testEntity);
+        verify(entityManager).detach(entity2);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void findAllById_WithManyIds_ShouldQueryInChunks() {
+        // Given
+        List<UUID> ids = new ArrayList<>();
+        for (int i = 0; i < DevicePersistence.ID_CHUNK_SIZE + 1; i++) {
+            ids.add(UUID.randomUUID());
+        }
+        when(deviceRepository.findAllById(any(Iterable.class))).thenReturn(List.of(testEntity), List.of());
+
+        // When
+        List<Device> result = devicePersistence.findAllById(ids);
+
+        // Then
+        assertThat(result).extracting(Device::getId).containsExactly(testId);
+        verify(deviceRepository, times(2)).findAllById(any(Iterable.class));
+    }
+
+    @Test
+    void countByBrandAndState_ShouldFillMissingCellsWithZero() {
+        // Given
+        DeviceCountView row = mock(DeviceCountView.class);
+        when(row.getBrand()).thenReturn(Brand.APPLE);
+        when(row.getState()).thenReturn(State.IN_USE);
+        when(row.getTotal()).thenReturn(7L);
+        when(deviceRepository.countByBrandAndState()).thenReturn(List.of(row));
+
+        // When
+        DeviceCounts counts = devicePersistence.countByBrandAndState();
+
+        // Then
+        assertThat(counts.get(Brand.APPLE, State.IN_USE)).isEqualTo(7);
+        assertThat(counts.get(Brand.GOOGLE, State.AVAILABLE)).isZero();
+        assertThat(counts.total()).isEqualTo(7);
+    }
+
     @Test
     void deleteById_ShouldCallRepositoryDeleteById() {
         // When
@@ -0,0 +1,242 @@
+package com.devicesapi.infrastructure.changes;
+
+import com.devicesapi.domain.changes.DeviceChange;
+import com.devicesapi.domain.changes.DeviceChangeEvent;
+import com.devicesapi.domain.changes.DeviceChangeEventId;
+import com.devicesapi.domain.entities.Device;
+import com.devicesapi.domain.enums.Brand;
+import com.devicesapi.domain.enums.DeviceChangeType;
+import com.devicesapi.domain.enums.State;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DeviceChangeFeedTest {
+
+    private static final int CAPACITY = 4;
+    private static final String GENERATION = "g1";
+
+    // Tasks only run when the test says so, like a subscriber thread that has not been scheduled yet
+    private final Queue<Runnable> pendingDrains = new ArrayDeque<>();
+
+    private DeviceChangeFeed feed;
+    private Device appleDevice;
+    private Device samsungDevice;
+
+    @BeforeEach
+    void setUp() {
+        feed = new DeviceChangeFeed(new DeviceChangeRingBuffer(CAPACITY, Clock.systemUTC(), GENERATION), pendingDrains::add);
+        LocalDateTime now = LocalDateTime.now();
+        appleDevice = Device.createWithIdAndTime(UUID.randomUUID(), "iPhone", Brand.APPLE, State.AVAILABLE, now);
+        samsungDevice = Device.createWithIdAndTime(UUID.randomUUID(), "Galaxy", Brand.SAMSUNG, State.IN_USE, now);
+    }
+
+    @Test
+    void publish_ShouldDeliverChangesInSequenceOrder() {
+        // Given
+        CollectingSink sink = new CollectingSink();
+        feed.subscribe(null, null, null, sink);
+
+        // When
+        feed.publish(DeviceChange.created(appleDevice));
+        feed.publish(DeviceChange.deleted(appleDevice.getId(), null));
+        runPendingDrains();
+
+        // Then
+        assertThat(sink.events).extracting(DeviceChangeEvent::sequence).containsExactly(1L, 2L);
+        assertThat(sink.events).extracting(event -> event.change().type())
+                .containsExactly(DeviceChangeType.CREATED, DeviceChangeType.DELETED);
+    }
+
+    @Test
+    void publish_ShouldOnlyDeliverChangesThatCanMatchTheFilter() {
+        // Given
+        CollectingSink sink = new CollectingSink();
+        feed.subscribe(Brand.APPLE, null, null, sink);
+
+        // When
+        feed.publish(DeviceChange.created(appleDevice));
+        feed.publish(DeviceChange.created(samsungDevice));
+        // A patch of the state only and a delete carry no brand, so they cannot be ruled out
+        feed.publish(DeviceChange.patched(samsungDevice.getId(), Device.createNew(null, null, State.AVAILABLE), null));
+        feed.publish(DeviceChange.deleted(samsungDevice.getId(), null));
+        runPendingDrains();
+
+        // Then
+        assertThat(sink.events).extracting(DeviceChangeEvent::sequence).containsExactly(1L, 3L, 4L);
+    }
+
+    @Test
+    void publish_ShouldDeliverChangesMovingADeviceIntoOrOutOfTheFilter() {
+        // Given
+        CollectingSink sink = new CollectingSink();
+        feed.subscribe(Brand.APPLE, State.AVAILABLE, null, sink);
+        Device appleInUse = Device.createWithIdAndTime(appleDevice.getId(), "iPhone", Brand.APPLE, State.IN_USE,
+                appleDevice.getCreationTime());
+
+        // When
+        feed.publish(DeviceChange.patched(appleDevice.getId(), Device.createNew(null, null, State.IN_USE), appleDevice));
+        feed.publish(DeviceChange.patched(appleDevice.getId(), Device.createNew(null, null, State.AVAILABLE), appleInUse));
+        feed.publish(DeviceChange.deleted(samsungDevice.getId(), samsungDevice));
+        feed.publish(DeviceChange.updated(samsungDevice, appleInUse));
+        runPendingDrains();
+
+        // Then: out of the filter, back into it; the samsung delete and the in-use move never touched it
+        assertThat(sink.events).extracting(DeviceChangeEvent::sequence).containsExactly(1L, 2L);
+    }
+
+    @Test
+    void subscribe_WithBufferedLastSequence_ShouldReplayMissedChanges() {
+        // Given
+        feed.publish(DeviceChange.created(appleDevice));
+        feed.publish(DeviceChange.created(samsungDevice));
+        feed.publish(DeviceChange.deleted(appleDevice.getId(), null));
+        CollectingSink sink = new CollectingSink();
+
+        // When
+        feed.subscribe(null, null, new DeviceChangeEventId(GENERATION, 1), sink);
+        runPendingDrains();
+
+        // Then
+        assertThat(sink.resets).isEmpty();
+        assertThat(sink.events).extracting(DeviceChangeEvent::sequence).containsExactly(2L, 3L);
+    }
+
+    @Test
+    void subscribe_WithOverwrittenLastSequence_ShouldResetAndContinueLive() {
+        // Given
+        for (int i = 0; i < CAPACITY + 2; i++) {
+            feed.publish(DeviceChange.created(appleDevice));
+        }
+        CollectingSink sink = new CollectingSink();
+
+        // When
+        feed.subscribe(null, null, new DeviceChangeEventId(GENERATION, 1), sink);
+        runPendingDrains();
+        feed.publish(DeviceChange.deleted(appleDevice.getId(), null));
+        runPendingDrains();
+
+        // Then
+        assertThat(sink.resets).containsExactly(new DeviceChangeEventId(GENERATION, CAPACITY + 2));
+        assertThat(sink.events).extracting(DeviceChangeEvent::sequence).containsExactly((long) CAPACITY + 3);
+    }
+
+    @Test
+    void subscribe_WithIdOfAnotherGeneration_ShouldResetEvenWhenTheSequenceIsBuffered() {
+        // Given: the subscriber last saw sequence 1 of a process that has since restarted
+        feed.publish(DeviceChange.created(appleDevice));
+        feed.publish(DeviceChange.created(samsungDevice));
+        CollectingSink sink = new CollectingSink();
+
+        // When
+        feed.subscribe(null, null, new DeviceChangeEventId("g0", 1), sink);
+        runPendingDrains();
+        feed.publish(DeviceChange.deleted(appleDevice.getId(), null));
+        runPendingDrains();
+
+        // Then
+        assertThat(sink.resets).containsExactly(new DeviceChangeEventId(GENERATION, 2));
+        assertThat(sink.events).extracting(DeviceChangeEvent::id).containsExactly(new DeviceChangeEventId(GENERATION, 3));
+    }
+
+    @Test
+    void subscribe_WithBareSequence_ShouldReset() {
+        // Given
+        feed.publish(DeviceChange.created(appleDevice));
+        CollectingSink sink = new CollectingSink();
+
+        // When
+        feed.subscribe(null, null, DeviceChangeEventId.parse("1"), sink);
+        runPendingDrains();
+
+        // Then
+        assertThat(sink.resets).containsExactly(new DeviceChangeEventId(GENERATION, 1));
+        assertThat(sink.events).isEmpty();
+    }
+
+    @Test
+    void publish_WhileSubscriberIsStalled_ShouldNotWaitAndResetItOnceOverrun() {
+        // Given
+        CollectingSink sink = new CollectingSink();
+        feed.subscribe(null, null, null, sink);
+
+        // When
+        for (int i = 0; i < CAPACITY * 3; i++) {
+            feed.publish(DeviceChange.created(appleDevice));
+        }
+
+        // Then
+        assertThat(pendingDrains).hasSize(1);
+        runPendingDrains();
+        assertThat(sink.resets).containsExactly(new DeviceChangeEventId(GENERATION, CAPACITY * 3));
+        assertThat(sink.events).isEmpty();
+    }
+
+    @Test
+    void publish_WhenSinkFails_ShouldDropTheSubscription() {
+        // Given
+        CollectingSink sink = new CollectingSink();
+        sink.failing = true;
+        feed.subscribe(null, null, null, sink);
+
+        // When
+        feed.publish(DeviceChange.created(appleDevice));
+        runPendingDrains();
+
+        // Then
+        assertThat(feed.subscriberCount()).isZero();
+    }
+
+    @Test
+    void cancel_ShouldStopDelivery() {
+        // Given
+        CollectingSink sink = new CollectingSink();
+        DeviceChangeFeed.Subscription subscription = feed.subscribe(null, null, null, sink);
+        runPendingDrains();
+
+        // When
+        subscription.cancel();
+        feed.publish(DeviceChange.created(appleDevice));
+        runPendingDrains();
+
+        // Then
+        assertThat(sink.events).isEmpty();
+        assertThat(feed.subscriberCount()).isZero();
+    }
+
+    private void runPendingDrains() {
+        while (!pendingDrains.isEmpty()) {
+            pendingDrains.poll().run();
+        }
+    }
+
+    private static class CollectingSink implements DeviceChangeSink {
+
+        private final List<DeviceChangeEvent> events = new ArrayList<>();
+        private final List<DeviceChangeEventId> resets = new ArrayList<>();
+        private boolean failing;
+
+        @Override
+        public void send(DeviceChangeEvent event) throws IOException {
+            if (failing) {
+                throw new IOException("Broken pipe");
+            }
+            events.add(event);
+        }
+
+        @Override
+        public void reset(DeviceChangeEventId id) {
+            resets.add(id);
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.devicesapi.infrastructure.config;
+
+import com.devicesapi.application.dto.DeviceChangeEventDto;
+import com.devicesapi.application.dto.DeviceResponseDto;
+import com.devicesapi.domain.entities.Device;
+import com.devicesapi.domain.enums.Brand;
+import com.devicesapi.domain.enums.State;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DeviceRuntimeHintsTest {
+
+    @Test
+    void registerHints_ShouldCoverProjectionsAndHandWrittenJson() throws NoSuchMethodException {
+        // Given
+        RuntimeHints hints = new RuntimeHints();
+
+        // When
+        new DeviceRuntimeHints().registerHints(hints, getClass().getClassLoader());
+
+        // Then
+        assertThat(RuntimeHintsPredicates.reflection().onConstructor(Device.class.getConstructor(
+                UUID.class, String.class, Brand.class, State.class, LocalDateTime.class, Long.class)))
+                .accepts(hints);
+        assertThat(RuntimeHintsPredicates.reflection().onType(DeviceResponseDto.class)
+                .withMemberCategory(MemberCategory.INVOKE_DECLARED_CONSTRUCTORS)).accepts(hints);
+        assertThat(RuntimeHintsPredicates.reflection().onType(DeviceChangeEventDto.class)).accepts(hints);
+    }
+}
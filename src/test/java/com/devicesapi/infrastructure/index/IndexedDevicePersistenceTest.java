@@ -0,0 +1,191 @@
+package com.devicesapi.infrastructure.index;
+
+import com.devicesapi.domain.batch.DeviceStateTransition;
+import com.devicesapi.domain.batch.DeviceStateTransitionChunk;
+import com.devicesapi.domain.changes.DeviceWriteResult;
+import com.devicesapi.domain.entities.Device;
+import com.devicesapi.domain.enums.Brand;
+import com.devicesapi.domain.enums.State;
+import com.devicesapi.domain.ports.DevicePersistencePort;
+import com.devicesapi.domain.queries.DeviceCounts;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class IndexedDevicePersistenceTest {
+
+    @Mock
+    private DevicePersistencePort delegate;
+
+    private IndexedDevicePersistence indexedDevicePersistence;
+    private Device appleAvailable;
+    private Device appleInUse;
+    private Device samsungAvailable;
+
+    @BeforeEach
+    void setUp() {
+        indexedDevicePersistence = new IndexedDevicePersistence(delegate);
+        LocalDateTime now = LocalDateTime.now();
+        appleAvailable = Device.createWithIdAndTime(UUID.randomUUID(), "iPhone", Brand.APPLE, State.AVAILABLE, now);
+        appleInUse = Device.createWithIdAndTime(UUID.randomUUID(), "MacBook", Brand.APPLE, State.IN_USE, now);
+        samsungAvailable = Device.createWithIdAndTime(UUID.randomUUID(), "Galaxy", Brand.SAMSUNG, State.AVAILABLE, now);
+    }
+
+    @Test
+    void findByBrand_BeforeRebuild_ShouldQueryDatabase() {
+        // Given
+        when(delegate.findByBrand(Brand.APPLE)).thenReturn(List.of(appleAvailable));
+
+        // When
+        List<Device> result = indexedDevicePersistence.findByBrand(Brand.APPLE);
+
+        // Then
+        assertThat(result).containsExactly(appleAvailable);
+        verify(delegate, never()).findAllById(any());
+    }
+
+    @Test
+    void findByBrandAndState_AfterRebuild_ShouldOnlyLoadMatchingIds() {
+        // Given
+        rebuildWith(appleAvailable, appleInUse, samsungAvailable);
+
+        // When
+        indexedDevicePersistence.findByBrandAndState(Brand.APPLE, State.AVAILABLE);
+        indexedDevicePersistence.findByState(State.AVAILABLE);
+
+        // Then
+        List<Collection<UUID>> lookups = capturedIdLookups();
+        assertThat(lookups).hasSize(2);
+        assertThat(lookups.get(0)).containsExactly(appleAvailable.getId());
+        assertThat(lookups.get(1)).containsExactlyInAnyOrder(appleAvailable.getId(), samsungAvailable.getId());
+        verify(delegate, never()).findByState(any());
+        verify(delegate, never()).findByBrandAndState(any(), any());
+    }
+
+    @Test
+    void save_ShouldMoveDeviceToItsNewCell() {
+        // Given
+        rebuildWith(appleAvailable);
+        Device moved = Device.createWithIdAndTime(appleAvailable.getId(), "iPhone", Brand.APPLE, State.INACTIVE,
+                appleAvailable.getCreationTime());
+        when(delegate.save(moved)).thenReturn(moved);
+
+        // When
+        indexedDevicePersistence.save(moved);
+
+        // Then
+        DeviceCounts counts = indexedDevicePersistence.indexedCounts();
+        assertThat(counts.get(Brand.APPLE, State.AVAILABLE)).isZero();
+        assertThat(counts.get(Brand.APPLE, State.INACTIVE)).isEqualTo(1);
+    }
+
+    @Test
+    void deleteById_ShouldRemoveDeviceFromIndex() {
+        // Given
+        rebuildWith(appleAvailable, samsungAvailable);
+
+        // When
+        indexedDevicePersistence.deleteById(appleAvailable.getId());
+
+        // Then
+        assertThat(indexedDevicePersistence.indexedCounts().total()).isEqualTo(1);
+        verify(delegate).deleteById(appleAvailable.getId());
+    }
+
+    @Test
+    void transitionStateChunk_ShouldMoveOnlyTheReportedDevicesWithoutReading() {
+        // Given: the SAMSUNG device was changed by another write after its id was read
+        rebuildWith(appleAvailable, samsungAvailable);
+        DeviceStateTransition transition = new DeviceStateTransition(null, State.AVAILABLE, State.INACTIVE, 10);
+        when(delegate.transitionStateChunk(transition, null)).thenReturn(
+                new DeviceStateTransitionChunk(List.of(appleAvailable.getId(), samsungAvailable.getId()),
+                        List.of(new Device(appleAvailable.getId(), null, Brand.APPLE, State.INACTIVE, null, null))));
+
+        // When
+        indexedDevicePersistence.transitionStateChunk(transition, null);
+
+        // Then
+        assertThat(indexedDevicePersistence.indexedCounts().get(Brand.APPLE, State.INACTIVE)).isEqualTo(1);
+        assertThat(indexedDevicePersistence.indexedCounts().get(Brand.SAMSUNG, State.AVAILABLE)).isEqualTo(1);
+        assertThat(indexedDevicePersistence.indexedCounts().get(Brand.APPLE, State.AVAILABLE)).isZero();
+        verify(delegate, never()).findAllById(any());
+    }
+
+    @Test
+    void updateUnlessInUse_WithOnlyState_ShouldKeepIndexedBrand() {
+        // Given
+        rebuildWith(appleAvailable, samsungAvailable);
+        Device changes = Device.createNew(null, null, State.INACTIVE);
+        when(delegate.updateUnlessInUse(appleAvailable.getId(), changes, null)).thenReturn(DeviceWriteResult.applied(appleAvailable));
+
+        // When
+        indexedDevicePersistence.updateUnlessInUse(appleAvailable.getId(), changes, null);
+
+        // Then
+        assertThat(indexedDevicePersistence.indexedCounts().get(Brand.APPLE, State.INACTIVE)).isEqualTo(1);
+        assertThat(indexedDevicePersistence.indexedCounts().get(Brand.APPLE, State.AVAILABLE)).isZero();
+        assertThat(indexedDevicePersistence.indexedCounts().total()).isEqualTo(2);
+    }
+
+    @Test
+    void verifyIntegrity_WhenCountsMatch_ShouldNotRebuild() {
+        // Given
+        rebuildWith(appleAvailable, samsungAvailable);
+        when(delegate.countByBrandAndState()).thenReturn(indexedDevicePersistence.indexedCounts());
+
+        // When
+        boolean consistent = indexedDevicePersistence.verifyIntegrity();
+
+        // Then
+        assertThat(consistent).isTrue();
+        verify(delegate, times(1)).exportDevices(isNull(), isNull(), any());
+    }
+
+    @Test
+    void verifyIntegrity_WhenCountsDrift_ShouldRebuildFromDatabase() {
+        // Given
+        rebuildWith(appleAvailable);
+        long[][] matrix = new long[Brand.values().length][State.values().length];
+        matrix[Brand.APPLE.ordinal()][State.AVAILABLE.ordinal()] = 2;
+        when(delegate.countByBrandAndState()).thenReturn(DeviceCounts.fromMatrix(matrix));
+
+        // When
+        boolean consistent = indexedDevicePersistence.verifyIntegrity();
+
+        // Then
+        assertThat(consistent).isFalse();
+        verify(delegate, times(2)).exportDevices(isNull(), isNull(), any());
+    }
+
+    private void rebuildWith(Device... devices) {
+        doAnswer(invocation -> {
+            Consumer<Device> consumer = invocation.getArgument(2);
+            List.of(devices).forEach(consumer);
+            return null;
+        }).when(delegate).exportDevices(isNull(), isNull(), any());
+        indexedDevicePersistence.rebuild();
+        assertThat(indexedDevicePersistence.isReady()).isTrue();
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Collection<UUID>> capturedIdLookups() {
+        ArgumentCaptor<Collection<UUID>> captor = ArgumentCaptor.forClass(Collection.class);
+        verify(delegate, atLeastOnce()).findAllById(captor.capture());
+        return captor.getAllValues();
+    }
+}
@@ -0,0 +1,59 @@
+package com.devicesapi.infrastructure.index;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UuidSetTest {
+
+    @Test
+    void addAndRemove_ShouldBehaveLikeHashSet() {
+        // Given
+        Random random = new Random(42);
+        UuidSet uuidSet = new UuidSet();
+        Set<UUID> expected = new HashSet<>();
+        List<UUID> known = new ArrayList<>();
+
+        // When
+        for (int i = 0; i < 50_000; i++) {
+            if (known.isEmpty() || random.nextInt(3) > 0) {
+                // Low entropy ids collide on the hash and exercise long probe chains
+                UUID id = new UUID(random.nextInt(64), random.nextInt(4096));
+                known.add(id);
+                assertThat(uuidSet.add(id)).isEqualTo(expected.add(id));
+            } else {
+                UUID id = known.get(random.nextInt(known.size()));
+                assertThat(uuidSet.remove(id)).isEqualTo(expected.remove(id));
+            }
+        }
+
+        // Then
+        assertThat(uuidSet.size()).isEqualTo(expected.size());
+        assertThat(uuidSet.toList()).containsExactlyInAnyOrderElementsOf(expected);
+        known.forEach(id -> assertThat(uuidSet.contains(id)).isEqualTo(expected.contains(id)));
+    }
+
+    @Test
+    void nilUuid_ShouldBeStoredLikeAnyOtherId() {
+        // Given
+        UuidSet uuidSet = new UuidSet();
+        UUID nil = new UUID(0, 0);
+
+        // When
+        boolean added = uuidSet.add(nil);
+
+        // Then
+        assertThat(added).isTrue();
+        assertThat(uuidSet.contains(nil)).isTrue();
+        assertThat(uuidSet.toList()).containsExactly(nil);
+        assertThat(uuidSet.remove(nil)).isTrue();
+        assertThat(uuidSet.size()).isZero();
+    }
+}
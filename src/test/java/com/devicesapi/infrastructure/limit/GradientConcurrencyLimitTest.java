@@ -0,0 +1,94 @@
+package com.devicesapi.infrastructure.limit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class GradientConcurrencyLimitTest {
+
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(100);
+
+    @Test
+    void tryAcquire_AtTheLimit_ShouldRejectUntilAPermitIsReleased() {
+        // Given
+        GradientConcurrencyLimit limit = new GradientConcurrencyLimit(2, 1, 10, 1.5);
+        int first = limit.tryAcquire();
+        int second = limit.tryAcquire();
+
+        // When
+        int rejected = limit.tryAcquire();
+        limit.release();
+        int afterRelease = limit.tryAcquire();
+
+        // Then
+        assertThat(first).isEqualTo(1);
+        assertThat(second).isEqualTo(2);
+        assertThat(rejected).isZero();
+        assertThat(afterRelease).isEqualTo(2);
+        assertThat(limit.inFlight()).isEqualTo(2);
+    }
+
+    @Test
+    void release_WithSteadyLatencyUnderLoad_ShouldRaiseTheLimit() {
+        // Given
+        GradientConcurrencyLimit limit = new GradientConcurrencyLimit(20, 4, 200, 1.5);
+
+        // When
+        for (int i = 0; i < 50; i++) {
+            sampleAtTheLimit(limit, FAST);
+        }
+
+        // Then
+        assertThat(limit.limit()).isGreaterThan(20).isLessThanOrEqualTo(200);
+    }
+
+    @Test
+    void release_WhenLatencyClimbs_ShouldLowerTheLimitButNotBelowTheMinimum() {
+        // Given
+        GradientConcurrencyLimit limit = new GradientConcurrencyLimit(20, 4, 200, 1.5);
+        for (int i = 0; i < 100; i++) {
+            sampleAtTheLimit(limit, FAST);
+        }
+        int before = limit.limit();
+
+        // When
+        for (int i = 0; i < 100; i++) {
+            sampleAtTheLimit(limit, SLOW);
+        }
+
+        // Then
+        assertThat(limit.limit()).isLessThan(before).isGreaterThanOrEqualTo(4);
+    }
+
+    @Test
+    void release_WithFewCallsInFlight_ShouldLeaveTheLimitAlone() {
+        // Given
+        GradientConcurrencyLimit limit = new GradientConcurrencyLimit(20, 4, 200, 1.5);
+
+        // When
+        for (int i = 0; i < 100; i++) {
+            limit.release(i < 50 ? FAST : SLOW, limit.tryAcquire());
+        }
+
+        // Then
+        assertThat(limit.limit()).isEqualTo(20);
+        assertThat(limit.inFlight()).isZero();
+    }
+
+    @Test
+    void constructor_WithInitialOutsideBounds_ShouldThrow() {
+        // When & Then
+        assertThatThrownBy(() -> new GradientConcurrencyLimit(2, 4, 200, 1.5))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    // One call taken while every permit is in use
+    private static void sampleAtTheLimit(GradientConcurrencyLimit limit, long rttNanos) {
+        limit.tryAcquire();
+        limit.release(rttNanos, limit.limit());
+    }
+}
@@ -0,0 +1,126 @@
+package com.devicesapi.infrastructure.limit;
+
+import com.devicesapi.domain.changes.DeviceStateUpdate;
+import com.devicesapi.domain.entities.Device;
+import com.devicesapi.domain.enums.Brand;
+import com.devicesapi.domain.enums.State;
+import com.devicesapi.domain.exception.DeviceOverloadedException;
+import com.devicesapi.domain.ports.DevicePersistencePort;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LimitedDevicePersistenceTest {
+
+    @Mock
+    private DevicePersistencePort delegate;
+
+    private SimpleMeterRegistry meterRegistry;
+    private GradientConcurrencyLimit limit;
+    private LimitedDevicePersistence limitedDevicePersistence;
+    private Device device;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        limit = new GradientConcurrencyLimit(2, 1, 10, 1.5);
+        limitedDevicePersistence = new LimitedDevicePersistence(delegate, limit, Duration.ofSeconds(1), meterRegistry);
+        device = Device.createWithIdAndTime(UUID.randomUUID(), "iPhone", Brand.APPLE, State.AVAILABLE, LocalDateTime.now());
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+    }
+
+    @Test
+    void findById_BelowTheLimit_ShouldDelegateAndReturnThePermit() {
+        // Given
+        when(delegate.findById(device.getId())).thenReturn(Optional.of(device));
+
+        // When
+        Optional<Device> result = limitedDevicePersistence.findById(device.getId());
+
+        // Then
+        assertThat(result).contains(device);
+        assertThat(limit.inFlight()).isZero();
+        assertThat(meterRegistry.get("devices.persistence.limit").gauge().value()).isEqualTo(2);
+    }
+
+    @Test
+    void findById_AtTheLimit_ShouldRejectWithoutCallingTheDatabase() {
+        // Given
+        limit.tryAcquire();
+        limit.tryAcquire();
+
+        // When & Then
+        assertThatThrownBy(() -> limitedDevicePersistence.findById(device.getId()))
+                .isInstanceOf(DeviceOverloadedException.class)
+                .extracting(e -> ((DeviceOverloadedException) e).getRetryAfter())
+                .isEqualTo(Duration.ofSeconds(1));
+
+        verifyNoInteractions(delegate);
+        assertThat(meterRegistry.get("devices.persistence.rejected").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("devices.persistence.in-flight").gauge().value()).isEqualTo(2);
+    }
+
+    @Test
+    void save_WhenTheDatabaseFails_ShouldStillReturnThePermit() {
+        // Given
+        when(delegate.save(device)).thenThrow(new IllegalStateException("Connection is not available"));
+
+        // When & Then
+        assertThatThrownBy(() -> limitedDevicePersistence.save(device)).isInstanceOf(IllegalStateException.class);
+        assertThat(limit.inFlight()).isZero();
+    }
+
+    @Test
+    void updateStates_InsideATransaction_ShouldPassEvenAtTheLimit() {
+        // Given
+        limit.tryAcquire();
+        limit.tryAcquire();
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+
+        // When
+        limitedDevicePersistence.updateStates(Map.of(device.getId(), DeviceStateUpdate.of(State.INACTIVE)));
+
+        // Then
+        verify(delegate).updateStates(any());
+    }
+
+    @Test
+    void exportDevices_ShouldHoldAPermitWhileStreaming() {
+        // Given
+        int[] inFlightWhileStreaming = new int[1];
+        doAnswer(invocation -> {
+            inFlightWhileStreaming[0] = limit.inFlight();
+            return null;
+        }).when(delegate).exportDevices(eq(Brand.APPLE), eq(null), any());
+
+        // When
+        limitedDevicePersistence.exportDevices(Brand.APPLE, null, exported -> {
+        });
+
+        // Then
+        assertThat(inFlightWhileStreaming[0]).isEqualTo(1);
+        assertThat(limit.inFlight()).isZero();
+    }
+}
@@ -0,0 +1,98 @@
+package com.devicesapi.infrastructure.metrics;
+
+import com.devicesapi.domain.changes.DeviceWriteResult;
+import com.devicesapi.domain.entities.Device;
+import com.devicesapi.domain.enums.Brand;
+import com.devicesapi.domain.enums.DeviceWriteOutcome;
+import com.devicesapi.domain.enums.State;
+import com.devicesapi.domain.ports.DevicePersistencePort;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.CountAtBucket;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class MeteredDevicePersistenceTest {
+
+    @Mock
+    private DevicePersistencePort delegate;
+
+    private SimpleMeterRegistry meterRegistry;
+    private MeteredDevicePersistence meteredDevicePersistence;
+    private Device testDevice;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        meteredDevicePersistence = new MeteredDevicePersistence(delegate, meterRegistry);
+        testDevice = Device.createWithIdAndTime(UUID.randomUUID(), "iPhone", Brand.APPLE, State.AVAILABLE, LocalDateTime.now());
+    }
+
+    @Test
+    void constructor_ShouldRegisterTimerForEveryPortMethod() {
+        // When
+        long methods = Arrays.stream(DevicePersistencePort.class.getMethods()).map(method -> method.getName()).distinct().count();
+
+        // Then
+        assertThat(meterRegistry.find(MeteredDevicePersistence.TIMER).timers()).hasSize((int) methods);
+    }
+
+    @Test
+    void findById_ShouldRecordTimerWithSloBuckets() {
+        // Given
+        when(delegate.findById(testDevice.getId())).thenReturn(Optional.of(testDevice));
+
+        // When
+        Optional<Device> result = meteredDevicePersistence.findById(testDevice.getId());
+
+        // Then
+        assertThat(result).contains(testDevice);
+        Timer timer = meterRegistry.get(MeteredDevicePersistence.TIMER).tag("method", "findById").timer();
+        assertThat(timer.count()).isEqualTo(1);
+        assertThat(timer.takeSnapshot().histogramCounts())
+                .extracting(bucket -> bucket.bucket(TimeUnit.MILLISECONDS))
+                .contains(1.0, 5.0, 100.0, 1000.0);
+    }
+
+    @Test
+    void save_WhenDelegateFails_ShouldStillRecordTimer() {
+        // Given
+        when(delegate.save(testDevice)).thenThrow(new IllegalStateException("down"));
+
+        // When & Then
+        assertThatThrownBy(() -> meteredDevicePersistence.save(testDevice)).isInstanceOf(IllegalStateException.class);
+        assertThat(meterRegistry.get(MeteredDevicePersistence.TIMER).tag("method", "save").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void updateAndDeleteUnlessInUse_WhenInUse_ShouldCountRejections() {
+        // Given
+        when(delegate.updateUnlessInUse(testDevice.getId(), testDevice, null)).thenReturn(DeviceWriteResult.rejected(DeviceWriteOutcome.IN_USE));
+        when(delegate.deleteUnlessInUse(testDevice.getId()))
+                .thenReturn(DeviceWriteResult.rejected(DeviceWriteOutcome.IN_USE))
+                .thenReturn(DeviceWriteResult.applied(testDevice));
+
+        // When
+        meteredDevicePersistence.updateUnlessInUse(testDevice.getId(), testDevice, null);
+        meteredDevicePersistence.deleteUnlessInUse(testDevice.getId());
+        meteredDevicePersistence.deleteUnlessInUse(testDevice.getId());
+
+        // Then
+        assertThat(meterRegistry.get(DeviceMeters.IN_USE_REJECTIONS).tag("operation", "update").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get(DeviceMeters.IN_USE_REJECTIONS).tag("operation", "delete").counter().count()).isEqualTo(1);
+    }
+}
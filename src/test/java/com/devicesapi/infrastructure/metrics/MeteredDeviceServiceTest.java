@@ -0,0 +1,130 @@
+package com.devicesapi.infrastructure.metrics;
+
+import com.devicesapi.domain.batch.DeviceBatchOperation;
+import com.devicesapi.domain.batch.DeviceBatchOperationType;
+import com.devicesapi.domain.batch.DeviceBatchRequest;
+import com.devicesapi.domain.batch.DeviceBatchResult;
+import com.devicesapi.domain.entities.Device;
+import com.devicesapi.domain.enums.Brand;
+import com.devicesapi.domain.enums.State;
+import com.devicesapi.domain.ports.DeviceServicePort;
+import com.devicesapi.domain.queries.DevicePage;
+import com.devicesapi.domain.queries.DevicePageRequest;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class MeteredDeviceServiceTest {
+
+    @Mock
+    private DeviceServicePort delegate;
+
+    private SimpleMeterRegistry meterRegistry;
+    private MeteredDeviceService meteredDeviceService;
+    private Device appleDevice;
+    private Device samsungDevice;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        meteredDeviceService = new MeteredDeviceService(delegate, meterRegistry);
+        LocalDateTime now = LocalDateTime.now();
+        appleDevice = Device.createWithIdAndTime(UUID.randomUUID(), "iPhone", Brand.APPLE, State.AVAILABLE, now);
+        samsungDevice = Device.createWithIdAndTime(UUID.randomUUID(), "Galaxy", Brand.SAMSUNG, State.AVAILABLE, now);
+    }
+
+    @Test
+    void constructor_ShouldRegisterTimerForEveryPortMethod() {
+        // When
+        long methods = Arrays.stream(DeviceServicePort.class.getMethods()).map(method -> method.getName()).distinct().count();
+
+        // Then
+        assertThat(meterRegistry.find(MeteredDeviceService.TIMER).timers()).hasSize((int) methods);
+    }
+
+    @Test
+    void getDevicesByState_ShouldRecordTimerAndResultSize() {
+        // Given
+        when(delegate.getDevicesByState(State.AVAILABLE)).thenReturn(List.of(appleDevice, samsungDevice));
+
+        // When
+        List<Device> result = meteredDeviceService.getDevicesByState(State.AVAILABLE);
+
+        // Then
+        assertThat(result).containsExactly(appleDevice, samsungDevice);
+        assertThat(meterRegistry.get(MeteredDeviceService.TIMER).tag("method", "getDevicesByState").timer().count()).isEqualTo(1);
+        DistributionSummary results = meterRegistry.get(MeteredDeviceService.RESULTS).tag("method", "getDevicesByState").summary();
+        assertThat(results.count()).isEqualTo(1);
+        assertThat(results.totalAmount()).isEqualTo(2);
+    }
+
+    @Test
+    void getDevicesPage_ShouldRecordPageSize() {
+        // Given
+        DevicePageRequest request = new DevicePageRequest(null, null, null, false, 10, null);
+        when(delegate.getDevicesPage(request)).thenReturn(new DevicePage(List.of(appleDevice), null));
+
+        // When
+        meteredDeviceService.getDevicesPage(request);
+
+        // Then
+        assertThat(meterRegistry.get(MeteredDeviceService.RESULTS).tag("method", "getDevicesPage").summary().totalAmount()).isEqualTo(1);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void exportDevices_ShouldPassDevicesThroughAndCountThem() {
+        // Given
+        doAnswer(invocation -> {
+            Consumer<Device> consumer = invocation.getArgument(2);
+            consumer.accept(appleDevice);
+            consumer.accept(samsungDevice);
+            return null;
+        }).when(delegate).exportDevices(eq(null), eq(null), any(Consumer.class));
+        List<Device> exported = new ArrayList<>();
+
+        // When
+        meteredDeviceService.exportDevices(null, null, exported::add);
+
+        // Then
+        assertThat(exported).containsExactly(appleDevice, samsungDevice);
+        assertThat(meterRegistry.get(MeteredDeviceService.RESULTS).tag("method", "exportDevices").summary().totalAmount()).isEqualTo(2);
+    }
+
+    @Test
+    void executeBatch_ShouldCountInUseRejectionsLikeTheSingleDeviceWrites() {
+        // Given
+        DeviceBatchOperation update = new DeviceBatchOperation(DeviceBatchOperationType.UPDATE, appleDevice.getId(), appleDevice);
+        DeviceBatchOperation delete = new DeviceBatchOperation(DeviceBatchOperationType.DELETE, samsungDevice.getId(), null);
+        DeviceBatchOperation missing = new DeviceBatchOperation(DeviceBatchOperationType.DELETE, UUID.randomUUID(), null);
+        DeviceBatchRequest request = DeviceBatchRequest.of(List.of(update, delete, missing), null);
+        when(delegate.executeBatch(request)).thenReturn(List.of(
+                DeviceBatchResult.rejectedInUse(0, update, "in use"),
+                DeviceBatchResult.rejectedInUse(1, delete, "in use"),
+                DeviceBatchResult.rejected(2, missing, "not found")));
+
+        // When
+        meteredDeviceService.executeBatch(request);
+
+        // Then
+        assertThat(meterRegistry.get(DeviceMeters.IN_USE_REJECTIONS).tag("operation", "update").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get(DeviceMeters.IN_USE_REJECTIONS).tag("operation", "delete").counter().count()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,201 @@
+package com.devicesapi.infrastructure.routing;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+class ReadWriteRoutingDataSourceTest {
+
+    private static final Duration READ_YOUR_WRITES = Duration.ofSeconds(2);
+    private static final Duration DOWN_FOR = Duration.ofSeconds(10);
+
+    private final MutableClock clock = new MutableClock(Instant.parse("2024-01-01T10:00:00Z"));
+    private DataSource primary;
+    private DataSource replica;
+
+    @BeforeEach
+    void setUp() {
+        primary = database("primary");
+        replica = database("replica");
+    }
+
+    @AfterEach
+    void tearDown() {
+        DeviceReadRouting.clear();
+    }
+
+    @Test
+    void readOnlyTransaction_InReplicaScope_ShouldReadFromReplica() {
+        // Given
+        ReadWriteRoutingDataSource routing = routing(List.of(replica));
+        DeviceReadRouting.replicaReads(null);
+
+        // When & Then
+        assertThat(servedBy(routing, true)).isEqualTo("replica");
+    }
+
+    @Test
+    void readOnlyTransaction_OutsideReplicaScope_ShouldReadFromPrimary() {
+        // Given
+        ReadWriteRoutingDataSource routing = routing(List.of(replica));
+
+        // When & Then
+        assertThat(servedBy(routing, true)).isEqualTo("primary");
+    }
+
+    @Test
+    void readWriteTransaction_InReplicaScope_ShouldUsePrimary() {
+        // Given
+        ReadWriteRoutingDataSource routing = routing(List.of(replica));
+        DeviceReadRouting.replicaReads(null);
+
+        // When & Then
+        assertThat(servedBy(routing, false)).isEqualTo("primary");
+    }
+
+    @Test
+    void readOnlyTransaction_AfterARecentWrite_ShouldStayOnPrimaryUntilTheWindowPasses() {
+        // Given
+        ReadWriteRoutingDataSource routing = routing(List.of(replica));
+        DeviceReadRouting.replicaReads(clock.instant().minusSeconds(1));
+
+        // When
+        String recent = servedBy(routing, true);
+        clock.advance(Duration.ofSeconds(1));
+        String settled = servedBy(routing, true);
+
+        // Then
+        assertThat(recent).isEqualTo("primary");
+        assertThat(settled).isEqualTo("replica");
+    }
+
+    @Test
+    void mustSee_WithAListChangedJustNow_ShouldReadFromPrimary() {
+        // Given
+        ReadWriteRoutingDataSource routing = routing(List.of(replica));
+        DeviceReadRouting.replicaReads(null);
+
+        // When
+        DeviceReadRouting.mustSee(clock.instant());
+
+        // Then
+        assertThat(servedBy(routing, true)).isEqualTo("primary");
+    }
+
+    @Test
+    void readOnlyTransaction_WithReplicaDown_ShouldFallBackToPrimaryAndSkipItForAWhile() throws SQLException {
+        // Given
+        DataSource down = mock(DataSource.class);
+        when(down.getConnection()).thenThrow(new SQLException("Connection refused"));
+        ReadWriteRoutingDataSource routing = routing(List.of(down));
+        DeviceReadRouting.replicaReads(null);
+
+        // When
+        String first = servedBy(routing, true);
+        String second = servedBy(routing, true);
+        clock.advance(DOWN_FOR);
+        servedBy(routing, true);
+
+        // Then
+        assertThat(first).isEqualTo("primary");
+        assertThat(second).isEqualTo("primary");
+        verify(down, times(2)).getConnection();
+    }
+
+    @Test
+    void readOnlyTransaction_WithOneOfTwoReplicasDown_ShouldUseTheOther() throws SQLException {
+        // Given
+        DataSource down = mock(DataSource.class);
+        when(down.getConnection()).thenThrow(new SQLException("Connection refused"));
+        ReadWriteRoutingDataSource routing = routing(List.of(down, replica));
+        DeviceReadRouting.replicaReads(null);
+
+        // When & Then
+        for (int i = 0; i < 4; i++) {
+            assertThat(servedBy(routing, true)).isEqualTo("replica");
+        }
+        verify(down, times(1)).getConnection();
+    }
+
+    @Test
+    void onPrimary_InReplicaScope_ShouldReadFromPrimaryAndKeepTheScope() {
+        // Given
+        ReadWriteRoutingDataSource routing = routing(List.of(replica));
+        DeviceReadRouting.replicaReads(null);
+
+        // When
+        String inside = DeviceReadRouting.onPrimary(() -> servedBy(routing, true));
+        String after = servedBy(routing, true);
+
+        // Then
+        assertThat(inside).isEqualTo("primary");
+        assertThat(after).isEqualTo("replica");
+    }
+
+    private ReadWriteRoutingDataSource routing(List<DataSource> replicas) {
+        return new ReadWriteRoutingDataSource(primary, replicas, READ_YOUR_WRITES, DOWN_FOR, clock);
+    }
+
+    // Same setup as the application: a transaction manager over a lazy proxy over the routing DataSource
+    private static String servedBy(ReadWriteRoutingDataSource routing, boolean readOnly) {
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routing);
+        TransactionTemplate transaction = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        transaction.setReadOnly(readOnly);
+        return transaction.execute(status -> new JdbcTemplate(dataSource).queryForObject("select name from role", String.class));
+    }
+
+    private static DataSource database(String role) {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:" + role + "-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("create table role (name varchar(16))");
+        jdbcTemplate.update("insert into role values (?)", role);
+        return dataSource;
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant now;
+
+        private MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
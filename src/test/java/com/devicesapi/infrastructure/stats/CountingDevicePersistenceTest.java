@@ -0,0 +1,223 @@
+package com.devicesapi.infrastructure.stats;
+
+import com.devicesapi.domain.changes.DeviceChange;
+import com.devicesapi.domain.entities.Device;
+import com.devicesapi.domain.enums.Brand;
+import com.devicesapi.domain.enums.State;
+import com.devicesapi.domain.ports.DevicePersistencePort;
+import com.devicesapi.domain.queries.DeviceCounts;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CountingDevicePersistenceTest {
+
+    @Mock
+    private DevicePersistencePort delegate;
+
+    private CountingDevicePersistence countingDevicePersistence;
+    private Device appleAvailable;
+    private Device samsungInactive;
+
+    @BeforeEach
+    void setUp() {
+        countingDevicePersistence = new CountingDevicePersistence(delegate);
+        LocalDateTime now = LocalDateTime.now();
+        appleAvailable = Device.createWithIdAndTime(UUID.randomUUID(), "iPhone", Brand.APPLE, State.AVAILABLE, now);
+        samsungInactive = Device.createWithIdAndTime(UUID.randomUUID(), "Galaxy", Brand.SAMSUNG, State.INACTIVE, now);
+    }
+
+    @Test
+    void countByBrandAndState_BeforeSeeding_ShouldQueryDatabase() {
+        // Given
+        DeviceCounts stored = counts(Brand.APPLE, State.AVAILABLE, 3);
+        when(delegate.countByBrandAndState()).thenReturn(stored);
+
+        // When
+        DeviceCounts result = countingDevicePersistence.countByBrandAndState();
+
+        // Then
+        assertThat(result).isEqualTo(stored);
+        assertThat(countingDevicePersistence.isSeeded()).isFalse();
+    }
+
+    @Test
+    void countByBrandAndState_AfterSeeding_ShouldNotQueryDatabaseAgain() {
+        // Given
+        when(delegate.countByBrandAndState()).thenReturn(counts(Brand.APPLE, State.AVAILABLE, 3));
+        countingDevicePersistence.seed();
+
+        // When
+        DeviceCounts first = countingDevicePersistence.countByBrandAndState();
+        DeviceCounts second = countingDevicePersistence.countByBrandAndState();
+
+        // Then
+        assertThat(first.get(Brand.APPLE, State.AVAILABLE)).isEqualTo(3);
+        assertThat(second).isEqualTo(first);
+        verify(delegate, times(1)).countByBrandAndState();
+    }
+
+    @Test
+    void publish_Created_ShouldIncrementItsCell() {
+        // Given
+        seedEmpty();
+
+        // When
+        countingDevicePersistence.publish(DeviceChange.created(appleAvailable));
+
+        // Then
+        assertThat(countingDevicePersistence.countByBrandAndState().get(Brand.APPLE, State.AVAILABLE)).isEqualTo(1);
+    }
+
+    @Test
+    void publish_PatchedState_ShouldMoveDeviceFromThePreviousCellWithoutReading() {
+        // Given
+        seedWith(appleAvailable);
+        Device changes = Device.createNew(null, null, State.INACTIVE);
+
+        // When
+        countingDevicePersistence.publish(DeviceChange.patched(appleAvailable.getId(), changes, appleAvailable));
+
+        // Then
+        DeviceCounts counts = countingDevicePersistence.countByBrandAndState();
+        assertThat(counts.get(Brand.APPLE, State.AVAILABLE)).isZero();
+        assertThat(counts.get(Brand.APPLE, State.INACTIVE)).isEqualTo(1);
+        verifyNoMoreInteractions(delegate);
+    }
+
+    @Test
+    void publish_Updated_ShouldMoveDeviceBetweenBrandsAndStates() {
+        // Given
+        seedWith(appleAvailable);
+        Device updated = Device.updateDevice(appleAvailable.getId(), "Galaxy", Brand.SAMSUNG, State.INACTIVE,
+                appleAvailable.getCreationTime());
+
+        // When
+        countingDevicePersistence.publish(DeviceChange.updated(updated, appleAvailable));
+
+        // Then
+        DeviceCounts counts = countingDevicePersistence.countByBrandAndState();
+        assertThat(counts.get(Brand.APPLE, State.AVAILABLE)).isZero();
+        assertThat(counts.get(Brand.SAMSUNG, State.INACTIVE)).isEqualTo(1);
+    }
+
+    @Test
+    void publish_PatchWithUnknownPreviousBrand_ShouldLeaveCountsToTheReconciliation() {
+        // Given
+        seedWith(appleAvailable);
+        Device queued = new Device(appleAvailable.getId(), null, null, State.AVAILABLE, null, null);
+
+        // When
+        countingDevicePersistence.publish(DeviceChange.patched(appleAvailable.getId(), Device.createNew(null, null, State.INACTIVE), queued));
+
+        // Then
+        assertThat(countingDevicePersistence.countByBrandAndState().get(Brand.APPLE, State.AVAILABLE)).isEqualTo(1);
+    }
+
+    @Test
+    void publish_Deleted_ShouldDecrementThePreviousCell() {
+        // Given
+        seedWith(appleAvailable, samsungInactive);
+
+        // When
+        countingDevicePersistence.publish(DeviceChange.deleted(appleAvailable.getId(), appleAvailable));
+
+        // Then
+        assertThat(countingDevicePersistence.countByBrandAndState().total()).isEqualTo(1);
+        assertThat(countingDevicePersistence.countByBrandAndState().get(Brand.SAMSUNG, State.INACTIVE)).isEqualTo(1);
+    }
+
+    @Test
+    void reconcile_WhenCountsDrifted_ShouldCorrectThemFromDatabase() {
+        // Given
+        seedWith(appleAvailable);
+        when(delegate.countByBrandAndState()).thenReturn(counts(Brand.SAMSUNG, State.INACTIVE, 2));
+
+        // When
+        long drift = countingDevicePersistence.reconcile();
+
+        // Then
+        DeviceCounts counts = countingDevicePersistence.countByBrandAndState();
+        assertThat(drift).isEqualTo(3);
+        assertThat(counts.get(Brand.APPLE, State.AVAILABLE)).isZero();
+        assertThat(counts.get(Brand.SAMSUNG, State.INACTIVE)).isEqualTo(2);
+    }
+
+    @Test
+    void reconcile_WhenAWriteRacesTheCount_ShouldKeepThatCellForTheNextPass() {
+        // Given: the stored count was taken before the create below was published
+        seedWith(appleAvailable);
+        when(delegate.countByBrandAndState()).thenAnswer(invocation -> {
+            countingDevicePersistence.publish(DeviceChange.created(samsungInactive));
+            return counts(Brand.APPLE, State.AVAILABLE, 1);
+        });
+
+        // When
+        long drift = countingDevicePersistence.reconcile();
+
+        // Then
+        DeviceCounts counts = countingDevicePersistence.countByBrandAndState();
+        assertThat(drift).isZero();
+        assertThat(counts.get(Brand.SAMSUNG, State.INACTIVE)).isEqualTo(1);
+        assertThat(counts.get(Brand.APPLE, State.AVAILABLE)).isEqualTo(1);
+    }
+
+    @Test
+    void seed_WhenAWriteRacesTheCount_ShouldKeepQueryingUntilACleanPass() {
+        // Given
+        when(delegate.countByBrandAndState())
+                .thenAnswer(invocation -> {
+                    countingDevicePersistence.publish(DeviceChange.created(samsungInactive));
+                    return counts(Brand.APPLE, State.AVAILABLE, 1);
+                })
+                .thenReturn(counts(Brand.SAMSUNG, State.INACTIVE, 1));
+        countingDevicePersistence.seed();
+        assertThat(countingDevicePersistence.isSeeded()).isFalse();
+
+        // When
+        countingDevicePersistence.reconcile();
+
+        // Then
+        assertThat(countingDevicePersistence.isSeeded()).isTrue();
+        assertThat(countingDevicePersistence.countByBrandAndState().get(Brand.SAMSUNG, State.INACTIVE)).isEqualTo(1);
+    }
+
+    @Test
+    void reconcile_BeforeSeeding_ShouldNotQueryDatabase() {
+        // When
+        long drift = countingDevicePersistence.reconcile();
+
+        // Then
+        assertThat(drift).isZero();
+        verify(delegate, never()).countByBrandAndState();
+    }
+
+    private void seedEmpty() {
+        when(delegate.countByBrandAndState()).thenReturn(DeviceCounts.fromMatrix(new long[Brand.values().length][State.values().length]));
+        countingDevicePersistence.seed();
+    }
+
+    private void seedWith(Device... devices) {
+        long[][] matrix = new long[Brand.values().length][State.values().length];
+        for (Device device : devices) {
+            matrix[device.getBrand().ordinal()][device.getState().ordinal()]++;
+        }
+        when(delegate.countByBrandAndState()).thenReturn(DeviceCounts.fromMatrix(matrix));
+        countingDevicePersistence.seed();
+    }
+
+    private DeviceCounts counts(Brand brand, State state, long count) {
+        long[][] matrix = new long[Brand.values().length][State.values().length];
+        matrix[brand.ordinal()][state.ordinal()] = count;
+        return DeviceCounts.fromMatrix(matrix);
+    }
+}
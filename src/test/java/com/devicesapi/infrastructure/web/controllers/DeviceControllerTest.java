@@ -1,29 +1,66 @@
 package com.devicesapi.infrastructure.web.controllers;
 
+import com.devicesapi.application.dto.DeviceLookupRequestDto;
 import com.devicesapi.application.dto.DeviceRequestDto;
 import com.devicesapi.application.dto.DeviceResponseDto;
+import com.devicesapi.domain.batch.DeviceBatchOperationType;
+import com.devicesapi.domain.batch.DeviceBatchRequest;
+import com.devicesapi.domain.batch.DeviceBatchResult;
+import com.devicesapi.domain.batch.DeviceBatchStatus;
+import com.devicesapi.domain.batch.DeviceStateTransition;
+import com.devicesapi.domain.changes.DeviceChange;
+import com.devicesapi.domain.changes.DeviceChangeEvent;
+import com.devicesapi.domain.changes.DeviceChangeEventId;
 import com.devicesapi.domain.entities.Device;
 import com.devicesapi.domain.enums.Brand;
+import com.devicesapi.domain.enums.DeviceSort;
 import com.devicesapi.domain.enums.State;
 import com.devicesapi.domain.exception.DeviceNotFoundException;
+import com.devicesapi.domain.exception.DeviceOverloadedException;
+import com.devicesapi.domain.exception.DevicePreconditionFailedException;
 import com.devicesapi.domain.ports.DeviceServicePort;
+import com.devicesapi.domain.queries.DeviceCounts;
+import com.devicesapi.domain.queries.DeviceCursor;
+import com.devicesapi.domain.queries.DevicePage;
+import com.devicesapi.domain.queries.DevicePageRequest;
+import com.devicesapi.domain.queries.DeviceListVersion;
+import com.devicesapi.domain.queries.DeviceLookup;
+import com.devicesapi.domain.queries.DeviceSearchCriteria;
+import com.devicesapi.domain.queries.DeviceSearchRequest;
+import com.devicesapi.infrastructure.changes.DeviceChangeFeed;
+import com.devicesapi.infrastructure.changes.DeviceChangeSink;
+import com.devicesapi.infrastructure.web.streaming.DeviceColumnarFormat;
+import com.devicesapi.infrastructure.web.streaming.DeviceColumnarReader;
+import com.devicesapi.infrastructure.web.streaming.NdjsonDeviceWriter;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.io.ByteArrayInputStream;
+import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Consumer;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -37,6 +74,9 @@ class DeviceControllerTest {
     @MockBean
     private DeviceServicePort deviceService;
 
+    @MockBean
+    private DeviceChangeFeed deviceChangeFeed;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -45,6 +85,7 @@ class DeviceControllerTest {
     private DeviceResponseDto testResponseDto;
     private UUID testId;
     private LocalDateTime testTime;
+    private DeviceListVersion listVersion;
 
     @BeforeEach
     void setUp() {
@@ -53,6 +94,8 @@ class DeviceControllerTest {
         testDevice = Device.createWithIdAndTime(testId, "Test Device", Brand.SAMSUNG, State.AVAILABLE, testTime);
         testRequestDto = new DeviceRequestDto("Test Device", Brand.SAMSUNG, State.AVAILABLE);
         testResponseDto = DeviceResponseDto.fromDomain(testDevice);
+        listVersion = new DeviceListVersion(0xabc, 7, Instant.parse("2024-01-01T10:00:00.500Z"));
+        when(deviceService.getListVersion(any(), any())).thenReturn(listVersion);
     }
 
     @Test
@@ -119,6 +162,40 @@ class DeviceControllerTest {
         verify(deviceService).getAllDevices();
     }
 
+    @Test
+    void getAllDevices_ShouldWriteSameBytesAsObjectMapper() throws Exception {
+        // Given
+        Device device2 = Device.createWithIdAndTime(UUID.randomUUID(), "Quote \" \u00E9", Brand.APPLE, State.IN_USE, testTime.withNano(0));
+        List<Device> devices = Arrays.asList(testDevice, device2);
+        when(deviceService.getAllDevices()).thenReturn(devices);
+
+        // When
+        byte[] body = mockMvc.perform(get("/api/devices"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        // Then
+        assertThat(body).isEqualTo(objectMapper.writeValueAsBytes(devices.stream().map(DeviceResponseDto::fromDomain).toList()));
+    }
+
+    @Test
+    void getAllDevices_AcceptingColumnar_ShouldWriteColumnarFormat() throws Exception {
+        // Given
+        when(deviceService.getAllDevices()).thenReturn(List.of(testDevice));
+
+        // When
+        byte[] body = mockMvc.perform(get("/api/devices").accept(DeviceColumnarFormat.MEDIA_TYPE))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(DeviceColumnarFormat.MEDIA_TYPE))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        // Then
+        assertThat(DeviceColumnarReader.readAll(new ByteArrayInputStream(body))).singleElement()
+                .extracting(Device::getId, Device::getBrand)
+                .containsExactly(testId, Brand.SAMSUNG);
+    }
+
     @Test
     void getDevicesByState_WithValidState_ShouldReturnDevices() throws Exception {
         // Given
@@ -169,12 +246,155 @@ class DeviceControllerTest {
         verify(deviceService, never()).getDevicesByBrand(any());
     }
 
+    @Test
+    void getDevicesByBrandAndState_ShouldReturnDevices() throws Exception {
+        // Given
+        when(deviceService.getDevicesByBrandAndState(Brand.SAMSUNG, State.AVAILABLE)).thenReturn(List.of(testDevice));
+
+        // When & Then
+        mockMvc.perform(get("/api/devices/brand/{brand}/state/{state}", "samsung", "available"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].id").value(testId.toString()));
+
+        verify(deviceService).getDevicesByBrandAndState(Brand.SAMSUNG, State.AVAILABLE);
+    }
+
+    @Test
+    void getAllDevicesPaged_ShouldReturnItemsAndNextCursor() throws Exception {
+        // Given
+        DeviceCursor next = DeviceCursor.after(testDevice, DeviceSort.CREATION_TIME, false);
+        when(deviceService.getDevicesPage(any(DevicePageRequest.class)))
+                .thenReturn(new DevicePage(List.of(testDevice), next));
+
+        // When & Then
+        mockMvc.perform(get("/api/devices/paged").param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(1))
+                .andExpect(jsonPath("$.items[0].id").value(testId.toString()))
+                .andExpect(jsonPath("$.next").value(next.encode()));
+
+        verify(deviceService).getDevicesPage(new DevicePageRequest(null, null, DeviceSort.CREATION_TIME, false, 1, null));
+    }
+
+    @Test
+    void getDevicesByBrandPaged_WithCursor_ShouldPassDecodedCursor() throws Exception {
+        // Given
+        DeviceCursor cursor = DeviceCursor.after(testDevice, DeviceSort.NAME, true);
+        when(deviceService.getDevicesPage(any(DevicePageRequest.class)))
+                .thenReturn(new DevicePage(List.of(), null));
+
+        // When & Then
+        mockMvc.perform(get("/api/devices/brand/{brand}/paged", "samsung")
+                        .param("sort", "name")
+                        .param("direction", "desc")
+                        .param("cursor", cursor.encode()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(0))
+                .andExpect(jsonPath("$.next").doesNotExist());
+
+        verify(deviceService).getDevicesPage(new DevicePageRequest(Brand.SAMSUNG, null, DeviceSort.NAME, true,
+                DevicePageRequest.DEFAULT_SIZE, cursor));
+    }
+
+    @Test
+    void getDevicesByStatePaged_WithInvalidCursor_ShouldReturnBadRequest() throws Exception {
+        // When & Then
+        mockMvc.perform(get("/api/devices/state/{state}/paged", "available").param("cursor", "garbage"))
+                .andExpect(status().isBadRequest());
+
+        verify(deviceService, never()).getDevicesPage(any());
+    }
+
+    @Test
+    void streamChanges_ShouldResumeAfterLastEventIdAndWriteEventsAsSse() throws Exception {
+        // Given
+        ArgumentCaptor<DeviceChangeSink> sink = ArgumentCaptor.forClass(DeviceChangeSink.class);
+        when(deviceChangeFeed.subscribe(eq(Brand.APPLE), isNull(), eq(new DeviceChangeEventId("g1", 41)), sink.capture()))
+                .thenReturn(mock(DeviceChangeFeed.Subscription.class));
+
+        // When
+        MvcResult result = mockMvc.perform(get("/api/devices/changes/stream")
+                        .param("brand", "apple")
+                        .header("Last-Event-ID", "g1-41"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        sink.getValue().send(new DeviceChangeEvent(new DeviceChangeEventId("g1", 42), Instant.now(), DeviceChange.created(testDevice)));
+
+        // Then
+        assertThat(result.getResponse().getContentType()).startsWith(MediaType.TEXT_EVENT_STREAM_VALUE);
+        assertThat(result.getResponse().getContentAsString())
+                .contains("id:g1-42")
+                .contains("event:created")
+                .contains("\"id\":\"" + testId + "\"");
+    }
+
+    @Test
+    void streamChanges_WithInvalidLastEventId_ShouldReturnBadRequest() throws Exception {
+        // When & Then
+        mockMvc.perform(get("/api/devices/changes/stream").header("Last-Event-ID", "latest"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(deviceChangeFeed);
+    }
+
+    @Test
+    void getDeviceStats_ShouldReturnCountsPerBrandAndState() throws Exception {
+        // Given
+        long[][] matrix = new long[Brand.values().length][State.values().length];
+        matrix[Brand.APPLE.ordinal()][State.IN_USE.ordinal()] = 4;
+        matrix[Brand.SAMSUNG.ordinal()][State.AVAILABLE.ordinal()] = 2;
+        when(deviceService.getDeviceCounts()).thenReturn(DeviceCounts.fromMatrix(matrix));
+
+        // When & Then
+        mockMvc.perform(get("/api/devices/stats"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(6))
+                .andExpect(jsonPath("$.counts.APPLE.IN_USE").value(4))
+                .andExpect(jsonPath("$.counts.SAMSUNG.AVAILABLE").value(2))
+                .andExpect(jsonPath("$.counts.GOOGLE.INACTIVE").value(0));
+    }
+
+    @Test
+    void searchDevices_ShouldCombineAllCriteriaIntoOneRequest() throws Exception {
+        // Given
+        when(deviceService.searchDevices(any(DeviceSearchRequest.class)))
+                .thenReturn(new DevicePage(List.of(testDevice), null));
+
+        // When & Then
+        mockMvc.perform(get("/api/devices/search")
+                        .param("brand", "apple,samsung")
+                        .param("state", "available")
+                        .param("namePrefix", "Gal")
+                        .param("createdFrom", "2024-01-01T00:00:00")
+                        .param("createdTo", "2024-02-01T00:00:00")
+                        .param("size", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(1))
+                .andExpect(jsonPath("$.next").doesNotExist());
+
+        DeviceSearchCriteria criteria = new DeviceSearchCriteria(Set.of(Brand.APPLE, Brand.SAMSUNG), Set.of(State.AVAILABLE), "Gal",
+                LocalDateTime.of(2024, 1, 1, 0, 0), LocalDateTime.of(2024, 2, 1, 0, 0));
+        verify(deviceService).searchDevices(new DeviceSearchRequest(criteria, DeviceSort.CREATION_TIME, false, 10, null));
+    }
+
+    @Test
+    void searchDevices_WithInvertedRange_ShouldReturnBadRequest() throws Exception {
+        // When & Then
+        mockMvc.perform(get("/api/devices/search")
+                        .param("createdFrom", "2024-02-01T00:00:00")
+                        .param("createdTo", "2024-01-01T00:00:00"))
+                .andExpect(status().isBadRequest());
+
+        verify(deviceService, never()).searchDevices(any());
+    }
+
     @Test
     void updateDevice_ShouldReturnUpdatedDevice() throws Exception {
         // Given
         Device updatedDevice = Device.createWithIdAndTime(testId, "Updated Device", Brand.APPLE, State.IN_USE, testTime);
         DeviceRequestDto updateRequestDto = new DeviceRequestDto("Updated Device", Brand.APPLE, State.IN_USE);
-        when(deviceService.updateDevice(eq(testId), any(Device.class))).thenReturn(updatedDevice);
+        when(deviceService.updateDevice(eq(testId), any(Device.class), isNull())).thenReturn(updatedDevice);
 
         // When & Then
         mockMvc.perform(put("/api/devices/{id}", testId)
@@ -186,14 +406,14 @@ class DeviceControllerTest {
                 .andExpect(jsonPath("$.brand").value("APPLE"))
                 .andExpect(jsonPath("$.state").value("IN_USE"));
 
-        verify(deviceService).updateDevice(eq(testId), any(Device.class));
+        verify(deviceService).updateDevice(eq(testId), any(Device.class), isNull());
     }
 
     @Test
     void updateDevice_WhenDeviceNotFound_ShouldReturnNotFound() throws Exception {
         // Given
         DeviceRequestDto updateRequestDto = new DeviceRequestDto("Updated Device", Brand.APPLE, State.IN_USE);
-        when(deviceService.updateDevice(eq(testId), any(Device.class)))
+        when(deviceService.updateDevice(eq(testId), any(Device.class), isNull()))
                 .thenThrow(new DeviceNotFoundException("Device with id '" + testId + "' not found"));
 
         // When & Then
@@ -202,14 +422,14 @@ class DeviceControllerTest {
                         .content(objectMapper.writeValueAsString(updateRequestDto)))
                 .andExpect(status().isNotFound());
 
-        verify(deviceService).updateDevice(eq(testId), any(Device.class));
+        verify(deviceService).updateDevice(eq(testId), any(Device.class), isNull());
     }
 
     @Test
     void patchDevice_ShouldReturnOk() throws Exception {
         // Given
         DeviceRequestDto patchRequestDto = new DeviceRequestDto("Patched Device", Brand.GOOGLE, State.INACTIVE);
-        doNothing().when(deviceService).patchDevice(eq(testId), any(Device.class));
+        doNothing().when(deviceService).patchDevice(eq(testId), any(Device.class), isNull());
 
         // When & Then
         mockMvc.perform(patch("/api/devices/{id}", testId)
@@ -217,7 +437,7 @@ class DeviceControllerTest {
                         .content(objectMapper.writeValueAsString(patchRequestDto)))
                 .andExpect(status().isOk());
 
-        verify(deviceService).patchDevice(eq(testId), any(Device.class));
+        verify(deviceService).patchDevice(eq(testId), any(Device.class), isNull());
     }
 
     @Test
@@ -225,7 +445,7 @@ class DeviceControllerTest {
         // Given
         DeviceRequestDto patchRequestDto = new DeviceRequestDto("Patched Device", Brand.GOOGLE, State.INACTIVE);
         doThrow(new DeviceNotFoundException("Device with id '" + testId + "' not found"))
-                .when(deviceService).patchDevice(eq(testId), any(Device.class));
+                .when(deviceService).patchDevice(eq(testId), any(Device.class), isNull());
 
         // When & Then
         mockMvc.perform(patch("/api/devices/{id}", testId)
@@ -233,7 +453,7 @@ class DeviceControllerTest {
                         .content(objectMapper.writeValueAsString(patchRequestDto)))
                 .andExpect(status().isNotFound());
 
-        verify(deviceService).patchDevice(eq(testId), any(Device.class));
+        verify(deviceService).patchDevice(eq(testId), any(Device.class), isNull());
     }
 
     @Test
@@ -260,4 +480,342 @@ class DeviceControllerTest {
 
         verify(deviceService).deleteDevice(testId);
     }
-}
\ No newline at end of file
+
+    @Test
+    void exportDevices_ShouldStreamOneJsonDocumentPerLine() throws Exception {
+        // Given
+        Device device2 = Device.createWithIdAndTime(UUID.randomUUID(), "Device 2", Brand.SAMSUNG, State.IN_USE, testTime);
+        doAnswer(invocation -> {
+            Consumer<Device> consumer = invocation.getArgument(2);
+            consumer.accept(testDevice);
+            consumer.accept(device2);
+            return null;
+        }).when(deviceService).exportDevices(eq(Brand.SAMSUNG), isNull(), any());
+
+        // When
+        MvcResult asyncResult = mockMvc.perform(get("/api/devices/export").param("brand", "samsung"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Then
+        String body = mockMvc.perform(asyncDispatch(asyncResult))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andReturn().getResponse().getContentAsString();
+
+        String[] lines = body.split("\n");
+        assertThat(body).endsWith("\n");
+        assertThat(lines).hasSize(2);
+        assertThat(objectMapper.readValue(lines[0], DeviceResponseDto.class)).isEqualTo(testResponseDto);
+        assertThat(objectMapper.readValue(lines[1], DeviceResponseDto.class).name()).isEqualTo("Device 2");
+    }
+
+    @Test
+    void exportDevices_AcceptingColumnar_ShouldStreamDecodableBlocks() throws Exception {
+        // Given
+        doAnswer(invocation -> {
+            Consumer<Device> consumer = invocation.getArgument(2);
+            consumer.accept(testDevice);
+            return null;
+        }).when(deviceService).exportDevices(isNull(), isNull(), any());
+
+        // When
+        MvcResult asyncResult = mockMvc.perform(get("/api/devices/export").accept(DeviceColumnarFormat.MEDIA_TYPE))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Then
+        byte[] body = mockMvc.perform(asyncDispatch(asyncResult))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(DeviceColumnarFormat.MEDIA_TYPE))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        assertThat(DeviceColumnarReader.readAll(new ByteArrayInputStream(body))).singleElement()
+                .extracting(Device::getId, Device::getName, Device::getState)
+                .containsExactly(testId, "Test Device", State.AVAILABLE);
+    }
+
+    @Test
+    void exportDevices_PreferringNdjsonByQuality_ShouldStreamNdjson() throws Exception {
+        // When
+        MvcResult asyncResult = mockMvc.perform(get("/api/devices/export")
+                        .header(HttpHeaders.ACCEPT, DeviceColumnarFormat.MEDIA_TYPE + ";q=0.5, " + NdjsonDeviceWriter.MEDIA_TYPE))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Then
+        mockMvc.perform(asyncDispatch(asyncResult))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(NdjsonDeviceWriter.MEDIA_TYPE));
+    }
+
+    @Test
+    void exportDevices_PreferringColumnarByQuality_ShouldStreamColumnar() throws Exception {
+        // When
+        MvcResult asyncResult = mockMvc.perform(get("/api/devices/export")
+                        .header(HttpHeaders.ACCEPT, "*/*;q=0.1, " + DeviceColumnarFormat.MEDIA_TYPE))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Then
+        mockMvc.perform(asyncDispatch(asyncResult))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(DeviceColumnarFormat.MEDIA_TYPE));
+    }
+
+    @Test
+    void exportDevices_WithInvalidState_ShouldReturnBadRequest() throws Exception {
+        // When & Then
+        mockMvc.perform(get("/api/devices/export").param("state", "broken"))
+                .andExpect(status().isBadRequest());
+
+        verify(deviceService, never()).exportDevices(any(), any(), any());
+    }
+
+    @Test
+    void executeBatch_ShouldReturnPerOperationResults() throws Exception {
+        // Given
+        UUID inUseId = UUID.randomUUID();
+        when(deviceService.executeBatch(any(DeviceBatchRequest.class))).thenReturn(List.of(
+                DeviceBatchResult.succeeded(0, DeviceBatchOperationType.CREATE, testId),
+                new DeviceBatchResult(1, DeviceBatchOperationType.DELETE, inUseId,
+                        DeviceBatchStatus.REJECTED, "Device is still in use")));
+
+        String body = """
+                {"chunkSize": 100, "operations": [
+                  {"type": "CREATE", "name": "New Device", "brand": "APPLE", "state": "AVAILABLE"},
+                  {"type": "DELETE", "id": "%s"}
+                ]}
+                """.formatted(inUseId);
+
+        // When & Then
+        mockMvc.perform(post("/api/devices/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.succeeded").value(1))
+                .andExpect(jsonPath("$.rejected").value(1))
+                .andExpect(jsonPath("$.failed").value(0))
+                .andExpect(jsonPath("$.results[0].id").value(testId.toString()))
+                .andExpect(jsonPath("$.results[1].status").value("REJECTED"))
+                .andExpect(jsonPath("$.results[1].message").value("Device is still in use"));
+
+        verify(deviceService).executeBatch(argThat(request ->
+                request.chunkSize() == 2 && request.operations().get(1).id().equals(inUseId)));
+    }
+
+    @Test
+    void executeBatch_WithoutOperations_ShouldReturnBadRequest() throws Exception {
+        // When & Then
+        mockMvc.perform(post("/api/devices/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"operations\": []}"))
+                .andExpect(status().isBadRequest());
+
+        verify(deviceService, never()).executeBatch(any());
+    }
+
+    @Test
+    void transitionState_ShouldReturnAffectedRows() throws Exception {
+        // Given
+        when(deviceService.transitionState(any(DeviceStateTransition.class))).thenReturn(1234L);
+
+        // When & Then
+        mockMvc.perform(post("/api/devices/state-transitions")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"brand\": \"XIAOMI\", \"from\": \"INACTIVE\", \"to\": \"AVAILABLE\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.affected").value(1234))
+                .andExpect(jsonPath("$.brand").value("XIAOMI"));
+
+        verify(deviceService).transitionState(new DeviceStateTransition(Brand.XIAOMI, State.INACTIVE, State.AVAILABLE,
+                DeviceStateTransition.DEFAULT_CHUNK_SIZE));
+    }
+
+    @Test
+    void transitionState_FromInUse_ShouldReturnBadRequest() throws Exception {
+        // When & Then
+        mockMvc.perform(post("/api/devices/state-transitions")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"from\": \"IN_USE\", \"to\": \"AVAILABLE\"}"))
+                .andExpect(status().isBadRequest());
+
+        verify(deviceService, never()).transitionState(any());
+    }
+
+    @Test
+    void getDeviceById_ShouldReturnVersionAsETag() throws Exception {
+        // Given
+        when(deviceService.getDeviceById(testId)).thenReturn(Optional.of(testDevice.withVersion(3L)));
+
+        // When & Then
+        mockMvc.perform(get("/api/devices/{id}", testId))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"3\""));
+
+        verify(deviceService, never()).getDeviceVersion(any());
+    }
+
+    @Test
+    void getDeviceById_WithMatchingIfNoneMatch_ShouldReturnNotModifiedWithoutLoadingDevice() throws Exception {
+        // Given
+        when(deviceService.getDeviceVersion(testId)).thenReturn(Optional.of(3L));
+
+        // When & Then
+        mockMvc.perform(get("/api/devices/{id}", testId).header("If-None-Match", "\"3\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "\"3\""))
+                .andExpect(content().string(""));
+
+        verify(deviceService, never()).getDeviceById(any());
+    }
+
+    @Test
+    void getDeviceById_WithStaleIfNoneMatch_ShouldReturnDevice() throws Exception {
+        // Given
+        when(deviceService.getDeviceVersion(testId)).thenReturn(Optional.of(4L));
+        when(deviceService.getDeviceById(testId)).thenReturn(Optional.of(testDevice.withVersion(4L)));
+
+        // When & Then
+        mockMvc.perform(get("/api/devices/{id}", testId).header("If-None-Match", "\"3\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"4\""))
+                .andExpect(jsonPath("$.id").value(testId.toString()));
+    }
+
+    @Test
+    void updateDevice_WithStaleIfMatch_ShouldReturnPreconditionFailed() throws Exception {
+        // Given
+        when(deviceService.updateDevice(eq(testId), any(Device.class), eq(3L)))
+                .thenThrow(new DevicePreconditionFailedException("Device with id '" + testId + "' has been modified since the given version"));
+
+        // When & Then
+        mockMvc.perform(put("/api/devices/{id}", testId)
+                        .header("If-Match", "\"3\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(testRequestDto)))
+                .andExpect(status().isPreconditionFailed());
+    }
+
+    @Test
+    void getDeviceById_WhenOverloaded_ShouldReturnServiceUnavailableWithRetryAfter() throws Exception {
+        // Given
+        when(deviceService.getDeviceById(testId))
+                .thenThrow(new DeviceOverloadedException("Too many concurrent database calls, retry later", Duration.ofMillis(1500)));
+
+        // When & Then
+        mockMvc.perform(get("/api/devices/{id}", testId))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "2"))
+                .andExpect(jsonPath("$.error").value("Service unavailable"));
+    }
+
+    @Test
+    void getAllDevices_ShouldReturnListVersionAsWeakETagAndLastModified() throws Exception {
+        // Given
+        when(deviceService.getAllDevices()).thenReturn(List.of(testDevice));
+
+        // When & Then
+        mockMvc.perform(get("/api/devices"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "W/\"abc-7\""))
+                .andExpect(header().string("Last-Modified", "Mon, 01 Jan 2024 10:00:00 GMT"))
+                .andExpect(jsonPath("$.length()").value(1));
+
+        verify(deviceService).getListVersion(null, null);
+    }
+
+    @Test
+    void getAllDevices_WithMatchingIfNoneMatch_ShouldReturnNotModifiedWithoutQuerying() throws Exception {
+        // When & Then
+        mockMvc.perform(get("/api/devices").header("If-None-Match", "W/\"abc-7\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "W/\"abc-7\""))
+                .andExpect(content().string(""));
+
+        verify(deviceService, never()).getAllDevices();
+    }
+
+    @Test
+    void getDeviceByBrand_WithStaleIfNoneMatch_ShouldReturnDevicesEvenWhenNotModifiedSince() throws Exception {
+        // Given
+        when(deviceService.getDevicesByBrand(Brand.SAMSUNG)).thenReturn(List.of(testDevice));
+
+        // When & Then
+        mockMvc.perform(get("/api/devices/brand/{brand}", "samsung")
+                        .header("If-None-Match", "W/\"abc-6\"")
+                        .header("If-Modified-Since", "Mon, 01 Jan 2024 10:00:00 GMT"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "W/\"abc-7\""));
+
+        verify(deviceService).getListVersion(Brand.SAMSUNG, null);
+    }
+
+    @Test
+    void getDevicesByState_WithIfModifiedSince_ShouldCompareWholeSeconds() throws Exception {
+        // Given
+        when(deviceService.getDevicesByState(State.AVAILABLE)).thenReturn(List.of(testDevice));
+
+        // When & Then
+        mockMvc.perform(get("/api/devices/state/{state}", "available").header("If-Modified-Since", "Mon, 01 Jan 2024 10:00:00 GMT"))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get("/api/devices/state/{state}", "available").header("If-Modified-Since", "Mon, 01 Jan 2024 09:59:59 GMT"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1));
+
+        verify(deviceService, times(1)).getDevicesByState(State.AVAILABLE);
+    }
+
+    @Test
+    void getDevicesByState_WhenTheListChangedWithinTheCurrentSecond_ShouldIgnoreIfModifiedSince() throws Exception {
+        // Given: stamped a little ahead, so the change is not over before the request is answered
+        Instant lastModified = Instant.now().plusSeconds(2);
+        when(deviceService.getListVersion(any(), any())).thenReturn(new DeviceListVersion(0xabc, 8, lastModified));
+        when(deviceService.getDevicesByState(State.AVAILABLE)).thenReturn(List.of(testDevice));
+
+        // When & Then: a later change in the same second would carry the same HTTP date
+        mockMvc.perform(get("/api/devices/state/{state}", "available")
+                        .header("If-Modified-Since", DateTimeFormatter.RFC_1123_DATE_TIME.format(lastModified.atZone(ZoneOffset.UTC))))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("Last-Modified"))
+                .andExpect(header().string("ETag", "W/\"abc-8\""))
+                .andExpect(jsonPath("$.length()").value(1));
+    }
+
+    @Test
+    void lookupDevices_ShouldReturnDevicesAndMissingIds() throws Exception {
+        // Given
+        UUID missingId = UUID.randomUUID();
+        when(deviceService.lookupDevices(List.of(testId, missingId))).thenReturn(new DeviceLookup(List.of(testDevice), List.of(missingId)));
+
+        // When & Then
+        mockMvc.perform(post("/api/devices/lookup")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new DeviceLookupRequestDto(List.of(testId, missingId)))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.devices.length()").value(1))
+                .andExpect(jsonPath("$.devices[0].id").value(testId.toString()))
+                .andExpect(jsonPath("$.missing[0]").value(missingId.toString()));
+    }
+
+    @Test
+    void lookupDevices_WithIdsParameter_ShouldLookUpEveryId() throws Exception {
+        // Given
+        UUID otherId = UUID.randomUUID();
+        when(deviceService.lookupDevices(List.of(testId, otherId))).thenReturn(new DeviceLookup(List.of(testDevice), List.of(otherId)));
+
+        // When & Then
+        mockMvc.perform(get("/api/devices/lookup").param("ids", testId + "," + otherId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.devices[0].name").value("Test Device"));
+    }
+
+    @Test
+    void lookupDevices_WithInvalidId_ShouldReturnBadRequest() throws Exception {
+        // When & Then
+        mockMvc.perform(get("/api/devices/lookup").param("ids", testId + ",not-an-id"))
+                .andExpect(status().isBadRequest());
+
+        verify(deviceService, never()).lookupDevices(any());
+    }
+}
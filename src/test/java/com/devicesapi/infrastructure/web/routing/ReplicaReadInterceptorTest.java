@@ -0,0 +1,114 @@
+package com.devicesapi.infrastructure.web.routing;
+
+import com.devicesapi.infrastructure.routing.DeviceReadRouting;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReplicaReadInterceptorTest {
+
+    private static final Instant NOW = Instant.parse("2024-01-01T10:00:00Z");
+
+    private final ReplicaReadInterceptor interceptor = new ReplicaReadInterceptor(Duration.ofMillis(1500), Clock.fixed(NOW, ZoneOffset.UTC));
+
+    @AfterEach
+    void tearDown() {
+        DeviceReadRouting.clear();
+    }
+
+    @Test
+    void preHandle_ForAWrite_ShouldSetTheLastWriteCookieForTheWindow() throws Exception {
+        // Given
+        MockHttpServletRequest request = new MockHttpServletRequest("PATCH", "/api/devices/1");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // When
+        interceptor.preHandle(request, response, handler("write"));
+
+        // Then
+        Cookie cookie = response.getCookie(ReplicaReadInterceptor.LAST_WRITE_COOKIE);
+        assertThat(cookie).isNotNull();
+        assertThat(cookie.getValue()).isEqualTo(String.valueOf(NOW.toEpochMilli()));
+        assertThat(cookie.getMaxAge()).isEqualTo(2);
+        assertThat(cookie.isHttpOnly()).isTrue();
+    }
+
+    @Test
+    void preHandle_ForAReplicaReadSentAsPost_ShouldNotSetTheLastWriteCookie() throws Exception {
+        // Given
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/devices/lookup");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // When
+        interceptor.preHandle(request, response, handler("replicaRead"));
+
+        // Then
+        assertThat(response.getCookie(ReplicaReadInterceptor.LAST_WRITE_COOKIE)).isNull();
+    }
+
+    @Test
+    void preHandle_ForAReplicaRead_ShouldOpenAScopeWithTheClientsLastWrite() throws Exception {
+        // Given
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/devices");
+        request.setCookies(new Cookie(ReplicaReadInterceptor.LAST_WRITE_COOKIE, String.valueOf(NOW.minusSeconds(1).toEpochMilli())));
+
+        // When
+        interceptor.preHandle(request, new MockHttpServletResponse(), handler("replicaRead"));
+
+        // Then
+        assertThat(DeviceReadRouting.lastWrite()).isEqualTo(NOW.minusSeconds(1));
+    }
+
+    @Test
+    void preHandle_ForOtherReads_ShouldNotOpenAScope() throws Exception {
+        // Given
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/devices/paged");
+
+        // When
+        interceptor.preHandle(request, new MockHttpServletResponse(), handler("primaryRead"));
+
+        // Then
+        assertThat(DeviceReadRouting.lastWrite()).isNull();
+    }
+
+    @Test
+    void afterCompletion_ShouldCloseTheScope() throws Exception {
+        // Given
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/devices");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        interceptor.preHandle(request, response, handler("replicaRead"));
+
+        // When
+        interceptor.afterCompletion(request, response, handler("replicaRead"), null);
+
+        // Then
+        assertThat(DeviceReadRouting.lastWrite()).isNull();
+    }
+
+    private static HandlerMethod handler(String name) throws NoSuchMethodException {
+        return new HandlerMethod(new Handlers(), Handlers.class.getDeclaredMethod(name));
+    }
+
+    static class Handlers {
+
+        @ReplicaRead
+        void replicaRead() {
+        }
+
+        void primaryRead() {
+        }
+
+        void write() {
+        }
+    }
+}
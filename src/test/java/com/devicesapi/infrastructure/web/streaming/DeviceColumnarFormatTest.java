@@ -0,0 +1,93 @@
+package com.devicesapi.infrastructure.web.streaming;
+
+import com.devicesapi.application.dto.DeviceResponseDto;
+import com.devicesapi.domain.entities.Device;
+import com.devicesapi.domain.enums.Brand;
+import com.devicesapi.domain.enums.State;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class DeviceColumnarFormatTest {
+
+    @Test
+    void readAll_AfterWriteAll_ShouldReturnSameDevicesAcrossBlocks() throws IOException {
+        // Given
+        List<Device> devices = new ArrayList<>();
+        LocalDateTime base = LocalDateTime.of(2024, 3, 1, 12, 0, 0, 123_456_000);
+        for (int i = 0; i < 2_500; i++) {
+            devices.add(Device.createWithIdAndTime(UUID.randomUUID(), "Device " + i + " \u00E9\u65E5".repeat(i % 3),
+                    Brand.values()[i % Brand.values().length], State.values()[i % State.values().length], base.minusSeconds(i)));
+        }
+        devices.add(Device.createWithIdAndTime(UUID.randomUUID(), null, null, null, null));
+        devices.add(Device.createWithIdAndTime(UUID.randomUUID(), "x".repeat(300), Brand.APPLE, State.IN_USE,
+                LocalDateTime.of(1960, 1, 1, 0, 0)));
+
+        // When
+        List<Device> read = DeviceColumnarReader.readAll(new ByteArrayInputStream(write(devices)));
+
+        // Then
+        assertThat(read).isEqualTo(devices);
+    }
+
+    @Test
+    void write_ShouldTruncateCreationTimesToMicroseconds() throws IOException {
+        // Given
+        Device device = Device.createWithIdAndTime(UUID.randomUUID(), "iPhone", Brand.APPLE, State.AVAILABLE,
+                LocalDateTime.of(2024, 1, 1, 0, 0, 0, 123_456_789));
+
+        // When
+        List<Device> read = DeviceColumnarReader.readAll(new ByteArrayInputStream(write(List.of(device))));
+
+        // Then
+        assertThat(read).singleElement().extracting(Device::getCreationTime)
+                .isEqualTo(LocalDateTime.of(2024, 1, 1, 0, 0, 0, 123_456_000));
+    }
+
+    @Test
+    void write_ShouldBeMuchSmallerThanJson() throws IOException {
+        // Given
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        List<Device> devices = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            devices.add(Device.createWithIdAndTime(UUID.randomUUID(), "Device " + i, Brand.values()[i % Brand.values().length],
+                    State.values()[i % State.values().length], LocalDateTime.now().minusSeconds(i)));
+        }
+
+        // When
+        int columnar = write(devices).length;
+        int json = objectMapper.writeValueAsBytes(devices.stream().map(DeviceResponseDto::fromDomain).toList()).length;
+
+        // Then
+        assertThat(columnar).isLessThan(json / 3);
+    }
+
+    @Test
+    void readAll_WithOtherContent_ShouldFail() {
+        // When & Then
+        assertThatThrownBy(() -> DeviceColumnarReader.readAll(new ByteArrayInputStream("[{}]".getBytes())))
+                .isInstanceOf(IOException.class);
+    }
+
+    private byte[] write(List<Device> devices) throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        DeviceColumnarWriter writer = new DeviceColumnarWriter(outputStream);
+        writer.writeAll(devices);
+        writer.finish();
+        return outputStream.toByteArray();
+    }
+}
@@ -0,0 +1,93 @@
+package com.devicesapi.infrastructure.web.streaming;
+
+import com.devicesapi.application.dto.DeviceResponseDto;
+import com.devicesapi.domain.entities.Device;
+import com.devicesapi.domain.enums.Brand;
+import com.devicesapi.domain.enums.State;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DeviceJsonWriterTest {
+
+    private ObjectMapper objectMapper;
+
+    @BeforeEach
+    void setUp() {
+        // What Spring Boot's JacksonAutoConfiguration builds: ISO dates instead of timestamp arrays
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+    }
+
+    @Test
+    void writeArray_WithTrickyNamesAndTimes_ShouldMatchJacksonByteForByte() throws IOException {
+        // Given
+        List<Device> devices = List.of(
+                device("Plain", LocalDateTime.of(2024, 1, 1, 0, 0)),
+                device("Quote \" and \\ backslash", LocalDateTime.of(2024, 2, 29, 23, 59, 59, 120_000_000)),
+                device("Tab\tnew\nline\r\b\f\u0001\u001F", LocalDateTime.of(1999, 12, 31, 1, 2, 3, 1)),
+                device("\u00DCn\u00EFc\u00F6d\u00E9 \u2013 \u65E5\u672C \uD83D\uDE00 \uD83D", LocalDateTime.of(2024, 6, 1, 12, 30, 0, 123_456_000)),
+                device("</script>", LocalDateTime.of(10_000, 1, 1, 0, 0)),
+                Device.createWithIdAndTime(new UUID(0, 0), null, null, null, null),
+                Device.createWithIdAndTime(new UUID(-1, -1), "", Brand.XIAOMI, State.IN_USE, LocalDateTime.of(5, 3, 4, 5, 6, 7)));
+
+        // When
+        byte[] written = write(devices);
+
+        // Then
+        assertThat(written).isEqualTo(jackson(devices));
+    }
+
+    @Test
+    void writeArray_WithMoreThanOneBuffer_ShouldMatchJacksonByteForByte() throws IOException {
+        // Given
+        List<Device> devices = new ArrayList<>();
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < 2_000; i++) {
+            devices.add(device("Device " + i + " " + "x".repeat(i % 300), now.minusNanos(i * 7_919L)));
+        }
+
+        // When
+        byte[] written = write(devices);
+
+        // Then
+        assertThat(written).isEqualTo(jackson(devices));
+    }
+
+    @Test
+    void writeArray_WithoutDevices_ShouldWriteEmptyArray() throws IOException {
+        // When
+        byte[] written = write(List.of());
+
+        // Then
+        assertThat(new String(written)).isEqualTo("[]");
+    }
+
+    private byte[] write(List<Device> devices) throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        DeviceJsonWriter writer = new DeviceJsonWriter(outputStream);
+        writer.writeArray(devices);
+        writer.flush();
+        return outputStream.toByteArray();
+    }
+
+    private byte[] jackson(List<Device> devices) throws IOException {
+        return objectMapper.writeValueAsBytes(devices.stream().map(DeviceResponseDto::fromDomain).toList());
+    }
+
+    private Device device(String name, LocalDateTime creationTime) {
+        return Device.createWithIdAndTime(UUID.randomUUID(), name, Brand.APPLE, State.AVAILABLE, creationTime);
+    }
+}
@@ -0,0 +1,259 @@
+package com.devicesapi.infrastructure.writebehind;
+
+import com.devicesapi.domain.changes.DeviceStateUpdate;
+import com.devicesapi.domain.changes.DeviceWriteResult;
+import com.devicesapi.domain.entities.Device;
+import com.devicesapi.domain.enums.Brand;
+import com.devicesapi.domain.enums.DeviceWriteOutcome;
+import com.devicesapi.domain.enums.State;
+import com.devicesapi.domain.ports.DevicePersistencePort;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class WriteBehindDevicePersistenceTest {
+
+    @Mock
+    private DevicePersistencePort delegate;
+
+    private SimpleMeterRegistry meterRegistry;
+    private WriteBehindDevicePersistence writeBehind;
+    private Device available;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        writeBehind = writeBehind(500);
+        available = Device.createWithIdAndTime(UUID.randomUUID(), "iPhone", Brand.APPLE, State.AVAILABLE, LocalDateTime.now())
+                .withVersion(3L);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        writeBehind.close();
+    }
+
+    @Test
+    void updateUnlessInUse_WithRepeatedStateFlips_ShouldWriteOnlyTheLatestState() {
+        // Given
+        when(delegate.findById(available.getId())).thenReturn(Optional.of(available));
+        when(delegate.updateStates(anyMap())).thenAnswer(invocation -> List.copyOf(invocation.<Map<UUID, DeviceStateUpdate>>getArgument(0).keySet()));
+
+        // When
+        for (int i = 0; i < 10_000; i++) {
+            State state = i % 2 == 0 ? State.INACTIVE : State.AVAILABLE;
+            assertThat(writeBehind.updateUnlessInUse(available.getId(), Device.createNew(null, null, state), null).outcome())
+                    .isEqualTo(DeviceWriteOutcome.APPLIED);
+        }
+        writeBehind.flush();
+
+        // Then
+        verify(delegate).updateStates(Map.of(available.getId(), new DeviceStateUpdate(State.AVAILABLE, 10_000)));
+        verify(delegate, times(1)).findById(available.getId());
+        verify(delegate, never()).updateUnlessInUse(any(), any(), any());
+        assertThat(writeBehind.pendingCount()).isZero();
+    }
+
+    @Test
+    void updateUnlessInUse_AfterPendingInUse_ShouldRejectFurtherChanges() {
+        // Given
+        when(delegate.findById(available.getId())).thenReturn(Optional.of(available));
+        writeBehind.updateUnlessInUse(available.getId(), Device.createNew(null, null, State.IN_USE), null);
+
+        // When
+        DeviceWriteOutcome outcome = writeBehind.updateUnlessInUse(available.getId(), Device.createNew(null, null, State.INACTIVE), null).outcome();
+
+        // Then
+        assertThat(outcome).isEqualTo(DeviceWriteOutcome.IN_USE);
+        assertThat(writeBehind.findById(available.getId())).get()
+                .extracting(Device::getState, Device::getVersion)
+                .containsExactly(State.IN_USE, 4L);
+    }
+
+    @Test
+    void findVersionById_AfterTwoCoalescedFlips_ShouldDifferFromTheVersionAfterTheFirst() {
+        // Given
+        when(delegate.findById(available.getId())).thenReturn(Optional.of(available));
+        when(delegate.findVersionById(available.getId())).thenReturn(Optional.of(3L));
+        writeBehind.updateUnlessInUse(available.getId(), Device.createNew(null, null, State.INACTIVE), null);
+        Long afterFirst = writeBehind.findVersionById(available.getId()).orElseThrow();
+
+        // When: flipped back to the state the stored row still has
+        writeBehind.updateUnlessInUse(available.getId(), Device.createNew(null, null, State.AVAILABLE), null);
+
+        // Then
+        assertThat(afterFirst).isEqualTo(4L);
+        assertThat(writeBehind.findVersionById(available.getId())).contains(5L);
+        assertThat(writeBehind.findById(available.getId())).get()
+                .extracting(Device::getState, Device::getVersion)
+                .containsExactly(State.AVAILABLE, 5L);
+    }
+
+    @Test
+    void flush_WhenTheStateChangesWhileWriting_ShouldKeepOnlyTheUnwrittenChangesPending() {
+        // Given
+        when(delegate.findById(available.getId())).thenReturn(Optional.of(available));
+        when(delegate.findVersionById(available.getId())).thenReturn(Optional.of(4L));
+        writeBehind.updateUnlessInUse(available.getId(), Device.createNew(null, null, State.INACTIVE), null);
+        when(delegate.updateStates(anyMap())).thenAnswer(invocation -> {
+            writeBehind.updateUnlessInUse(available.getId(), Device.createNew(null, null, State.AVAILABLE), null);
+            return List.of(available.getId());
+        });
+
+        // When: the stored row is at version 4 once the first change is written
+        writeBehind.flush();
+
+        // Then
+        assertThat(writeBehind.pendingCount()).isEqualTo(1);
+        assertThat(writeBehind.findVersionById(available.getId())).contains(5L);
+    }
+
+    @Test
+    void updateUnlessInUse_WithMissingDevice_ShouldReturnNotFoundWithoutQueueing() {
+        // Given
+        UUID id = UUID.randomUUID();
+        when(delegate.findById(id)).thenReturn(Optional.empty());
+
+        // When
+        DeviceWriteOutcome outcome = writeBehind.updateUnlessInUse(id, Device.createNew(null, null, State.INACTIVE), null).outcome();
+
+        // Then
+        assertThat(outcome).isEqualTo(DeviceWriteOutcome.NOT_FOUND);
+        assertThat(writeBehind.pendingCount()).isZero();
+    }
+
+    @Test
+    void updateUnlessInUse_WithExpectedVersion_ShouldWritePendingStateThenDelegate() {
+        // Given
+        when(delegate.findById(available.getId())).thenReturn(Optional.of(available));
+        when(delegate.updateStates(anyMap())).thenReturn(List.of(available.getId()));
+        writeBehind.updateUnlessInUse(available.getId(), Device.createNew(null, null, State.INACTIVE), null);
+        Device rename = Device.createNew("Renamed", null, null);
+        when(delegate.updateUnlessInUse(available.getId(), rename, 4L)).thenReturn(DeviceWriteResult.applied(available));
+
+        // When
+        DeviceWriteOutcome outcome = writeBehind.updateUnlessInUse(available.getId(), rename, 4L).outcome();
+
+        // Then
+        assertThat(outcome).isEqualTo(DeviceWriteOutcome.APPLIED);
+        var order = inOrder(delegate);
+        order.verify(delegate).updateStates(Map.of(available.getId(), DeviceStateUpdate.of(State.INACTIVE)));
+        order.verify(delegate).updateUnlessInUse(available.getId(), rename, 4L);
+    }
+
+    @Test
+    void findByState_WithPendingStates_ShouldWriteThemFirst() {
+        // Given
+        when(delegate.findById(available.getId())).thenReturn(Optional.of(available));
+        when(delegate.updateStates(anyMap())).thenReturn(List.of(available.getId()));
+        writeBehind.updateUnlessInUse(available.getId(), Device.createNew(null, null, State.INACTIVE), null);
+
+        // When
+        writeBehind.findByState(State.INACTIVE);
+
+        // Then
+        var order = inOrder(delegate);
+        order.verify(delegate).updateStates(Map.of(available.getId(), DeviceStateUpdate.of(State.INACTIVE)));
+        order.verify(delegate).findByState(State.INACTIVE);
+    }
+
+    @Test
+    void updateUnlessInUse_WhenBatchIsFull_ShouldWriteInBatchesOfConfiguredSize() throws InterruptedException {
+        // Given
+        writeBehind.close();
+        writeBehind = writeBehind(100);
+        List<Device> devices = new ArrayList<>();
+        for (int i = 0; i < 250; i++) {
+            Device device = Device.createWithIdAndTime(UUID.randomUUID(), "Device " + i, Brand.APPLE, State.AVAILABLE, LocalDateTime.now());
+            devices.add(device);
+            when(delegate.findById(device.getId())).thenReturn(Optional.of(device));
+        }
+        when(delegate.updateStates(anyMap())).thenAnswer(invocation -> List.copyOf(invocation.<Map<UUID, DeviceStateUpdate>>getArgument(0).keySet()));
+
+        // When
+        devices.forEach(device -> writeBehind.updateUnlessInUse(device.getId(), Device.createNew(null, null, State.INACTIVE), null));
+        writeBehind.close();
+
+        // Then
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Map<UUID, DeviceStateUpdate>> batches = ArgumentCaptor.forClass(Map.class);
+        verify(delegate, atLeast(3)).updateStates(batches.capture());
+        assertThat(batches.getAllValues()).allSatisfy(batch -> assertThat(batch).hasSizeLessThanOrEqualTo(100));
+        assertThat(batches.getAllValues().stream().mapToInt(Map::size).sum()).isEqualTo(250);
+        assertThat(writeBehind.pendingCount()).isZero();
+    }
+
+    @Test
+    void close_WhenTheFlushFails_ShouldRetryUntilWritten() throws InterruptedException {
+        // Given
+        when(delegate.findById(available.getId())).thenReturn(Optional.of(available));
+        when(delegate.updateStates(anyMap()))
+                .thenThrow(new DataAccessResourceFailureException("Connection refused"))
+                .thenReturn(List.of(available.getId()));
+        writeBehind.updateUnlessInUse(available.getId(), Device.createNew(null, null, State.INACTIVE), null);
+
+        // When
+        writeBehind.close();
+
+        // Then
+        verify(delegate, times(2)).updateStates(Map.of(available.getId(), DeviceStateUpdate.of(State.INACTIVE)));
+        assertThat(writeBehind.pendingCount()).isZero();
+    }
+
+    @Test
+    void close_WhenEveryAttemptFails_ShouldGiveUpAndKeepTheStatesPending() throws InterruptedException {
+        // Given
+        when(delegate.findById(available.getId())).thenReturn(Optional.of(available));
+        when(delegate.updateStates(anyMap())).thenThrow(new DataAccessResourceFailureException("Connection refused"));
+        writeBehind.updateUnlessInUse(available.getId(), Device.createNew(null, null, State.INACTIVE), null);
+
+        // When
+        writeBehind.close();
+
+        // Then
+        verify(delegate, times(WriteBehindDevicePersistence.CLOSE_ATTEMPTS)).updateStates(anyMap());
+        assertThat(writeBehind.pendingCount()).isEqualTo(1);
+    }
+
+    @Test
+    void flush_WhenTheDatabaseRejectsAState_ShouldCountItAsDropped() {
+        // Given
+        when(delegate.findById(available.getId())).thenReturn(Optional.of(available));
+        when(delegate.updateStates(anyMap())).thenReturn(List.of());
+        writeBehind.updateUnlessInUse(available.getId(), Device.createNew(null, null, State.INACTIVE), null);
+
+        // When
+        writeBehind.flush();
+
+        // Then
+        assertThat(meterRegistry.get(WriteBehindDevicePersistence.DROPPED).counter().count()).isEqualTo(1);
+        assertThat(writeBehind.pendingCount()).isZero();
+    }
+
+    private WriteBehindDevicePersistence writeBehind(int batchSize) {
+        // Long enough that only explicit flushes write in these tests
+        return new WriteBehindDevicePersistence(delegate, Duration.ofHours(1), batchSize,
+                TransactionOperations.withoutTransaction(), meterRegistry);
+    }
+}